@@ -2300,6 +2300,7 @@ public class DataLoader implements CommandLineRunner {
             Task task = taskRepository.findById(taskId).orElseThrow();
             task.getChecklistItems().get(0).setChecked(true);
             task.getChecklistItems().get(1).setChecked(true);
+            task.syncChecklistCounts();
             taskRepository.save(task);
         }
 
@@ -2501,6 +2502,7 @@ public class DataLoader implements CommandLineRunner {
             item.setTask(task);
             task.getChecklistItems().add(item);
         }
+        task.syncChecklistCounts();
     }
 
     private AuditLog auditLog(
@@ -0,0 +1,34 @@
+package cc.desuka.demo.broadcast;
+
+/**
+ * Fan-out for WebSocket broadcasts that must reach clients on every node, not just the one that
+ * produced them. Callers use it in place of {@code SimpMessagingTemplate}; each node still
+ * delivers to its own clients through its own in-memory broker.
+ *
+ * <p>{@link LocalBroadcastBus} is the single-JVM implementation; {@link StompRelayBroadcastBus}
+ * relays through an external STOMP broker. Selected by {@code app.broadcast.mode} (see {@link
+ * cc.desuka.demo.config.BroadcastConfig}).
+ */
+public interface BroadcastBus {
+
+    /** Sends {@code payload} to {@code destination} subscribers on every node. */
+    void convertAndSend(String destination, Object payload);
+
+    /** Sends {@code payload} to {@code user}'s sessions on every node. */
+    void convertAndSendToUser(String user, String destination, Object payload);
+
+    /**
+     * Shares this node's presence with the other nodes, which receive it as a {@link
+     * NodePresence} application event.
+     */
+    void sharePresence(NodePresence presence);
+
+    /**
+     * Shares a committed write with the other nodes, which receive it as a {@link DataChange}
+     * application event.
+     */
+    void shareDataChange(DataChange change);
+
+    /** Whether other nodes can exist — when false there is no remote presence to share. */
+    boolean isClustered();
+}
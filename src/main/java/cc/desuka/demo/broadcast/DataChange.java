@@ -0,0 +1,39 @@
+package cc.desuka.demo.broadcast;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.event.TaskPushEvent;
+import cc.desuka.demo.model.Task;
+import java.util.UUID;
+
+/**
+ * A committed write on another node, in just enough detail for this node's in-memory read models
+ * (scope versions, task snapshot, typeahead index) to catch up: the entity type and id, the action,
+ * and for tasks the project. All-null means "anything may have changed" — published locally after
+ * the relay was unreachable, since writes relayed in the meantime were lost.
+ */
+public record DataChange(String entityType, String entityId, String action, UUID projectId) {
+
+    public static final String TASK = Task.class.getSimpleName();
+
+    /** A task write; {@code action} is the {@link TaskPushEvent} action. */
+    public static DataChange of(TaskPushEvent event) {
+        return new DataChange(TASK, event.taskId().toString(), event.action(), event.projectId());
+    }
+
+    /** A project, sprint, tag or user write; {@code action} is the {@link AuditEvent} action. */
+    public static DataChange of(AuditEvent event) {
+        return new DataChange(event.getEntityType(), event.getEntityId(), event.getAction(), null);
+    }
+
+    public static DataChange everything() {
+        return new DataChange(null, null, null, null);
+    }
+
+    public boolean affectsAll() {
+        return entityType == null;
+    }
+
+    public boolean affectsTask() {
+        return TASK.equals(entityType);
+    }
+}
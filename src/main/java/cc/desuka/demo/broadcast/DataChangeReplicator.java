@@ -0,0 +1,49 @@
+package cc.desuka.demo.broadcast;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.event.TaskPushEvent;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.Sprint;
+import cc.desuka.demo.model.Tag;
+import cc.desuka.demo.model.User;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Shares this node's committed writes with the other nodes as {@link DataChange}s, so their scope
+ * versions, task snapshots and typeahead indexes follow writes they did not make. Only task writes
+ * and the audit types those read models react to are relayed. A no-op on a single-node bus.
+ */
+@Component
+public class DataChangeReplicator {
+
+    private static final Set<String> RELAYED_ENTITY_TYPES =
+            Set.of(
+                    Project.class.getSimpleName(),
+                    Sprint.class.getSimpleName(),
+                    Tag.class.getSimpleName(),
+                    User.class.getSimpleName());
+
+    private final BroadcastBus broadcastBus;
+
+    public DataChangeReplicator(BroadcastBus broadcastBus) {
+        this.broadcastBus = broadcastBus;
+    }
+
+    @TransactionalEventListener
+    public void onTaskPush(TaskPushEvent event) {
+        if (broadcastBus.isClustered()) {
+            broadcastBus.shareDataChange(DataChange.of(event));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onAudit(AuditEvent event) {
+        if (broadcastBus.isClustered()
+                && event.getEntityId() != null
+                && RELAYED_ENTITY_TYPES.contains(event.getEntityType())) {
+            broadcastBus.shareDataChange(DataChange.of(event));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package cc.desuka.demo.broadcast;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+/** Single-node {@link BroadcastBus}: everything goes straight to this JVM's broker. */
+public class LocalBroadcastBus implements BroadcastBus {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public LocalBroadcastBus(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void convertAndSend(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+
+    @Override
+    public void convertAndSendToUser(String user, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(user, destination, payload);
+    }
+
+    /** No other nodes — nothing to share. */
+    @Override
+    public void sharePresence(NodePresence presence) {}
+
+    /** No other nodes — nothing to share. */
+    @Override
+    public void shareDataChange(DataChange change) {}
+
+    @Override
+    public boolean isClustered() {
+        return false;
+    }
+}
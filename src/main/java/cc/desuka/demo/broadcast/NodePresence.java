@@ -0,0 +1,18 @@
+package cc.desuka.demo.broadcast;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One node's complete local presence: its online users with display names, and the viewers of
+ * each scoped presence topic. Always the full state, so a receiver simply replaces what it held
+ * for {@code nodeId}; an empty state means the node is leaving.
+ */
+public record NodePresence(
+        String nodeId, Map<UUID, String> users, Map<String, Set<UUID>> viewers) {
+
+    public static NodePresence leaving(String nodeId) {
+        return new NodePresence(nodeId, Map.of(), Map.of());
+    }
+}
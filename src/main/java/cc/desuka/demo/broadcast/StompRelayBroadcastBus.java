@@ -0,0 +1,304 @@
+package cc.desuka.demo.broadcast;
+
+import cc.desuka.demo.config.BroadcastProperties;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandler;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@link BroadcastBus} for several nodes behind a load balancer. Every broadcast is delivered to
+ * this node's clients right away and also published, as a JSON envelope tagged with this node's
+ * id, to {@code app.broadcast.relay-destination} on an external STOMP broker. Every node
+ * subscribes to that destination and hands envelopes from other nodes to its own broker, so the
+ * external broker is only a backplane — browsers keep talking to their node, and presence and
+ * per-user queues keep working unchanged.
+ *
+ * <p>When the relay is down, local delivery carries on and relayed messages are dropped (clients
+ * on other nodes catch up on their next refresh); the connection is retried every {@code
+ * reconnect-delay}. Presence is full state on every share, so it heals on the next snapshot.
+ * Data changes are not: on reconnecting after an outage this node publishes {@link
+ * DataChange#everything()} locally and to the other nodes, so every node's read models resync from
+ * the database.
+ *
+ * <p>{@link DataChange} events are published on a single applier thread, in arrival order, so the
+ * database re-reads and rebuilds they trigger never hold up the relay's inbound thread.
+ */
+public class StompRelayBroadcastBus implements BroadcastBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StompRelayBroadcastBus.class);
+
+    /**
+     * Opens the relay session — a {@code WebSocketStompClient} in production, an in-memory broker
+     * in tests.
+     */
+    @FunctionalInterface
+    public interface Connector {
+        CompletableFuture<StompSession> connect(StompSessionHandler handler);
+    }
+
+    enum Kind {
+        TOPIC,
+        USER,
+        PRESENCE,
+        DATA_CHANGE
+    }
+
+    /** Wire format on the relay destination. {@code user} is set for {@code USER} only. */
+    record Envelope(String origin, Kind kind, String destination, String user, JsonNode payload) {}
+
+    private final BroadcastProperties properties;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Connector connector;
+
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+    // Set when the relay was unreachable: other nodes' changes may have been missed
+    private final AtomicBoolean missedChanges = new AtomicBoolean();
+    private final Object sendLock = new Object();
+    private volatile StompSession session;
+    private volatile boolean running;
+    private volatile ExecutorService applier;
+
+    public StompRelayBroadcastBus(
+            BroadcastProperties properties,
+            SimpMessagingTemplate messagingTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            Connector connector) {
+        this.properties = properties;
+        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.connector = connector;
+    }
+
+    // ── BroadcastBus ─────────────────────────────────────────────────────
+
+    @Override
+    public void convertAndSend(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+        publish(Kind.TOPIC, destination, null, payload);
+    }
+
+    @Override
+    public void convertAndSendToUser(String user, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(user, destination, payload);
+        publish(Kind.USER, destination, user, payload);
+    }
+
+    @Override
+    public void sharePresence(NodePresence presence) {
+        publish(Kind.PRESENCE, null, null, presence);
+    }
+
+    @Override
+    public void shareDataChange(DataChange change) {
+        publish(Kind.DATA_CHANGE, null, null, change);
+    }
+
+    @Override
+    public boolean isClustered() {
+        return true;
+    }
+
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    // ── Lifecycle ────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        applier =
+                Executors.newSingleThreadExecutor(
+                        Thread.ofPlatform().name("broadcast-apply").daemon().factory());
+        running = true;
+        connect();
+    }
+
+    /** Tells the other nodes this node's users are gone, then disconnects. */
+    @Override
+    public void stop() {
+        running = false;
+        sharePresence(NodePresence.leaving(properties.getNodeId()));
+        StompSession current = session;
+        session = null;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        applier.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void connect() {
+        if (!running) return;
+        connector
+                .connect(new RelayHandler())
+                .whenComplete(
+                        (connected, ex) -> {
+                            if (ex != null) {
+                                missedChanges.set(true);
+                                log.warn(
+                                        "Broadcast relay {} unavailable: {}",
+                                        properties.getRelayUrl(),
+                                        ex.getMessage());
+                                scheduleReconnect();
+                            }
+                        });
+    }
+
+    private void scheduleReconnect() {
+        if (!running || !reconnectPending.compareAndSet(false, true)) return;
+        CompletableFuture.runAsync(
+                () -> {
+                    reconnectPending.set(false);
+                    connect();
+                },
+                CompletableFuture.delayedExecutor(
+                        properties.getReconnectDelay().toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private void publish(Kind kind, String destination, String user, Object payload) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            log.debug("Broadcast relay not connected, {} {} not relayed", kind, destination);
+            return;
+        }
+        try {
+            Envelope envelope =
+                    new Envelope(
+                            properties.getNodeId(),
+                            kind,
+                            destination,
+                            user,
+                            objectMapper.valueToTree(payload));
+            byte[] frame = objectMapper.writeValueAsBytes(envelope);
+            // One writer at a time: the WebSocket session rejects concurrent sends
+            synchronized (sendLock) {
+                current.send(properties.getRelayDestination(), frame);
+            }
+        } catch (RuntimeException e) {
+            log.warn(
+                    "Broadcast relay send failed for {} {}: {}",
+                    kind,
+                    destination,
+                    e.getMessage());
+        }
+    }
+
+    private void receive(byte[] frame) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(frame, Envelope.class);
+        } catch (RuntimeException e) {
+            log.warn("Broadcast relay dropped an unreadable frame: {}", e.getMessage());
+            return;
+        }
+        // Our own broadcasts were delivered locally when sent
+        if (properties.getNodeId().equals(envelope.origin())) return;
+        switch (envelope.kind()) {
+            case TOPIC ->
+                    messagingTemplate.convertAndSend(envelope.destination(), envelope.payload());
+            case USER ->
+                    messagingTemplate.convertAndSendToUser(
+                            envelope.user(), envelope.destination(), envelope.payload());
+            case PRESENCE ->
+                    eventPublisher.publishEvent(
+                            objectMapper.treeToValue(envelope.payload(), NodePresence.class));
+            case DATA_CHANGE ->
+                    apply(objectMapper.treeToValue(envelope.payload(), DataChange.class));
+        }
+    }
+
+    /** Publishes {@code change} on the applier thread, after the changes received before it. */
+    private void apply(DataChange change) {
+        try {
+            applier.execute(
+                    () -> {
+                        try {
+                            eventPublisher.publishEvent(change);
+                        } catch (RuntimeException e) {
+                            log.warn(
+                                    "Broadcast relay could not apply {}: {}",
+                                    change,
+                                    e.getMessage());
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            log.debug("Broadcast relay stopped, {} not applied", change);
+        }
+    }
+
+    /** Subscribes on connect, feeds frames to {@link #receive}, reconnects on transport loss. */
+    private final class RelayHandler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(StompSession connected, StompHeaders connectedHeaders) {
+            connected.subscribe(properties.getRelayDestination(), this);
+            session = connected;
+            log.info(
+                    "Broadcast relay connected to {} as node {}",
+                    properties.getRelayUrl(),
+                    properties.getNodeId());
+            // Changes went unrelayed both ways during the outage: resync here and everywhere
+            if (missedChanges.getAndSet(false)) {
+                apply(DataChange.everything());
+                shareDataChange(DataChange.everything());
+            }
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            receive((byte[]) payload);
+        }
+
+        @Override
+        public void handleException(
+                StompSession failed,
+                StompCommand command,
+                StompHeaders headers,
+                byte[] payload,
+                Throwable exception) {
+            log.warn("Broadcast relay frame error: {}", exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession failed, Throwable exception) {
+            if (session == failed) {
+                session = null;
+                missedChanges.set(true);
+                log.warn("Broadcast relay connection lost: {}", exception.getMessage());
+            }
+            scheduleReconnect();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package cc.desuka.demo.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Execution settings for {@link cc.desuka.demo.service.AnalyticsService}.
+ *
+ * <p>The chart sections (status, priority, workload, burndown, velocity, overdue, effort) fan out
+ * through {@link cc.desuka.demo.service.ParallelReads} (switched and bounded by {@link
+ * ParallelReadProperties}); {@code sectionTimeout} is the deadline they share. Either way,
+ * identical in-flight requests share one computation.
+ *
+ * <p>With {@code snapshot} on, admin whole-system analytics aggregate over the in-memory {@link
+ * cc.desuka.demo.snapshot.TaskSnapshotService} instead of the {@code tasks} table.
+ *
+ * <pre>
+ * # application-prod.properties
+ *  * app.analytics.section-timeout=10s
+ * app.analytics.burndown-query=three-scans
+ * app.analytics.snapshot=false
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.analytics")
+public class AnalyticsProperties {
+
+    /**
+     * Deadline shared by the sections in parallel mode. Also applied as each section's transaction
+     * timeout (rounded up to whole seconds), which caps the JDBC statements it issues.
+     */
+    private Duration sectionTimeout = Duration.ofSeconds(5);
+
+    /** How the live (not yet rolled-up) part of the burndown series is counted. */
+    private BurndownQuery burndownQuery = BurndownQuery.WINDOW;
+
+    /** Serve admin whole-system aggregates from the in-memory task snapshot once it is built. */
+    private boolean snapshot = true;
+
+    public enum BurndownQuery {
+        /**
+         * One native query: a calendar series joined to per-day created/completed deltas, summed
+         * with a running window over an opening count (Postgres and H2 variants).
+         */
+        WINDOW,
+        /**
+         * Opening count, created per day and completed per day as three JPQL queries, merged in
+         * Java.
+         */
+        THREE_SCANS
+    }
+}
@@ -134,4 +134,7 @@ public class AppRoutesProperties {
             new RouteTemplate("/topic/projects/{projectId}/tasks");
     private RouteTemplate topicTaskComments = new RouteTemplate("/topic/tasks/{taskId}/comments");
     private RouteTemplate topicPresence = new RouteTemplate("/topic/presence");
+    private RouteTemplate topicProjectPresence =
+            new RouteTemplate("/topic/projects/{projectId}/presence");
+    private RouteTemplate topicTaskPresence = new RouteTemplate("/topic/tasks/{taskId}/presence");
 }
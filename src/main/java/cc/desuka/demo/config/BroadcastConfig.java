@@ -0,0 +1,67 @@
+package cc.desuka.demo.config;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.broadcast.LocalBroadcastBus;
+import cc.desuka.demo.broadcast.StompRelayBroadcastBus;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Picks the {@link BroadcastBus} implementation for {@code app.broadcast.mode} (see {@link
+ * BroadcastProperties}).
+ */
+@Configuration
+public class BroadcastConfig {
+
+    @Bean
+    public BroadcastBus broadcastBus(
+            BroadcastProperties properties,
+            SimpMessagingTemplate messagingTemplate,
+            ApplicationEventPublisher eventPublisher,
+            JsonMapper jsonMapper) {
+        return switch (properties.getMode()) {
+            case LOCAL -> new LocalBroadcastBus(messagingTemplate);
+            // Boot's mapper, so relayed payloads serialize exactly as locally delivered ones
+            case STOMP_RELAY ->
+                    new StompRelayBroadcastBus(
+                            properties,
+                            messagingTemplate,
+                            eventPublisher,
+                            jsonMapper,
+                            relayConnector(properties));
+        };
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private static StompRelayBroadcastBus.Connector relayConnector(BroadcastProperties properties) {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        // Envelopes are JSON bytes the bus writes and reads itself
+        client.setMessageConverter(new ByteArrayMessageConverter());
+        // Heartbeats detect a half-open relay connection; daemon so it never holds up shutdown
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setThreadNamePrefix("broadcast-relay-");
+        heartbeatScheduler.setDaemon(true);
+        heartbeatScheduler.initialize();
+        client.setTaskScheduler(heartbeatScheduler);
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.setLogin(properties.getRelayLogin());
+        connectHeaders.setPasscode(properties.getRelayPasscode());
+        return handler ->
+                client.connectAsync(
+                        properties.getRelayUrl(),
+                        new WebSocketHttpHeaders(),
+                        connectHeaders,
+                        handler);
+    }
+}
@@ -0,0 +1,59 @@
+package cc.desuka.demo.config;
+
+import java.time.Duration;
+import java.util.UUID;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cross-node fan-out settings for {@link cc.desuka.demo.broadcast.BroadcastBus}.
+ *
+ * <p>{@code local} (the default) keeps every broadcast in this JVM. {@code stomp-relay} also
+ * publishes each one to {@code relayDestination} on an external STOMP broker (RabbitMQ Web-STOMP,
+ * ActiveMQ, …) that every node subscribes to, so task and comment pushes, user notifications and
+ * presence reach clients connected to any node. Each node shares its online users and viewers
+ * every {@code app.presence.broadcast-window} when they change and at least every {@code
+ * app.presence.snapshot-interval}; a node not heard from for {@code nodeTimeout} is dropped from
+ * everyone's presence.
+ *
+ * <pre>
+ * # application-prod.properties
+ * app.broadcast.mode=stomp-relay
+ * app.broadcast.relay-url=ws://rabbitmq:15674/ws
+ * app.broadcast.relay-login=demo
+ * app.broadcast.relay-passcode=secret
+ * app.broadcast.node-id=${HOSTNAME}
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.broadcast")
+public class BroadcastProperties {
+
+    public enum Mode {
+        LOCAL,
+        STOMP_RELAY
+    }
+
+    private Mode mode = Mode.LOCAL;
+
+    /** Identifies this node on the relay; a node ignores its own messages. */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /** WebSocket URL of the external broker's STOMP endpoint. */
+    private String relayUrl = "ws://localhost:15674/ws";
+
+    private String relayLogin = "guest";
+
+    private String relayPasscode = "guest";
+
+    /** Destination every node publishes to and subscribes to. */
+    private String relayDestination = "/topic/demo.broadcast";
+
+    /** Wait before reconnecting after the relay connection fails or drops. */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /** A node silent for this long (crashed, partitioned) is dropped from presence. */
+    private Duration nodeTimeout = Duration.ofSeconds(90);
+}
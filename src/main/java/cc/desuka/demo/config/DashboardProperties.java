@@ -0,0 +1,30 @@
+package cc.desuka.demo.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Execution settings for {@link cc.desuka.demo.service.DashboardService#buildStats}.
+ *
+ * <p>The dashboard's independent queries fan out through {@link
+ * cc.desuka.demo.service.ParallelReads} (switched and bounded by {@link ParallelReadProperties}).
+ * {@code branchTimeout} is the deadline they share; a branch that misses it renders empty.
+ *
+ * <pre>
+ * # application-prod.properties
+ * app.dashboard.branch-timeout=5s
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.dashboard")
+public class DashboardProperties {
+
+    /**
+     * Deadline shared by the branches in parallel mode. Also applied as each branch's transaction
+     * timeout (rounded up to whole seconds), which caps the JDBC statements it issues.
+     */
+    private Duration branchTimeout = Duration.ofSeconds(3);
+}
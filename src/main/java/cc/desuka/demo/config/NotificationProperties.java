@@ -0,0 +1,48 @@
+package cc.desuka.demo.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the asynchronous notification stage ({@link
+ * cc.desuka.demo.service.NotificationDispatcher}).
+ *
+ * <p>Producers only queue; every {@code flushInterval} the queue is drained in batches of {@code
+ * batchSize} — one JDBC-batched insert transaction and one WebSocket frame per recipient each. Keep
+ * {@code batchSize} in step with {@code hibernate.jdbc.batch_size}. A full queue makes the producer
+ * create its notification itself. A failed notification is retried after {@code retryBackoff}
+ * (times the attempt number), {@code maxAttempts} tries in all; at most {@code retryCapacity} wait
+ * for retry at once. Both queues are in memory and lost if the JVM dies.
+ *
+ * <pre>
+ * # application-prod.properties
+ * app.notifications.queue-capacity=50000
+ * app.notifications.flush-interval=250ms
+ * app.notifications.max-attempts=5
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.notifications")
+public class NotificationProperties {
+
+    /** Queued notifications before producers fall back to creating them inline. */
+    private int queueCapacity = 10_000;
+
+    /** Delay between queue drains. */
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /** Notifications per insert transaction. */
+    private int batchSize = 50;
+
+    /** Tries per notification, the first included, before it is dropped and logged. */
+    private int maxAttempts = 3;
+
+    /** Base delay before a failed notification is retried. */
+    private Duration retryBackoff = Duration.ofSeconds(2);
+
+    /** Failed notifications held for retry; past this further failures are dropped and logged. */
+    private int retryCapacity = 10_000;
+}
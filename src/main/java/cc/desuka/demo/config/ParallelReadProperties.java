@@ -0,0 +1,33 @@
+package cc.desuka.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for {@link cc.desuka.demo.service.ParallelReads}, the fan-out shared by the dashboard
+ * and analytics.
+ *
+ * <p>Each forked read runs in its own read-only transaction and so holds its own pooled connection.
+ * {@code maxConnections} caps how many of them run at once across all requests; keep it well below
+ * the Hikari pool ({@code spring.datasource.hikari.maximum-pool-size}, 10 by default) so ordinary
+ * requests always find a connection. A read that finds no permit free runs on the request thread
+ * instead. Disabled, every read runs in sequence in one read-only transaction.
+ *
+ * <pre>
+ * # application-prod.properties
+ * app.parallel-reads.enabled=false
+ * app.parallel-reads.max-connections=6
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.parallel-reads")
+public class ParallelReadProperties {
+
+    /** Fan independent reads out concurrently instead of running them in sequence. */
+    private boolean enabled = true;
+
+    /** Forked reads (and so pooled connections) in flight at once, across all requests. */
+    private int maxConnections = 4;
+}
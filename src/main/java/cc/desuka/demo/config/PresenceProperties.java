@@ -0,0 +1,40 @@
+package cc.desuka.demo.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcast settings for {@link cc.desuka.demo.presence.PresenceService}.
+ *
+ * <p>Connects and disconnects are coalesced: at most once per {@code broadcastWindow} the users who
+ * came online or went offline since the last broadcast go out as one delta. A full snapshot follows
+ * every {@code snapshotInterval} while anyone is online, so clients that missed a delta converge.
+ * Scoped presence (who is viewing a project page or task) is flushed on the same window, only to
+ * the scopes that changed.
+ *
+ * <pre>
+ * # application-prod.properties
+ * app.presence.broadcast-window=1s
+ * app.presence.snapshot-interval=60s
+ * app.presence.max-scopes-per-session=8
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.presence")
+public class PresenceProperties {
+
+    /** Coalescing window for join/leave deltas. */
+    private Duration broadcastWindow = Duration.ofMillis(500);
+
+    /** Interval between full snapshots while anyone is online. */
+    private Duration snapshotInterval = Duration.ofSeconds(30);
+
+    /**
+     * Presence scopes one STOMP session may join; further scope subscriptions still receive
+     * messages but are not counted as viewers. Bounds memory per connection.
+     */
+    private int maxScopesPerSession = 16;
+}
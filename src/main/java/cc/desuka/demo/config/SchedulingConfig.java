@@ -0,0 +1,38 @@
+package cc.desuka.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for the {@code @Scheduled} jobs in {@code ScheduledTaskService}. The nightly cron jobs
+ * run on {@code taskScheduler}; the sub-second realtime flushes (presence, task pushes,
+ * notifications) run on {@code realtimeScheduler}, so a long cron job never stalls them.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /** Default scheduler for {@code @Scheduled} — named so it wins over the broker's scheduler. */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return scheduler("scheduling-", 1);
+    }
+
+    /**
+     * Presence broadcasts and push/notification flushes; two threads so one slow run never holds
+     * up the others.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler realtimeScheduler() {
+        return scheduler("realtime-", 2);
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setPoolSize(poolSize);
+        return scheduler;
+    }
+}
@@ -45,6 +45,8 @@ public class SecurityConfig {
                                         .permitAll()
                                         .requestMatchers("/actuator/health", "/actuator/info")
                                         .permitAll()
+                                        .requestMatchers("/actuator/**")
+                                        .hasRole(Role.ADMIN.name())
                                         .requestMatchers("/login", "/register")
                                         .permitAll()
                                         .requestMatchers("/admin/**")
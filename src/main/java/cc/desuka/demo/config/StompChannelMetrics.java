@@ -0,0 +1,92 @@
+package cc.desuka.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * Micrometer instrumentation for the STOMP broker set up in {@link WebSocketConfig}.
+ *
+ * <ul>
+ *   <li>{@code stomp.channel.pending} (gauge, tag {@code channel}) — messages handed to a client
+ *       channel that have not started running yet: the inbound/outbound backlog
+ *   <li>{@code stomp.channel.latency} (timer, tag {@code channel}) — hand-off to handled; on the
+ *       outbound channel this is the fan-out latency from broker publish to the frame being
+ *       written to the session
+ *   <li>{@code stomp.sessions.evicted} (counter) — sessions closed for exceeding the send time or
+ *       buffer limit
+ * </ul>
+ */
+@Component
+public class StompChannelMetrics {
+
+    public static final String INBOUND = "inbound";
+    public static final String OUTBOUND = "outbound";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter evictions;
+
+    public StompChannelMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.evictions =
+                Counter.builder("stomp.sessions.evicted")
+                        .description("STOMP sessions closed as slow consumers")
+                        .register(meterRegistry);
+    }
+
+    /** Wraps a channel executor so every hand-off feeds that channel's backlog and latency. */
+    public Executor instrument(String channel, Executor delegate) {
+        AtomicInteger pending =
+                meterRegistry.gauge(
+                        "stomp.channel.pending", Tags.of("channel", channel), new AtomicInteger());
+        Timer latency =
+                Timer.builder("stomp.channel.latency")
+                        .tag("channel", channel)
+                        .register(meterRegistry);
+        return task -> {
+            long start = System.nanoTime();
+            pending.incrementAndGet();
+            try {
+                delegate.execute(
+                        () -> {
+                            pending.decrementAndGet();
+                            try {
+                                task.run();
+                            } finally {
+                                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Counts sessions the transport closes as {@link CloseStatus#SESSION_NOT_RELIABLE} — how the
+     * send time and buffer limits evict a slow consumer.
+     */
+    public WebSocketHandlerDecoratorFactory evictionCounter() {
+        return handler ->
+                new WebSocketHandlerDecorator(handler) {
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus status)
+                            throws Exception {
+                        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(status)) {
+                            evictions.increment();
+                        }
+                        super.afterConnectionClosed(session, status);
+                    }
+                };
+    }
+}
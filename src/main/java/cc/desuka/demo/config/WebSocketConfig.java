@@ -1,23 +1,128 @@
 package cc.desuka.demo.config;
 
+import cc.desuka.demo.security.TopicSubscriptionInterceptor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.SimpleBrokerRegistration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * STOMP over WebSocket with the in-memory simple broker, tuned by {@link WebSocketProperties}:
+ * sized client channel executors, per-session send limits that evict slow consumers, server
+ * heartbeats, {@link StompChannelMetrics} on both channels and the transport, and {@link
+ * TopicSubscriptionInterceptor} guarding project and task subscriptions.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
-public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer, DisposableBean {
+
+    private final WebSocketProperties properties;
+    private final StompChannelMetrics metrics;
+    private final TopicSubscriptionInterceptor subscriptionInterceptor;
+    private final TaskScheduler heartbeatScheduler;
+
+    // Created here rather than as beans (an Executor bean would displace Boot's
+    // applicationTaskExecutor), so their shutdown is ours too
+    private final List<DisposableBean> channelExecutors = new ArrayList<>();
+
+    // The broker's own scheduler — lazy because it is defined by the configuration this
+    // configurer feeds
+    public WebSocketConfig(
+            WebSocketProperties properties,
+            StompChannelMetrics metrics,
+            TopicSubscriptionInterceptor subscriptionInterceptor,
+            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler heartbeatScheduler) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.subscriptionInterceptor = subscriptionInterceptor;
+        this.heartbeatScheduler = heartbeatScheduler;
+    }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        SimpleBrokerRegistration broker = config.enableSimpleBroker("/topic", "/queue");
+        long heartbeat = properties.getHeartbeat().toMillis();
+        if (heartbeat > 0) {
+            broker.setHeartbeatValue(new long[] {heartbeat, heartbeat})
+                    .setTaskScheduler(heartbeatScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // Channel executors handle messages concurrently; keep each session's frames in order
+        config.setPreservePublishOrder(true);
+        config.setPreserveReceiveOrder(true);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration
+                .setSendTimeLimit(Math.toIntExact(properties.getSendTimeLimit().toMillis()))
+                .setSendBufferSizeLimit(
+                        Math.toIntExact(properties.getSendBufferSizeLimit().toBytes()))
+                .addDecoratorFactory(metrics.evictionCounter());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration
+                .executor(
+                        metrics.instrument(
+                                StompChannelMetrics.INBOUND, channelExecutor("stomp-in-")))
+                .interceptors(subscriptionInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(
+                metrics.instrument(StompChannelMetrics.OUTBOUND, channelExecutor("stomp-out-")));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DisposableBean executor : channelExecutors) {
+            executor.destroy();
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private Executor channelExecutor(String threadNamePrefix) {
+        int concurrency = properties.getChannelConcurrency();
+        if (properties.isVirtualThreadChannels()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            // Beyond the limit execute() blocks — the sender waits instead of piling up threads
+            executor.setConcurrencyLimit(concurrency);
+            channelExecutors.add(executor::close);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(properties.getChannelQueueCapacity());
+        // A full queue runs the message on the sending thread — backpressure, not dropped frames
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        channelExecutors.add(executor);
+        return executor;
+    }
 }
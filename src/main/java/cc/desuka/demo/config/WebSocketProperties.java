@@ -0,0 +1,67 @@
+package cc.desuka.demo.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Broker and broadcast settings for the STOMP endpoint (see {@link WebSocketConfig}).
+ *
+ * <p>The client inbound and outbound channels run either on virtual threads, with at most {@code
+ * channelConcurrency} messages in flight before senders block, or on a fixed pool of {@code
+ * channelConcurrency} platform threads with a bounded queue. A session that takes longer than
+ * {@code sendTimeLimit} to accept a frame, or lets more than {@code sendBufferSizeLimit} pile up
+ * behind one, is closed as a slow consumer (the client reconnects and resubscribes), so one stalled
+ * tab cannot hold up the outbound channel for everyone.
+ *
+ * <p>Task push events are coalesced per project: events committed within one {@code
+ * taskPushWindow} go out as a single {@link cc.desuka.demo.event.TaskPushBatch} frame, and a
+ * project's batch is sent early once it holds {@code taskPushMaxBatch} events.
+ *
+ * <pre>
+ * # application-prod.properties
+ * app.websocket.virtual-thread-channels=false
+ * app.websocket.channel-concurrency=16
+ * app.websocket.send-time-limit=3s
+ * app.websocket.heartbeat=20s
+ * app.websocket.task-push-window=500ms
+ * app.websocket.task-push-max-batch=250
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketProperties {
+
+    /** Run the client channels on virtual threads instead of a fixed platform-thread pool. */
+    private boolean virtualThreadChannels = true;
+
+    /**
+     * Virtual threads: messages in flight per channel before senders block. Thread pool: threads
+     * per channel.
+     */
+    private int channelConcurrency = 64;
+
+    /**
+     * Thread pool only: messages queued per channel before the sender runs the message itself —
+     * backpressure on the publisher rather than dropped frames.
+     */
+    private int channelQueueCapacity = 1000;
+
+    /** Longest a single send to one session may take before the session is evicted. */
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+
+    /** Frames buffered for a session behind an in-progress send before it is evicted. */
+    private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(256);
+
+    /** Server heartbeat interval in both directions; zero disables heartbeats. */
+    private Duration heartbeat = Duration.ofSeconds(10);
+
+    /** Flush window for coalesced task push frames. */
+    private Duration taskPushWindow = Duration.ofMillis(200);
+
+    /** Events per project that trigger an immediate flush. */
+    private int taskPushMaxBatch = 100;
+}
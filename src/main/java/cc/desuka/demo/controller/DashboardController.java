@@ -1,27 +1,49 @@
 package cc.desuka.demo.controller;
 
+import cc.desuka.demo.dto.DashboardStats;
 import cc.desuka.demo.model.User;
+import cc.desuka.demo.presence.PresenceService;
+import cc.desuka.demo.search.TaskScopeVersions;
 import cc.desuka.demo.security.AuthExpressions;
 import cc.desuka.demo.security.CustomUserDetails;
 import cc.desuka.demo.service.DashboardService;
 import cc.desuka.demo.service.ProjectQueryService;
+import cc.desuka.demo.service.TaskQueryService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.WebRequest;
 
 @Controller
 public class DashboardController {
 
+    // Browsers keep the fragment but revalidate it (If-None-Match) on every refresh
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final DashboardService dashboardService;
     private final ProjectQueryService projectQueryService;
+    private final TaskQueryService taskQueryService;
+    private final PresenceService presenceService;
+    private final TaskScopeVersions taskScopeVersions;
 
     public DashboardController(
-            DashboardService dashboardService, ProjectQueryService projectQueryService) {
+            DashboardService dashboardService,
+            ProjectQueryService projectQueryService,
+            TaskQueryService taskQueryService,
+            PresenceService presenceService,
+            TaskScopeVersions taskScopeVersions) {
         this.dashboardService = dashboardService;
         this.projectQueryService = projectQueryService;
+        this.taskQueryService = taskQueryService;
+        this.presenceService = presenceService;
+        this.taskScopeVersions = taskScopeVersions;
     }
 
     // GET /dashboard - Personal dashboard
@@ -32,26 +54,71 @@ public class DashboardController {
         return "dashboard/dashboard";
     }
 
-    // GET /dashboard/stats - HTMX fragment for real-time refresh
+    // GET /dashboard/stats - HTMX fragment for real-time refresh; 304 while nothing changed
     @GetMapping("/dashboard/stats")
     public String dashboardStats(
-            @AuthenticationPrincipal CustomUserDetails currentDetails, Model model) {
-        addStats(currentDetails, model);
+            @AuthenticationPrincipal CustomUserDetails currentDetails,
+            Model model,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+        User currentUser = currentDetails.getUser();
+        // Stamp before building: a write committing mid-build leaves the ETag already stale
+        List<Long> versions = taskScopeVersions.stamp(null, null);
+        String etag = statsETag(currentUser, versions);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        DashboardStats stats = addStats(currentDetails, model);
+        if (stats.partial()) {
+            // Not stored at all, so no 304 can pin it: the next refresh rebuilds it
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return "dashboard/dashboard-stats";
+        }
+        // Re-tag after building: an admin's render may have reloaded the counter snapshot
+        etag = statsETag(currentUser, versions);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        }
         return "dashboard/dashboard-stats";
     }
 
-    private void addStats(CustomUserDetails currentDetails, Model model) {
+    private DashboardStats addStats(CustomUserDetails currentDetails, Model model) {
         User currentUser = currentDetails.getUser();
         List<UUID> accessibleProjectIds =
                 AuthExpressions.isAdmin(currentUser)
                         ? null
                         : projectQueryService.getAccessibleProjectIds(currentUser.getId());
-        model.addAttribute("stats", dashboardService.buildStats(currentUser, accessibleProjectIds));
+        DashboardStats stats = dashboardService.buildStats(currentUser, accessibleProjectIds);
+        model.addAttribute("stats", stats);
         // Project IDs for WebSocket subscriptions (always a concrete list, never null)
         List<UUID> wsProjectIds =
                 accessibleProjectIds != null
                         ? accessibleProjectIds
                         : projectQueryService.getAllActiveProjectIds();
         model.addAttribute("wsProjectIds", wsProjectIds);
+        return stats;
+    }
+
+    /**
+     * Version of a user's stats fragment. Recent activity spans all projects, so any task write
+     * changes it, as do the online count and the date. Admin totals come from the shared counter
+     * snapshot, so they are only taggable while that snapshot is fresh (null otherwise).
+     */
+    private String statsETag(User user, List<Long> versions) {
+        Long counters = null;
+        if (AuthExpressions.isAdmin(user)) {
+            counters = taskQueryService.currentCounterSnapshotId();
+            if (counters == null) {
+                return null;
+            }
+        }
+        return taskScopeVersions.etag(
+                "dashboard-stats",
+                user.getId(),
+                LocalDate.now(),
+                presenceService.getOnlineCount(),
+                versions,
+                counters);
     }
 }
@@ -2,10 +2,13 @@ package cc.desuka.demo.controller;
 
 import cc.desuka.demo.config.AppRoutesProperties;
 import cc.desuka.demo.config.UserPreferences;
+import cc.desuka.demo.dto.CursorPage;
 import cc.desuka.demo.dto.ProjectListQuery;
 import cc.desuka.demo.dto.ProjectRequest;
 import cc.desuka.demo.dto.RecurringTaskTemplateRequest;
 import cc.desuka.demo.dto.SprintRequest;
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.dto.TaskCursor;
 import cc.desuka.demo.dto.TaskListQuery;
 import cc.desuka.demo.dto.TaskSearchCriteria;
 import cc.desuka.demo.mapper.ProjectMapper;
@@ -47,9 +50,10 @@ import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -190,6 +194,7 @@ public class ProjectController {
             @ModelAttribute TaskListQuery query,
             @RequestParam(required = false) String view,
             @RequestParam(required = false) YearMonth month,
+            @RequestParam(required = false) String cursor,
             @CookieValue(name = "pageSize", required = false, defaultValue = "25")
                     int pageSizeCookie,
             @PageableDefault(
@@ -292,7 +297,8 @@ public class ProjectController {
 
         if (UserPreferences.VIEW_BOARD.equals(resolvedView)) {
             Pageable unpaged = Pageable.unpaged(Sort.by(Sort.Direction.ASC, Task.FIELD_CREATED_AT));
-            List<Task> tasks = taskQueryService.searchTasks(criteria, unpaged).getContent();
+            List<TaskCardView> tasks =
+                    taskQueryService.searchTaskCards(criteria, unpaged).getContent();
             model.addAttribute("tasksByStatus", taskQueryService.groupByStatus(tasks));
             model.addAttribute("statuses", TaskStatus.values());
             if (HtmxUtils.isHtmxRequest(request)) {
@@ -304,7 +310,23 @@ public class ProjectController {
         if (!request.getParameterMap().containsKey("size")) {
             pageable = PageRequest.of(pageable.getPageNumber(), pageSizeCookie, pageable.getSort());
         }
-        Page<Task> taskPage = taskQueryService.searchTasks(criteria, pageable);
+        // Cursor mode (opt-in via ?cursor=): keyset window, no total count. Falls back to offset
+        // paging when the requested sort cannot be keyed (multi-column or nullable column).
+        Slice<TaskCardView> taskPage;
+        if (cursor != null && TaskCursor.supports(pageable.getSort())) {
+            CursorPage<TaskCardView> window =
+                    taskQueryService.searchTaskCards(
+                            criteria, cursor, pageable.getPageSize(), pageable.getSort());
+            taskPage =
+                    new SliceImpl<>(
+                            window.content(),
+                            PageRequest.of(0, pageable.getPageSize(), pageable.getSort()),
+                            window.hasNext());
+            model.addAttribute("cursorMode", true);
+            model.addAttribute("nextCursor", window.nextCursor());
+        } else {
+            taskPage = taskQueryService.searchTaskCards(criteria, pageable);
+        }
         model.addAttribute("taskPage", taskPage);
 
         if (HtmxUtils.isHtmxRequest(request)) {
@@ -329,10 +351,8 @@ public class ProjectController {
         Project project = projectQueryService.getProjectById(id);
         TaskSearchCriteria criteria = query.toCriteria(id);
 
-        Pageable unpaged = Pageable.unpaged(pageable.getSort());
-        List<Task> tasks = taskQueryService.searchTasks(criteria, unpaged).getContent();
-
-        taskReport.exportCsv(response, project.getName() + "-tasks.csv", tasks);
+        taskReport.exportCsv(
+                response, project.getName() + "-tasks.csv", criteria, pageable.getSort());
     }
 
     // GET /projects/{id}/settings - Project settings (owner or admin only)
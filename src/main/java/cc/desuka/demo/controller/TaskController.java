@@ -3,6 +3,9 @@ package cc.desuka.demo.controller;
 import cc.desuka.demo.config.AppRoutesProperties;
 import cc.desuka.demo.config.UserPreferences;
 import cc.desuka.demo.dto.BulkTaskRequest;
+import cc.desuka.demo.dto.CursorPage;
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.dto.TaskCursor;
 import cc.desuka.demo.dto.TaskFormRequest;
 import cc.desuka.demo.dto.TaskListQuery;
 import cc.desuka.demo.dto.TaskSearchCriteria;
@@ -52,9 +55,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -130,6 +134,7 @@ public class TaskController {
             @ModelAttribute TaskListQuery query,
             @RequestParam(required = false) String view,
             @RequestParam(required = false) YearMonth month,
+            @RequestParam(required = false) String cursor,
             @CookieValue(name = "pageSize", required = false, defaultValue = "25")
                     int pageSizeCookie,
             @PageableDefault(
@@ -204,10 +209,11 @@ public class TaskController {
 
         if (UserPreferences.VIEW_BOARD.equals(resolvedView)) {
             Pageable unpaged = Pageable.unpaged(Sort.by(Sort.Direction.ASC, Task.FIELD_CREATED_AT));
-            List<Task> tasks = taskQueryService.searchTasks(criteria, unpaged).getContent();
+            List<TaskCardView> tasks =
+                    taskQueryService.searchTaskCards(criteria, unpaged).getContent();
             model.addAttribute("tasksByStatus", taskQueryService.groupByStatus(tasks));
             model.addAttribute("statuses", TaskStatus.values());
-            addProjectEditPermissions(tasks, currentDetails, model);
+            addProjectEditPermissions(projectIdsOf(tasks), currentDetails, model);
             if (HtmxUtils.isHtmxRequest(request)) {
                 return "tasks/task-board :: grid";
             }
@@ -217,9 +223,25 @@ public class TaskController {
         if (!request.getParameterMap().containsKey("size")) {
             pageable = PageRequest.of(pageable.getPageNumber(), pageSizeCookie, pageable.getSort());
         }
-        Page<Task> taskPage = taskQueryService.searchTasks(criteria, pageable);
+        // Cursor mode (opt-in via ?cursor=): keyset window, no total count. Falls back to offset
+        // paging when the requested sort cannot be keyed (multi-column or nullable column).
+        Slice<TaskCardView> taskPage;
+        if (cursor != null && TaskCursor.supports(pageable.getSort())) {
+            CursorPage<TaskCardView> window =
+                    taskQueryService.searchTaskCards(
+                            criteria, cursor, pageable.getPageSize(), pageable.getSort());
+            taskPage =
+                    new SliceImpl<>(
+                            window.content(),
+                            PageRequest.of(0, pageable.getPageSize(), pageable.getSort()),
+                            window.hasNext());
+            model.addAttribute("cursorMode", true);
+            model.addAttribute("nextCursor", window.nextCursor());
+        } else {
+            taskPage = taskQueryService.searchTaskCards(criteria, pageable);
+        }
         model.addAttribute("taskPage", taskPage);
-        addProjectEditPermissions(taskPage.getContent(), currentDetails, model);
+        addProjectEditPermissions(projectIdsOf(taskPage.getContent()), currentDetails, model);
 
         if (HtmxUtils.isHtmxRequest(request)) {
             return UserPreferences.VIEW_TABLE.equals(resolvedView)
@@ -229,7 +251,7 @@ public class TaskController {
         return "tasks/tasks";
     }
 
-    // GET /tasks/export - Download CSV of filtered tasks (same filters as listTasks, unpaged)
+    // GET /tasks/export - Stream CSV of filtered tasks (same filters as listTasks, unpaged)
     @GetMapping("/export")
     public void exportTasks(
             @ModelAttribute TaskListQuery query,
@@ -246,10 +268,7 @@ public class TaskController {
                                 currentDetails.getUser().getId());
         TaskSearchCriteria criteria = query.toCriteria(accessibleProjectIds);
 
-        Pageable unpaged = Pageable.unpaged(pageable.getSort());
-        List<Task> tasks = taskQueryService.searchTasks(criteria, unpaged).getContent();
-
-        taskReport.exportCsv(response, "tasks.csv", tasks);
+        taskReport.exportCsv(response, "tasks.csv", criteria, pageable.getSort());
     }
 
     // GET /tasks/{id} - Show task in view (read-only) mode
@@ -493,7 +512,7 @@ public class TaskController {
         projectAccessGuard.requireEditAccess(existing.getProject().getId(), currentDetails);
         Task task = taskService.updateField(id, field, value);
         model.addAttribute("task", task);
-        addProjectEditPermissions(List.of(task), currentDetails, model);
+        addProjectEditPermissions(List.of(task.getProject().getId()), currentDetails, model);
         return "tasks/task-table-row :: row";
     }
 
@@ -638,7 +657,7 @@ public class TaskController {
     }
 
     private void addProjectEditPermissions(
-            List<Task> tasks, CustomUserDetails currentDetails, Model model) {
+            List<UUID> projectIds, CustomUserDetails currentDetails, Model model) {
         boolean isAdmin = AuthExpressions.isAdmin(currentDetails.getUser());
         if (isAdmin) {
             model.addAttribute("canEditProject", true);
@@ -646,14 +665,17 @@ public class TaskController {
         }
         UUID userId = currentDetails.getUser().getId();
         Map<UUID, Boolean> editByProject = new HashMap<>();
-        for (Task task : tasks) {
-            UUID projectId = task.getProject().getId();
+        for (UUID projectId : projectIds) {
             editByProject.computeIfAbsent(
                     projectId, pid -> projectQueryService.isEditor(pid, userId));
         }
         model.addAttribute("projectEditMap", editByProject);
     }
 
+    private static List<UUID> projectIdsOf(List<TaskCardView> tasks) {
+        return tasks.stream().map(task -> task.project().id()).toList();
+    }
+
     private void populateFormModel(
             Task task, FormMode mode, CustomUserDetails currentDetails, Model model) {
         model.addAttribute("task", task);
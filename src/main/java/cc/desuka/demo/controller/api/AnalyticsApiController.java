@@ -1,35 +1,49 @@
 package cc.desuka.demo.controller.api;
 
 import cc.desuka.demo.dto.AnalyticsResponse;
+import cc.desuka.demo.search.TaskScopeVersions;
 import cc.desuka.demo.security.AuthExpressions;
 import cc.desuka.demo.security.CustomUserDetails;
 import cc.desuka.demo.service.AnalyticsService;
 import cc.desuka.demo.service.ProjectQueryService;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/analytics")
 public class AnalyticsApiController {
 
+    // Browsers keep the response but revalidate it (If-None-Match) on every poll
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AnalyticsService analyticsService;
     private final ProjectQueryService projectQueryService;
+    private final TaskScopeVersions taskScopeVersions;
 
     public AnalyticsApiController(
-            AnalyticsService analyticsService, ProjectQueryService projectQueryService) {
+            AnalyticsService analyticsService,
+            ProjectQueryService projectQueryService,
+            TaskScopeVersions taskScopeVersions) {
         this.analyticsService = analyticsService;
         this.projectQueryService = projectQueryService;
+        this.taskScopeVersions = taskScopeVersions;
     }
 
+    // GET /api/analytics — cross-project analytics; 304 while nothing in scope has changed
     @GetMapping
-    public AnalyticsResponse getCrossProjectAnalytics(
+    public ResponseEntity<AnalyticsResponse> getCrossProjectAnalytics(
             @RequestParam(required = false) List<UUID> projectIds,
-            @AuthenticationPrincipal CustomUserDetails currentDetails) {
+            @AuthenticationPrincipal CustomUserDetails currentDetails,
+            WebRequest webRequest) {
         boolean isAdmin = AuthExpressions.isAdmin(currentDetails.getUser());
 
         // If caller specified projectIds, intersect with accessible set for security
@@ -46,6 +60,22 @@ public class AnalyticsApiController {
                             : accessibleProjectIds;
         }
 
-        return analyticsService.getCrossProjectAnalytics(effectiveProjectIds);
+        // Overdue and burndown move with the calendar, so the date is part of the version
+        String etag =
+                taskScopeVersions.etag(
+                        "analytics",
+                        effectiveProjectIds,
+                        LocalDate.now(),
+                        taskScopeVersions.stamp(null, effectiveProjectIds));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        AnalyticsResponse analytics =
+                analyticsService.getCrossProjectAnalytics(effectiveProjectIds);
+        // A partial response is not stored, so no 304 can pin it
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(analytics.partial() ? CacheControl.noStore() : REVALIDATE)
+                .body(analytics);
     }
 }
@@ -16,7 +16,6 @@ public class PresenceApiController {
 
     @GetMapping("/api/presence")
     public PresenceResponse getPresence() {
-        return new PresenceResponse(
-                presenceService.getOnlineUsers(), presenceService.getOnlineCount());
+        return presenceService.getPresence();
     }
 }
@@ -5,33 +5,44 @@ import cc.desuka.demo.dto.UserResponse;
 import cc.desuka.demo.mapper.UserMapper;
 import cc.desuka.demo.model.ProjectRole;
 import cc.desuka.demo.model.User;
+import cc.desuka.demo.search.TaskScopeVersions;
 import cc.desuka.demo.security.CustomUserDetails;
 import cc.desuka.demo.security.ProjectAccessGuard;
 import cc.desuka.demo.service.AnalyticsService;
 import cc.desuka.demo.service.ProjectQueryService;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectApiController {
 
+    // Browsers keep the response but revalidate it (If-None-Match) on every poll
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ProjectQueryService projectQueryService;
     private final UserMapper userMapper;
     private final AnalyticsService analyticsService;
     private final ProjectAccessGuard projectAccessGuard;
+    private final TaskScopeVersions taskScopeVersions;
 
     public ProjectApiController(
             ProjectQueryService projectQueryService,
             UserMapper userMapper,
             AnalyticsService analyticsService,
-            ProjectAccessGuard projectAccessGuard) {
+            ProjectAccessGuard projectAccessGuard,
+            TaskScopeVersions taskScopeVersions) {
         this.projectQueryService = projectQueryService;
         this.userMapper = userMapper;
         this.analyticsService = analyticsService;
         this.projectAccessGuard = projectAccessGuard;
+        this.taskScopeVersions = taskScopeVersions;
     }
 
     // GET /api/projects/{id}/members — all enabled members
@@ -61,16 +72,32 @@ public class ProjectApiController {
         return userMapper.toResponseList(members);
     }
 
-    // GET /api/projects/{id}/analytics — project analytics data
+    // GET /api/projects/{id}/analytics — project analytics data; 304 while the project is unchanged
     @GetMapping("/{id}/analytics")
-    public AnalyticsResponse getProjectAnalytics(
+    public ResponseEntity<AnalyticsResponse> getProjectAnalytics(
             @PathVariable UUID id,
             @RequestParam(required = false) Long sprintId,
-            @AuthenticationPrincipal CustomUserDetails currentDetails) {
+            @AuthenticationPrincipal CustomUserDetails currentDetails,
+            WebRequest webRequest) {
         projectAccessGuard.requireViewAccess(id, currentDetails);
-        if (sprintId != null) {
-            return analyticsService.getProjectAnalytics(id, sprintId);
+        String etag =
+                taskScopeVersions.etag(
+                        "project-analytics",
+                        id,
+                        sprintId,
+                        LocalDate.now(),
+                        taskScopeVersions.stamp(id, null));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
-        return analyticsService.getProjectAnalytics(id);
+        AnalyticsResponse analytics =
+                sprintId != null
+                        ? analyticsService.getProjectAnalytics(id, sprintId)
+                        : analyticsService.getProjectAnalytics(id);
+        // A partial response is not stored, so no 304 can pin it
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(analytics.partial() ? CacheControl.noStore() : REVALIDATE)
+                .body(analytics);
     }
 }
@@ -26,9 +26,12 @@ public class TagApiController {
     }
 
     // GET /api/tags
+    // GET /api/tags?q=back&limit=10
     @GetMapping
-    public List<TagResponse> getAllTags() {
-        return tagMapper.toResponseList(tagQueryService.getAllTags());
+    public List<TagResponse> getAllTags(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return tagMapper.toResponseList(tagQueryService.suggestTags(q, limit));
     }
 
     // GET /api/tags/1
@@ -1,5 +1,6 @@
 package cc.desuka.demo.controller.api;
 
+import cc.desuka.demo.dto.CursorPage;
 import cc.desuka.demo.dto.TaskItem;
 import cc.desuka.demo.dto.TaskListQuery;
 import cc.desuka.demo.dto.TaskRequest;
@@ -69,6 +70,29 @@ public class TaskApiController {
         return taskQueryService.searchTasks(criteria, pageable).map(taskMapper::toResponse);
     }
 
+    // GET /api/tasks?cursor=&size=50&sort=priorityOrder,desc
+    // GET /api/tasks?cursor=<nextCursor from previous response>&size=50&sort=priorityOrder,desc
+    // Opt-in keyset paging: no total count, follow nextCursor until it is null. Same filters as
+    // above; sort must be a single createdAt, updatedAt, priorityOrder or title column.
+    @GetMapping(params = "cursor")
+    public CursorPage<TaskResponse> getTasksByCursor(
+            @ModelAttribute TaskListQuery query,
+            @RequestParam String cursor,
+            @ParameterObject
+                    @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+                    Pageable pageable,
+            @AuthenticationPrincipal CustomUserDetails currentDetails) {
+        List<UUID> accessibleProjectIds =
+                AuthExpressions.isAdmin(currentDetails.getUser())
+                        ? null
+                        : projectQueryService.getAccessibleProjectIds(
+                                currentDetails.getUser().getId());
+        TaskSearchCriteria criteria = query.toCriteria(accessibleProjectIds);
+        return taskQueryService
+                .searchTasks(criteria, cursor, pageable.getPageSize(), pageable.getSort())
+                .map(taskMapper::toResponse);
+    }
+
     // GET /api/tasks/5
     @GetMapping("/{id}")
     public TaskResponse getTaskById(
@@ -35,10 +35,13 @@ public class UserApiController {
     }
 
     // GET /api/users
-    // GET /api/users?q=ali
+    // GET /api/users?q=ali&limit=10
+    // With q: top matches from the typeahead index (mention autocomplete). Without: all enabled.
     @GetMapping
-    public List<UserResponse> getAllUsers(@RequestParam(required = false) String q) {
-        return userMapper.toResponseList(userQueryService.searchEnabledUsers(q));
+    public List<UserResponse> getAllUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return userMapper.toResponseList(userQueryService.suggestEnabledUsers(q, limit));
     }
 
     // GET /api/users/{id}
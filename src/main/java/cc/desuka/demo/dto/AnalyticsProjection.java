@@ -14,14 +14,14 @@ public final class AnalyticsProjection {
         UUID userId();
     }
 
-    public record ProjectStatusCount(UUID projectId, TaskStatus status, long count) {}
-
-    public record ProjectCount(UUID projectId, long count) {}
-
     public record UserStatusCount(UUID userId, TaskStatus status, long count)
             implements UserScoped {}
 
     public record UserCount(UUID userId, long count) implements UserScoped {}
 
     public record DailyCount(LocalDate date, long value) {}
+
+    /** One day of {@code task_daily_rollups}, summed over the groups in scope. */
+    public record DailyRollup(
+            LocalDate date, long created, long completed, long open, long effortCompleted) {}
 }
@@ -4,6 +4,10 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Chart data for the analytics views. {@code partial} marks a response where a section missed its
+ * deadline and came back empty; it is served uncached.
+ */
 public record AnalyticsResponse(
         StatusBreakdown statusBreakdown,
         PriorityBreakdown priorityBreakdown,
@@ -11,7 +15,8 @@ public record AnalyticsResponse(
         List<BurndownPoint> burndown,
         List<VelocityPoint> velocity,
         OverdueAnalysis overdueAnalysis,
-        EffortDistribution effortDistribution) {
+        EffortDistribution effortDistribution,
+        boolean partial) {
 
     public record StatusBreakdown(Map<String, Long> counts) {}
 
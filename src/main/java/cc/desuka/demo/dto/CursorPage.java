@@ -0,0 +1,19 @@
+package cc.desuka.demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One window of a keyset-paged list. Unlike a {@code Page}, it carries no total count — callers
+ * follow {@code nextCursor} until it is {@code null}.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), size, nextCursor);
+    }
+}
@@ -30,4 +30,7 @@ public record DashboardStats(
         Map<String, String> activityTaskTitles,
 
         // Editable projects for "New Task" button
-        List<Project> editableProjects) {}
+        List<Project> editableProjects,
+
+        // A branch missed its deadline and rendered empty; not cacheable
+        boolean partial) {}
@@ -1,5 +1,11 @@
 package cc.desuka.demo.dto;
 
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
 import java.util.List;
 
-public record PresenceResponse(List<String> users, int count) {}
+/**
+ * {@code GET /api/presence}. {@code users} are display names, sorted; {@code online} and {@code
+ * version} let a topic subscriber apply {@link PresenceUpdate} deltas on top of this response.
+ */
+public record PresenceResponse(
+        List<String> users, int count, List<OnlineUser> online, long version) {}
@@ -0,0 +1,21 @@
+package cc.desuka.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Message on the presence topic. A {@code SNAPSHOT} lists everyone online; a {@code DELTA} lists
+ * users who came online (or were renamed) in {@code users} and users who went offline in {@code
+ * left}. Deltas are numbered consecutively from the last snapshot's {@code version}; a client that
+ * sees a gap re-fetches {@code /api/presence}.
+ */
+public record PresenceUpdate(
+        Type type, long version, int count, List<OnlineUser> users, List<UUID> left) {
+
+    public enum Type {
+        SNAPSHOT,
+        DELTA
+    }
+
+    public record OnlineUser(UUID id, String name) {}
+}
@@ -0,0 +1,11 @@
+package cc.desuka.demo.dto;
+
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
+import java.util.List;
+
+/**
+ * Message on a scoped presence topic ({@code /topic/projects/{id}/presence}, {@code
+ * /topic/tasks/{id}/presence}): everyone currently viewing that project page or task, sorted by
+ * name. Sent in full — scopes are small — whenever the viewer set changes.
+ */
+public record ScopedPresenceUpdate(List<OnlineUser> viewers) {}
@@ -0,0 +1,43 @@
+package cc.desuka.demo.dto;
+
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.TaskStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a task for the list views (cards, table, board): exactly the columns
+ * those templates read, plus tags, selected as plain values — no managed entities, lazy proxies or
+ * dirty-checking snapshots.
+ *
+ * <p>Component names mirror the {@link cc.desuka.demo.model.Task} property paths ({@code
+ * task.project.id}, {@code task.user.name}, {@code task.tags}), so the same fragments render
+ * either a view or an entity (e.g. after an HTMX toggle). {@code version} lets the live update
+ * controllers tell whether a pushed task delta applies to what was rendered.
+ */
+public record TaskCardView(
+        UUID id,
+        Long version,
+        String title,
+        String description,
+        TaskStatus status,
+        Priority priority,
+        LocalDate dueDate,
+        Short effort,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        boolean blocked,
+        int checklistTotal,
+        int checklistChecked,
+        ProjectRef project,
+        UserRef user,
+        List<TagRef> tags) {
+
+    public record ProjectRef(UUID id, String name) {}
+
+    public record UserRef(UUID id, String name) {}
+
+    public record TagRef(Long id, String name) {}
+}
@@ -0,0 +1,28 @@
+package cc.desuka.demo.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * System-wide task counters plus every assignee's {@link UserTaskCounts}, computed in one pass
+ * over tasks and shared briefly between admin dashboards (see {@code
+ * TaskQueryService#getCounterSnapshot}).
+ *
+ * @param asOf date overdue was evaluated against (null for {@link #EMPTY})
+ */
+public record TaskCounterSnapshot(
+        LocalDate asOf,
+        long total,
+        long open,
+        long completed,
+        long overdue,
+        Map<UUID, UserTaskCounts> byUser) {
+
+    public static final TaskCounterSnapshot EMPTY =
+            new TaskCounterSnapshot(null, 0, 0, 0, 0, Map.of());
+
+    public UserTaskCounts forUser(UUID userId) {
+        return byUser.getOrDefault(userId, UserTaskCounts.NONE);
+    }
+}
@@ -0,0 +1,147 @@
+package cc.desuka.demo.dto;
+
+import cc.desuka.demo.model.Task;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset position in a sorted task list: the sort column value of the last row on a page plus that
+ * row's UUID as a tie-breaker. Clients only ever see the {@link #encode() opaque string form}.
+ *
+ * <p>Only non-null columns can be used as keyset keys — a NULL sort value has no well-defined
+ * "after" position. {@link #SUPPORTED_FIELDS} lists the allowed sort fields.
+ */
+public record TaskCursor(String field, Sort.Direction direction, Object value, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    /** Sort fields usable in cursor mode, mapped to the parser for their encoded value. */
+    private static final Map<String, Function<String, Object>> SUPPORTED_FIELDS =
+            Map.of(
+                    Task.FIELD_CREATED_AT, LocalDateTime::parse,
+                    Task.FIELD_UPDATED_AT, LocalDateTime::parse,
+                    Task.FIELD_PRIORITY_ORDER, Short::valueOf,
+                    Task.FIELD_TITLE, s -> s);
+
+    /** Default order when the request carries no sort — matches the offset list default. */
+    public static final Sort.Order DEFAULT_ORDER = Sort.Order.desc(Task.FIELD_CREATED_AT);
+
+    /**
+     * Resolves the single keyset order from a request sort. Unsorted requests use {@link
+     * #DEFAULT_ORDER}; multi-column sorts and nullable columns are rejected.
+     */
+    public static Sort.Order resolveOrder(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return DEFAULT_ORDER;
+        }
+        if (sort.stream().count() > 1) {
+            throw new IllegalArgumentException("Cursor paging supports a single sort column");
+        }
+        Sort.Order order = sort.iterator().next();
+        if (!SUPPORTED_FIELDS.containsKey(order.getProperty())) {
+            throw new IllegalArgumentException(
+                    "Cursor paging does not support sorting by " + order.getProperty());
+        }
+        return order;
+    }
+
+    /** True when {@code sort} can be served in cursor mode (see {@link #resolveOrder}). */
+    public static boolean supports(Sort sort) {
+        return sort == null
+                || sort.isUnsorted()
+                || (sort.stream().count() == 1
+                        && SUPPORTED_FIELDS.containsKey(sort.iterator().next().getProperty()));
+    }
+
+    /** The full ORDER BY for a keyset query: the sort column, then id in the same direction. */
+    public static Sort keysetSort(Sort.Order order) {
+        return Sort.by(order, new Sort.Order(order.getDirection(), Task.FIELD_ID));
+    }
+
+    /** Builds the cursor pointing just past {@code task} in the given order. */
+    public static TaskCursor after(Task task, Sort.Order order) {
+        Object value =
+                switch (order.getProperty()) {
+                    case Task.FIELD_CREATED_AT -> task.getCreatedAt();
+                    case Task.FIELD_UPDATED_AT -> task.getUpdatedAt();
+                    case Task.FIELD_PRIORITY_ORDER -> task.getPriorityOrder();
+                    case Task.FIELD_TITLE -> task.getTitle();
+                    default -> throw unsupported(order);
+                };
+        return new TaskCursor(order.getProperty(), order.getDirection(), value, task.getId());
+    }
+
+    /** Builds the cursor pointing just past a list-view projection in the given order. */
+    public static TaskCursor after(TaskCardView task, Sort.Order order) {
+        Object value =
+                switch (order.getProperty()) {
+                    case Task.FIELD_CREATED_AT -> task.createdAt();
+                    case Task.FIELD_UPDATED_AT -> task.updatedAt();
+                    case Task.FIELD_PRIORITY_ORDER -> task.priority().getSortOrder();
+                    case Task.FIELD_TITLE -> task.title();
+                    default -> throw unsupported(order);
+                };
+        return new TaskCursor(order.getProperty(), order.getDirection(), value, task.id());
+    }
+
+    /**
+     * Decodes an opaque cursor and checks that it was issued for {@code order}. Blank input means
+     * "first page" and returns {@code null}.
+     */
+    public static TaskCursor decode(String encoded, Sort.Order order) {
+        if (encoded == null || encoded.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        // field|direction|id|value — value last so titles may contain the separator
+        String[] parts = raw.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || !SUPPORTED_FIELDS.containsKey(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+        if (!parts[0].equals(order.getProperty()) || direction != order.getDirection()) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            return new TaskCursor(
+                    parts[0],
+                    direction,
+                    SUPPORTED_FIELDS.get(parts[0]).apply(parts[3]),
+                    UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /** Whether {@link #decode} accepts {@code encoded} for {@code order}; blank input is valid. */
+    public static boolean isValid(String encoded, Sort.Order order) {
+        try {
+            decode(encoded, order);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static IllegalArgumentException unsupported(Sort.Order order) {
+        return new IllegalArgumentException(
+                "Cursor paging does not support sorting by " + order.getProperty());
+    }
+
+    public String encode() {
+        String raw = field + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
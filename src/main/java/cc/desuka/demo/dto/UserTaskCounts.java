@@ -4,6 +4,8 @@ package cc.desuka.demo.dto;
 public record UserTaskCounts(
         long open, long inProgress, long inReview, long completed, long overdue) {
 
+    public static final UserTaskCounts NONE = new UserTaskCounts(0, 0, 0, 0, 0);
+
     public long total() {
         return open + inProgress + inReview + completed;
     }
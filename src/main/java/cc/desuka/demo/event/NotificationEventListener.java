@@ -6,7 +6,7 @@ import cc.desuka.demo.model.NotificationType;
 import cc.desuka.demo.model.Task;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.service.CommentQueryService;
-import cc.desuka.demo.service.NotificationService;
+import cc.desuka.demo.service.NotificationDispatcher;
 import cc.desuka.demo.service.UserQueryService;
 import cc.desuka.demo.util.MentionUtils;
 import cc.desuka.demo.util.Messages;
@@ -20,24 +20,26 @@ import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Centralized notification logic — listens for domain events published by services and decides who
- * gets notified. Same pattern as {@code AuditEventListener}.
+ * gets notified. Same pattern as {@code AuditEventListener}. Recipients are only queued on {@link
+ * NotificationDispatcher}, so the request pays for the recipient lookups, not per-recipient inserts
+ * and pushes.
  */
 @Component
 public class NotificationEventListener {
 
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final CommentQueryService commentQueryService;
     private final UserQueryService userQueryService;
     private final Messages messages;
     private final AppRoutesProperties appRoutes;
 
     public NotificationEventListener(
-            NotificationService notificationService,
+            NotificationDispatcher notificationDispatcher,
             CommentQueryService commentQueryService,
             UserQueryService userQueryService,
             Messages messages,
             AppRoutesProperties appRoutes) {
-        this.notificationService = notificationService;
+        this.notificationDispatcher = notificationDispatcher;
         this.commentQueryService = commentQueryService;
         this.userQueryService = userQueryService;
         this.messages = messages;
@@ -60,7 +62,7 @@ public class NotificationEventListener {
                         "notification.task.assigned",
                         actor != null ? actor.getName() : "System",
                         task.getTitle());
-        notificationService.create(
+        notificationDispatcher.submit(
                 assignee,
                 actor,
                 NotificationType.TASK_ASSIGNED,
@@ -84,7 +86,8 @@ public class NotificationEventListener {
         // Notify task owner
         User owner = task.getUser();
         if (owner != null && notifiedIds.add(owner.getId())) {
-            notificationService.create(owner, actor, NotificationType.TASK_UPDATED, message, link);
+            notificationDispatcher.submit(
+                    owner, actor, NotificationType.TASK_UPDATED, message, link);
         }
 
         // Notify commenters and @mentioned users (batch lookup)
@@ -94,7 +97,7 @@ public class NotificationEventListener {
             Map<UUID, User> subscribers = userQueryService.findAllByIds(subscriberIds);
             notifiedIds.addAll(subscribers.keySet());
             for (User subscriber : subscribers.values()) {
-                notificationService.create(
+                notificationDispatcher.submit(
                         subscriber, actor, NotificationType.TASK_UPDATED, message, link);
             }
         }
@@ -116,7 +119,7 @@ public class NotificationEventListener {
         // Notify task owner
         User taskOwner = task.getUser();
         if (taskOwner != null && notifiedIds.add(taskOwner.getId())) {
-            notificationService.create(
+            notificationDispatcher.submit(
                     taskOwner, actor, NotificationType.COMMENT_ADDED, message, link);
         }
 
@@ -127,7 +130,7 @@ public class NotificationEventListener {
             Map<UUID, User> subscribers = userQueryService.findAllByIds(subscriberIds);
             notifiedIds.addAll(subscribers.keySet());
             for (User subscriber : subscribers.values()) {
-                notificationService.create(
+                notificationDispatcher.submit(
                         subscriber, actor, NotificationType.COMMENT_ADDED, message, link);
             }
         }
@@ -143,7 +146,7 @@ public class NotificationEventListener {
             Map<UUID, User> mentionedUsers = userQueryService.findAllByIds(newMentionIds);
             notifiedIds.addAll(mentionedUsers.keySet());
             for (User mentioned : mentionedUsers.values()) {
-                notificationService.create(
+                notificationDispatcher.submit(
                         mentioned, actor, NotificationType.COMMENT_MENTIONED, mentionMessage, link);
             }
         }
@@ -1,8 +1,8 @@
 package cc.desuka.demo.event;
 
+import cc.desuka.demo.broadcast.BroadcastBus;
 import cc.desuka.demo.service.PinnedItemService;
 import cc.desuka.demo.util.EntityTypes;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 
@@ -10,12 +10,11 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class PinnedItemEventListener {
 
     private final PinnedItemService pinnedItemService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastBus broadcastBus;
 
-    public PinnedItemEventListener(
-            PinnedItemService pinnedItemService, SimpMessagingTemplate messagingTemplate) {
+    public PinnedItemEventListener(PinnedItemService pinnedItemService, BroadcastBus broadcastBus) {
         this.pinnedItemService = pinnedItemService;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcastBus = broadcastBus;
     }
 
     @TransactionalEventListener
@@ -32,6 +31,6 @@ public class PinnedItemEventListener {
 
     @TransactionalEventListener
     public void onPinnedItemPush(PinnedItemPushEvent event) {
-        messagingTemplate.convertAndSendToUser(event.userEmail(), "/queue/pins", event.payload());
+        broadcastBus.convertAndSendToUser(event.userEmail(), "/queue/pins", event.payload());
     }
 }
@@ -1,8 +1,8 @@
 package cc.desuka.demo.event;
 
+import cc.desuka.demo.broadcast.BroadcastBus;
 import cc.desuka.demo.service.RecentViewService;
 import cc.desuka.demo.util.EntityTypes;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 
@@ -10,12 +10,11 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class RecentViewEventListener {
 
     private final RecentViewService recentViewService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastBus broadcastBus;
 
-    public RecentViewEventListener(
-            RecentViewService recentViewService, SimpMessagingTemplate messagingTemplate) {
+    public RecentViewEventListener(RecentViewService recentViewService, BroadcastBus broadcastBus) {
         this.recentViewService = recentViewService;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcastBus = broadcastBus;
     }
 
     @TransactionalEventListener
@@ -35,7 +34,7 @@ public class RecentViewEventListener {
 
     @TransactionalEventListener
     public void onRecentViewPush(RecentViewPushEvent event) {
-        messagingTemplate.convertAndSendToUser(
+        broadcastBus.convertAndSendToUser(
                 event.userEmail(), "/queue/recent-views", event.payload());
     }
 }
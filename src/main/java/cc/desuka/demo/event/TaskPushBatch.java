@@ -0,0 +1,10 @@
+package cc.desuka.demo.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One frame on {@code /topic/projects/{projectId}/tasks}: the project's {@link TaskPushEvent}s
+ * collected by {@link TaskPushCoalescer}, in commit order, so each task's events keep their order.
+ */
+public record TaskPushBatch(UUID projectId, List<TaskPushEvent> events) {}
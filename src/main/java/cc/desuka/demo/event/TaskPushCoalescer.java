@@ -0,0 +1,103 @@
+package cc.desuka.demo.event;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.config.AppRoutesProperties;
+import cc.desuka.demo.config.WebSocketProperties;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-project coalescing stage between committed {@link TaskPushEvent}s and the project task
+ * topic. Events are buffered per project and sent as one {@link TaskPushBatch} when the scheduled
+ * {@link #flushAll()} runs (every {@code app.websocket.task-push-window}) or as soon as a project's
+ * buffer reaches {@code app.websocket.task-push-max-batch} — a 200-task bulk action costs a couple
+ * of frames instead of 200.
+ *
+ * <p>Each project's buffer is its own lock, held while its batch is sent, so frames for a project
+ * leave in order and events keep their commit order within and across frames. A repeat of a task's
+ * previous event (same action and user) is folded into it — deltas merge via {@link
+ * TaskPushEvent#mergedWith}, so clients still see every changed field at the latest version, and
+ * the merged event's base version tells them which rendered version it still patches.
+ */
+@Component
+public class TaskPushCoalescer {
+
+    private final BroadcastBus broadcastBus;
+    private final AppRoutesProperties appRoutes;
+    private final WebSocketProperties properties;
+
+    private final Map<UUID, ProjectBuffer> buffers = new ConcurrentHashMap<>();
+
+    public TaskPushCoalescer(
+            BroadcastBus broadcastBus,
+            AppRoutesProperties appRoutes,
+            WebSocketProperties properties) {
+        this.broadcastBus = broadcastBus;
+        this.appRoutes = appRoutes;
+        this.properties = properties;
+    }
+
+    public void add(TaskPushEvent event) {
+        ProjectBuffer buffer =
+                buffers.computeIfAbsent(event.projectId(), id -> new ProjectBuffer());
+        synchronized (buffer) {
+            buffer.add(event);
+            if (buffer.events.size() >= properties.getTaskPushMaxBatch()) {
+                flush(event.projectId(), buffer);
+            }
+        }
+    }
+
+    /** Sends every project's pending events; called on the flush window schedule. */
+    public void flushAll() {
+        buffers.forEach(
+                (projectId, buffer) -> {
+                    synchronized (buffer) {
+                        flush(projectId, buffer);
+                    }
+                });
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    /** Caller holds the buffer's lock. */
+    private void flush(UUID projectId, ProjectBuffer buffer) {
+        if (buffer.events.isEmpty()) return;
+        TaskPushBatch batch = new TaskPushBatch(projectId, List.copyOf(buffer.events));
+        buffer.clear();
+        broadcastBus.convertAndSend(
+                appRoutes.getTopicProjectTasks().params("projectId", projectId).build(), batch);
+    }
+
+    /** Pending events for one project, plus where each task's last event sits to fold repeats. */
+    private static final class ProjectBuffer {
+
+        private final List<TaskPushEvent> events = new ArrayList<>();
+        private final Map<UUID, Integer> lastIndexByTask = new HashMap<>();
+
+        void add(TaskPushEvent event) {
+            Integer lastIndex = lastIndexByTask.get(event.taskId());
+            if (lastIndex != null) {
+                TaskPushEvent last = events.get(lastIndex);
+                if (last.action().equals(event.action())
+                        && Objects.equals(last.userId(), event.userId())) {
+                    events.set(lastIndex, last.mergedWith(event));
+                    return;
+                }
+            }
+            lastIndexByTask.put(event.taskId(), events.size());
+            events.add(event);
+        }
+
+        void clear() {
+            events.clear();
+            lastIndexByTask.clear();
+        }
+    }
+}
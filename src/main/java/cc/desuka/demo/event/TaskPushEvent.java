@@ -1,9 +1,106 @@
 package cc.desuka.demo.event;
 
+import cc.desuka.demo.audit.AuditField;
+import cc.desuka.demo.model.Task;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
-public record TaskPushEvent(String action, UUID taskId, UUID projectId, UUID userId) {
+/**
+ * WebSocket task change broadcast. An update can also carry a delta — the task's new {@code
+ * version} and the new values of the fields the audit diff saw change — so clients can patch what
+ * they show instead of refetching. Delta values are plain JSON: text, enum, date and number fields
+ * as strings, references as {@code {id, name}}, tags/checklist/dependencies as item lists. Events
+ * without a delta (create, delete, updates with no field diff) leave both {@code null}.
+ *
+ * <p>{@code baseVersion} is the version the delta applies on top of. It is only set on deltas
+ * folded together by {@link #mergedWith}, which span several versions; otherwise it is {@code
+ * null} and the delta applies to {@code version - 1}.
+ */
+public record TaskPushEvent(
+        String action,
+        UUID taskId,
+        UUID projectId,
+        UUID userId,
+        Long baseVersion,
+        Long version,
+        Map<String, Object> changes) {
+
     public static final String ACTION_CREATED = "created";
     public static final String ACTION_UPDATED = "updated";
     public static final String ACTION_DELETED = "deleted";
+
+    public TaskPushEvent(String action, UUID taskId, UUID projectId, UUID userId) {
+        this(action, taskId, projectId, userId, null, null, null);
+    }
+
+    public TaskPushEvent(
+            String action,
+            UUID taskId,
+            UUID projectId,
+            UUID userId,
+            Long version,
+            Map<String, Object> changes) {
+        this(action, taskId, projectId, userId, null, version, changes);
+    }
+
+    /** Update event carrying {@code changedFields}' values from the post-update snapshot. */
+    public static TaskPushEvent updated(
+            Task task,
+            Map<String, AuditField> snapshot,
+            Collection<String> changedFields,
+            UUID userId) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : changedFields) {
+            changes.put(field, plainValue(snapshot.get(field)));
+        }
+        return new TaskPushEvent(
+                ACTION_UPDATED,
+                task.getId(),
+                task.getProject().getId(),
+                userId,
+                task.getVersion(),
+                changes);
+    }
+
+    public boolean hasDelta() {
+        return changes != null;
+    }
+
+    /**
+     * Folds a later event for the same task into this one. Both deltas merge (later values win,
+     * later version, this event's base version); if either side has no delta the result has none,
+     * so clients fall back to a refresh.
+     */
+    public TaskPushEvent mergedWith(TaskPushEvent later) {
+        if (!hasDelta() || !later.hasDelta()) {
+            return new TaskPushEvent(later.action, taskId, projectId, later.userId);
+        }
+        Map<String, Object> merged = new LinkedHashMap<>(changes);
+        merged.putAll(later.changes);
+        return new TaskPushEvent(
+                later.action,
+                taskId,
+                projectId,
+                later.userId,
+                baseVersion != null ? baseVersion : version - 1,
+                later.version,
+                merged);
+    }
+
+    private static Object plainValue(AuditField field) {
+        if (field == null) return null;
+        return switch (field.type()) {
+            case REFERENCE -> {
+                if (field.refId() == null) yield null;
+                Map<String, String> ref = new LinkedHashMap<>();
+                ref.put("id", field.refId());
+                ref.put("name", field.refName());
+                yield ref;
+            }
+            case COLLECTION, CHECKLIST -> field.items();
+            default -> field.value();
+        };
+    }
 }
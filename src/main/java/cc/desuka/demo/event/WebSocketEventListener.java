@@ -1,7 +1,7 @@
 package cc.desuka.demo.event;
 
+import cc.desuka.demo.broadcast.BroadcastBus;
 import cc.desuka.demo.config.AppRoutesProperties;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 
@@ -13,31 +13,34 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @Component
 public class WebSocketEventListener {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastBus broadcastBus;
     private final AppRoutesProperties appRoutes;
+    private final TaskPushCoalescer taskPushCoalescer;
 
     public WebSocketEventListener(
-            SimpMessagingTemplate messagingTemplate, AppRoutesProperties appRoutes) {
-        this.messagingTemplate = messagingTemplate;
+            BroadcastBus broadcastBus,
+            AppRoutesProperties appRoutes,
+            TaskPushCoalescer taskPushCoalescer) {
+        this.broadcastBus = broadcastBus;
         this.appRoutes = appRoutes;
+        this.taskPushCoalescer = taskPushCoalescer;
     }
 
     @TransactionalEventListener
     public void onProjectPush(ProjectPushEvent event) {
-        messagingTemplate.convertAndSend(
+        broadcastBus.convertAndSend(
                 appRoutes.getTopicProject().params("projectId", event.projectId()).build(), event);
     }
 
+    /** Task changes are batched per project — see {@link TaskPushCoalescer}. */
     @TransactionalEventListener
     public void onTaskPush(TaskPushEvent event) {
-        messagingTemplate.convertAndSend(
-                appRoutes.getTopicProjectTasks().params("projectId", event.projectId()).build(),
-                event);
+        taskPushCoalescer.add(event);
     }
 
     @TransactionalEventListener
     public void onCommentChange(CommentChangeEvent event) {
-        messagingTemplate.convertAndSend(
+        broadcastBus.convertAndSend(
                 appRoutes.getTopicTaskComments().params("taskId", event.taskId()).build(), event);
     }
 }
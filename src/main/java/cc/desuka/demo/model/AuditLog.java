@@ -6,7 +6,13 @@ import java.time.Instant;
 import java.util.Map;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(
+        name = "audit_logs",
+        // Mirrors V5__hot_path_indexes.sql for schemas generated by Hibernate (dev/test).
+        indexes =
+                @Index(
+                        name = "idx_audit_logs_entity",
+                        columnList = "entity_type, entity_id, timestamp"))
 public class AuditLog {
 
     public static final String FIELD_ACTION = "action";
@@ -11,7 +11,10 @@ import java.util.Map;
 import java.util.Objects;
 
 @Entity
-@Table(name = "comments")
+@Table(
+        name = "comments",
+        // Mirrors V5__hot_path_indexes.sql for schemas generated by Hibernate (dev/test).
+        indexes = @Index(name = "idx_comments_task_created", columnList = "task_id, created_at"))
 public class Comment implements OwnedEntity, Auditable {
 
     public static final String FIELD_TEXT = "text";
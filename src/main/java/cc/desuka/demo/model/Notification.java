@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(
+        name = "notifications",
+        // Mirrors V5__hot_path_indexes.sql for schemas generated by Hibernate (dev/test).
+        indexes = {
+            @Index(name = "idx_notifications_user_read", columnList = "user_id, is_read"),
+            @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at")
+        })
 public class Notification {
 
     public static final String FIELD_ID = "id";
@@ -16,8 +22,14 @@ public class Notification {
     public static final String FIELD_READ = "read";
     public static final String FIELD_CREATED_AT = "createdAt";
 
+    // Pooled sequence, not IDENTITY: IDENTITY forces one INSERT per row, defeating the JDBC
+    // batching NotificationDispatcher relies on. Allocation matches hibernate.jdbc.batch_size.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_id_seq")
+    @SequenceGenerator(
+            name = "notifications_id_seq",
+            sequenceName = "notifications_id_seq",
+            allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
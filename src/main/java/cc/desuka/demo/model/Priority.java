@@ -15,6 +15,11 @@ public enum Priority implements Translatable {
         return messageKey;
     }
 
+    /** Value stored in {@code tasks.priority_order}: ascending with urgency (LOW=0 … HIGH=2). */
+    public short getSortOrder() {
+        return (short) ordinal();
+    }
+
     public String getCssClass() {
         return switch (this) {
             case LOW -> "bg-success text-white";
@@ -0,0 +1,78 @@
+package cc.desuka.demo.model;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Read model: how many tasks of one project are in one status, and how many of those are overdue.
+ * Maintained incrementally by {@code ProjectTaskStatsService} from the task write paths, so
+ * dashboard summaries are an indexed lookup instead of a GROUP BY over every task.
+ */
+@Entity
+@Table(
+        name = "project_task_stats",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_project_task_stats_project_status",
+                        columnNames = {"project_id", "status"}))
+public class ProjectTaskStat {
+
+    public static final String FIELD_PROJECT_ID = "projectId";
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_TASK_COUNT = "taskCount";
+    public static final String FIELD_OVERDUE_COUNT = "overdueCount";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+
+    public ProjectTaskStat() {}
+
+    public ProjectTaskStat(UUID projectId, TaskStatus status, long taskCount, long overdueCount) {
+        this.projectId = projectId;
+        this.status = status;
+        this.taskCount = taskCount;
+        this.overdueCount = overdueCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getProjectId() {
+        return projectId;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    public void setTaskCount(long taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+
+    public void setOverdueCount(long overdueCount) {
+        this.overdueCount = overdueCount;
+    }
+}
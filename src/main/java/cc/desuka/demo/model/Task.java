@@ -18,7 +18,21 @@ import org.hibernate.annotations.Formula;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Entity
-@Table(name = "tasks")
+@Table(
+        name = "tasks",
+        // Mirrors V4__task_priority_order.sql and V5__hot_path_indexes.sql for schemas generated
+        // by Hibernate (dev/test). Trailing id matches the keyset tie-breaker, so priority-sorted
+        // pages read in index order.
+        indexes = {
+            @Index(
+                    name = "idx_tasks_project_priority",
+                    columnList = "project_id, priority_order, id"),
+            @Index(
+                    name = "idx_tasks_project_status_priority",
+                    columnList = "project_id, status, priority_order, id"),
+            @Index(name = "idx_tasks_user_status", columnList = "user_id, status"),
+            @Index(name = "idx_tasks_due_date", columnList = "due_date")
+        })
 public class Task implements OwnedEntity, Auditable {
 
     public static final String FIELD_ID = "id";
@@ -46,6 +60,7 @@ public class Task implements OwnedEntity, Auditable {
     public static final String FIELD_TEMPLATE = "template";
     public static final String FIELD_BLOCKED_BY = "blockedBy";
     public static final String FIELD_BLOCKS = "blocks";
+    public static final String FIELD_BLOCKED = "blocked";
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -69,11 +84,11 @@ public class Task implements OwnedEntity, Auditable {
     @Column(nullable = false)
     private Priority priority = Priority.MEDIUM;
 
-    // Virtual column for correct priority sorting (LOW=0, MEDIUM=1, HIGH=2).
-    // @Enumerated(STRING) sorts alphabetically (H→L→M) which is wrong.
-    // @Formula generates a CASE expression in the ORDER BY clause.
-    @Formula("CASE priority WHEN 'LOW' THEN 0 WHEN 'MEDIUM' THEN 1 WHEN 'HIGH' THEN 2 END")
-    private int priorityOrder;
+    // Persisted sort key for priority (LOW=0, MEDIUM=1, HIGH=2) — @Enumerated(STRING) sorts
+    // alphabetically (H→L→M), and a computed CASE expression cannot be served by an index.
+    // Written only by setPriority(), so it always matches the enum.
+    @Column(name = "priority_order", nullable = false)
+    private short priorityOrder = Priority.MEDIUM.getSortOrder();
 
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     @Column(name = "start_date")
@@ -158,12 +173,12 @@ public class Task implements OwnedEntity, Auditable {
     @OrderBy("sortOrder ASC")
     private List<ChecklistItem> checklistItems = new ArrayList<>();
 
-    // Virtual columns for checklist progress — avoids loading the full collection on list views.
-    @Formula("(SELECT COUNT(*) FROM checklist_items ci WHERE ci.task_id = id)")
+    // Denormalized checklist progress — list views read these columns instead of loading the
+    // collection or counting checklist_items per row. Kept in sync by syncChecklistCounts().
+    @Column(name = "checklist_total", nullable = false)
     private int checklistTotal;
 
-    @Formula(
-            "(SELECT COUNT(*) FROM checklist_items ci WHERE ci.task_id = id AND ci.checked = TRUE)")
+    @Column(name = "checklist_checked", nullable = false)
     private int checklistChecked;
 
     // Tasks that THIS task blocks (this task is the blocker).
@@ -194,6 +209,7 @@ public class Task implements OwnedEntity, Auditable {
     @PrePersist
     protected void onPrePersist() {
         updatedAt = LocalDateTime.now();
+        syncChecklistCounts();
     }
 
     @PreUpdate
@@ -261,6 +277,13 @@ public class Task implements OwnedEntity, Auditable {
 
     public void setPriority(Priority priority) {
         this.priority = priority;
+        if (priority != null) {
+            this.priorityOrder = priority.getSortOrder();
+        }
+    }
+
+    public short getPriorityOrder() {
+        return priorityOrder;
     }
 
     public LocalDate getStartDate() {
@@ -375,6 +398,15 @@ public class Task implements OwnedEntity, Auditable {
         return checklistChecked;
     }
 
+    /**
+     * Recomputes {@code checklistTotal}/{@code checklistChecked} from {@link #checklistItems}. Call
+     * after any change to the checklist (items added, removed, checked or unchecked).
+     */
+    public void syncChecklistCounts() {
+        checklistTotal = checklistItems.size();
+        checklistChecked = (int) checklistItems.stream().filter(ChecklistItem::isChecked).count();
+    }
+
     public Set<Task> getBlocks() {
         return blocks;
     }
@@ -0,0 +1,112 @@
+package cc.desuka.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Analytics rollup: one finished day of task activity for one project and sprint (null = no
+ * sprint). Written nightly by {@code TaskDailyRollupService}, so burndown and velocity charts read
+ * history from here and only the current day from the live tasks table.
+ *
+ * <p>{@code openCount} is the number of tasks open at the end of the day: created by then, not
+ * completed by then, and not cancelled. Rows are only written for groups with open tasks or
+ * activity that day; a missing row means zero. At most one row per project, sprint and day — in
+ * PostgreSQL the V9 unique index also treats sprint-less rows as equal, which this constraint
+ * cannot express.
+ */
+@Entity
+@Table(
+        name = "task_daily_rollups",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_task_daily_rollups_group_date",
+                        columnNames = {"project_id", "sprint_id", "rollup_date"}),
+        indexes = {
+            @Index(
+                    name = "idx_task_daily_rollups_project_date",
+                    columnList = "project_id, rollup_date"),
+            @Index(name = "idx_task_daily_rollups_date", columnList = "rollup_date")
+        })
+public class TaskDailyRollup {
+
+    public static final String FIELD_PROJECT_ID = "projectId";
+    public static final String FIELD_SPRINT_ID = "sprintId";
+    public static final String FIELD_ROLLUP_DATE = "rollupDate";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(name = "sprint_id")
+    private Long sprintId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "open_count", nullable = false)
+    private long openCount;
+
+    @Column(name = "effort_completed", nullable = false)
+    private long effortCompleted;
+
+    public TaskDailyRollup() {}
+
+    public TaskDailyRollup(
+            UUID projectId,
+            Long sprintId,
+            LocalDate rollupDate,
+            long createdCount,
+            long completedCount,
+            long openCount,
+            long effortCompleted) {
+        this.projectId = projectId;
+        this.sprintId = sprintId;
+        this.rollupDate = rollupDate;
+        this.createdCount = createdCount;
+        this.completedCount = completedCount;
+        this.openCount = openCount;
+        this.effortCompleted = effortCompleted;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getProjectId() {
+        return projectId;
+    }
+
+    public Long getSprintId() {
+        return sprintId;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public long getOpenCount() {
+        return openCount;
+    }
+
+    public long getEffortCompleted() {
+        return effortCompleted;
+    }
+}
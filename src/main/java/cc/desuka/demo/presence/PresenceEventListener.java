@@ -1,31 +1,34 @@
 package cc.desuka.demo.presence;
 
-import cc.desuka.demo.config.AppRoutesProperties;
-import cc.desuka.demo.dto.PresenceResponse;
+import cc.desuka.demo.audit.AuditEvent;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.security.SecurityUtils;
 import java.security.Principal;
+import java.util.UUID;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
+/**
+ * Feeds STOMP connects and disconnects into {@link PresenceService}, and subscriptions to scoped
+ * presence topics into {@link ScopedPresenceService}. Nothing is broadcast here — changes go out
+ * coalesced on the presence schedule.
+ */
 @Component
 public class PresenceEventListener {
 
     private final PresenceService presenceService;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final AppRoutesProperties appRoutes;
+    private final ScopedPresenceService scopedPresenceService;
 
     public PresenceEventListener(
-            PresenceService presenceService,
-            SimpMessagingTemplate messagingTemplate,
-            AppRoutesProperties appRoutes) {
+            PresenceService presenceService, ScopedPresenceService scopedPresenceService) {
         this.presenceService = presenceService;
-        this.messagingTemplate = messagingTemplate;
-        this.appRoutes = appRoutes;
+        this.scopedPresenceService = scopedPresenceService;
     }
 
     @EventListener
@@ -36,22 +39,45 @@ public class PresenceEventListener {
         if (principal != null && sessionId != null) {
             User user = SecurityUtils.getUserFrom(principal);
             if (user != null) {
-                presenceService.userConnected(sessionId, user.getId());
-                broadcastPresence();
+                presenceService.userConnected(sessionId, user.getId(), user.getName());
             }
         }
     }
 
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        User user = SecurityUtils.getUserFrom(accessor.getUser());
+        if (user != null && accessor.getSessionId() != null) {
+            scopedPresenceService.subscribed(
+                    accessor.getSessionId(),
+                    accessor.getSubscriptionId(),
+                    user.getId(),
+                    accessor.getDestination());
+        }
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() != null) {
+            scopedPresenceService.unsubscribed(
+                    accessor.getSessionId(), accessor.getSubscriptionId());
+        }
+    }
+
     @EventListener
     public void handleDisconnect(SessionDisconnectEvent event) {
         presenceService.userDisconnected(event.getSessionId());
-        broadcastPresence();
+        scopedPresenceService.disconnected(event.getSessionId());
     }
 
-    private void broadcastPresence() {
-        PresenceResponse payload =
-                new PresenceResponse(
-                        presenceService.getOnlineUsers(), presenceService.getOnlineCount());
-        messagingTemplate.convertAndSend(appRoutes.getTopicPresence().toString(), payload);
+    /** Keeps cached display names current when an online user is renamed. */
+    @TransactionalEventListener
+    public void onAudit(AuditEvent event) {
+        if (event.getEntityId() != null
+                && User.class.getSimpleName().equals(event.getEntityType())) {
+            presenceService.refreshUser(UUID.fromString(event.getEntityId()));
+        }
     }
 }
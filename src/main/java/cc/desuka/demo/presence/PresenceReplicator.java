@@ -0,0 +1,99 @@
+package cc.desuka.demo.presence;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.broadcast.NodePresence;
+import cc.desuka.demo.config.BroadcastProperties;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link PresenceService} and {@link ScopedPresenceService} in step across nodes. This node
+ * shares its full local presence over the {@link BroadcastBus} whenever it changed and at least
+ * once per snapshot interval (a heartbeat); what other nodes share replaces what was held for them.
+ * A node not heard from for {@code app.broadcast.node-timeout} is dropped. Everything is a no-op on
+ * a single-node bus.
+ */
+@Component
+public class PresenceReplicator {
+
+    private final BroadcastBus broadcastBus;
+    private final PresenceService presenceService;
+    private final ScopedPresenceService scopedPresenceService;
+    private final BroadcastProperties properties;
+
+    private final Map<String, Instant> lastHeard = new ConcurrentHashMap<>();
+
+    // Guarded by this: what the other nodes were last sent
+    private NodePresence shared;
+
+    public PresenceReplicator(
+            BroadcastBus broadcastBus,
+            PresenceService presenceService,
+            ScopedPresenceService scopedPresenceService,
+            BroadcastProperties properties) {
+        this.broadcastBus = broadcastBus;
+        this.presenceService = presenceService;
+        this.scopedPresenceService = scopedPresenceService;
+        this.properties = properties;
+    }
+
+    // ── Outgoing (scheduled) ─────────────────────────────────────────────
+
+    /** Shares local presence if it changed since it was last shared. */
+    public void shareChanges() {
+        share(false);
+    }
+
+    /** Shares local presence unconditionally, so the other nodes keep this one alive. */
+    public void shareSnapshot() {
+        share(true);
+    }
+
+    /** Drops the presence of every node silent for longer than the node timeout. */
+    public void expireSilentNodes() {
+        Instant cutoff = Instant.now().minus(properties.getNodeTimeout());
+        lastHeard.forEach(
+                (nodeId, heard) -> {
+                    if (!heard.isAfter(cutoff) && lastHeard.remove(nodeId, heard)) {
+                        apply(NodePresence.leaving(nodeId));
+                    }
+                });
+    }
+
+    // ── Incoming ─────────────────────────────────────────────────────────
+
+    @EventListener
+    public void onNodePresence(NodePresence presence) {
+        if (properties.getNodeId().equals(presence.nodeId())) return;
+        if (presence.users().isEmpty() && presence.viewers().isEmpty()) {
+            lastHeard.remove(presence.nodeId());
+        } else {
+            lastHeard.put(presence.nodeId(), Instant.now());
+        }
+        apply(presence);
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void share(boolean always) {
+        if (!broadcastBus.isClustered()) return;
+        NodePresence local =
+                new NodePresence(
+                        properties.getNodeId(),
+                        presenceService.getLocalUsers(),
+                        scopedPresenceService.getLocalViewers());
+        synchronized (this) {
+            if (!always && local.equals(shared)) return;
+            shared = local;
+        }
+        broadcastBus.sharePresence(local);
+    }
+
+    private void apply(NodePresence presence) {
+        presenceService.applyRemote(presence.nodeId(), presence.users());
+        scopedPresenceService.applyRemote(presence.nodeId(), presence.viewers());
+    }
+}
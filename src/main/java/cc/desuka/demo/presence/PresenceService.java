@@ -1,39 +1,222 @@
 package cc.desuka.demo.presence;
 
+import cc.desuka.demo.config.AppRoutesProperties;
+import cc.desuka.demo.dto.PresenceResponse;
+import cc.desuka.demo.dto.PresenceUpdate;
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
 import cc.desuka.demo.service.UserQueryService;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Online presence, tracked per STOMP session and reported per user (multi-tab safe). Display names
+ * are cached in memory from the connecting principal, so reads never touch the database.
+ *
+ * <p>Connects and disconnects only mark presence dirty. {@link #broadcastChanges()}, run on the
+ * {@code app.presence.broadcast-window} schedule, diffs the online set against what was last
+ * broadcast and sends one {@link PresenceUpdate} delta; {@link #broadcastSnapshot()} sends the full
+ * list periodically so clients can resync.
+ *
+ * <p>With several nodes, the users online on each other node arrive through {@link
+ * PresenceReplicator} and are merged in: reads, deltas and snapshots all cover the whole cluster,
+ * and each node sends them to its own clients.
+ */
 @Service
 public class PresenceService {
 
-    private final ConcurrentHashMap<String, UUID> onlineSessions = new ConcurrentHashMap<>();
+    private static final Comparator<OnlineUser> BY_NAME =
+            Comparator.comparing(OnlineUser::name).thenComparing(OnlineUser::id);
+
     private final UserQueryService userQueryService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final AppRoutesProperties appRoutes;
+
+    private final ConcurrentHashMap<String, UUID> onlineSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Integer> sessionCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> onlineNames = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
 
-    public PresenceService(UserQueryService userQueryService) {
+    // Online users of every other node, by node id — replaced wholesale on each share
+    private final ConcurrentHashMap<String, Map<UUID, String>> remoteNames =
+            new ConcurrentHashMap<>();
+
+    // Guarded by this: the online set clients were last sent, and its version
+    private Map<UUID, String> broadcast = Map.of();
+    private long version;
+
+    public PresenceService(
+            UserQueryService userQueryService,
+            SimpMessagingTemplate messagingTemplate,
+            AppRoutesProperties appRoutes) {
         this.userQueryService = userQueryService;
+        this.messagingTemplate = messagingTemplate;
+        this.appRoutes = appRoutes;
     }
 
-    public void userConnected(String sessionId, UUID userId) {
-        onlineSessions.put(sessionId, userId);
+    // ── Sessions ─────────────────────────────────────────────────────────
+
+    public void userConnected(String sessionId, UUID userId, String name) {
+        if (onlineSessions.put(sessionId, userId) != null) return;
+        sessionCounts.compute(
+                userId,
+                (id, count) -> {
+                    if (count == null) {
+                        onlineNames.put(id, name);
+                        dirty.set(true);
+                        return 1;
+                    }
+                    return count + 1;
+                });
     }
 
     public void userDisconnected(String sessionId) {
-        onlineSessions.remove(sessionId);
+        UUID userId = onlineSessions.remove(sessionId);
+        if (userId == null) return;
+        sessionCounts.computeIfPresent(
+                userId,
+                (id, count) -> {
+                    if (count > 1) return count - 1;
+                    onlineNames.remove(id);
+                    dirty.set(true);
+                    return null;
+                });
+    }
+
+    /** Re-reads an online user's display name after a profile edit. */
+    public void refreshUser(UUID userId) {
+        if (!onlineNames.containsKey(userId)) return;
+        String name = userQueryService.getNamesByIds(List.of(userId)).get(userId);
+        if (name != null && onlineNames.replace(userId, name) != null) {
+            dirty.set(true);
+        }
+    }
+
+    // ── Other nodes ──────────────────────────────────────────────────────
+
+    /** Replaces what another node last shared; an empty map removes the node. */
+    public void applyRemote(String nodeId, Map<UUID, String> users) {
+        Map<UUID, String> previous =
+                users.isEmpty()
+                        ? remoteNames.remove(nodeId)
+                        : remoteNames.put(nodeId, Map.copyOf(users));
+        if (!users.equals(previous == null ? Map.of() : previous)) {
+            dirty.set(true);
+        }
     }
 
+    /** This node's own online users, as shared with the others. */
+    public Map<UUID, String> getLocalUsers() {
+        return Map.copyOf(onlineNames);
+    }
+
+    // ── Reads ────────────────────────────────────────────────────────────
+
     public List<String> getOnlineUsers() {
-        Set<UUID> uniqueIds = new HashSet<>(onlineSessions.values());
-        Map<UUID, String> names = userQueryService.getNamesByIds(uniqueIds);
-        return names.values().stream().sorted().toList();
+        return onlineNames().values().stream().sorted().toList();
     }
 
     public int getOnlineCount() {
-        return (int) onlineSessions.values().stream().distinct().count();
+        return onlineNames().size();
+    }
+
+    /** Cached display name of a user online on any node; null when offline. */
+    public String getName(UUID userId) {
+        String name = onlineNames.get(userId);
+        if (name != null) return name;
+        for (Map<UUID, String> names : remoteNames.values()) {
+            name = names.get(userId);
+            if (name != null) return name;
+        }
+        return null;
+    }
+
+    /**
+     * The online list clients were last sent, with its version. Taken together under the lock so
+     * the next delta applies cleanly on top; a user who joins and leaves between two broadcasts
+     * never shows up.
+     */
+    public PresenceResponse getPresence() {
+        List<OnlineUser> online;
+        long current;
+        synchronized (this) {
+            online = onlineUsers(broadcast);
+            current = version;
+        }
+        return new PresenceResponse(
+                online.stream().map(OnlineUser::name).toList(), online.size(), online, current);
+    }
+
+    // ── Broadcasts (scheduled) ───────────────────────────────────────────
+
+    /** Sends one delta covering every change since the last broadcast; no-op when nothing moved. */
+    public void broadcastChanges() {
+        if (!dirty.getAndSet(false)) return;
+        PresenceUpdate delta;
+        synchronized (this) {
+            Map<UUID, String> current = onlineNames();
+            List<OnlineUser> joined = new ArrayList<>();
+            current.forEach(
+                    (id, name) -> {
+                        if (!name.equals(broadcast.get(id))) {
+                            joined.add(new OnlineUser(id, name));
+                        }
+                    });
+            List<UUID> left =
+                    broadcast.keySet().stream().filter(id -> !current.containsKey(id)).toList();
+            if (joined.isEmpty() && left.isEmpty()) return;
+            joined.sort(BY_NAME);
+            broadcast = current;
+            delta =
+                    new PresenceUpdate(
+                            PresenceUpdate.Type.DELTA, ++version, current.size(), joined, left);
+        }
+        send(delta);
+    }
+
+    /** Sends the full online list while anyone is online. */
+    public void broadcastSnapshot() {
+        if (onlineNames.isEmpty() && remoteNames.isEmpty()) return;
+        PresenceUpdate snapshot;
+        synchronized (this) {
+            List<OnlineUser> online = onlineUsers(broadcast);
+            snapshot =
+                    new PresenceUpdate(
+                            PresenceUpdate.Type.SNAPSHOT,
+                            version,
+                            online.size(),
+                            online,
+                            List.of());
+        }
+        send(snapshot);
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    /** Online users across the cluster; this node's names win over a stale remote copy. */
+    private Map<UUID, String> onlineNames() {
+        if (remoteNames.isEmpty()) return Map.copyOf(onlineNames);
+        Map<UUID, String> names = new HashMap<>();
+        remoteNames.values().forEach(names::putAll);
+        names.putAll(onlineNames);
+        return Map.copyOf(names);
+    }
+
+    private void send(PresenceUpdate update) {
+        messagingTemplate.convertAndSend(appRoutes.getTopicPresence().toString(), update);
+    }
+
+    private static List<OnlineUser> onlineUsers(Map<UUID, String> names) {
+        List<OnlineUser> users = new ArrayList<>(names.size());
+        names.forEach((id, name) -> users.add(new OnlineUser(id, name)));
+        users.sort(BY_NAME);
+        return users;
     }
 }
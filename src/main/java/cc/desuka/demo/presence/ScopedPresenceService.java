@@ -0,0 +1,193 @@
+package cc.desuka.demo.presence;
+
+import cc.desuka.demo.config.AppRoutesProperties;
+import cc.desuka.demo.config.PresenceProperties;
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
+import cc.desuka.demo.dto.ScopedPresenceUpdate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * "Who is viewing this" presence for project pages and task views. A scope is the presence topic
+ * itself ({@code topicProjectPresence} / {@code topicTaskPresence}): subscribing to it makes the
+ * session a viewer, unsubscribing or disconnecting removes it.
+ *
+ * <p>Each scope keeps a reference count per user (several tabs on the same task count once) and is
+ * dropped as soon as its last viewer leaves; a session joins at most {@code
+ * app.presence.max-scopes-per-session} scopes (a subscription past the cap still receives the list
+ * but is not counted). Changes and new subscriptions mark the scope dirty, and {@link
+ * #broadcastChanges()} — on the presence broadcast window — sends each dirty scope its viewer list
+ * on its own topic, so nothing is broadcast globally.
+ *
+ * <p>Viewers on other nodes arrive through {@link PresenceReplicator} and are merged into each
+ * scope's list; a scope whose remote viewers change is marked dirty like a local change.
+ */
+@Service
+public class ScopedPresenceService {
+
+    private static final Comparator<OnlineUser> BY_NAME =
+            Comparator.comparing(OnlineUser::name).thenComparing(OnlineUser::id);
+
+    private final PresenceService presenceService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceProperties properties;
+    private final List<String> scopePatterns;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    // Guarded by this
+    private final Map<String, Map<String, Viewing>> scopesBySession = new HashMap<>();
+    private final Map<String, Map<UUID, Integer>> viewersByScope = new HashMap<>();
+    private final Map<String, Map<String, Set<UUID>>> remoteViewersByNode = new HashMap<>();
+
+    private final Set<String> dirtyScopes = ConcurrentHashMap.newKeySet();
+
+    public ScopedPresenceService(
+            PresenceService presenceService,
+            SimpMessagingTemplate messagingTemplate,
+            PresenceProperties properties,
+            AppRoutesProperties appRoutes) {
+        this.presenceService = presenceService;
+        this.messagingTemplate = messagingTemplate;
+        this.properties = properties;
+        this.scopePatterns =
+                List.of(
+                        appRoutes.getTopicProjectPresence().getTemplate(),
+                        appRoutes.getTopicTaskPresence().getTemplate());
+    }
+
+    // ── Subscriptions ────────────────────────────────────────────────────
+
+    /** Registers the session as a viewer when {@code destination} is a scoped presence topic. */
+    public void subscribed(
+            String sessionId, String subscriptionId, UUID userId, String destination) {
+        if (!isScope(destination)) return;
+        synchronized (this) {
+            Map<String, Viewing> scopes =
+                    scopesBySession.computeIfAbsent(sessionId, id -> new LinkedHashMap<>());
+            if (scopes.containsKey(subscriptionId)) return;
+            // Every new subscriber needs the current list, even a second tab or one past the cap
+            dirtyScopes.add(destination);
+            if (scopes.size() >= properties.getMaxScopesPerSession()) return;
+            scopes.put(subscriptionId, new Viewing(destination, userId));
+            viewersByScope
+                    .computeIfAbsent(destination, scope -> new HashMap<>())
+                    .merge(userId, 1, Integer::sum);
+        }
+    }
+
+    public synchronized void unsubscribed(String sessionId, String subscriptionId) {
+        Map<String, Viewing> scopes = scopesBySession.get(sessionId);
+        if (scopes == null) return;
+        Viewing viewing = scopes.remove(subscriptionId);
+        if (viewing != null) leave(viewing);
+        if (scopes.isEmpty()) scopesBySession.remove(sessionId);
+    }
+
+    public synchronized void disconnected(String sessionId) {
+        Map<String, Viewing> scopes = scopesBySession.remove(sessionId);
+        if (scopes != null) scopes.values().forEach(this::leave);
+    }
+
+    // ── Other nodes ──────────────────────────────────────────────────────
+
+    /**
+     * Replaces another node's viewers ({@code scope -> user ids}) and marks every scope whose
+     * remote viewers changed; an empty map removes the node.
+     */
+    public synchronized void applyRemote(String nodeId, Map<String, Set<UUID>> viewers) {
+        Map<String, Set<UUID>> previous =
+                viewers.isEmpty()
+                        ? remoteViewersByNode.remove(nodeId)
+                        : remoteViewersByNode.put(nodeId, Map.copyOf(viewers));
+        if (previous == null) previous = Map.of();
+        Set<String> scopes = new HashSet<>(previous.keySet());
+        scopes.addAll(viewers.keySet());
+        for (String scope : scopes) {
+            if (!Objects.equals(previous.get(scope), viewers.get(scope))) {
+                dirtyScopes.add(scope);
+            }
+        }
+    }
+
+    /** This node's own viewers per scope, as shared with the others. */
+    public synchronized Map<String, Set<UUID>> getLocalViewers() {
+        Map<String, Set<UUID>> viewers = new HashMap<>();
+        viewersByScope.forEach((scope, users) -> viewers.put(scope, Set.copyOf(users.keySet())));
+        return viewers;
+    }
+
+    // ── Reads ────────────────────────────────────────────────────────────
+
+    public List<OnlineUser> getViewers(String scope) {
+        Set<UUID> viewers = new HashSet<>();
+        synchronized (this) {
+            Map<UUID, Integer> local = viewersByScope.get(scope);
+            if (local != null) viewers.addAll(local.keySet());
+            for (Map<String, Set<UUID>> remote : remoteViewersByNode.values()) {
+                viewers.addAll(remote.getOrDefault(scope, Set.of()));
+            }
+        }
+        List<OnlineUser> users = new ArrayList<>(viewers.size());
+        for (UUID userId : viewers) {
+            String name = presenceService.getName(userId);
+            if (name != null) users.add(new OnlineUser(userId, name));
+        }
+        users.sort(BY_NAME);
+        return users;
+    }
+
+    /** Number of scopes with at least one viewer on any node. */
+    public synchronized int getScopeCount() {
+        if (remoteViewersByNode.isEmpty()) return viewersByScope.size();
+        Set<String> scopes = new HashSet<>(viewersByScope.keySet());
+        remoteViewersByNode.values().forEach(remote -> scopes.addAll(remote.keySet()));
+        return scopes.size();
+    }
+
+    // ── Broadcasts (scheduled) ───────────────────────────────────────────
+
+    /** Sends each scope whose viewers changed since the last run its current viewer list. */
+    public void broadcastChanges() {
+        if (dirtyScopes.isEmpty()) return;
+        for (String scope : List.copyOf(dirtyScopes)) {
+            dirtyScopes.remove(scope);
+            messagingTemplate.convertAndSend(scope, new ScopedPresenceUpdate(getViewers(scope)));
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private boolean isScope(String destination) {
+        if (destination == null) return false;
+        for (String pattern : scopePatterns) {
+            if (pathMatcher.match(pattern, destination)) return true;
+        }
+        return false;
+    }
+
+    private void leave(Viewing viewing) {
+        Map<UUID, Integer> viewers = viewersByScope.get(viewing.scope());
+        if (viewers == null) return;
+        if (viewers.merge(viewing.userId(), -1, Integer::sum) <= 0) {
+            viewers.remove(viewing.userId());
+            dirtyScopes.add(viewing.scope());
+            if (viewers.isEmpty()) viewersByScope.remove(viewing.scope());
+        }
+    }
+
+    /** One counted subscription: unsubscribe and disconnect need no other lookup. */
+    private record Viewing(String scope, UUID userId) {}
+}
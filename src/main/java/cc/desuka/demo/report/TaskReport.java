@@ -1,26 +1,55 @@
 package cc.desuka.demo.report;
 
+import cc.desuka.demo.dto.TaskSearchCriteria;
 import cc.desuka.demo.model.Task;
+import cc.desuka.demo.service.TaskQueryService;
 import cc.desuka.demo.util.CsvWriter;
 import cc.desuka.demo.util.Messages;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TaskReport {
 
     private final Messages messages;
+    private final TaskQueryService taskQueryService;
 
-    public TaskReport(Messages messages) {
+    public TaskReport(Messages messages, TaskQueryService taskQueryService) {
         this.messages = messages;
+        this.taskQueryService = taskQueryService;
     }
 
-    public void exportCsv(HttpServletResponse response, String filename, List<Task> tasks)
+    /**
+     * Streams the tasks matching {@code criteria} as CSV straight to the response, chunk by chunk
+     * — the full result is never held in memory.
+     */
+    public void exportCsv(
+            HttpServletResponse response, String filename, TaskSearchCriteria criteria, Sort sort)
             throws IOException {
-        String[] headers = {
+        try (CsvWriter csv = CsvWriter.open(response, filename, headers())) {
+            taskQueryService.forEachExportChunk(
+                    criteria,
+                    sort,
+                    (tasks, tagNames) -> {
+                        try {
+                            for (Task task : tasks) {
+                                csv.writeRow(toRow(task, tagNames.get(task.getId())));
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private String[] headers() {
+        return new String[] {
             messages.get("task.field.title"),
             messages.get("task.field.status"),
             messages.get("task.field.priority"),
@@ -33,34 +62,21 @@ public class TaskReport {
             messages.get("task.field.createdAt"),
             messages.get("task.field.updatedAt"),
         };
-        CsvWriter.write(
-                response,
-                filename,
-                headers,
-                tasks,
-                task ->
-                        new String[] {
-                            task.getTitle(),
-                            task.getStatus() != null ? messages.get(task.getStatus()) : "",
-                            task.getPriority() != null ? messages.get(task.getPriority()) : "",
-                            task.getStartDate() != null ? task.getStartDate().toString() : "",
-                            task.getDueDate() != null ? task.getDueDate().toString() : "",
-                            task.getEffort() != null ? task.getEffort().toString() : "",
-                            task.getCompletedAt() != null
-                                    ? task.getCompletedAt().toLocalDate().toString()
-                                    : "",
-                            task.getUser() != null ? task.getUser().getName() : "",
-                            task.getTags() != null
-                                    ? task.getTags().stream()
-                                            .map(t -> t.getName())
-                                            .collect(Collectors.joining("; "))
-                                    : "",
-                            task.getCreatedAt() != null
-                                    ? task.getCreatedAt().toLocalDate().toString()
-                                    : "",
-                            task.getUpdatedAt() != null
-                                    ? task.getUpdatedAt().toLocalDate().toString()
-                                    : ""
-                        });
+    }
+
+    private String[] toRow(Task task, List<String> tagNames) {
+        return new String[] {
+            task.getTitle(),
+            task.getStatus() != null ? messages.get(task.getStatus()) : "",
+            task.getPriority() != null ? messages.get(task.getPriority()) : "",
+            task.getStartDate() != null ? task.getStartDate().toString() : "",
+            task.getDueDate() != null ? task.getDueDate().toString() : "",
+            task.getEffort() != null ? task.getEffort().toString() : "",
+            task.getCompletedAt() != null ? task.getCompletedAt().toLocalDate().toString() : "",
+            task.getUser() != null ? task.getUser().getName() : "",
+            tagNames != null ? String.join("; ", tagNames) : "",
+            task.getCreatedAt() != null ? task.getCreatedAt().toLocalDate().toString() : "",
+            task.getUpdatedAt() != null ? task.getUpdatedAt().toLocalDate().toString() : ""
+        };
     }
 }
@@ -1,18 +1,26 @@
 package cc.desuka.demo.repository;
 
+import cc.desuka.demo.config.AnalyticsProperties;
 import cc.desuka.demo.dto.AnalyticsProjection.DailyCount;
-import cc.desuka.demo.dto.AnalyticsProjection.ProjectCount;
-import cc.desuka.demo.dto.AnalyticsProjection.ProjectStatusCount;
+import cc.desuka.demo.dto.AnalyticsProjection.DailyRollup;
 import cc.desuka.demo.dto.AnalyticsProjection.UserCount;
 import cc.desuka.demo.dto.AnalyticsProjection.UserStatusCount;
 import cc.desuka.demo.model.TaskStatus;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -26,43 +34,17 @@ import org.springframework.stereotype.Repository;
 public class AnalyticsRepository {
 
     private final EntityManager em;
+    private final AnalyticsProperties properties;
+    private final Dialect dialect;
 
-    public AnalyticsRepository(EntityManager em) {
+    public AnalyticsRepository(EntityManager em, AnalyticsProperties properties) {
         this.em = em;
-    }
-
-    // ── Dashboard: project summaries (batch) ────────────────────────────
-
-    public List<ProjectStatusCount> countByProjectAndStatus(List<UUID> projectIds) {
-        String jpql =
-                "SELECT t.project.id, t.status, COUNT(t) FROM Task t"
-                        + " WHERE t.project.id IN :projectIds"
-                        + " GROUP BY t.project.id, t.status";
-        return em
-                .createQuery(jpql, Object[].class)
-                .setParameter("projectIds", projectIds)
-                .getResultList()
-                .stream()
-                .map(r -> new ProjectStatusCount((UUID) r[0], (TaskStatus) r[1], (Long) r[2]))
-                .toList();
-    }
-
-    public List<ProjectCount> countOverdueByProject(
-            List<UUID> projectIds, Collection<TaskStatus> terminalStatuses) {
-        String jpql =
-                "SELECT t.project.id, COUNT(t) FROM Task t"
-                        + " WHERE t.project.id IN :projectIds"
-                        + " AND t.dueDate < CURRENT_DATE"
-                        + " AND t.status NOT IN :terminalStatuses"
-                        + " GROUP BY t.project.id";
-        return em
-                .createQuery(jpql, Object[].class)
-                .setParameter("projectIds", projectIds)
-                .setParameter("terminalStatuses", terminalStatuses)
-                .getResultList()
-                .stream()
-                .map(r -> new ProjectCount((UUID) r[0], (Long) r[1]))
-                .toList();
+        this.properties = properties;
+        this.dialect =
+                em.getEntityManagerFactory()
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getJdbcServices()
+                        .getDialect();
     }
 
     // ── Workload: group by user + status ─────────────────────────────────
@@ -82,17 +64,17 @@ public class AnalyticsRepository {
                 .toList();
     }
 
-    // ── Burndown: created per day ────────────────────────────────────────
+    // ── Completed per day (live tail of velocity) ────────────────────────
 
-    public List<DailyCount> countCreatedPerDay(
+    public List<DailyCount> countCompletedPerDay(
             UUID projectId, List<UUID> projectIds, Long sprintId, LocalDateTime from) {
         String jpql =
-                "SELECT CAST(t.createdAt AS LocalDate), COUNT(t) FROM Task t"
-                        + " WHERE t.createdAt >= :from"
+                "SELECT CAST(t.completedAt AS LocalDate), COUNT(t) FROM Task t"
+                        + " WHERE t.completedAt IS NOT NULL AND t.completedAt >= :from"
                         + projectAndClause(projectId, projectIds)
                         + sprintAndClause(sprintId, false)
-                        + " GROUP BY CAST(t.createdAt AS LocalDate)"
-                        + " ORDER BY CAST(t.createdAt AS LocalDate)";
+                        + " GROUP BY CAST(t.completedAt AS LocalDate)"
+                        + " ORDER BY CAST(t.completedAt AS LocalDate)";
         TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
         query.setParameter("from", from);
         bindProjectParams(query, projectId, projectIds);
@@ -102,49 +84,184 @@ public class AnalyticsRepository {
                 .toList();
     }
 
-    // ── Burndown: completed per day ──────────────────────────────────────
+    // ── Burndown: open count per day (live part of the series) ──────────
 
-    public List<DailyCount> countCompletedPerDay(
-            UUID projectId, List<UUID> projectIds, Long sprintId, LocalDateTime from) {
-        String jpql =
-                "SELECT CAST(t.completedAt AS LocalDate), COUNT(t) FROM Task t"
-                        + " WHERE t.completedAt IS NOT NULL AND t.completedAt >= :from"
-                        + projectAndClause(projectId, projectIds)
-                        + sprintAndClause(sprintId, false)
-                        + " GROUP BY CAST(t.completedAt AS LocalDate)"
-                        + " ORDER BY CAST(t.completedAt AS LocalDate)";
-        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
+    /**
+     * Tasks open at the end of each day {@code from..to} (one row per day, in order): created
+     * before the day ends, not completed by then, and not cancelled — the same definition the
+     * rollup's {@code open_count} is built with. For today, "end of day" is simply now.
+     *
+     * <p>Counted by the strategy in {@link AnalyticsProperties#getBurndownQuery()}.
+     */
+    public List<DailyCount> countOpenPerDay(
+            UUID projectId, List<UUID> projectIds, Long sprintId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+        return switch (properties.getBurndownQuery()) {
+            case WINDOW -> countOpenPerDayWindowed(projectId, projectIds, sprintId, from, to);
+            case THREE_SCANS -> countOpenPerDayScanned(projectId, projectIds, sprintId, from, to);
+        };
+    }
+
+    /**
+     * Single native query: the scoped tasks are read once, turned into +1 (created) / -1
+     * (completed) deltas per day, left-joined onto a calendar series so idle days still get a row,
+     * and summed with a running window on top of the count already open when the range starts.
+     */
+    private List<DailyCount> countOpenPerDayWindowed(
+            UUID projectId, List<UUID> projectIds, Long sprintId, LocalDate from, LocalDate to) {
+        String calendar =
+                isPostgres()
+                        ? "SELECT CAST(g.d AS DATE) AS on_day FROM generate_series("
+                                + "CAST(:from AS DATE), CAST(:to AS DATE), INTERVAL '1 day')"
+                                + " AS g(d)"
+                        : "SELECT DATEADD(DAY, X, CAST(:from AS DATE)) AS on_day"
+                                + " FROM SYSTEM_RANGE(0, :span)";
+        String sql =
+                "WITH scoped AS ("
+                        + " SELECT t.created_at, t.completed_at FROM tasks t"
+                        + " WHERE t.status <> 'CANCELLED' AND t.created_at < :until"
+                        + nativeScopeClause(projectId, projectIds, sprintId)
+                        + "), calendar AS ("
+                        + calendar
+                        + "), deltas AS ("
+                        + " SELECT CAST(created_at AS DATE) AS on_day, 1 AS delta FROM scoped"
+                        + " WHERE created_at >= :start"
+                        + " UNION ALL"
+                        + " SELECT CAST(completed_at AS DATE) AS on_day, -1 AS delta FROM scoped"
+                        + " WHERE completed_at >= :start AND completed_at < :until"
+                        + "), daily AS ("
+                        + " SELECT on_day, SUM(delta) AS delta FROM deltas GROUP BY on_day"
+                        + "), opening AS ("
+                        + " SELECT COUNT(*) AS open_count FROM scoped WHERE created_at < :start"
+                        + " AND (completed_at IS NULL OR completed_at >= :start)"
+                        + ")"
+                        + " SELECT c.on_day, o.open_count + SUM(COALESCE(d.delta, 0)) OVER ("
+                        + "ORDER BY c.on_day ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW)"
+                        + " FROM calendar c CROSS JOIN opening o"
+                        + " LEFT JOIN daily d ON d.on_day = c.on_day"
+                        + " ORDER BY c.on_day";
+        Query query = em.createNativeQuery(sql);
         query.setParameter("from", from);
+        if (isPostgres()) {
+            query.setParameter("to", to);
+        } else {
+            query.setParameter("span", ChronoUnit.DAYS.between(from, to));
+        }
+        query.setParameter("start", from.atStartOfDay());
+        query.setParameter("until", to.plusDays(1).atStartOfDay());
         bindProjectParams(query, projectId, projectIds);
         bindSprintParam(query, sprintId);
-        return query.getResultList().stream()
-                .map(r -> new DailyCount((LocalDate) r[0], (Long) r[1]))
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(r -> new DailyCount(toLocalDate(r[0]), ((Number) r[1]).longValue()))
                 .toList();
     }
 
-    // ── Burndown: initial open count at start date ───────────────────────
+    /**
+     * Three JPQL queries — the open count when the range starts, tasks created per day and tasks
+     * completed per day — merged in Java.
+     */
+    private List<DailyCount> countOpenPerDayScanned(
+            UUID projectId, List<UUID> projectIds, Long sprintId, LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime until = to.plusDays(1).atStartOfDay();
+        long open = countOpenAt(projectId, projectIds, sprintId, start);
+        Map<LocalDate, Long> created =
+                countPerDay("createdAt", projectId, projectIds, sprintId, start, until);
+        Map<LocalDate, Long> completed =
+                countPerDay("completedAt", projectId, projectIds, sprintId, start, until);
 
-    public long countOpenAtDate(
-            UUID projectId,
-            List<UUID> projectIds,
-            Long sprintId,
-            LocalDateTime from,
-            Collection<TaskStatus> terminalStatuses) {
+        List<DailyCount> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            open += created.getOrDefault(day, 0L) - completed.getOrDefault(day, 0L);
+            series.add(new DailyCount(day, open));
+        }
+        return series;
+    }
+
+    private long countOpenAt(
+            UUID projectId, List<UUID> projectIds, Long sprintId, LocalDateTime at) {
         String jpql =
                 "SELECT COUNT(t) FROM Task t"
-                        + " WHERE t.createdAt < :from"
-                        + " AND (t.completedAt IS NULL OR t.completedAt >= :from)"
-                        + " AND t.status NOT IN :terminalStatuses"
+                        + " WHERE t.createdAt < :at"
+                        + " AND t.status <> cc.desuka.demo.model.TaskStatus.CANCELLED"
+                        + " AND (t.completedAt IS NULL OR t.completedAt >= :at)"
                         + projectAndClause(projectId, projectIds)
                         + sprintAndClause(sprintId, false);
         TypedQuery<Long> query = em.createQuery(jpql, Long.class);
-        query.setParameter("from", from);
-        query.setParameter("terminalStatuses", terminalStatuses);
+        query.setParameter("at", at);
         bindProjectParams(query, projectId, projectIds);
         bindSprintParam(query, sprintId);
         return query.getSingleResult();
     }
 
+    /** Non-cancelled tasks per day of {@code field} (createdAt or completedAt) in the range. */
+    private Map<LocalDate, Long> countPerDay(
+            String field,
+            UUID projectId,
+            List<UUID> projectIds,
+            Long sprintId,
+            LocalDateTime start,
+            LocalDateTime until) {
+        String day = "CAST(t." + field + " AS LocalDate)";
+        String jpql =
+                "SELECT "
+                        + day
+                        + ", COUNT(t) FROM Task t"
+                        + " WHERE t."
+                        + field
+                        + " >= :start AND t."
+                        + field
+                        + " < :until"
+                        + " AND t.status <> cc.desuka.demo.model.TaskStatus.CANCELLED"
+                        + projectAndClause(projectId, projectIds)
+                        + sprintAndClause(sprintId, false)
+                        + " GROUP BY "
+                        + day;
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
+        query.setParameter("start", start);
+        query.setParameter("until", until);
+        bindProjectParams(query, projectId, projectIds);
+        bindSprintParam(query, sprintId);
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            counts.put((LocalDate) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // ── Rollups: finished days from task_daily_rollups ───────────────────
+
+    public List<DailyRollup> sumRollupsPerDay(
+            UUID projectId, List<UUID> projectIds, Long sprintId, LocalDate from, LocalDate to) {
+        String jpql =
+                "SELECT r.rollupDate, SUM(r.createdCount), SUM(r.completedCount),"
+                        + " SUM(r.openCount), SUM(r.effortCompleted)"
+                        + " FROM TaskDailyRollup r"
+                        + " WHERE r.rollupDate BETWEEN :from AND :to"
+                        + rollupScopeClause(projectId, projectIds, sprintId)
+                        + " GROUP BY r.rollupDate"
+                        + " ORDER BY r.rollupDate";
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
+        query.setParameter("from", from);
+        query.setParameter("to", to);
+        bindProjectParams(query, projectId, projectIds);
+        bindSprintParam(query, sprintId);
+        return query.getResultList().stream()
+                .map(
+                        r ->
+                                new DailyRollup(
+                                        (LocalDate) r[0],
+                                        (Long) r[1],
+                                        (Long) r[2],
+                                        (Long) r[3],
+                                        (Long) r[4]))
+                .toList();
+    }
+
     // ── Overdue by assignee ──────────────────────────────────────────────
 
     public List<UserCount> countOverdueByUser(
@@ -185,7 +302,7 @@ public class AnalyticsRepository {
                 .toList();
     }
 
-    // ── Effort completed per day ────────────────────────────────────────
+    // ── Effort completed per day (live tail of velocity) ─────────────────
 
     public List<DailyCount> sumEffortCompletedPerDay(
             UUID projectId, List<UUID> projectIds, Long sprintId, LocalDateTime from) {
@@ -228,7 +345,35 @@ public class AnalyticsRepository {
         return "";
     }
 
-    private void bindProjectParams(TypedQuery<?> query, UUID projectId, List<UUID> projectIds) {
+    /** AND clauses scoping {@code TaskDailyRollup r} — same parameter names as the task ones. */
+    private String rollupScopeClause(UUID projectId, List<UUID> projectIds, Long sprintId) {
+        String clause = "";
+        if (projectId != null) {
+            clause += " AND r.projectId = :projectId";
+        } else if (projectIds != null) {
+            clause += " AND r.projectId IN :projectIds";
+        }
+        if (sprintId != null) {
+            clause += " AND r.sprintId = :sprintId";
+        }
+        return clause;
+    }
+
+    /** AND clauses scoping the native {@code tasks t} — same parameter names as the JPQL ones. */
+    private String nativeScopeClause(UUID projectId, List<UUID> projectIds, Long sprintId) {
+        String clause = "";
+        if (projectId != null) {
+            clause += " AND t.project_id = :projectId";
+        } else if (projectIds != null) {
+            clause += " AND t.project_id IN (:projectIds)";
+        }
+        if (sprintId != null) {
+            clause += " AND t.sprint_id = :sprintId";
+        }
+        return clause;
+    }
+
+    private void bindProjectParams(Query query, UUID projectId, List<UUID> projectIds) {
         if (projectId != null) {
             query.setParameter("projectId", projectId);
         } else if (projectIds != null) {
@@ -247,9 +392,18 @@ public class AnalyticsRepository {
         return prefix + " t.sprint.id = :sprintId";
     }
 
-    private void bindSprintParam(TypedQuery<?> query, Long sprintId) {
+    private void bindSprintParam(Query query, Long sprintId) {
         if (sprintId != null) {
             query.setParameter("sprintId", sprintId);
         }
     }
+
+    /** Native DATE columns come back as {@code java.sql.Date} or {@code LocalDate} by driver. */
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private boolean isPostgres() {
+        return dialect instanceof PostgreSQLDialect;
+    }
 }
@@ -0,0 +1,60 @@
+package cc.desuka.demo.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the task full-text HQL/Criteria functions with a dialect-specific body. Loaded by
+ * Hibernate through {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ *
+ * <ul>
+ *   <li>{@value #MATCH}(title, description, keyword) — boolean match
+ *   <li>{@value #RANK}(title, description, keyword) — relevance score, higher is better
+ * </ul>
+ *
+ * <p>PostgreSQL uses {@code tsvector}/{@code websearch_to_tsquery} over the expression indexed by
+ * {@code V2__task_full_text_search.sql}. Other databases (H2 in dev/test) fall back to a
+ * case-insensitive substring match, ranking title hits above description-only hits.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH = "task_fts_match";
+    public static final String RANK = "task_fts_rank";
+
+    // Must match idx_tasks_search_vector exactly
+    private static final String PG_VECTOR =
+            "(setweight(to_tsvector('simple', coalesce(?1, '')), 'A')"
+                    + " || setweight(to_tsvector('simple', coalesce(?2, '')), 'B'))";
+    private static final String PG_QUERY = "websearch_to_tsquery('simple', ?3)";
+
+    private static final String LIKE_TITLE = "lower(?1) like ('%' || lower(?3) || '%')";
+    private static final String LIKE_DESCRIPTION = "lower(?2) like ('%' || lower(?3) || '%')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        var types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> booleanType = types.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = types.resolve(StandardBasicTypes.DOUBLE);
+        var registry = contributions.getFunctionRegistry();
+
+        if (contributions.getDialect() instanceof PostgreSQLDialect) {
+            registry.registerPattern(MATCH, "(" + PG_VECTOR + " @@ " + PG_QUERY + ")", booleanType);
+            registry.registerPattern(
+                    RANK, "ts_rank(" + PG_VECTOR + ", " + PG_QUERY + ")", doubleType);
+        } else {
+            registry.registerPattern(
+                    MATCH, "(" + LIKE_TITLE + " or " + LIKE_DESCRIPTION + ")", booleanType);
+            registry.registerPattern(
+                    RANK,
+                    "(case when "
+                            + LIKE_TITLE
+                            + " then 2.0 when "
+                            + LIKE_DESCRIPTION
+                            + " then 1.0 else 0.0 end)",
+                    doubleType);
+        }
+    }
+}
@@ -30,4 +30,7 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
     @Query("SELECT p.id FROM Project p WHERE p.status = :status")
     List<UUID> findIdsByStatus(ProjectStatus status);
+
+    @Query("SELECT p.id FROM Project p")
+    List<UUID> findAllIds();
 }
@@ -0,0 +1,60 @@
+package cc.desuka.demo.repository;
+
+import cc.desuka.demo.model.ProjectTaskStat;
+import cc.desuka.demo.model.TaskStatus;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectTaskStatRepository extends JpaRepository<ProjectTaskStat, Long> {
+
+    // Dashboard summaries — served by the (project_id, status) unique index
+    List<ProjectTaskStat> findByProjectIdIn(Collection<UUID> projectIds);
+
+    List<ProjectTaskStat> findByProjectId(UUID projectId);
+
+    /**
+     * Applies a delta in place (row-locked by the UPDATE), so concurrent task writes in the same
+     * project never lose an increment. Returns 0 when the row does not exist yet.
+     */
+    @Modifying
+    @Query(
+            "UPDATE ProjectTaskStat s"
+                    + " SET s.taskCount = s.taskCount + :taskDelta,"
+                    + " s.overdueCount = s.overdueCount + :overdueDelta"
+                    + " WHERE s.projectId = :projectId AND s.status = :status")
+    int addCounts(UUID projectId, TaskStatus status, long taskDelta, long overdueDelta);
+
+    /**
+     * Daily rollover: tasks whose due date has just passed become overdue without any write, so
+     * the overdue column is recomputed from the live tasks once the date changes.
+     */
+    @Modifying
+    @Query(
+            "UPDATE ProjectTaskStat s SET s.overdueCount ="
+                    + " (SELECT COUNT(t) FROM Task t WHERE t.project.id = s.projectId"
+                    + " AND t.status = s.status AND t.dueDate < :today"
+                    + " AND t.status NOT IN :terminalStatuses)")
+    int recomputeOverdue(LocalDate today, Collection<TaskStatus> terminalStatuses);
+
+    // Live counts for verify-and-repair — full GROUP BY scans, nightly only
+    @Query("SELECT t.project.id, t.status, COUNT(t) FROM Task t GROUP BY t.project.id, t.status")
+    List<Object[]> countLiveByProjectAndStatus();
+
+    @Query(
+            "SELECT t.project.id, t.status, COUNT(t) FROM Task t"
+                    + " WHERE t.dueDate < :today AND t.status NOT IN :terminalStatuses"
+                    + " GROUP BY t.project.id, t.status")
+    List<Object[]> countLiveOverdueByProjectAndStatus(
+            LocalDate today, Collection<TaskStatus> terminalStatuses);
+
+    @Modifying
+    @Query("DELETE FROM ProjectTaskStat s WHERE s.projectId = :projectId")
+    void deleteByProjectId(UUID projectId);
+}
@@ -0,0 +1,61 @@
+package cc.desuka.demo.repository;
+
+import cc.desuka.demo.model.TaskDailyRollup;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskDailyRollupRepository
+        extends JpaRepository<TaskDailyRollup, Long>, TaskDailyRollupRepositoryCustom {
+
+    /** Latest day the nightly rollup has written, or null before its first run. */
+    @Query("SELECT MAX(r.rollupDate) FROM TaskDailyRollup r")
+    LocalDate findLatestRollupDate();
+
+    @Query("SELECT MIN(t.createdAt) FROM Task t")
+    LocalDateTime findEarliestTaskCreatedAt();
+
+    // Rollup sources over the live tasks table — one GROUP BY per chunk of days, nightly only.
+    // Groups are (project, sprint); t.sprint.id reads the FK column, so sprint-less tasks group
+    // under null rather than being inner-joined away.
+
+    /** Row: projectId, sprintId, open task count at {@code at}. */
+    @Query(
+            "SELECT t.project.id, t.sprint.id, COUNT(t) FROM Task t"
+                    + " WHERE t.createdAt < :at"
+                    + " AND t.status <> cc.desuka.demo.model.TaskStatus.CANCELLED"
+                    + " AND (t.completedAt IS NULL OR t.completedAt >= :at)"
+                    + " GROUP BY t.project.id, t.sprint.id")
+    List<Object[]> countOpenByProjectAndSprintAt(LocalDateTime at);
+
+    /** Row: projectId, sprintId, day, created, created and not cancelled. */
+    @Query(
+            "SELECT t.project.id, t.sprint.id, CAST(t.createdAt AS LocalDate), COUNT(t),"
+                    + " SUM(CASE WHEN t.status <> cc.desuka.demo.model.TaskStatus.CANCELLED"
+                    + " THEN 1 ELSE 0 END)"
+                    + " FROM Task t WHERE t.createdAt >= :from AND t.createdAt < :until"
+                    + " GROUP BY t.project.id, t.sprint.id, CAST(t.createdAt AS LocalDate)")
+    List<Object[]> countCreatedByProjectSprintAndDay(LocalDateTime from, LocalDateTime until);
+
+    /** Row: projectId, sprintId, day, completed, effort completed. */
+    @Query(
+            "SELECT t.project.id, t.sprint.id, CAST(t.completedAt AS LocalDate), COUNT(t),"
+                    + " COALESCE(SUM(t.effort), 0)"
+                    + " FROM Task t WHERE t.completedAt >= :from AND t.completedAt < :until"
+                    + " GROUP BY t.project.id, t.sprint.id, CAST(t.completedAt AS LocalDate)")
+    List<Object[]> countCompletedByProjectSprintAndDay(LocalDateTime from, LocalDateTime until);
+
+    @Modifying
+    @Query("DELETE FROM TaskDailyRollup r WHERE r.rollupDate BETWEEN :first AND :last")
+    int deleteByRollupDateBetween(LocalDate first, LocalDate last);
+
+    @Modifying
+    @Query("DELETE FROM TaskDailyRollup r WHERE r.projectId = :projectId")
+    void deleteByProjectId(UUID projectId);
+}
@@ -0,0 +1,16 @@
+package cc.desuka.demo.repository;
+
+/**
+ * Custom fragment of {@link TaskDailyRollupRepository} for statements Spring Data cannot express
+ * portably. Implemented by {@link TaskDailyRollupRepositoryCustomImpl}.
+ */
+public interface TaskDailyRollupRepositoryCustom {
+
+    /**
+     * Takes the rollup writer lock until the current transaction ends, so rollup runs on several
+     * nodes (or a startup run overlapping the nightly one) replace days one after another instead
+     * of interleaving their deletes and inserts. A PostgreSQL transaction-level advisory lock; a
+     * no-op on H2, where dev and test run a single node whose scheduler runs one rollup at a time.
+     */
+    void lockForRollup();
+}
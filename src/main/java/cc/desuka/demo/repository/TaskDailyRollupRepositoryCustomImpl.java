@@ -0,0 +1,38 @@
+package cc.desuka.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Native implementation of {@link TaskDailyRollupRepositoryCustom}. Spring Data picks it up by the
+ * {@code Impl} suffix and merges it into {@link TaskDailyRollupRepository}.
+ */
+public class TaskDailyRollupRepositoryCustomImpl implements TaskDailyRollupRepositoryCustom {
+
+    /** Advisory lock key for rollup writers — any constant no other lock in the schema uses. */
+    private static final long ROLLUP_LOCK_KEY = 0x7461736b726f6c6cL;
+
+    private final EntityManager em;
+    private final Dialect dialect;
+
+    public TaskDailyRollupRepositoryCustomImpl(EntityManager em) {
+        this.em = em;
+        this.dialect =
+                em.getEntityManagerFactory()
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getJdbcServices()
+                        .getDialect();
+    }
+
+    @Override
+    public void lockForRollup() {
+        if (dialect instanceof PostgreSQLDialect) {
+            // Blocks until the other writer commits; released with this transaction
+            em.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(:key)")
+                    .setParameter("key", ROLLUP_LOCK_KEY)
+                    .getSingleResult();
+        }
+    }
+}
@@ -3,22 +3,27 @@ package cc.desuka.demo.repository;
 import cc.desuka.demo.model.Task;
 import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.User;
+import cc.desuka.demo.snapshot.TaskFact;
+import cc.desuka.demo.typeahead.TaskEntry;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository
+        extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
     @EntityGraph(attributePaths = {"tags", "user", "project", "sprint", "checklistItems"})
     Optional<Task> findById(UUID id);
@@ -38,9 +43,41 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificat
     @EntityGraph(attributePaths = {"tags", "user", "project", "sprint"})
     List<Task> findAll();
 
+    // Second phase of ID-first paging (see TaskRepositoryCustom#findIds): the ID list is already
+    // limited, so fetching the tag collection here cannot trigger in-memory pagination.
+    // Result order is unspecified — callers re-order by the ID list.
+    @EntityGraph(attributePaths = {"tags", "user", "project", "sprint"})
+    List<Task> findByIdIn(Collection<UUID> ids);
+
     @EntityGraph(attributePaths = {"tags", "user"})
     List<Task> findByStatusNotIn(Collection<TaskStatus> statuses);
 
+    @Query("SELECT t.project.id FROM Task t WHERE t.id = :id")
+    Optional<UUID> findProjectIdById(UUID id);
+
+    // Typeahead index rows — scalar columns only, no entity hydration
+    @Query(
+            "SELECT new cc.desuka.demo.typeahead.TaskEntry(t.id, t.title, t.status, t.createdAt,"
+                    + " t.project.id) FROM Task t")
+    List<TaskEntry> findTypeaheadEntries();
+
+    @Query(
+            "SELECT new cc.desuka.demo.typeahead.TaskEntry(t.id, t.title, t.status, t.createdAt,"
+                    + " t.project.id) FROM Task t WHERE t.id = :id")
+    Optional<TaskEntry> findTypeaheadEntry(UUID id);
+
+    // Analytics snapshot rows — scalar columns only; the user FK is read without a join
+    @Query(
+            "SELECT new cc.desuka.demo.snapshot.TaskFact(t.id, t.project.id, t.user.id, t.status,"
+                    + " t.priority, t.createdAt, t.completedAt, t.dueDate, t.effort) FROM Task t")
+    Stream<TaskFact> streamSnapshotFacts();
+
+    @Query(
+            "SELECT new cc.desuka.demo.snapshot.TaskFact(t.id, t.project.id, t.user.id, t.status,"
+                    + " t.priority, t.createdAt, t.completedAt, t.dueDate, t.effort) FROM Task t"
+                    + " WHERE t.id IN :ids")
+    List<TaskFact> findSnapshotFacts(Collection<UUID> ids);
+
     @EntityGraph(attributePaths = {"tags", "user"})
     List<Task> findByProjectIdInAndStatusNotIn(
             Collection<UUID> projectIds, Collection<TaskStatus> statuses);
@@ -60,17 +97,50 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificat
 
     long countByUserAndStatus(User user, TaskStatus status);
 
-    @Query("SELECT t.status, COUNT(t) FROM Task t WHERE t.user = :user GROUP BY t.status")
-    List<Object[]> countGroupedByStatusForUser(User user);
-
     long countByUserIdAndStatus(UUID userId, TaskStatus status);
 
-    long countByUserAndDueDateBeforeAndStatusNotIn(
-            User user, LocalDate date, Collection<TaskStatus> statuses);
-
-    long countByStatus(TaskStatus status);
-
-    long countByDueDateBeforeAndStatusNotIn(LocalDate date, Collection<TaskStatus> statuses);
+    // Dashboard counters in one pass: COUNT plus one conditional SUM per status bucket and for
+    // overdue, grouped by assignee. Unscoped, the rows add up to the system-wide totals; scoped to
+    // one user, the (user_id, status) index serves it.
+    // Row: userId, total, open, inProgress, inReview, completed, overdue.
+    String DASHBOARD_COUNTERS =
+            "SELECT t.user.id, COUNT(t),"
+                    + " SUM(CASE WHEN t.status = cc.desuka.demo.model.TaskStatus.OPEN"
+                    + " THEN 1 ELSE 0 END),"
+                    + " SUM(CASE WHEN t.status = cc.desuka.demo.model.TaskStatus.IN_PROGRESS"
+                    + " THEN 1 ELSE 0 END),"
+                    + " SUM(CASE WHEN t.status = cc.desuka.demo.model.TaskStatus.IN_REVIEW"
+                    + " THEN 1 ELSE 0 END),"
+                    + " SUM(CASE WHEN t.status = cc.desuka.demo.model.TaskStatus.COMPLETED"
+                    + " THEN 1 ELSE 0 END),"
+                    + " SUM(CASE WHEN t.dueDate < :today AND t.status NOT IN :terminalStatuses"
+                    + " THEN 1 ELSE 0 END)"
+                    + " FROM Task t";
+
+    @Query(DASHBOARD_COUNTERS + " GROUP BY t.user.id")
+    List<Object[]> countDashboardCounters(LocalDate today, Collection<TaskStatus> terminalStatuses);
+
+    @Query(DASHBOARD_COUNTERS + " WHERE t.user.id = :userId GROUP BY t.user.id")
+    List<Object[]> countDashboardCountersForUser(
+            UUID userId, LocalDate today, Collection<TaskStatus> terminalStatuses);
+
+    // Consistency repair for the denormalized checklist counters (see Task#syncChecklistCounts):
+    // recounts checklist_items only for tasks whose stored values have drifted. Bulk JPQL bypasses
+    // @Version on purpose — the counters are derived data, not a user edit.
+    @Modifying
+    @Query(
+            "UPDATE Task t SET"
+                    + " t.checklistTotal ="
+                    + " (SELECT COUNT(c) FROM ChecklistItem c WHERE c.task = t),"
+                    + " t.checklistChecked ="
+                    + " (SELECT COUNT(c) FROM ChecklistItem c"
+                    + " WHERE c.task = t AND c.checked = true)"
+                    + " WHERE t.checklistTotal <>"
+                    + " (SELECT COUNT(c) FROM ChecklistItem c WHERE c.task = t)"
+                    + " OR t.checklistChecked <>"
+                    + " (SELECT COUNT(c) FROM ChecklistItem c"
+                    + " WHERE c.task = t AND c.checked = true)")
+    int repairChecklistCounts();
 
     @EntityGraph(attributePaths = {"project"})
     List<Task> findTop5ByUserOrderByCreatedAtDesc(User user);
@@ -90,12 +160,9 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificat
     // With @EntityGraph: Hibernate issues a single LEFT JOIN query across task_tags
     // to load tasks and all their tags in one round-trip.
     //
-    // ⚠️  @ManyToMany + pagination caveat: the JOIN produces one row per task-tag pair,
-    // so a task with 3 tags = 3 rows. SQL LIMIT is applied before deduplication, which
-    // can return fewer results than the requested page size. For production systems
-    // with large tag counts, prefer @BatchSize(size = 25) on Task.tags — it loads tags
-    // in batches after pagination, avoiding this issue entirely.
-    // Loads both tags and user in a single query to prevent N+1 on the paginated task list.
+    // ⚠️  Fetching the tags collection makes Hibernate apply any LIMIT in memory (HHH90003004),
+    // loading every matching row first. Only call this unpaged (calendar);
+    // paged searches go through findIds + findByIdIn (TaskQueryService#searchTasks).
     @EntityGraph(attributePaths = {"tags", "user", "project", "sprint"})
     Page<Task> findAll(Specification<Task> spec, Pageable pageable);
 }
@@ -0,0 +1,48 @@
+package cc.desuka.demo.repository;
+
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.model.Task;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom fragment of {@link TaskRepository} for queries Spring Data cannot derive. Implemented by
+ * {@link TaskRepositoryCustomImpl}.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Selects only the IDs of matching tasks, in {@code sort} order, with a real SQL LIMIT/OFFSET.
+     * Callers load the entities (and their collections) separately by ID.
+     */
+    List<UUID> findIds(Specification<Task> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Like {@link #findIds}, ordered by full-text relevance to {@code keyword} (best first), then
+     * newest first.
+     */
+    List<UUID> findIdsByRelevance(Specification<Task> spec, String keyword, long offset, int limit);
+
+    /**
+     * Selects matching tasks as {@link TaskCardView} projections in {@code sort} order — scalar
+     * columns, assignee and project in one query, tags in a second (batched by ID). Nothing is
+     * attached to the persistence context.
+     */
+    List<TaskCardView> findCardViews(Specification<Task> spec, Sort sort);
+
+    /**
+     * Streams matching tasks (with their assignee) forward-only in {@code sort} order and hands
+     * them to {@code consumer} in chunks of {@code chunkSize}, together with each chunk's tag names
+     * keyed by task ID. The persistence context is cleared after every chunk, so memory stays flat
+     * however many rows match. Must run inside a transaction.
+     */
+    void forEachChunk(
+            Specification<Task> spec,
+            Sort sort,
+            int chunkSize,
+            BiConsumer<List<Task>, Map<UUID, List<String>>> consumer);
+}
@@ -0,0 +1,273 @@
+package cc.desuka.demo.repository;
+
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.dto.TaskCardView.ProjectRef;
+import cc.desuka.demo.dto.TaskCardView.TagRef;
+import cc.desuka.demo.dto.TaskCardView.UserRef;
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.Task;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria-API implementation of {@link TaskRepositoryCustom}. Spring Data picks it up by the
+ * {@code Impl} suffix and merges it into {@link TaskRepository}.
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    /** Max task IDs bound into one tag lookup — keeps IN lists well under driver limits. */
+    private static final int TAG_LOOKUP_BATCH = 1000;
+
+    private final EntityManager em;
+
+    public TaskRepositoryCustomImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<UUID> findIds(Specification<Task> spec, Sort sort, long offset, int limit) {
+        return selectIds(
+                spec,
+                (root, cb) -> {
+                    List<Order> orders = new ArrayList<>();
+                    for (Sort.Order order : sort) {
+                        Path<?> path = resolvePath(root, order.getProperty());
+                        orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+                    }
+                    return orders;
+                },
+                offset,
+                limit);
+    }
+
+    @Override
+    public List<UUID> findIdsByRelevance(
+            Specification<Task> spec, String keyword, long offset, int limit) {
+        return selectIds(
+                spec,
+                (root, cb) ->
+                        List.of(
+                                cb.desc(TaskSpecifications.keywordRank(root, cb, keyword)),
+                                cb.desc(root.get(Task.FIELD_CREATED_AT)),
+                                cb.desc(root.get(Task.FIELD_ID))),
+                offset,
+                limit);
+    }
+
+    @Override
+    public List<TaskCardView> findCardViews(Specification<Task> spec, Sort sort) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        Join<Task, Project> project = root.join(Task.FIELD_PROJECT);
+        Join<Task, User> user = root.join(Task.FIELD_USER, JoinType.LEFT);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // Column order here is the tuple index order read back in toCardView()
+        List<Selection<?>> selections =
+                new ArrayList<>(
+                        List.of(
+                                root.get(Task.FIELD_ID),
+                                root.get(Task.FIELD_TITLE),
+                                root.get(Task.FIELD_DESCRIPTION),
+                                root.get(Task.FIELD_STATUS),
+                                root.get(Task.FIELD_PRIORITY),
+                                root.get(Task.FIELD_DUE_DATE),
+                                root.get(Task.FIELD_EFFORT),
+                                root.get(Task.FIELD_CREATED_AT),
+                                root.get(Task.FIELD_UPDATED_AT),
+                                root.get(Task.FIELD_BLOCKED),
+                                root.get(Task.FIELD_CHECKLIST_TOTAL),
+                                root.get(Task.FIELD_CHECKLIST_CHECKED),
+                                project.get(Project.FIELD_ID),
+                                project.get(Project.FIELD_NAME),
+                                user.get(User.FIELD_ID),
+                                user.get(User.FIELD_NAME),
+                                root.get(Task.FIELD_VERSION)));
+        // Same DISTINCT caveat as selectIds(): every ORDER BY expression must be selected
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = resolvePath(root, order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+            selections.add(path);
+        }
+        query.multiselect(selections).orderBy(orders);
+
+        List<Tuple> rows = em.createQuery(query).getResultList();
+        Map<UUID, List<TagRef>> tags =
+                findTagRefs(rows.stream().map(row -> row.get(0, UUID.class)).toList());
+        return rows.stream().map(row -> toCardView(row, tags)).toList();
+    }
+
+    @Override
+    public void forEachChunk(
+            Specification<Task> spec,
+            Sort sort,
+            int chunkSize,
+            BiConsumer<List<Task>, Map<UUID, List<String>>> consumer) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        // Assignee is to-one, so fetch-joining it is cursor-safe; tags are loaded per chunk
+        root.fetch(Task.FIELD_USER, JoinType.LEFT);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort.and(Sort.by(Task.FIELD_ID))) {
+            Path<?> path = resolvePath(root, order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.select(root).orderBy(orders);
+
+        try (Stream<Task> rows =
+                em.createQuery(query)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+            List<Task> chunk = new ArrayList<>(chunkSize);
+            Iterator<Task> it = rows.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == chunkSize || !it.hasNext()) {
+                    consumer.accept(chunk, findTagNames(chunk));
+                    chunk.clear();
+                    em.clear();
+                }
+            }
+        }
+    }
+
+    /** Tag names for a chunk of tasks in one query, sorted by name within each task. */
+    private Map<UUID, List<String>> findTagNames(List<Task> tasks) {
+        List<UUID> ids = tasks.stream().map(Task::getId).toList();
+        Map<UUID, List<String>> names = new HashMap<>();
+        em.createQuery(
+                        "SELECT t.id, tag.name FROM Task t JOIN t.tags tag"
+                                + " WHERE t.id IN :ids ORDER BY tag.name",
+                        Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(
+                        r ->
+                                names.computeIfAbsent((UUID) r[0], id -> new ArrayList<>())
+                                        .add((String) r[1]));
+        return names;
+    }
+
+    /** Tags for the given tasks, sorted by name within each task, in batches of IDs. */
+    private Map<UUID, List<TagRef>> findTagRefs(List<UUID> taskIds) {
+        Map<UUID, List<TagRef>> tags = new HashMap<>();
+        for (int from = 0; from < taskIds.size(); from += TAG_LOOKUP_BATCH) {
+            List<UUID> batch =
+                    taskIds.subList(from, Math.min(from + TAG_LOOKUP_BATCH, taskIds.size()));
+            em.createQuery(
+                            "SELECT t.id, tag.id, tag.name FROM Task t JOIN t.tags tag"
+                                    + " WHERE t.id IN :ids ORDER BY tag.name",
+                            Object[].class)
+                    .setParameter("ids", batch)
+                    .getResultList()
+                    .forEach(
+                            r ->
+                                    tags.computeIfAbsent((UUID) r[0], id -> new ArrayList<>())
+                                            .add(new TagRef((Long) r[1], (String) r[2])));
+        }
+        return tags;
+    }
+
+    private TaskCardView toCardView(Tuple row, Map<UUID, List<TagRef>> tags) {
+        UUID id = row.get(0, UUID.class);
+        UUID userId = row.get(14, UUID.class);
+        return new TaskCardView(
+                id,
+                row.get(16, Long.class),
+                row.get(1, String.class),
+                row.get(2, String.class),
+                row.get(3, TaskStatus.class),
+                row.get(4, Priority.class),
+                row.get(5, LocalDate.class),
+                row.get(6, Short.class),
+                row.get(7, LocalDateTime.class),
+                row.get(8, LocalDateTime.class),
+                row.get(9, Boolean.class),
+                row.get(10, Integer.class),
+                row.get(11, Integer.class),
+                new ProjectRef(row.get(12, UUID.class), row.get(13, String.class)),
+                userId != null ? new UserRef(userId, row.get(15, String.class)) : null,
+                tags.getOrDefault(id, List.of()));
+    }
+
+    private List<UUID> selectIds(
+            Specification<Task> spec,
+            BiFunction<Root<Task>, CriteriaBuilder, List<Order>> orderBy,
+            long offset,
+            int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // Sort expressions are selected alongside the id: specs may set DISTINCT (tag filter),
+        // and SELECT DISTINCT requires every ORDER BY expression to appear in the select list.
+        List<Order> orders = orderBy.apply(root, cb);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(Task.FIELD_ID));
+        for (Order order : orders) {
+            selections.add(order.getExpression());
+        }
+        query.multiselect(selections).orderBy(orders);
+
+        return em
+                .createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(row -> row.get(0, UUID.class))
+                .toList();
+    }
+
+    private Path<?> resolvePath(Root<Task> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\.")) {
+            path = path.get(segment);
+        }
+        return path;
+    }
+}
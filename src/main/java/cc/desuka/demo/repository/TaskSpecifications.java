@@ -1,5 +1,6 @@
 package cc.desuka.demo.repository;
 
+import cc.desuka.demo.dto.TaskCursor;
 import cc.desuka.demo.dto.TaskSearchCriteria;
 import cc.desuka.demo.model.Priority;
 import cc.desuka.demo.model.Project;
@@ -9,14 +10,26 @@ import cc.desuka.demo.model.Task;
 import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.TaskStatusFilter;
 import cc.desuka.demo.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.domain.Specification;
 
 public class TaskSpecifications {
 
+    /** Pseudo sort property: order by full-text relevance to the keyword, best match first. */
+    public static final String SORT_RELEVANCE = "relevance";
+
+    /** Restricts to an already-selected page of IDs (second phase of ID-first paging). */
+    public static Specification<Task> withIds(Collection<UUID> ids) {
+        return (root, query, cb) -> root.get(Task.FIELD_ID).in(ids);
+    }
+
     public static Specification<Task> withProjectId(UUID projectId) {
         return (root, query, cb) -> {
             if (projectId == null) return cb.conjunction();
@@ -44,13 +57,28 @@ public class TaskSpecifications {
             if (keyword == null || keyword.trim().isEmpty()) {
                 return cb.conjunction();
             }
-            String pattern = "%" + keyword.toLowerCase() + "%";
-            return cb.or(
-                    cb.like(cb.lower(root.get(Task.FIELD_TITLE)), pattern),
-                    cb.like(cb.lower(root.get(Task.FIELD_DESCRIPTION)), pattern));
+            // Full-text match; see FullTextFunctionContributor for the per-dialect SQL
+            return cb.isTrue(
+                    cb.function(
+                            FullTextFunctionContributor.MATCH,
+                            Boolean.class,
+                            root.get(Task.FIELD_TITLE),
+                            root.get(Task.FIELD_DESCRIPTION),
+                            cb.literal(keyword.trim())));
         };
     }
 
+    /** Relevance of a task to {@code keyword} (higher is better), for {@link #SORT_RELEVANCE}. */
+    public static Expression<Double> keywordRank(
+            Root<Task> root, CriteriaBuilder cb, String keyword) {
+        return cb.function(
+                FullTextFunctionContributor.RANK,
+                Double.class,
+                root.get(Task.FIELD_TITLE),
+                root.get(Task.FIELD_DESCRIPTION),
+                cb.literal(keyword.trim()));
+    }
+
     public static Specification<Task> withTitleContaining(String keyword) {
         return (root, query, cb) -> {
             if (keyword == null || keyword.trim().isEmpty()) {
@@ -120,6 +148,28 @@ public class TaskSpecifications {
         };
     }
 
+    /**
+     * Keyset predicate: rows strictly after {@code cursor} in (sort column, id) order. Pair with
+     * {@link TaskCursor#keysetSort} so the ORDER BY matches the comparison.
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<Task> withCursor(TaskCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) return cb.conjunction();
+            Expression<Comparable<Object>> key = root.get(cursor.field());
+            Comparable<Object> value = (Comparable<Object>) cursor.value();
+            Expression<UUID> id = root.get(Task.FIELD_ID);
+            if (cursor.direction().isAscending()) {
+                return cb.or(
+                        cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.id())));
+            }
+            return cb.or(
+                    cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(id, cursor.id())));
+        };
+    }
+
     // ── Build helper ────────────────────────────────────────────────────
 
     public static Specification<Task> build(TaskSearchCriteria criteria) {
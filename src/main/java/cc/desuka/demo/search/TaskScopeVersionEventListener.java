@@ -0,0 +1,66 @@
+package cc.desuka.demo.search;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.broadcast.DataChange;
+import cc.desuka.demo.event.TaskPushEvent;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.Sprint;
+import cc.desuka.demo.model.Tag;
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.snapshot.TaskSnapshotEventListener;
+import java.util.Set;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bumps {@link TaskScopeVersions} after commit, which stales {@link TaskSearchCache} entries and
+ * analytics/dashboard ETags. Task writes only bump their own project; project, sprint, tag and user
+ * writes can unassign, untag or re-scope tasks in bulk without a task push event, so they bump
+ * everything. Other nodes' writes arrive as {@link DataChange}s and bump the same way.
+ *
+ * <p>Ordered right after {@link TaskSnapshotEventListener}, so a new stamp never covers a write the
+ * snapshot behind admin analytics has not applied yet; still ahead of the other listeners.
+ */
+@Component
+public class TaskScopeVersionEventListener {
+
+    private static final Set<String> GLOBAL_ENTITY_TYPES =
+            Set.of(
+                    Project.class.getSimpleName(),
+                    Sprint.class.getSimpleName(),
+                    Tag.class.getSimpleName(),
+                    User.class.getSimpleName());
+
+    private final TaskScopeVersions taskScopeVersions;
+
+    public TaskScopeVersionEventListener(TaskScopeVersions taskScopeVersions) {
+        this.taskScopeVersions = taskScopeVersions;
+    }
+
+    @Order(TaskSnapshotEventListener.ORDER + 1)
+    @TransactionalEventListener
+    public void onTaskPush(TaskPushEvent event) {
+        taskScopeVersions.bumpProject(event.projectId());
+    }
+
+    @Order(TaskSnapshotEventListener.ORDER + 1)
+    @TransactionalEventListener
+    public void onAudit(AuditEvent event) {
+        String type = event.getEntityType();
+        if (type != null && GLOBAL_ENTITY_TYPES.contains(type)) {
+            taskScopeVersions.bumpAll();
+        }
+    }
+
+    @Order(TaskSnapshotEventListener.ORDER + 1)
+    @EventListener
+    public void onDataChange(DataChange change) {
+        if (change.affectsTask()) {
+            taskScopeVersions.bumpProject(change.projectId());
+        } else if (change.affectsAll() || GLOBAL_ENTITY_TYPES.contains(change.entityType())) {
+            taskScopeVersions.bumpAll();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package cc.desuka.demo.search;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory version counters for the task data behind a project scope. {@link
+ * TaskScopeVersionEventListener} bumps a project's counter after each committed task write there,
+ * and a global epoch after writes that can move tasks across any scope (users, tags, sprints,
+ * membership).
+ *
+ * <p>A {@link #stamp} changes whenever anything in its scope may have changed, so it serves both as
+ * the staleness check of {@link TaskSearchCache} and as the input of the strong ETags for analytics
+ * and dashboard polls ({@link #etag}). Counters start from zero on every boot; ETags mix in a
+ * per-boot nonce so a restart never revalidates a response computed before it.
+ */
+@Component
+public class TaskScopeVersions {
+
+    private final Map<UUID, AtomicLong> projectVersions = new ConcurrentHashMap<>();
+    // Bumped by every write; unscoped (admin) reads depend on all projects at once
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    private final String bootId = UUID.randomUUID().toString();
+
+    // ── Bumps ────────────────────────────────────────────────────────────
+
+    /** Marks everything that covers {@code projectId} as changed. */
+    public void bumpProject(UUID projectId) {
+        projectVersions.computeIfAbsent(projectId, id -> new AtomicLong()).incrementAndGet();
+        writes.incrementAndGet();
+    }
+
+    /** Marks every scope as changed. */
+    public void bumpAll() {
+        epoch.incrementAndGet();
+        writes.incrementAndGet();
+    }
+
+    // ── Reads ────────────────────────────────────────────────────────────
+
+    /**
+     * Current version of a scope: a single project, a set of projects (in the given order), or —
+     * with both null — every project. Take the stamp before reading the data it describes, so a
+     * write committing mid-read leaves the stamp already stale.
+     */
+    public List<Long> stamp(UUID projectId, List<UUID> projectIds) {
+        List<UUID> scope = projectId != null ? List.of(projectId) : projectIds;
+        if (scope == null) return List.of(writes.get());
+        List<Long> stamp = new ArrayList<>(scope.size() + 1);
+        stamp.add(epoch.get());
+        for (UUID id : scope) {
+            AtomicLong version = projectVersions.get(id);
+            stamp.add(version != null ? version.get() : 0L);
+        }
+        return stamp;
+    }
+
+    /**
+     * Strong ETag (quoted) over this boot and {@code parts} — the scope identity, its {@link
+     * #stamp} and anything else the response depends on (date, user, ...). Parts are compared by
+     * {@code toString()}.
+     */
+    public String etag(Object... parts) {
+        MessageDigest digest = sha256();
+        digest.update(bootId.getBytes(StandardCharsets.UTF_8));
+        for (Object part : parts) {
+            digest.update((byte) 0);
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), 16)) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package cc.desuka.demo.search;
+
+import cc.desuka.demo.dto.TaskSearchCriteria;
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.TaskStatusFilter;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded result cache for task searches: ID pages and counts per normalized {@link
+ * TaskSearchCriteria} + page. Entities and projections are still loaded fresh by ID, so only which
+ * tasks match (and their order) is ever reused.
+ *
+ * <p>Entries are stamped with the {@link TaskScopeVersions} of the projects they cover. A stale
+ * stamp is a miss; concurrent misses on the same key share one load.
+ */
+@Component
+public class TaskSearchCache {
+
+    /** Max cached results before the least recently used one is evicted. */
+    static final int MAX_ENTRIES = 2_000;
+
+    private record Key(CriteriaKey criteria, Object page) {}
+
+    private record CriteriaKey(
+            UUID projectId,
+            List<UUID> projectIds,
+            String keyword,
+            TaskStatusFilter statusFilter,
+            LocalDate overdueAsOf,
+            Priority priority,
+            UUID userId,
+            Long sprintId,
+            List<Long> tagIds,
+            LocalDate dueDateFrom,
+            LocalDate dueDateTo) {}
+
+    private record Entry(List<Long> stamp, CompletableFuture<Object> result) {}
+
+    private final Map<Key, Entry> entries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    private final TaskScopeVersions taskScopeVersions;
+
+    public TaskSearchCache(TaskScopeVersions taskScopeVersions) {
+        this.taskScopeVersions = taskScopeVersions;
+    }
+
+    // ── Lookups ──────────────────────────────────────────────────────────
+
+    /**
+     * Returns the cached result for {@code criteria} + {@code page} if no covered project changed
+     * since it was loaded, otherwise runs {@code loader} once — callers arriving while it runs wait
+     * for that result instead of issuing their own query. {@code page} must have value equality
+     * (e.g. a {@code PageRequest} or a record).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(TaskSearchCriteria criteria, Object page, Supplier<T> loader) {
+        Key key = new Key(normalize(criteria), page);
+        // Stamp before loading: a write committing mid-load leaves this entry already stale
+        List<Long> stamp =
+                taskScopeVersions.stamp(key.criteria().projectId(), key.criteria().projectIds());
+        CompletableFuture<Object> result;
+        Entry owned = null;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.stamp().equals(stamp)) {
+                result = entry.result();
+            } else {
+                result = new CompletableFuture<>();
+                owned = new Entry(stamp, result);
+                entries.put(key, owned);
+            }
+        }
+        if (owned != null) {
+            try {
+                result.complete(loader.get());
+            } catch (RuntimeException e) {
+                // Only our own entry: a caller with a newer stamp may have replaced it already
+                synchronized (entries) {
+                    entries.remove(key, owned);
+                }
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return (T) result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    /** Equal filters produce equal keys regardless of list order, padding or blank keywords. */
+    private static CriteriaKey normalize(TaskSearchCriteria c) {
+        String keyword = c.getKeyword() != null ? c.getKeyword().strip() : null;
+        return new CriteriaKey(
+                c.getProjectId(),
+                c.getProjectIds() != null ? c.getProjectIds().stream().sorted().toList() : null,
+                keyword == null || keyword.isEmpty() ? null : keyword,
+                c.getStatusFilter(),
+                // "Overdue" moves with the calendar, so yesterday's result never matches today
+                c.isOverdue() ? LocalDate.now() : null,
+                c.getPriority(),
+                c.getUserId(),
+                c.getSprintId(),
+                c.getTagIds() != null ? c.getTagIds().stream().sorted().distinct().toList() : null,
+                c.getDueDateFrom(),
+                c.getDueDateTo());
+    }
+}
@@ -0,0 +1,89 @@
+package cc.desuka.demo.security;
+
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.service.ProjectQueryService;
+import cc.desuka.demo.service.TaskQueryService;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * STOMP counterpart of {@link ProjectAccessGuard#requireViewAccess}: a SUBSCRIBE to a project's
+ * topics ({@code /topic/projects/{projectId}/**}) or a task's ({@code /topic/tasks/{taskId}/**})
+ * only goes through for project members and admins. Task pushes carry field values and the
+ * presence topics list (and register) viewers, so they need the same check as the pages.
+ *
+ * <p>Pattern destinations are refused outright — the simple broker would match them against every
+ * project. A refused SUBSCRIBE is dropped rather than answered with an ERROR frame, which would
+ * close the connection and send the client into a reconnect loop; the subscription simply never
+ * receives anything, and no presence is recorded for it.
+ */
+@Component
+public class TopicSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(TopicSubscriptionInterceptor.class);
+
+    private static final String PROJECT_TOPICS = "/topic/projects/{projectId}/**";
+    private static final String TASK_TOPICS = "/topic/tasks/{taskId}/**";
+
+    private final ProjectQueryService projectQueryService;
+    private final TaskQueryService taskQueryService;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public TopicSubscriptionInterceptor(
+            ProjectQueryService projectQueryService, TaskQueryService taskQueryService) {
+        this.projectQueryService = projectQueryService;
+        this.taskQueryService = taskQueryService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getCommand() != StompCommand.SUBSCRIBE) return message;
+        String destination = accessor.getDestination();
+        if (destination == null || canSubscribe(accessor, destination)) return message;
+        log.debug(
+                "Refused subscription of session {} to {}", accessor.getSessionId(), destination);
+        return null;
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private boolean canSubscribe(StompHeaderAccessor accessor, String destination) {
+        if (pathMatcher.isPattern(destination)) return false;
+        Optional<UUID> projectId;
+        if (pathMatcher.match(PROJECT_TOPICS, destination)) {
+            projectId = variable(PROJECT_TOPICS, destination, "projectId");
+        } else if (pathMatcher.match(TASK_TOPICS, destination)) {
+            projectId =
+                    variable(TASK_TOPICS, destination, "taskId")
+                            .flatMap(taskQueryService::findProjectId);
+        } else {
+            return true;
+        }
+        User user = SecurityUtils.getUserFrom(accessor.getUser());
+        if (user == null || projectId.isEmpty()) return false;
+        return AuthExpressions.isAdmin(user)
+                || projectQueryService.isMember(projectId.get(), user.getId());
+    }
+
+    private Optional<UUID> variable(String pattern, String destination, String name) {
+        Map<String, String> variables =
+                pathMatcher.extractUriTemplateVariables(pattern, destination);
+        try {
+            return Optional.of(UUID.fromString(variables.get(name)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package cc.desuka.demo.service;
 
+import cc.desuka.demo.config.AnalyticsProperties;
 import cc.desuka.demo.dto.AnalyticsProjection;
 import cc.desuka.demo.dto.AnalyticsProjection.DailyCount;
-import cc.desuka.demo.dto.AnalyticsProjection.ProjectCount;
-import cc.desuka.demo.dto.AnalyticsProjection.ProjectStatusCount;
+import cc.desuka.demo.dto.AnalyticsProjection.DailyRollup;
 import cc.desuka.demo.dto.AnalyticsProjection.UserCount;
 import cc.desuka.demo.dto.AnalyticsProjection.UserStatusCount;
 import cc.desuka.demo.dto.AnalyticsResponse;
@@ -18,14 +18,20 @@ import cc.desuka.demo.model.Priority;
 import cc.desuka.demo.model.Sprint;
 import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.repository.AnalyticsRepository;
+import cc.desuka.demo.repository.TaskDailyRollupRepository;
 import cc.desuka.demo.repository.TaskRepository;
 import cc.desuka.demo.repository.TaskSpecifications;
+import cc.desuka.demo.search.TaskScopeVersions;
+import cc.desuka.demo.service.ParallelReads.Pending;
+import cc.desuka.demo.service.ParallelReads.ReadScope;
+import cc.desuka.demo.snapshot.TaskSnapshotService;
 import cc.desuka.demo.util.Messages;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -33,13 +39,34 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-/** Read-only analytics aggregations for charts and dashboards. */
+/**
+ * Read-only analytics aggregations for charts and dashboards.
+ *
+ * <p>A response is assembled from independent sections forked through {@link ParallelReads}. A
+ * section that misses {@link AnalyticsProperties#getSectionTimeout()} comes back empty and the
+ * response is {@link AnalyticsResponse#partial() partial}.
+ *
+ * <p>Requests are coalesced single-flight per scope (project, project set, sprint): while a
+ * response for a scope is being computed, identical requests wait for it instead of starting their
+ * own, so a burst of viewers at the end of a sprint costs one computation. Nothing is cached once
+ * the computation finishes. Callers resolve access before calling, so a scope's response is the
+ * same for everyone who may request it. The key includes the scope's {@link TaskScopeVersions}
+ * stamp, taken before joining: a request never joins a computation that started before a write
+ * it already sees, so a response is never older than the ETag its caller stamped earlier.
+ *
+ * <p>The admin whole-system scope (all projects, no sprint) reads status, priority, workload,
+ * overdue, effort and the live part of the burndown from the in-memory {@link
+ * TaskSnapshotService} once it is built, instead of scanning the {@code tasks} table. Velocity and
+ * the rolled-up burndown days still come from the daily rollup.
+ */
 @Service
-@Transactional(readOnly = true)
 public class AnalyticsService {
 
     private static final int BURNDOWN_DAYS = 30;
@@ -47,56 +74,174 @@ public class AnalyticsService {
 
     private final TaskRepository taskRepository;
     private final AnalyticsRepository analyticsRepository;
+    private final TaskDailyRollupRepository taskDailyRollupRepository;
     private final SprintQueryService sprintQueryService;
     private final UserQueryService userQueryService;
     private final Messages messages;
+    private final TaskSnapshotService taskSnapshotService;
+    private final AnalyticsProperties properties;
+    private final ParallelReads parallelReads;
+    private final TaskScopeVersions taskScopeVersions;
+
+    private final ConcurrentMap<Flight, CompletableFuture<AnalyticsResponse>> inFlight =
+            new ConcurrentHashMap<>();
 
     public AnalyticsService(
             TaskRepository taskRepository,
             AnalyticsRepository analyticsRepository,
+            TaskDailyRollupRepository taskDailyRollupRepository,
             SprintQueryService sprintQueryService,
             UserQueryService userQueryService,
-            Messages messages) {
+            Messages messages,
+            TaskSnapshotService taskSnapshotService,
+            AnalyticsProperties properties,
+            ParallelReads parallelReads,
+            TaskScopeVersions taskScopeVersions) {
         this.taskRepository = taskRepository;
         this.analyticsRepository = analyticsRepository;
+        this.taskDailyRollupRepository = taskDailyRollupRepository;
         this.sprintQueryService = sprintQueryService;
         this.userQueryService = userQueryService;
         this.messages = messages;
+        this.taskSnapshotService = taskSnapshotService;
+        this.properties = properties;
+        this.parallelReads = parallelReads;
+        this.taskScopeVersions = taskScopeVersions;
     }
 
     public AnalyticsResponse getProjectAnalytics(UUID projectId) {
-        return buildAnalytics(projectId, null, null);
+        return coalesce(new Scope(projectId, null, null));
     }
 
     public AnalyticsResponse getProjectAnalytics(UUID projectId, Long sprintId) {
-        return buildAnalytics(projectId, null, sprintId);
+        return coalesce(new Scope(projectId, null, sprintId));
     }
 
     /**
      * @param accessibleProjectIds null = admin (all projects); non-null = scoped
      */
     public AnalyticsResponse getCrossProjectAnalytics(List<UUID> accessibleProjectIds) {
-        return buildAnalytics(null, accessibleProjectIds, null);
+        // Sorted, so the same project set coalesces whatever order the caller lists it in
+        return coalesce(
+                new Scope(
+                        null,
+                        accessibleProjectIds != null
+                                ? accessibleProjectIds.stream().distinct().sorted().toList()
+                                : null,
+                        null));
+    }
+
+    // ── Single-flight ────────────────────────────────────────────────────
+
+    /**
+     * Joins the in-flight computation for {@code scope} at the scope's current stamp, or becomes
+     * its leader and computes it on the calling thread. The entry is removed as soon as the leader
+     * finishes, so a later request always sees fresh data.
+     */
+    private AnalyticsResponse coalesce(Scope scope) {
+        // Stamp before reading: a leader started before a later write has an older stamp
+        Flight flight =
+                new Flight(scope, taskScopeVersions.stamp(scope.projectId(), scope.projectIds()));
+        CompletableFuture<AnalyticsResponse> mine = new CompletableFuture<>();
+        CompletableFuture<AnalyticsResponse> running = inFlight.putIfAbsent(flight, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            AnalyticsResponse response = buildAnalytics(scope);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, mine);
+        }
     }
 
-    private AnalyticsResponse buildAnalytics(UUID projectId, List<UUID> projectIds, Long sprintId) {
+    private static AnalyticsResponse await(CompletableFuture<AnalyticsResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    private AnalyticsResponse buildAnalytics(Scope scope) {
+        return parallelReads.run(
+                properties.getSectionTimeout(), sections -> compose(scope, sections));
+    }
+
+    private AnalyticsResponse compose(Scope scope, ReadScope sections) {
+        UUID projectId = scope.projectId();
+        List<UUID> projectIds = scope.projectIds();
+        Long sprintId = scope.sprintId();
+
+        // ── Fork ─────────────────────────────────────────────────────────
+        Pending<StatusBreakdown> status =
+                sections.fork(
+                        "status",
+                        () -> buildStatusBreakdown(projectId, projectIds, sprintId),
+                        new StatusBreakdown(Map.of()));
+        Pending<PriorityBreakdown> priority =
+                sections.fork(
+                        "priority",
+                        () -> buildPriorityBreakdown(projectId, projectIds, sprintId),
+                        new PriorityBreakdown(Map.of()));
+        Pending<WorkloadDistribution> workload =
+                sections.fork(
+                        "workload",
+                        () -> buildWorkloadDistribution(projectId, projectIds, sprintId),
+                        new WorkloadDistribution(List.of(), Map.of()));
+        Pending<List<BurndownPoint>> burndown =
+                sections.fork(
+                        "burndown",
+                        () -> buildBurndown(projectId, projectIds, sprintId),
+                        List.of());
+        Pending<List<VelocityPoint>> velocity =
+                sections.fork(
+                        "velocity",
+                        () -> buildVelocity(projectId, projectIds, sprintId),
+                        List.of());
+        Pending<OverdueAnalysis> overdue =
+                sections.fork(
+                        "overdue",
+                        () -> buildOverdueAnalysis(projectId, projectIds, sprintId),
+                        new OverdueAnalysis(List.of(), List.of()));
+        Pending<EffortDistribution> effort =
+                sections.fork(
+                        "effort",
+                        () -> buildEffortDistribution(projectId, projectIds, sprintId),
+                        new EffortDistribution(List.of(), List.of()));
+
+        // ── Join ─────────────────────────────────────────────────────────
         return new AnalyticsResponse(
-                buildStatusBreakdown(projectId, projectIds, sprintId),
-                buildPriorityBreakdown(projectId, projectIds, sprintId),
-                buildWorkloadDistribution(projectId, projectIds, sprintId),
-                buildBurndown(projectId, projectIds, sprintId),
-                buildVelocity(projectId, projectIds, sprintId),
-                buildOverdueAnalysis(projectId, projectIds, sprintId),
-                buildEffortDistribution(projectId, projectIds, sprintId));
+                status.join(),
+                priority.join(),
+                workload.join(),
+                burndown.join(),
+                velocity.join(),
+                overdue.join(),
+                effort.join(),
+                sections.isPartial()); // arguments evaluate in order: after every join
     }
 
     // ── Status Breakdown ─────────────────────────────────────────────────
 
     private StatusBreakdown buildStatusBreakdown(
             UUID projectId, List<UUID> projectIds, Long sprintId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (fromSnapshot(projectId, projectIds, sprintId)) {
+            long[] byOrdinal = taskSnapshotService.countByStatus();
+            for (TaskStatus status : TaskStatus.values()) {
+                counts.put(status.name(), byOrdinal[status.ordinal()]);
+            }
+            return new StatusBreakdown(counts);
+        }
         Specification<cc.desuka.demo.model.Task> scope =
                 projectScope(projectId, projectIds).and(TaskSpecifications.withSprintId(sprintId));
-        Map<String, Long> counts = new LinkedHashMap<>();
         for (TaskStatus status : TaskStatus.values()) {
             long count =
                     taskRepository.count(
@@ -110,9 +255,16 @@ public class AnalyticsService {
 
     private PriorityBreakdown buildPriorityBreakdown(
             UUID projectId, List<UUID> projectIds, Long sprintId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (fromSnapshot(projectId, projectIds, sprintId)) {
+            long[] byOrdinal = taskSnapshotService.countByPriority();
+            for (Priority priority : Priority.values()) {
+                counts.put(priority.name(), byOrdinal[priority.ordinal()]);
+            }
+            return new PriorityBreakdown(counts);
+        }
         Specification<cc.desuka.demo.model.Task> scope =
                 projectScope(projectId, projectIds).and(TaskSpecifications.withSprintId(sprintId));
-        Map<String, Long> counts = new LinkedHashMap<>();
         for (Priority priority : Priority.values()) {
             long count =
                     taskRepository.count(
@@ -128,7 +280,9 @@ public class AnalyticsService {
     private WorkloadDistribution buildWorkloadDistribution(
             UUID projectId, List<UUID> projectIds, Long sprintId) {
         List<UserStatusCount> rows =
-                analyticsRepository.countByUserAndStatus(projectId, projectIds, sprintId);
+                fromSnapshot(projectId, projectIds, sprintId)
+                        ? taskSnapshotService.countByUserAndStatus()
+                        : analyticsRepository.countByUserAndStatus(projectId, projectIds, sprintId);
 
         // Collect unique user IDs preserving order, null = unassigned
         Set<UUID> seenIds = new LinkedHashSet<>();
@@ -169,39 +323,57 @@ public class AnalyticsService {
 
     private List<BurndownPoint> buildBurndown(
             UUID projectId, List<UUID> projectIds, Long sprintId) {
+        LocalDate today = LocalDate.now();
         // When scoped to a sprint, use the sprint's date range instead of rolling 30 days
         LocalDate startDate;
         LocalDate endDate;
         if (sprintId != null) {
             Sprint sprint = sprintQueryService.getSprintById(sprintId);
             startDate = sprint.getStartDate();
-            endDate = sprint.isActive() ? LocalDate.now() : sprint.getEndDate();
+            endDate = sprint.isActive() ? today : sprint.getEndDate();
         } else {
-            startDate = LocalDate.now().minusDays(BURNDOWN_DAYS);
-            endDate = LocalDate.now();
+            startDate = today.minusDays(BURNDOWN_DAYS);
+            endDate = today;
         }
-        LocalDateTime from = startDate.atStartOfDay();
-        List<TaskStatus> terminal = TaskStatus.terminalStatuses();
 
-        long initial =
-                analyticsRepository.countOpenAtDate(
-                        projectId, projectIds, sprintId, from, terminal);
-
-        Map<LocalDate, Long> createdByDay =
-                toDateMap(
-                        analyticsRepository.countCreatedPerDay(
-                                projectId, projectIds, sprintId, from));
-        Map<LocalDate, Long> completedByDay =
-                toDateMap(
-                        analyticsRepository.countCompletedPerDay(
-                                projectId, projectIds, sprintId, from));
+        // Finished days come from the nightly rollup; the rest (normally just today) is counted
+        // live in one series query, and days after today repeat today's count
+        LocalDate rolledThrough = rolledUpThrough(today);
+        Map<LocalDate, Long> openByDay = new HashMap<>();
+        LocalDate liveFrom = startDate;
+        if (rolledThrough != null && !rolledThrough.isBefore(startDate)) {
+            LocalDate to = endDate.isBefore(rolledThrough) ? endDate : rolledThrough;
+            for (DailyRollup row :
+                    analyticsRepository.sumRollupsPerDay(
+                            projectId, projectIds, sprintId, startDate, to)) {
+                openByDay.put(row.date(), row.open());
+            }
+            liveFrom = rolledThrough.plusDays(1);
+        }
+        LocalDate liveTo = endDate.isBefore(today) ? endDate : today;
+        if (endDate.isAfter(today) && liveFrom.isAfter(today)) {
+            // A sprint that has not started yet: its days all repeat today's count
+            liveFrom = today;
+        }
+        // Nothing live when every day in range is rolled up already (a finished sprint)
+        boolean live = !liveFrom.isAfter(liveTo);
+        if (live && fromSnapshot(projectId, projectIds, sprintId)) {
+            long[] open = taskSnapshotService.countOpenPerDay(liveFrom, liveTo);
+            for (int i = 0; i < open.length; i++) {
+                openByDay.put(liveFrom.plusDays(i), open[i]);
+            }
+        } else if (live) {
+            for (DailyCount row :
+                    analyticsRepository.countOpenPerDay(
+                            projectId, projectIds, sprintId, liveFrom, liveTo)) {
+                openByDay.put(row.date(), row.value());
+            }
+        }
 
         List<BurndownPoint> points = new ArrayList<>();
-        long remaining = initial;
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            remaining += createdByDay.getOrDefault(date, 0L);
-            remaining -= completedByDay.getOrDefault(date, 0L);
-            points.add(new BurndownPoint(date, remaining));
+            LocalDate asOf = date.isAfter(today) ? today : date;
+            points.add(new BurndownPoint(date, openByDay.getOrDefault(asOf, 0L)));
         }
 
         return points;
@@ -213,12 +385,6 @@ public class AnalyticsService {
             UUID projectId, List<UUID> projectIds, Long sprintId) {
         LocalDate now = LocalDate.now();
         LocalDate weekStart = now.minusWeeks(VELOCITY_WEEKS).with(DayOfWeek.MONDAY);
-        LocalDateTime from = weekStart.atStartOfDay();
-
-        List<DailyCount> dailyCompleted =
-                analyticsRepository.countCompletedPerDay(projectId, projectIds, sprintId, from);
-        List<DailyCount> dailyEffort =
-                analyticsRepository.sumEffortCompletedPerDay(projectId, projectIds, sprintId, from);
 
         // Bucket by ISO week (Monday)
         Map<LocalDate, Long> weeklyTotals = new TreeMap<>();
@@ -230,6 +396,27 @@ public class AnalyticsService {
             weeklyEffort.put(w, 0L);
         }
 
+        // Finished days from the nightly rollup, the rest (normally just today) live
+        LocalDate liveFrom = weekStart;
+        LocalDate rolledThrough = rolledUpThrough(now);
+        if (rolledThrough != null && !rolledThrough.isBefore(weekStart)) {
+            for (DailyRollup row :
+                    analyticsRepository.sumRollupsPerDay(
+                            projectId, projectIds, sprintId, weekStart, rolledThrough)) {
+                LocalDate monday =
+                        row.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                weeklyTotals.merge(monday, row.completed(), (a, b) -> a + b);
+                weeklyEffort.merge(monday, row.effortCompleted(), (a, b) -> a + b);
+            }
+            liveFrom = rolledThrough.plusDays(1);
+        }
+        LocalDateTime from = liveFrom.atStartOfDay();
+
+        List<DailyCount> dailyCompleted =
+                analyticsRepository.countCompletedPerDay(projectId, projectIds, sprintId, from);
+        List<DailyCount> dailyEffort =
+                analyticsRepository.sumEffortCompletedPerDay(projectId, projectIds, sprintId, from);
+
         for (DailyCount row : dailyCompleted) {
             LocalDate monday = row.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
             weeklyTotals.merge(monday, row.value(), (a, b) -> a + b);
@@ -256,7 +443,10 @@ public class AnalyticsService {
             UUID projectId, List<UUID> projectIds, Long sprintId) {
         List<TaskStatus> terminal = TaskStatus.terminalStatuses();
         List<UserCount> rows =
-                analyticsRepository.countOverdueByUser(projectId, projectIds, sprintId, terminal);
+                fromSnapshot(projectId, projectIds, sprintId)
+                        ? taskSnapshotService.countOverdueByUser(LocalDate.now())
+                        : analyticsRepository.countOverdueByUser(
+                                projectId, projectIds, sprintId, terminal);
 
         Map<UUID, String> nameMap = buildUserNameMap(rows);
         List<String> assignees = new ArrayList<>();
@@ -273,7 +463,10 @@ public class AnalyticsService {
 
     private EffortDistribution buildEffortDistribution(
             UUID projectId, List<UUID> projectIds, Long sprintId) {
-        List<UserCount> rows = analyticsRepository.sumEffortByUser(projectId, projectIds, sprintId);
+        List<UserCount> rows =
+                fromSnapshot(projectId, projectIds, sprintId)
+                        ? taskSnapshotService.sumEffortByUser()
+                        : analyticsRepository.sumEffortByUser(projectId, projectIds, sprintId);
 
         Map<UUID, String> nameMap = buildUserNameMap(rows);
         List<String> assignees = new ArrayList<>();
@@ -286,29 +479,17 @@ public class AnalyticsService {
         return new EffortDistribution(assignees, efforts);
     }
 
-    // ── Dashboard aggregates ─────────────────────────────────────────────
-
-    public Map<UUID, Map<TaskStatus, Long>> countByProjectAndStatus(List<UUID> projectIds) {
-        Map<UUID, Map<TaskStatus, Long>> result = new LinkedHashMap<>();
-        for (ProjectStatusCount row : analyticsRepository.countByProjectAndStatus(projectIds)) {
-            result.computeIfAbsent(row.projectId(), k -> new LinkedHashMap<>())
-                    .put(row.status(), row.count());
-        }
-        return result;
-    }
+    // ── Helpers ──────────────────────────────────────────────────────────
 
-    public Map<UUID, Long> countOverdueByProject(List<UUID> projectIds) {
-        Map<UUID, Long> result = new LinkedHashMap<>();
-        for (ProjectCount row :
-                analyticsRepository.countOverdueByProject(
-                        projectIds, TaskStatus.terminalStatuses())) {
-            result.put(row.projectId(), row.count());
-        }
-        return result;
+    /** Whole-system scope with the snapshot enabled and built. */
+    private boolean fromSnapshot(UUID projectId, List<UUID> projectIds, Long sprintId) {
+        return projectId == null
+                && projectIds == null
+                && sprintId == null
+                && properties.isSnapshot()
+                && taskSnapshotService.isReady();
     }
 
-    // ── Helpers ──────────────────────────────────────────────────────────
-
     private Map<UUID, String> buildUserNameMap(
             List<? extends AnalyticsProjection.UserScoped> rows) {
         List<UUID> userIds =
@@ -323,6 +504,19 @@ public class AnalyticsService {
         return nameMap.getOrDefault(userId, messages.get("analytics.label.unassigned"));
     }
 
+    /**
+     * Last day served from {@code task_daily_rollups}, capped at yesterday; null before the first
+     * rollup run (everything is then counted live).
+     */
+    private LocalDate rolledUpThrough(LocalDate today) {
+        LocalDate latest = taskDailyRollupRepository.findLatestRollupDate();
+        if (latest == null) {
+            return null;
+        }
+        LocalDate yesterday = today.minusDays(1);
+        return latest.isAfter(yesterday) ? yesterday : latest;
+    }
+
     private Specification<cc.desuka.demo.model.Task> projectScope(
             UUID projectId, List<UUID> projectIds) {
         if (projectId != null) {
@@ -333,11 +527,9 @@ public class AnalyticsService {
         return (root, query, cb) -> cb.conjunction();
     }
 
-    private Map<LocalDate, Long> toDateMap(List<DailyCount> rows) {
-        Map<LocalDate, Long> map = new LinkedHashMap<>();
-        for (DailyCount row : rows) {
-            map.put(row.date(), row.value());
-        }
-        return map;
-    }
+    /** Single-flight key: the exact arguments a response is computed from (project IDs sorted). */
+    private record Scope(UUID projectId, List<UUID> projectIds, Long sprintId) {}
+
+    /** Single-flight key: a scope at one {@link TaskScopeVersions#stamp}. */
+    private record Flight(Scope scope, List<Long> stamp) {}
 }
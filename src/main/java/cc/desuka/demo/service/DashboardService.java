@@ -2,26 +2,40 @@ package cc.desuka.demo.service;
 
 import cc.desuka.demo.audit.AuditEvent;
 import cc.desuka.demo.audit.AuditLogService;
+import cc.desuka.demo.config.DashboardProperties;
 import cc.desuka.demo.dto.DashboardStats;
 import cc.desuka.demo.dto.ProjectSummary;
+import cc.desuka.demo.dto.TaskCounterSnapshot;
 import cc.desuka.demo.dto.UserTaskCounts;
 import cc.desuka.demo.model.AuditLog;
 import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.ProjectTaskStat;
+import cc.desuka.demo.model.Task;
 import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.presence.PresenceService;
 import cc.desuka.demo.security.AuthExpressions;
+import cc.desuka.demo.service.ParallelReads.Pending;
+import cc.desuka.demo.service.ParallelReads.ReadScope;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-/** Read-only dashboard statistics composed from multiple query services. */
+/**
+ * Read-only dashboard statistics composed from multiple query services.
+ *
+ * <p>The independent queries behind a dashboard render are split into branches and forked through
+ * {@link ParallelReads}, which bounds them and gives each its own read-only transaction (or runs
+ * them in sequence). A branch that misses {@link DashboardProperties#getBranchTimeout()} renders
+ * empty and the stats come back {@link DashboardStats#partial() partial}. Every branch returns
+ * fully-initialized data (entity graphs, plain values), so nothing lazy crosses a transaction
+ * boundary in either mode.
+ */
 @Service
-@Transactional(readOnly = true)
 public class DashboardService {
 
     private static final List<String> TASK_ACTIONS =
@@ -29,60 +43,120 @@ public class DashboardService {
 
     private final TaskQueryService taskQueryService;
     private final ProjectQueryService projectQueryService;
-    private final AnalyticsService analyticsService;
+    private final ProjectTaskStatsQueryService projectTaskStatsQueryService;
     private final AuditLogService auditLogService;
     private final PresenceService presenceService;
+    private final DashboardProperties properties;
+    private final ParallelReads parallelReads;
 
     public DashboardService(
             TaskQueryService taskQueryService,
             ProjectQueryService projectQueryService,
-            AnalyticsService analyticsService,
+            ProjectTaskStatsQueryService projectTaskStatsQueryService,
             AuditLogService auditLogService,
-            PresenceService presenceService) {
+            PresenceService presenceService,
+            DashboardProperties properties,
+            ParallelReads parallelReads) {
         this.taskQueryService = taskQueryService;
         this.projectQueryService = projectQueryService;
-        this.analyticsService = analyticsService;
+        this.projectTaskStatsQueryService = projectTaskStatsQueryService;
         this.auditLogService = auditLogService;
         this.presenceService = presenceService;
+        this.properties = properties;
+        this.parallelReads = parallelReads;
     }
 
     /**
      * @param accessibleProjectIds null = admin (show all); non-null = scoped to these projects
      */
     public DashboardStats buildStats(User user, List<UUID> accessibleProjectIds) {
-        UserTaskCounts myCounts = taskQueryService.countsByUser(user);
+        return parallelReads.run(properties.getBranchTimeout(), scope -> compose(user, scope));
+    }
 
+    private DashboardStats compose(User user, ReadScope scope) {
         boolean isAdmin = AuthExpressions.isAdmin(user);
 
-        // Per-project summaries (2 aggregate queries instead of 6N)
-        List<Project> userProjects;
-        if (isAdmin) {
-            userProjects = projectQueryService.getActiveProjects();
-        } else {
-            userProjects = projectQueryService.getProjectsForUser(user.getId());
-        }
-        List<ProjectSummary> projectSummaries = buildProjectSummaries(userProjects);
-
-        // Editable projects for "New Task" button
-        List<Project> editableProjects;
-        if (isAdmin) {
-            editableProjects = userProjects;
-        } else {
-            editableProjects = projectQueryService.getEditableProjectsForUser(user.getId());
-        }
-
-        // System-wide stats (admin only)
-        long totalTasks = 0;
-        long totalOpen = 0;
-        long totalCompleted = 0;
-        long totalOverdue = 0;
-        if (isAdmin) {
-            totalTasks = taskQueryService.countAll();
-            totalOpen = taskQueryService.countByStatus(TaskStatus.OPEN);
-            totalCompleted = taskQueryService.countByStatus(TaskStatus.COMPLETED);
-            totalOverdue = taskQueryService.countOverdue();
-        }
+        // ── Fork ─────────────────────────────────────────────────────────
+        // System-wide stats (admin only) — one shared snapshot that also carries the admin's own
+        // counts; other users get a single-pass count over their own rows
+        Pending<TaskCounterSnapshot> counters =
+                isAdmin
+                        ? scope.fork(
+                                "taskCounters",
+                                taskQueryService::getCounterSnapshot,
+                                TaskCounterSnapshot.EMPTY)
+                        : () -> TaskCounterSnapshot.EMPTY;
+        Pending<UserTaskCounts> myCounts =
+                isAdmin
+                        ? () -> counters.join().forUser(user.getId())
+                        : scope.fork(
+                                "myCounts",
+                                () -> taskQueryService.countsByUser(user),
+                                UserTaskCounts.NONE);
+        Pending<UserProjects> projects =
+                scope.fork(
+                        "projects",
+                        () -> loadUserProjects(user, isAdmin),
+                        new UserProjects(List.of(), List.of()));
+        // Editable projects for "New Task" button (admins can edit everything they see)
+        Pending<List<Project>> editableProjects =
+                isAdmin
+                        ? () -> projects.join().projects()
+                        : scope.fork(
+                                "editableProjects",
+                                () -> projectQueryService.getEditableProjectsForUser(user.getId()),
+                                List.of());
+        Pending<RecentActivity> activity =
+                scope.fork(
+                        "recentActivity",
+                        this::loadRecentActivity,
+                        new RecentActivity(List.of(), Map.of()));
+        Pending<List<Task>> recentTasks =
+                scope.fork(
+                        "recentTasks",
+                        () -> taskQueryService.getRecentTasksByUser(user),
+                        List.of());
+        Pending<List<Task>> dueSoon =
+                scope.fork("dueSoon", () -> taskQueryService.getDueSoon(user), List.of());
+        int onlineCount = presenceService.getOnlineCount(); // in-memory, no branch needed
+
+        // ── Join ─────────────────────────────────────────────────────────
+        UserTaskCounts counts = myCounts.join();
+        TaskCounterSnapshot totals = counters.join();
+        RecentActivity recent = activity.join();
+        return new DashboardStats(
+                counts.open(),
+                counts.inProgress(),
+                counts.inReview(),
+                counts.completed(),
+                counts.overdue(),
+                counts.total(),
+                recentTasks.join(),
+                dueSoon.join(),
+                projects.join().summaries(),
+                totals.total(),
+                totals.open(),
+                totals.completed(),
+                totals.overdue(),
+                onlineCount,
+                recent.activity(),
+                recent.taskTitles(),
+                editableProjects.join(),
+                scope.isPartial()); // arguments evaluate in order: after every join
+    }
+
+    // ── Branches ─────────────────────────────────────────────────────────
 
+    private UserProjects loadUserProjects(User user, boolean isAdmin) {
+        List<Project> userProjects =
+                isAdmin
+                        ? projectQueryService.getActiveProjects()
+                        : projectQueryService.getProjectsForUser(user.getId());
+        // Per-project summaries (one indexed lookup on the counter read model)
+        return new UserProjects(userProjects, buildProjectSummaries(userProjects));
+    }
+
+    private RecentActivity loadRecentActivity() {
         List<AuditLog> activity = auditLogService.getRecentByActions(TASK_ACTIONS);
         List<UUID> taskIds =
                 activity.stream()
@@ -95,49 +169,38 @@ public class DashboardService {
         taskQueryService
                 .getTitlesByIds(taskIds)
                 .forEach((id, title) -> activityTaskTitles.put(id.toString(), title));
-
-        return new DashboardStats(
-                myCounts.open(),
-                myCounts.inProgress(),
-                myCounts.inReview(),
-                myCounts.completed(),
-                myCounts.overdue(),
-                myCounts.total(),
-                taskQueryService.getRecentTasksByUser(user),
-                taskQueryService.getDueSoon(user),
-                projectSummaries,
-                totalTasks,
-                totalOpen,
-                totalCompleted,
-                totalOverdue,
-                presenceService.getOnlineCount(),
-                activity,
-                activityTaskTitles,
-                editableProjects);
+        return new RecentActivity(activity, activityTaskTitles);
     }
 
     private List<ProjectSummary> buildProjectSummaries(List<Project> projects) {
         if (projects.isEmpty()) return List.of();
 
         List<UUID> projectIds = projects.stream().map(Project::getId).toList();
-        Map<UUID, Map<TaskStatus, Long>> statusByProject =
-                analyticsService.countByProjectAndStatus(projectIds);
-        Map<UUID, Long> overdueByProject = analyticsService.countOverdueByProject(projectIds);
+        Map<UUID, List<ProjectTaskStat>> statsByProject =
+                projectTaskStatsQueryService.getStatsByProject(projectIds);
 
         return projects.stream()
                 .map(
                         project -> {
-                            Map<TaskStatus, Long> counts =
-                                    statusByProject.getOrDefault(project.getId(), Map.of());
+                            Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+                            long overdue = 0;
+                            for (ProjectTaskStat stat :
+                                    statsByProject.getOrDefault(project.getId(), List.of())) {
+                                counts.put(stat.getStatus(), stat.getTaskCount());
+                                overdue += stat.getOverdueCount();
+                            }
                             long open = counts.getOrDefault(TaskStatus.OPEN, 0L);
                             long inProgress = counts.getOrDefault(TaskStatus.IN_PROGRESS, 0L);
                             long inReview = counts.getOrDefault(TaskStatus.IN_REVIEW, 0L);
                             long completed = counts.getOrDefault(TaskStatus.COMPLETED, 0L);
-                            long overdue = overdueByProject.getOrDefault(project.getId(), 0L);
                             long total = counts.values().stream().mapToLong(Long::longValue).sum();
                             return ProjectSummary.of(
                                     project, open, inProgress, inReview, completed, overdue, total);
                         })
                 .toList();
     }
+
+    private record UserProjects(List<Project> projects, List<ProjectSummary> summaries) {}
+
+    private record RecentActivity(List<AuditLog> activity, Map<String, String> taskTitles) {}
 }
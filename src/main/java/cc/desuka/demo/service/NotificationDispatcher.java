@@ -0,0 +1,244 @@
+package cc.desuka.demo.service;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.config.NotificationProperties;
+import cc.desuka.demo.dto.NotificationResponse;
+import cc.desuka.demo.model.Notification;
+import cc.desuka.demo.model.NotificationType;
+import cc.desuka.demo.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Asynchronous stage between notification producers and {@link NotificationService}. {@link
+ * #submit} only queues, so a comment on a task with 40 subscribers costs the request 40 queue
+ * offers instead of 40 inserts and 40 pushes. {@link #flush()}, run every {@code
+ * app.notifications.flush-interval}, drains the queue in batches: each batch is one JDBC-batched
+ * insert transaction, then one WebSocket frame per recipient carrying all of their new
+ * notifications.
+ *
+ * <p>The queue is bounded; when it is full {@code submit} creates the notification on the caller's
+ * thread — backpressure, never a dropped notification. A batch the database rejects ({@link
+ * DataIntegrityViolationException}) is retried one notification at a time, so one bad row cannot
+ * sink its neighbours. Any other failure (connection lost, pool exhausted) would fail each row
+ * alike, so the whole batch goes back for retry and the flush stops until the next run. Failed
+ * notifications are retried on later flushes after a backoff, up to {@code
+ * app.notifications.max-attempts}, holding at most {@code app.notifications.retry-capacity}.
+ *
+ * <p>Queue and retries live in memory only: whatever is still pending when the JVM dies is lost.
+ * A graceful shutdown drains them ({@link #destroy}).
+ *
+ * <p>Meters: {@code notifications.queue.size} gauge, {@code notifications.batch} timer (insert
+ * transaction), {@code notifications.processed} counter tagged {@code outcome} = saved, retried,
+ * failed or inline (queue full).
+ */
+@Service
+public class NotificationDispatcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final NotificationService notificationService;
+    private final BroadcastBus broadcastBus;
+    private final NotificationProperties properties;
+    private final BlockingQueue<Pending> queue;
+
+    // Guarded by this (only flush touches it)
+    private final Deque<Pending> retries = new ArrayDeque<>();
+
+    private final Timer batchTimer;
+    private final Counter saved;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter inline;
+
+    public NotificationDispatcher(
+            NotificationService notificationService,
+            BroadcastBus broadcastBus,
+            NotificationProperties properties,
+            MeterRegistry registry) {
+        this.notificationService = notificationService;
+        this.broadcastBus = broadcastBus;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("notifications.queue.size", queue, Collection::size)
+                .description("Notifications waiting to be saved and pushed")
+                .register(registry);
+        this.batchTimer =
+                Timer.builder("notifications.batch")
+                        .description("Insert transaction for one notification batch")
+                        .register(registry);
+        this.saved = outcome(registry, "saved");
+        this.retried = outcome(registry, "retried");
+        this.failed = outcome(registry, "failed");
+        this.inline = outcome(registry, "inline");
+    }
+
+    /** Queues a notification; saved and pushed on the next flush. */
+    public void submit(
+            User recipient, User actor, NotificationType type, String message, String link) {
+        Pending pending =
+                new Pending(recipient, actor, type, message, link, LocalDateTime.now(), 0, null);
+        if (queue.offer(pending)) return;
+        inline.increment();
+        notificationService.create(recipient, actor, type, message, link);
+    }
+
+    /** Saves and pushes everything queued plus retries that are due; on the flush schedule. */
+    public synchronized void flush() {
+        Instant now = Instant.now();
+        int batchSize = properties.getBatchSize();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (true) {
+            takeDueRetries(batch, now, batchSize);
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) return;
+            boolean reachable = process(List.copyOf(batch));
+            batch.clear();
+            if (!reachable) return;
+        }
+    }
+
+    /** Drains what is queued before shutdown. */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void takeDueRetries(List<Pending> batch, Instant now, int batchSize) {
+        Iterator<Pending> it = retries.iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            Pending pending = it.next();
+            if (!pending.retryAt().isAfter(now)) {
+                it.remove();
+                batch.add(pending);
+            }
+        }
+    }
+
+    /** Saves and pushes one batch; false when the database looks unreachable. */
+    private boolean process(List<Pending> batch) {
+        List<NotificationResponse> responses;
+        try {
+            // Fresh entities every attempt: a failed insert may have assigned IDs
+            List<Notification> notifications = batch.stream().map(Pending::toEntity).toList();
+            responses = batchTimer.record(() -> notificationService.createAll(notifications));
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                retryOrFail(batch.getFirst(), e);
+            } else {
+                log.warn(
+                        "Notification batch of {} rejected, retrying one by one: {}",
+                        batch.size(),
+                        e.getMessage());
+                batch.forEach(pending -> process(List.of(pending)));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Splitting would only repeat the failure per row; back off instead
+            log.warn(
+                    "Notification batch of {} failed, retrying later: {}",
+                    batch.size(),
+                    e.getMessage());
+            batch.forEach(pending -> retryOrFail(pending, e));
+            return false;
+        }
+        saved.increment(batch.size());
+        push(batch, responses);
+        return true;
+    }
+
+    private void retryOrFail(Pending pending, RuntimeException e) {
+        int attempts = pending.attempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            failed.increment();
+            log.error(
+                    "Notification {} for user {} dropped after {} attempts",
+                    pending.type(),
+                    pending.recipient().getId(),
+                    attempts,
+                    e);
+            return;
+        }
+        if (retries.size() >= properties.getRetryCapacity()) {
+            failed.increment();
+            log.error(
+                    "Notification {} for user {} dropped, retry queue full",
+                    pending.type(),
+                    pending.recipient().getId(),
+                    e);
+            return;
+        }
+        retried.increment();
+        Instant retryAt = Instant.now().plus(properties.getRetryBackoff().multipliedBy(attempts));
+        retries.add(pending.retry(attempts, retryAt));
+    }
+
+    /** One frame per recipient, their notifications in submit order. Saved rows are not retried. */
+    private void push(List<Pending> batch, List<NotificationResponse> responses) {
+        Map<String, List<NotificationResponse>> byRecipient = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            byRecipient
+                    .computeIfAbsent(batch.get(i).recipient().getEmail(), e -> new ArrayList<>())
+                    .add(responses.get(i));
+        }
+        byRecipient.forEach(
+                (email, notifications) -> {
+                    try {
+                        broadcastBus.convertAndSendToUser(
+                                email, NotificationService.QUEUE_NOTIFICATIONS, notifications);
+                    } catch (RuntimeException e) {
+                        log.warn("Notification push to {} failed: {}", email, e.getMessage());
+                    }
+                });
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("notifications.processed")
+                .description("Notifications handled by the dispatcher")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /** A queued notification; {@code createdAt} is when it was submitted, not when saved. */
+    private record Pending(
+            User recipient,
+            User actor,
+            NotificationType type,
+            String message,
+            String link,
+            LocalDateTime createdAt,
+            int attempts,
+            Instant retryAt) {
+
+        Notification toEntity() {
+            Notification notification = new Notification(recipient, actor, type, message, link);
+            notification.setCreatedAt(createdAt);
+            return notification;
+        }
+
+        Pending retry(int attempts, Instant retryAt) {
+            return new Pending(recipient, actor, type, message, link, createdAt, attempts, retryAt);
+        }
+    }
+}
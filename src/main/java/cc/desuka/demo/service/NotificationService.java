@@ -1,35 +1,40 @@
 package cc.desuka.demo.service;
 
+import cc.desuka.demo.broadcast.BroadcastBus;
 import cc.desuka.demo.dto.NotificationResponse;
 import cc.desuka.demo.mapper.NotificationMapper;
 import cc.desuka.demo.model.Notification;
 import cc.desuka.demo.model.NotificationType;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.NotificationRepository;
+import java.util.List;
 import java.util.UUID;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Notification write operations (create, mark read, clear). Counterpart to {@link
- * NotificationQueryService} (reads).
+ * NotificationQueryService} (reads). Producers go through {@link NotificationDispatcher}, which
+ * batches into {@link #createAll}; {@link #create} is its inline fallback.
  */
 @Service
 @Transactional
 public class NotificationService {
 
+    /** Per-user queue; each frame is a list of {@link NotificationResponse}s, oldest first. */
+    public static final String QUEUE_NOTIFICATIONS = "/queue/notifications";
+
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastBus broadcastBus;
 
     public NotificationService(
             NotificationRepository notificationRepository,
             NotificationMapper notificationMapper,
-            SimpMessagingTemplate messagingTemplate) {
+            BroadcastBus broadcastBus) {
         this.notificationRepository = notificationRepository;
         this.notificationMapper = notificationMapper;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcastBus = broadcastBus;
     }
 
     public void create(
@@ -38,8 +43,16 @@ public class NotificationService {
         Notification saved = notificationRepository.save(notification);
 
         NotificationResponse payload = notificationMapper.toResponse(saved);
-        messagingTemplate.convertAndSendToUser(
-                recipient.getEmail(), "/queue/notifications", payload);
+        broadcastBus.convertAndSendToUser(
+                recipient.getEmail(), QUEUE_NOTIFICATIONS, List.of(payload));
+    }
+
+    /**
+     * Inserts {@code notifications} in one transaction — JDBC-batched, IDs come from a pooled
+     * sequence — and returns their responses in the same order. Pushing is the caller's job.
+     */
+    public List<NotificationResponse> createAll(List<Notification> notifications) {
+        return notificationMapper.toResponseList(notificationRepository.saveAll(notifications));
     }
 
     public void markAsRead(Long id, UUID userId) {
@@ -0,0 +1,150 @@
+package cc.desuka.demo.service;
+
+import cc.desuka.demo.config.ParallelReadProperties;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bounded fan-out for read-only pages assembled from independent queries ({@link
+ * DashboardService}, {@link AnalyticsService}).
+ *
+ * <p>Inside {@link #run} each {@link ReadScope#fork forked} read runs on a virtual thread in its
+ * own read-only transaction, and the page waits for the slowest read rather than the sum. A shared
+ * semaphore ({@link ParallelReadProperties#getMaxConnections()}) caps the forked reads in flight
+ * across all requests; a read that finds no permit runs on the calling thread instead, so under
+ * load a page degrades to sequential rather than queueing for the connection pool.
+ *
+ * <p>All reads of a scope share one deadline. A read that misses it is not interrupted — an
+ * interrupt mid-JDBC call can poison the pooled connection — so its transaction timeout bounds it
+ * while it keeps its permit. Its join returns the fallback given at fork time and marks the scope
+ * {@link ReadScope#isPartial() partial}; the page renders without that section and nothing waits
+ * for the straggler. When disabled, every read runs inline in one read-only transaction.
+ */
+@Component
+public class ParallelReads implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelReads.class);
+
+    private final ParallelReadProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore permits;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("read-", 0).factory());
+
+    public ParallelReads(
+            ParallelReadProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.transactionManager = transactionManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.permits = new Semaphore(properties.getMaxConnections());
+    }
+
+    /**
+     * Runs {@code body} with a scope whose reads share a {@code timeout} deadline; each read's
+     * transaction times out with it too (rounded up to whole seconds).
+     */
+    public <R> R run(Duration timeout, Function<ReadScope, R> body) {
+        if (!properties.isEnabled()) {
+            return readOnlyTx.execute(status -> body.apply(new ReadScope(null, timeout)));
+        }
+        TransactionTemplate forkTx = new TransactionTemplate(transactionManager);
+        forkTx.setReadOnly(true);
+        forkTx.setTimeout((int) Math.max(1, Math.ceilDiv(timeout.toMillis(), 1000)));
+        return body.apply(new ReadScope(forkTx, timeout));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /** Result handle for a forked read; {@link #join()} rethrows the read's failure. */
+    @FunctionalInterface
+    public interface Pending<T> {
+        T join();
+    }
+
+    /** Reads forked for one page. Sequential scopes run each read on fork. */
+    public final class ReadScope {
+
+        private final TransactionTemplate forkTx;
+        private final Duration timeout;
+        private final long deadline;
+        private volatile boolean partial;
+
+        private ReadScope(TransactionTemplate forkTx, Duration timeout) {
+            this.forkTx = forkTx;
+            this.timeout = timeout;
+            this.deadline = System.nanoTime() + timeout.toNanos();
+        }
+
+        /**
+         * Starts {@code query}; {@code fallback} stands in for its result if it misses the
+         * deadline.
+         */
+        public <T> Pending<T> fork(String name, Supplier<T> query, T fallback) {
+            if (forkTx == null) {
+                T value = query.get();
+                return () -> value;
+            }
+            if (!permits.tryAcquire()) {
+                T value = forkTx.execute(status -> query.get());
+                return () -> value;
+            }
+            Future<T> future;
+            try {
+                future =
+                        executor.submit(
+                                () -> {
+                                    try {
+                                        return forkTx.execute(status -> query.get());
+                                    } finally {
+                                        permits.release();
+                                    }
+                                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            return () -> join(name, future, fallback);
+        }
+
+        /** True once a read has missed the deadline and been replaced by its fallback. */
+        public boolean isPartial() {
+            return partial;
+        }
+
+        private <T> T join(String name, Future<T> future, T fallback) {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Read '{}' exceeded {}; rendering without it", name, timeout);
+                partial = true;
+                return fallback;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error error) throw error;
+                throw new IllegalStateException("Read '" + name + "' failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted joining read " + name, e);
+            }
+        }
+    }
+}
@@ -35,6 +35,8 @@ public class ProjectService {
     private final RecurringTaskTemplateService recurringTaskTemplateService;
     private final RecentViewService recentViewService;
     private final PinnedItemService pinnedItemService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final TaskDailyRollupService taskDailyRollupService;
     private final ApplicationEventPublisher eventPublisher;
     private final Messages messages;
 
@@ -45,6 +47,8 @@ public class ProjectService {
             RecurringTaskTemplateService recurringTaskTemplateService,
             RecentViewService recentViewService,
             PinnedItemService pinnedItemService,
+            ProjectTaskStatsService projectTaskStatsService,
+            TaskDailyRollupService taskDailyRollupService,
             ApplicationEventPublisher eventPublisher,
             Messages messages) {
         this.projectRepository = projectRepository;
@@ -53,6 +57,8 @@ public class ProjectService {
         this.recurringTaskTemplateService = recurringTaskTemplateService;
         this.recentViewService = recentViewService;
         this.pinnedItemService = pinnedItemService;
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.taskDailyRollupService = taskDailyRollupService;
         this.eventPublisher = eventPublisher;
         this.messages = messages;
     }
@@ -66,6 +72,7 @@ public class ProjectService {
         project.getMembers().add(ownerMember);
 
         Project saved = projectRepository.save(project);
+        projectTaskStatsService.initProject(saved.getId());
 
         eventPublisher.publishEvent(
                 new AuditEvent(
@@ -174,6 +181,8 @@ public class ProjectService {
         String snapshot = AuditDetails.toJson(project.toAuditSnapshot());
         recentViewService.deleteByEntity(EntityTypes.PROJECT, id);
         pinnedItemService.deleteByEntity(EntityTypes.PROJECT, id);
+        projectTaskStatsService.deleteProject(id);
+        taskDailyRollupService.deleteProject(id);
         projectRepository.delete(project);
 
         eventPublisher.publishEvent(
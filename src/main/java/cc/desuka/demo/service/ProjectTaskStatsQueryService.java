@@ -0,0 +1,32 @@
+package cc.desuka.demo.service;
+
+import cc.desuka.demo.model.ProjectTaskStat;
+import cc.desuka.demo.repository.ProjectTaskStatRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read-only lookups on the per-project task counters. Counterpart to {@link
+ * ProjectTaskStatsService} (writes).
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProjectTaskStatsQueryService {
+
+    private final ProjectTaskStatRepository projectTaskStatRepository;
+
+    public ProjectTaskStatsQueryService(ProjectTaskStatRepository projectTaskStatRepository) {
+        this.projectTaskStatRepository = projectTaskStatRepository;
+    }
+
+    /** Counter rows (one per status) for each of the given projects. */
+    public Map<UUID, List<ProjectTaskStat>> getStatsByProject(List<UUID> projectIds) {
+        if (projectIds.isEmpty()) return Map.of();
+        return projectTaskStatRepository.findByProjectIdIn(projectIds).stream()
+                .collect(Collectors.groupingBy(ProjectTaskStat::getProjectId));
+    }
+}
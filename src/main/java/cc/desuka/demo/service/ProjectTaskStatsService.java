@@ -0,0 +1,157 @@
+package cc.desuka.demo.service;
+
+import cc.desuka.demo.model.ProjectTaskStat;
+import cc.desuka.demo.model.Task;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.repository.ProjectRepository;
+import cc.desuka.demo.repository.ProjectTaskStatRepository;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the {@link ProjectTaskStat} read model in step with task writes. Called from the task
+ * write paths inside their transaction, so counters commit or roll back with the task itself.
+ * Counterpart to {@link ProjectTaskStatsQueryService} (reads).
+ */
+@Service
+@Transactional
+public class ProjectTaskStatsService {
+
+    /** The part of a task its counters depend on, captured before a write. */
+    public record TaskState(UUID projectId, TaskStatus status, LocalDate dueDate) {
+
+        public static TaskState of(Task task) {
+            return new TaskState(task.getProject().getId(), task.getStatus(), task.getDueDate());
+        }
+
+        boolean isOverdue(LocalDate today) {
+            return dueDate != null && dueDate.isBefore(today) && !status.isTerminal();
+        }
+    }
+
+    private record StatKey(UUID projectId, TaskStatus status) {}
+
+    private final ProjectTaskStatRepository projectTaskStatRepository;
+    private final ProjectRepository projectRepository;
+
+    public ProjectTaskStatsService(
+            ProjectTaskStatRepository projectTaskStatRepository,
+            ProjectRepository projectRepository) {
+        this.projectTaskStatRepository = projectTaskStatRepository;
+        this.projectRepository = projectRepository;
+    }
+
+    // ── Task writes ──────────────────────────────────────────────────────
+
+    public void recordCreated(Task task) {
+        add(TaskState.of(task), 1, LocalDate.now());
+    }
+
+    public void recordChanged(TaskState before, Task after) {
+        TaskState now = TaskState.of(after);
+        LocalDate today = LocalDate.now();
+        if (before.projectId().equals(now.projectId())
+                && before.status() == now.status()
+                && before.isOverdue(today) == now.isOverdue(today)) {
+            return;
+        }
+        add(before, -1, today);
+        add(now, 1, today);
+    }
+
+    public void recordDeleted(Task task) {
+        add(TaskState.of(task), -1, LocalDate.now());
+    }
+
+    // ── Project lifecycle ────────────────────────────────────────────────
+
+    /** Zero rows for every status, so task writes in a new project only ever UPDATE. */
+    public void initProject(UUID projectId) {
+        for (TaskStatus status : TaskStatus.values()) {
+            projectTaskStatRepository.save(new ProjectTaskStat(projectId, status, 0, 0));
+        }
+    }
+
+    public void deleteProject(UUID projectId) {
+        projectTaskStatRepository.deleteByProjectId(projectId);
+    }
+
+    // ── Maintenance ──────────────────────────────────────────────────────
+
+    /** Recomputes overdue counts for the new date. Returns the number of rows touched. */
+    public int rolloverOverdue() {
+        return projectTaskStatRepository.recomputeOverdue(
+                LocalDate.now(), TaskStatus.terminalStatuses());
+    }
+
+    /**
+     * Diffs every counter row against live GROUP BY counts and fixes drift: wrong counts, missing
+     * rows, rows of deleted projects. Returns the number of rows repaired (0 when consistent).
+     */
+    public int verifyAndRepair() {
+        Map<StatKey, long[]> live = new HashMap<>();
+        for (Object[] row : projectTaskStatRepository.countLiveByProjectAndStatus()) {
+            live.computeIfAbsent(keyOf(row), k -> new long[2])[0] = (Long) row[2];
+        }
+        for (Object[] row :
+                projectTaskStatRepository.countLiveOverdueByProjectAndStatus(
+                        LocalDate.now(), TaskStatus.terminalStatuses())) {
+            live.computeIfAbsent(keyOf(row), k -> new long[2])[1] = (Long) row[2];
+        }
+
+        Map<StatKey, ProjectTaskStat> stored = new HashMap<>();
+        for (ProjectTaskStat stat : projectTaskStatRepository.findAll()) {
+            stored.put(new StatKey(stat.getProjectId(), stat.getStatus()), stat);
+        }
+
+        int repaired = 0;
+        for (UUID projectId : projectRepository.findAllIds()) {
+            for (TaskStatus status : TaskStatus.values()) {
+                StatKey key = new StatKey(projectId, status);
+                long[] expected = live.getOrDefault(key, new long[2]);
+                ProjectTaskStat stat = stored.remove(key);
+                if (stat == null) {
+                    projectTaskStatRepository.save(
+                            new ProjectTaskStat(projectId, status, expected[0], expected[1]));
+                    repaired++;
+                } else if (stat.getTaskCount() != expected[0]
+                        || stat.getOverdueCount() != expected[1]) {
+                    stat.setTaskCount(expected[0]);
+                    stat.setOverdueCount(expected[1]);
+                    repaired++;
+                }
+            }
+        }
+        // Whatever is left belongs to projects that no longer exist
+        List<ProjectTaskStat> orphans = List.copyOf(stored.values());
+        projectTaskStatRepository.deleteAll(orphans);
+        return repaired + orphans.size();
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void add(TaskState state, int delta, LocalDate today) {
+        long overdueDelta = state.isOverdue(today) ? delta : 0;
+        int updated =
+                projectTaskStatRepository.addCounts(
+                        state.projectId(), state.status(), delta, overdueDelta);
+        if (updated == 0) {
+            // Row missing (project predates the read model and repair hasn't run yet)
+            projectTaskStatRepository.save(
+                    new ProjectTaskStat(
+                            state.projectId(),
+                            state.status(),
+                            Math.max(delta, 0),
+                            Math.max(overdueDelta, 0)));
+        }
+    }
+
+    private static StatKey keyOf(Object[] row) {
+        return new StatKey((UUID) row[0], (TaskStatus) row[1]);
+    }
+}
@@ -2,6 +2,7 @@ package cc.desuka.demo.service;
 
 import cc.desuka.demo.audit.AuditDetails;
 import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.event.TaskPushEvent;
 import cc.desuka.demo.model.RecurringTaskTemplate;
 import cc.desuka.demo.model.Task;
 import cc.desuka.demo.model.TaskStatus;
@@ -26,14 +27,17 @@ public class RecurringTaskGenerationService {
 
     private final RecurringTaskTemplateRepository templateRepository;
     private final TaskRepository taskRepository;
+    private final ProjectTaskStatsService projectTaskStatsService;
     private final ApplicationEventPublisher eventPublisher;
 
     public RecurringTaskGenerationService(
             RecurringTaskTemplateRepository templateRepository,
             TaskRepository taskRepository,
+            ProjectTaskStatsService projectTaskStatsService,
             ApplicationEventPublisher eventPublisher) {
         this.templateRepository = templateRepository;
         this.taskRepository = taskRepository;
+        this.projectTaskStatsService = projectTaskStatsService;
         this.eventPublisher = eventPublisher;
     }
 
@@ -106,6 +110,7 @@ public class RecurringTaskGenerationService {
         }
 
         Task saved = taskRepository.save(task);
+        projectTaskStatsService.recordCreated(saved);
 
         // Audit the generated task
         eventPublisher.publishEvent(
@@ -115,6 +120,13 @@ public class RecurringTaskGenerationService {
                         saved.getId(),
                         auditPrincipal,
                         AuditDetails.toJson(saved.toAuditSnapshot())));
+        // No acting user: open boards refresh and cached searches of the project go stale
+        eventPublisher.publishEvent(
+                new TaskPushEvent(
+                        TaskPushEvent.ACTION_CREATED,
+                        saved.getId(),
+                        saved.getProject().getId(),
+                        null));
 
         // Advance the template to the next run date (skip missed dates)
         LocalDate nextRun = template.getNextRunDate();
@@ -2,9 +2,14 @@ package cc.desuka.demo.service;
 
 import cc.desuka.demo.config.AppRoutesProperties;
 import cc.desuka.demo.config.UserPreferences;
+import cc.desuka.demo.event.TaskPushCoalescer;
 import cc.desuka.demo.model.NotificationType;
 import cc.desuka.demo.model.Task;
+import cc.desuka.demo.presence.PresenceReplicator;
+import cc.desuka.demo.presence.PresenceService;
+import cc.desuka.demo.presence.ScopedPresenceService;
 import cc.desuka.demo.repository.NotificationRepository;
+import cc.desuka.demo.repository.TaskRepository;
 import cc.desuka.demo.util.Messages;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,13 +17,16 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Centralized home for all {@code @Scheduled} jobs. Keeping scheduled methods in one place makes it
- * easy to find, audit, and adjust cron expressions.
+ * easy to find, audit, and adjust cron expressions. The realtime flushes run on their own {@code
+ * realtimeScheduler} (see {@code SchedulingConfig}) so the cron jobs never delay them.
  */
 @Service
 public class ScheduledTaskService {
@@ -26,29 +34,50 @@ public class ScheduledTaskService {
     private static final Logger log = LoggerFactory.getLogger(ScheduledTaskService.class);
 
     private final TaskQueryService taskQueryService;
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final NotificationRepository notificationRepository;
+    private final TaskRepository taskRepository;
     private final RecurringTaskGenerationService recurringTaskGenerationService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final TaskDailyRollupService taskDailyRollupService;
     private final UserPreferenceQueryService userPreferenceQueryService;
     private final SettingQueryService settingQueryService;
+    private final PresenceService presenceService;
+    private final ScopedPresenceService scopedPresenceService;
+    private final PresenceReplicator presenceReplicator;
+    private final TaskPushCoalescer taskPushCoalescer;
     private final AppRoutesProperties appRoutes;
     private final Messages messages;
 
     public ScheduledTaskService(
             TaskQueryService taskQueryService,
-            NotificationService notificationService,
+            NotificationDispatcher notificationDispatcher,
             NotificationRepository notificationRepository,
+            TaskRepository taskRepository,
             RecurringTaskGenerationService recurringTaskGenerationService,
+            ProjectTaskStatsService projectTaskStatsService,
+            TaskDailyRollupService taskDailyRollupService,
             UserPreferenceQueryService userPreferenceQueryService,
             SettingQueryService settingQueryService,
+            PresenceService presenceService,
+            ScopedPresenceService scopedPresenceService,
+            PresenceReplicator presenceReplicator,
+            TaskPushCoalescer taskPushCoalescer,
             AppRoutesProperties appRoutes,
             Messages messages) {
         this.taskQueryService = taskQueryService;
-        this.notificationService = notificationService;
+        this.notificationDispatcher = notificationDispatcher;
         this.notificationRepository = notificationRepository;
+        this.taskRepository = taskRepository;
         this.recurringTaskGenerationService = recurringTaskGenerationService;
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.taskDailyRollupService = taskDailyRollupService;
         this.userPreferenceQueryService = userPreferenceQueryService;
         this.settingQueryService = settingQueryService;
+        this.presenceService = presenceService;
+        this.scopedPresenceService = scopedPresenceService;
+        this.presenceReplicator = presenceReplicator;
+        this.taskPushCoalescer = taskPushCoalescer;
         this.appRoutes = appRoutes;
         this.messages = messages;
     }
@@ -81,7 +110,7 @@ public class ScheduledTaskService {
 
             try {
                 String message = messages.get("notification.task.dueReminder", task.getTitle());
-                notificationService.create(
+                notificationDispatcher.submit(
                         task.getUser(),
                         null,
                         NotificationType.TASK_DUE_REMINDER,
@@ -127,4 +156,131 @@ public class ScheduledTaskService {
                         LocalDateTime.now().minus(purgeDays, ChronoUnit.DAYS));
         log.info("purgeOldNotifications: complete, deleted={}", deleted);
     }
+
+    /**
+     * Repairs drifted checklist counters on tasks (denormalized from checklist_items). Runs daily
+     * at 4:00 AM; a non-zero count means some write path bypassed {@code syncChecklistCounts()}.
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    @Transactional
+    public void repairChecklistCounts() {
+        log.info("repairChecklistCounts: starting");
+        int repaired = taskRepository.repairChecklistCounts();
+        if (repaired > 0) {
+            log.warn("repairChecklistCounts: complete, repaired={}", repaired);
+        } else {
+            log.info("repairChecklistCounts: complete, repaired=0");
+        }
+    }
+
+    /**
+     * Rolls the per-project overdue counters over to the new date: tasks whose due date just
+     * passed become overdue without any write. Runs daily just after midnight.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rolloverOverdueCounts() {
+        log.info("rolloverOverdueCounts: starting");
+        int rows = projectTaskStatsService.rolloverOverdue();
+        log.info("rolloverOverdueCounts: complete, rows={}", rows);
+    }
+
+    /**
+     * Verifies the per-project task counters against the live tasks table and repairs drift. Runs
+     * daily at 4:30 AM and once at startup, so schemas seeded outside the task write paths (dev
+     * seed data, restored dumps) start consistent; a non-zero count at 4:30 means some write path
+     * bypassed {@code ProjectTaskStatsService}.
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairProjectTaskStats() {
+        log.info("repairProjectTaskStats: starting");
+        int repaired = projectTaskStatsService.verifyAndRepair();
+        if (repaired > 0) {
+            log.warn("repairProjectTaskStats: complete, repaired={}", repaired);
+        } else {
+            log.info("repairProjectTaskStats: complete, repaired=0");
+        }
+    }
+
+    /**
+     * Tops up the analytics rollup table with every finished day after the latest rolled-up one
+     * (yesterday, normally), in {@link TaskDailyRollupService#CHUNK_DAYS}-day transactions. Runs
+     * daily just after midnight and once at startup, which also backfills an empty table from the
+     * earliest task. The current day is never rolled up — analytics computes it live. {@code
+     * synchronized} so a slow startup run and the nightly one never overlap on this node; other
+     * nodes are kept out by the rollup lock each chunk takes.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rollUpTaskDailyStats() {
+        LocalDate through = LocalDate.now().minusDays(1);
+        LocalDate first = taskDailyRollupService.firstUnrolledDay();
+        log.info("rollUpTaskDailyStats: starting, from={}, through={}", first, through);
+        int days = 0;
+        int rows = 0;
+        while (first != null && !first.isAfter(through)) {
+            LocalDate last = first.plusDays(TaskDailyRollupService.CHUNK_DAYS - 1);
+            if (last.isAfter(through)) {
+                last = through;
+            }
+            rows += taskDailyRollupService.rollUp(first, last);
+            days += (int) ChronoUnit.DAYS.between(first, last) + 1;
+            first = last.plusDays(1);
+        }
+        log.info("rollUpTaskDailyStats: complete, days={}, rows={}", days, rows);
+    }
+
+    /**
+     * Shares this node's presence with the other nodes if it changed, then broadcasts presence
+     * joins/leaves accumulated since the last run as one delta, then the viewer lists of the
+     * project/task scopes that changed. Runs every {@code app.presence.broadcast-window}; a no-op
+     * when nobody connected, disconnected or moved on any node.
+     */
+    @Scheduled(
+            fixedDelayString = "#{@presenceProperties.broadcastWindow.toMillis()}",
+            scheduler = "realtimeScheduler")
+    public void broadcastPresenceChanges() {
+        presenceReplicator.shareChanges();
+        presenceService.broadcastChanges();
+        scopedPresenceService.broadcastChanges();
+    }
+
+    /**
+     * Broadcasts the full online list so clients that missed a delta converge. Runs every {@code
+     * app.presence.snapshot-interval} while anyone is online. Also the cross-node heartbeat: this
+     * node's presence is re-shared and nodes silent past {@code app.broadcast.node-timeout} are
+     * dropped first, so the snapshot reflects them.
+     */
+    @Scheduled(
+            fixedRateString = "#{@presenceProperties.snapshotInterval.toMillis()}",
+            initialDelayString = "#{@presenceProperties.snapshotInterval.toMillis()}",
+            scheduler = "realtimeScheduler")
+    public void broadcastPresenceSnapshot() {
+        presenceReplicator.shareSnapshot();
+        presenceReplicator.expireSilentNodes();
+        presenceService.broadcastChanges();
+        presenceService.broadcastSnapshot();
+    }
+
+    /**
+     * Saves and pushes the notifications queued on {@link NotificationDispatcher}, in batches. Runs
+     * every {@code app.notifications.flush-interval}; a no-op when nothing is queued.
+     */
+    @Scheduled(
+            fixedDelayString = "#{@notificationProperties.flushInterval.toMillis()}",
+            scheduler = "realtimeScheduler")
+    public void flushNotifications() {
+        notificationDispatcher.flush();
+    }
+
+    /**
+     * Sends the task push events buffered per project as one frame each. Runs every {@code
+     * app.websocket.task-push-window}; a no-op when no task changed.
+     */
+    @Scheduled(
+            fixedDelayString = "#{@webSocketProperties.taskPushWindow.toMillis()}",
+            scheduler = "realtimeScheduler")
+    public void flushTaskPushes() {
+        taskPushCoalescer.flushAll();
+    }
 }
@@ -3,9 +3,14 @@ package cc.desuka.demo.service;
 import cc.desuka.demo.exception.EntityNotFoundException;
 import cc.desuka.demo.model.Tag;
 import cc.desuka.demo.repository.TagRepository;
+import cc.desuka.demo.typeahead.TypeaheadService;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,15 +20,27 @@ import org.springframework.transaction.annotation.Transactional;
 public class TagQueryService {
 
     private final TagRepository tagRepository;
+    private final TypeaheadService typeaheadService;
 
-    public TagQueryService(TagRepository tagRepository) {
+    public TagQueryService(TagRepository tagRepository, TypeaheadService typeaheadService) {
         this.tagRepository = tagRepository;
+        this.typeaheadService = typeaheadService;
     }
 
     public List<Tag> getAllTags() {
         return tagRepository.findAllByOrderByNameAsc();
     }
 
+    /** Top tag-name matches from the typeahead index; blank queries return all tags. */
+    public List<Tag> suggestTags(String query, int limit) {
+        if (query == null || query.isBlank()) return getAllTags();
+        List<Long> ids = typeaheadService.searchTagIds(query, limit);
+        Map<Long, Tag> byId =
+                tagRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Tag::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     public Tag getTagById(Long id) {
         return tagRepository
                 .findById(id)
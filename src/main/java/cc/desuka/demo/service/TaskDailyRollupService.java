@@ -0,0 +1,142 @@
+package cc.desuka.demo.service;
+
+import cc.desuka.demo.model.TaskDailyRollup;
+import cc.desuka.demo.repository.TaskDailyRollupRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the {@link TaskDailyRollup} table that analytics charts read their history from. Days are
+ * rolled up in chunks, each chunk in its own transaction: one open-task seed query at the start of
+ * the chunk plus one GROUP BY each for created and completed tasks, then open counts are carried
+ * forward day by day in memory.
+ */
+@Service
+@Transactional
+public class TaskDailyRollupService {
+
+    /** Days per {@link #rollUp} call — bounds the rows held in one persistence context. */
+    public static final int CHUNK_DAYS = 31;
+
+    private record Group(UUID projectId, Long sprintId) {}
+
+    /** One group's task activity on one day. */
+    private static final class Activity {
+        long created;
+        long createdLive;
+        long completed;
+        long effortCompleted;
+    }
+
+    private static final Activity NONE = new Activity();
+
+    private final TaskDailyRollupRepository taskDailyRollupRepository;
+
+    public TaskDailyRollupService(TaskDailyRollupRepository taskDailyRollupRepository) {
+        this.taskDailyRollupRepository = taskDailyRollupRepository;
+    }
+
+    /**
+     * First day the nightly job still has to roll up: the day after the latest rolled-up one, or
+     * the day of the earliest task on an empty table (backfill). Null when there are no tasks.
+     */
+    @Transactional(readOnly = true)
+    public LocalDate firstUnrolledDay() {
+        LocalDate latest = taskDailyRollupRepository.findLatestRollupDate();
+        if (latest != null) {
+            return latest.plusDays(1);
+        }
+        LocalDateTime earliest = taskDailyRollupRepository.findEarliestTaskCreatedAt();
+        return earliest != null ? earliest.toLocalDate() : null;
+    }
+
+    /**
+     * Rolls up the finished days {@code first..last} (at most {@link #CHUNK_DAYS}), replacing any
+     * rows already stored for them. Concurrent calls are serialized on the rollup lock, so a
+     * second writer replaces the first one's rows rather than adding to them. Returns the number
+     * of rows written.
+     */
+    public int rollUp(LocalDate first, LocalDate last) {
+        LocalDateTime from = first.atStartOfDay();
+        LocalDateTime until = last.plusDays(1).atStartOfDay();
+
+        Map<Group, Long> open = new HashMap<>();
+        for (Object[] row : taskDailyRollupRepository.countOpenByProjectAndSprintAt(from)) {
+            open.put(group(row), count(row[2]));
+        }
+
+        Map<LocalDate, Map<Group, Activity>> activity = new HashMap<>();
+        for (Object[] row :
+                taskDailyRollupRepository.countCreatedByProjectSprintAndDay(from, until)) {
+            Activity a = activityOf(activity, (LocalDate) row[2], group(row));
+            a.created = count(row[3]);
+            a.createdLive = count(row[4]);
+        }
+        for (Object[] row :
+                taskDailyRollupRepository.countCompletedByProjectSprintAndDay(from, until)) {
+            Activity a = activityOf(activity, (LocalDate) row[2], group(row));
+            a.completed = count(row[3]);
+            a.effortCompleted = count(row[4]);
+        }
+
+        List<TaskDailyRollup> rows = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            Map<Group, Activity> daily = activity.getOrDefault(day, Map.of());
+            Set<Group> groups = new LinkedHashSet<>(open.keySet());
+            groups.addAll(daily.keySet());
+            for (Group group : groups) {
+                Activity a = daily.getOrDefault(group, NONE);
+                // Completed tasks are never cancelled ones, so open moves by exactly this much
+                long openAtEnd = open.getOrDefault(group, 0L) + a.createdLive - a.completed;
+                if (openAtEnd > 0) {
+                    open.put(group, openAtEnd);
+                } else {
+                    open.remove(group);
+                }
+                if (openAtEnd != 0 || a.created != 0 || a.completed != 0) {
+                    rows.add(
+                            new TaskDailyRollup(
+                                    group.projectId(),
+                                    group.sprintId(),
+                                    day,
+                                    a.created,
+                                    a.completed,
+                                    openAtEnd,
+                                    a.effortCompleted));
+                }
+            }
+        }
+
+        taskDailyRollupRepository.lockForRollup();
+        taskDailyRollupRepository.deleteByRollupDateBetween(first, last);
+        taskDailyRollupRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    public void deleteProject(UUID projectId) {
+        taskDailyRollupRepository.deleteByProjectId(projectId);
+    }
+
+    private static Activity activityOf(
+            Map<LocalDate, Map<Group, Activity>> activity, LocalDate day, Group group) {
+        return activity.computeIfAbsent(day, d -> new HashMap<>())
+                .computeIfAbsent(group, g -> new Activity());
+    }
+
+    private static Group group(Object[] row) {
+        return new Group((UUID) row[0], (Long) row[1]);
+    }
+
+    private static long count(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+}
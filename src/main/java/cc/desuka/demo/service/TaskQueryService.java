@@ -1,5 +1,9 @@
 package cc.desuka.demo.service;
 
+import cc.desuka.demo.dto.CursorPage;
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.dto.TaskCounterSnapshot;
+import cc.desuka.demo.dto.TaskCursor;
 import cc.desuka.demo.dto.TaskItem;
 import cc.desuka.demo.dto.TaskSearchCriteria;
 import cc.desuka.demo.dto.UserTaskCounts;
@@ -10,17 +14,29 @@ import cc.desuka.demo.model.TaskStatusFilter;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.TaskRepository;
 import cc.desuka.demo.repository.TaskSpecifications;
+import cc.desuka.demo.search.TaskSearchCache;
+import cc.desuka.demo.typeahead.TypeaheadService;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,10 +48,41 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class TaskQueryService {
 
+    /** Max suggestions returned to the dependency picker per keystroke. */
+    public static final int DEPENDENCY_SEARCH_LIMIT = 20;
+
+    /** Rows per export chunk — also the JDBC fetch size. */
+    static final int EXPORT_CHUNK_SIZE = 500;
+
+    /** Cache page key for the total-count query of a search. */
+    private static final String COUNT_KEY = "count";
+
+    /** Cache page key for one keyset window. */
+    private record WindowKey(String cursor, Sort.Order order, int limit) {}
+
+    /** How long one dashboard counter snapshot is shared before the next caller rescans tasks. */
+    static final Duration COUNTER_SNAPSHOT_TTL = Duration.ofSeconds(10);
+
+    private record CachedCounters(TaskCounterSnapshot snapshot, long expiresAtNanos) {
+        boolean isFresh(LocalDate today) {
+            return expiresAtNanos - System.nanoTime() > 0 && today.equals(snapshot.asOf());
+        }
+    }
+
+    private final Object counterSnapshotLock = new Object();
+    private volatile CachedCounters cachedCounters;
+
     private final TaskRepository taskRepository;
+    private final TypeaheadService typeaheadService;
+    private final TaskSearchCache taskSearchCache;
 
-    public TaskQueryService(TaskRepository taskRepository) {
+    public TaskQueryService(
+            TaskRepository taskRepository,
+            TypeaheadService typeaheadService,
+            TaskSearchCache taskSearchCache) {
         this.taskRepository = taskRepository;
+        this.typeaheadService = typeaheadService;
+        this.taskSearchCache = taskSearchCache;
     }
 
     // ── Single-entity lookups ─────────────────────────────────────────────
@@ -46,6 +93,11 @@ public class TaskQueryService {
                 .orElseThrow(() -> new EntityNotFoundException(Task.class, id));
     }
 
+    /** The task's project, without loading the task; empty when the task does not exist. */
+    public Optional<UUID> findProjectId(UUID taskId) {
+        return taskRepository.findProjectIdById(taskId);
+    }
+
     public List<Task> getTasksByIds(List<UUID> ids) {
         return taskRepository.findAllById(ids);
     }
@@ -92,8 +144,99 @@ public class TaskQueryService {
 
     // ── Search and filter ─────────────────────────────────────────────────
 
+    /**
+     * Offset-paged search in two phases: the page of IDs is selected with a real SQL LIMIT/OFFSET,
+     * then only those tasks are loaded with their associations. Unpaged requests (calendar) load
+     * everything in one query.
+     *
+     * <p>Sorting by {@link TaskSpecifications#SORT_RELEVANCE} ranks keyword matches best-first; it
+     * is ignored when there is no keyword and on unpaged requests.
+     */
     public Page<Task> searchTasks(TaskSearchCriteria criteria, Pageable pageable) {
-        return taskRepository.findAll(TaskSpecifications.build(criteria), pageable);
+        Specification<Task> spec = TaskSpecifications.build(criteria);
+        Sort requested = pageable.getSort();
+        Sort sort = withoutRelevance(requested);
+        if (pageable.isUnpaged()) {
+            return taskRepository.findAll(
+                    spec, sort.equals(requested) ? pageable : Pageable.unpaged(sort));
+        }
+        List<UUID> ids = findPageIds(criteria, spec, pageable);
+        return PageableExecutionUtils.getPage(
+                fetchInOrder(ids), pageable, () -> countMatching(criteria, spec));
+    }
+
+    /**
+     * Keyset-paged search: no COUNT query and no OFFSET scan, so deep pages cost the same as the
+     * first. {@code cursor} is the opaque {@code nextCursor} of the previous window (blank for the
+     * first window) and must have been issued for the same sort.
+     */
+    public CursorPage<Task> searchTasks(
+            TaskSearchCriteria criteria, String cursor, int size, Sort sort) {
+        Sort.Order order = TaskCursor.resolveOrder(sort);
+        // Fetch one extra ID to learn whether another window exists
+        List<UUID> ids = findWindowIds(criteria, cursor, order, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Task> content = fetchInOrder(hasNext ? ids.subList(0, size) : ids);
+
+        String nextCursor =
+                hasNext && !content.isEmpty()
+                        ? TaskCursor.after(content.getLast(), order).encode()
+                        : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    // ── List-view projections ─────────────────────────────────────────────
+
+    /**
+     * {@link #searchTasks(TaskSearchCriteria, Pageable)} for the cards, table and board views:
+     * same filters, sorting and ID-first paging, but the rows come back as {@link TaskCardView}
+     * projections instead of managed entities. Unpaged requests (board) project everything in one
+     * query.
+     */
+    public Page<TaskCardView> searchTaskCards(TaskSearchCriteria criteria, Pageable pageable) {
+        Specification<Task> spec = TaskSpecifications.build(criteria);
+        if (pageable.isUnpaged()) {
+            Sort sort = withoutRelevance(pageable.getSort()).and(Sort.by(Task.FIELD_ID));
+            return new PageImpl<>(taskRepository.findCardViews(spec, sort));
+        }
+        List<UUID> ids = findPageIds(criteria, spec, pageable);
+        return PageableExecutionUtils.getPage(
+                cardsInOrder(ids), pageable, () -> countMatching(criteria, spec));
+    }
+
+    /**
+     * Keyset-paged {@link #searchTaskCards(TaskSearchCriteria, Pageable)}. Unlike the API variant,
+     * a cursor that does not decode for {@code sort} (a stale or hand-edited web link) restarts at
+     * the first window instead of failing.
+     */
+    public CursorPage<TaskCardView> searchTaskCards(
+            TaskSearchCriteria criteria, String cursor, int size, Sort sort) {
+        Sort.Order order = TaskCursor.resolveOrder(sort);
+        String start = TaskCursor.isValid(cursor, order) ? cursor : null;
+        List<UUID> ids = findWindowIds(criteria, start, order, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<TaskCardView> content = cardsInOrder(hasNext ? ids.subList(0, size) : ids);
+
+        String nextCursor =
+                hasNext && !content.isEmpty()
+                        ? TaskCursor.after(content.getLast(), order).encode()
+                        : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    /**
+     * Streams every task matching {@code criteria} to {@code consumer} in chunks, with tag names
+     * per task. Nothing outlives a chunk, so exports run in constant memory.
+     */
+    public void forEachExportChunk(
+            TaskSearchCriteria criteria,
+            Sort sort,
+            BiConsumer<List<Task>, Map<UUID, List<String>>> consumer) {
+        taskRepository.forEachChunk(
+                TaskSpecifications.build(criteria),
+                withoutRelevance(sort),
+                EXPORT_CHUNK_SIZE,
+                consumer);
     }
 
     // ── Counts (user-scoped) ──────────────────────────────────────────────
@@ -114,42 +257,79 @@ public class TaskQueryService {
         return taskRepository.countByUserId(userId);
     }
 
-    public long countByUserOverdue(User user) {
-        return taskRepository.countByUserAndDueDateBeforeAndStatusNotIn(
-                user, LocalDate.now(), TaskStatus.terminalStatuses());
-    }
-
     /**
-     * Dashboard aggregate: status counts + overdue for a user in 2 queries (one group-by + one
-     * overdue count) instead of 5 individual counts.
+     * Dashboard aggregate: status counts + overdue for a user in one conditional-aggregation pass
+     * over the user's rows (served by the {@code (user_id, status)} index).
      */
     public UserTaskCounts countsByUser(User user) {
-        Map<TaskStatus, Long> byStatus = new LinkedHashMap<>();
-        for (Object[] row : taskRepository.countGroupedByStatusForUser(user)) {
-            byStatus.put((TaskStatus) row[0], (Long) row[1]);
-        }
-
-        return new UserTaskCounts(
-                byStatus.getOrDefault(TaskStatus.OPEN, 0L),
-                byStatus.getOrDefault(TaskStatus.IN_PROGRESS, 0L),
-                byStatus.getOrDefault(TaskStatus.IN_REVIEW, 0L),
-                byStatus.getOrDefault(TaskStatus.COMPLETED, 0L),
-                countByUserOverdue(user));
+        List<Object[]> rows =
+                taskRepository.countDashboardCountersForUser(
+                        user.getId(), LocalDate.now(), TaskStatus.terminalStatuses());
+        return rows.isEmpty() ? UserTaskCounts.NONE : toUserTaskCounts(rows.getFirst());
     }
 
     // ── Counts (global) ───────────────────────────────────────────────────
 
-    public long countByStatus(TaskStatus status) {
-        return taskRepository.countByStatus(status);
+    /**
+     * System-wide and per-user dashboard counters from one pass over tasks, shared by all callers
+     * for {@link #COUNTER_SNAPSHOT_TTL} (never across midnight — overdue is date-relative).
+     * Concurrent callers on an expired snapshot wait for one reload instead of each rescanning.
+     */
+    public TaskCounterSnapshot getCounterSnapshot() {
+        LocalDate today = LocalDate.now();
+        CachedCounters cached = cachedCounters;
+        if (cached != null && cached.isFresh(today)) {
+            return cached.snapshot();
+        }
+        synchronized (counterSnapshotLock) {
+            cached = cachedCounters;
+            if (cached != null && cached.isFresh(today)) {
+                return cached.snapshot();
+            }
+            TaskCounterSnapshot snapshot = loadCounterSnapshot(today);
+            long expiresAt = System.nanoTime() + COUNTER_SNAPSHOT_TTL.toNanos();
+            cachedCounters = new CachedCounters(snapshot, expiresAt);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Identity of the snapshot {@link #getCounterSnapshot()} would return right now without
+     * reloading, or null once it has expired. Conditional GETs use it to tell whether the counters
+     * they rendered are still the current ones.
+     */
+    public Long currentCounterSnapshotId() {
+        CachedCounters cached = cachedCounters;
+        return cached != null && cached.isFresh(LocalDate.now()) ? cached.expiresAtNanos() : null;
+    }
+
+    private TaskCounterSnapshot loadCounterSnapshot(LocalDate today) {
+        long total = 0;
+        long open = 0;
+        long completed = 0;
+        long overdue = 0;
+        Map<UUID, UserTaskCounts> byUser = new HashMap<>();
+        for (Object[] row :
+                taskRepository.countDashboardCounters(today, TaskStatus.terminalStatuses())) {
+            UserTaskCounts counts = toUserTaskCounts(row);
+            total += sum(row[1]);
+            open += counts.open();
+            completed += counts.completed();
+            overdue += counts.overdue();
+            if (row[0] instanceof UUID userId) {
+                byUser.put(userId, counts);
+            }
+        }
+        return new TaskCounterSnapshot(today, total, open, completed, overdue, Map.copyOf(byUser));
     }
 
-    public long countOverdue() {
-        return taskRepository.countByDueDateBeforeAndStatusNotIn(
-                LocalDate.now(), TaskStatus.terminalStatuses());
+    /** Maps a {@link TaskRepository#DASHBOARD_COUNTERS} row. */
+    private static UserTaskCounts toUserTaskCounts(Object[] row) {
+        return new UserTaskCounts(sum(row[2]), sum(row[3]), sum(row[4]), sum(row[5]), sum(row[6]));
     }
 
-    public long countAll() {
-        return taskRepository.count();
+    private static long sum(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
     }
 
     // ── Counts (project-scoped) ───────────────────────────────────────────
@@ -215,23 +395,96 @@ public class TaskQueryService {
 
     // ── Dependency picker search ──────────────────────────────────────────
 
+    /** Top title matches from the in-memory typeahead index — no database round trip. */
     public List<TaskItem> searchByTitleForDependency(
             UUID projectId, String query, List<UUID> excludeTaskIds) {
-        Specification<Task> spec = TaskSpecifications.withProjectId(projectId);
-        if (query != null && !query.isBlank()) {
-            spec = spec.and(TaskSpecifications.withTitleContaining(query));
-        }
-        if (excludeTaskIds != null && !excludeTaskIds.isEmpty()) {
-            spec = spec.and((root, q, cb) -> cb.not(root.get(Task.FIELD_ID).in(excludeTaskIds)));
-        }
-        Sort sort = Sort.by(Sort.Direction.DESC, Task.FIELD_CREATED_AT);
-        return taskRepository.findAll(spec, sort).stream()
-                .map(t -> new TaskItem(t.getId(), t.getTitle(), t.getStatus().name()))
-                .toList();
+        Set<UUID> excluded = excludeTaskIds == null ? Set.of() : new HashSet<>(excludeTaskIds);
+        return typeaheadService.searchTasks(projectId, query, excluded, DEPENDENCY_SEARCH_LIMIT);
     }
 
     // ── Private helpers ────────────────────────────────────────────────────
 
+    private Sort withoutRelevance(Sort sort) {
+        return Sort.by(
+                sort.stream()
+                        .filter(o -> !TaskSpecifications.SORT_RELEVANCE.equals(o.getProperty()))
+                        .toList());
+    }
+
+    /**
+     * First phase of offset paging: the page of IDs with a real SQL LIMIT/OFFSET, best keyword
+     * match first when sorted by relevance. Served from {@link TaskSearchCache} while no covered
+     * project has changed.
+     */
+    private List<UUID> findPageIds(
+            TaskSearchCriteria criteria, Specification<Task> spec, Pageable pageable) {
+        return taskSearchCache.get(
+                criteria, pageable, () -> queryPageIds(criteria, spec, pageable));
+    }
+
+    private List<UUID> queryPageIds(
+            TaskSearchCriteria criteria, Specification<Task> spec, Pageable pageable) {
+        Sort requested = pageable.getSort();
+        boolean byRelevance =
+                requested.getOrderFor(TaskSpecifications.SORT_RELEVANCE) != null
+                        && criteria.getKeyword() != null
+                        && !criteria.getKeyword().isBlank();
+        if (byRelevance) {
+            return taskRepository.findIdsByRelevance(
+                    spec, criteria.getKeyword(), pageable.getOffset(), pageable.getPageSize());
+        }
+        // id as the final tie-breaker keeps OFFSET pages stable on repeated values
+        return taskRepository.findIds(
+                spec,
+                withoutRelevance(requested).and(Sort.by(Task.FIELD_ID)),
+                pageable.getOffset(),
+                pageable.getPageSize());
+    }
+
+    /**
+     * First phase of keyset paging: up to {@code limit} IDs strictly after {@code cursor}, cached
+     * like {@link #findPageIds}.
+     */
+    private List<UUID> findWindowIds(
+            TaskSearchCriteria criteria, String cursor, Sort.Order order, int limit) {
+        // Decode up front so a malformed cursor fails before it can become a cache key
+        TaskCursor after = TaskCursor.decode(cursor, order);
+        return taskSearchCache.get(
+                criteria,
+                new WindowKey(cursor == null || cursor.isBlank() ? null : cursor, order, limit),
+                () ->
+                        taskRepository.findIds(
+                                TaskSpecifications.build(criteria)
+                                        .and(TaskSpecifications.withCursor(after)),
+                                TaskCursor.keysetSort(order),
+                                0,
+                                limit));
+    }
+
+    private long countMatching(TaskSearchCriteria criteria, Specification<Task> spec) {
+        return taskSearchCache.get(criteria, COUNT_KEY, () -> taskRepository.count(spec));
+    }
+
+    /** Projects the given tasks for the list views, preserving the order of {@code ids}. */
+    private List<TaskCardView> cardsInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<UUID, TaskCardView> byId =
+                taskRepository
+                        .findCardViews(TaskSpecifications.withIds(ids), Sort.unsorted())
+                        .stream()
+                        .collect(Collectors.toMap(TaskCardView::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /** Loads tasks with their list-view associations, preserving the order of {@code ids}. */
+    private List<Task> fetchInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<UUID, Task> byId =
+                taskRepository.findByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     private List<Task> filterByAccessibleProjects(
             List<Task> tasks, List<UUID> accessibleProjectIds) {
         if (accessibleProjectIds == null) return tasks;
@@ -256,13 +509,13 @@ public class TaskQueryService {
 
     // ── Grouping ──────────────────────────────────────────────────────────
 
-    public Map<TaskStatus, List<Task>> groupByStatus(List<Task> tasks) {
-        Map<TaskStatus, List<Task>> map = new LinkedHashMap<>();
+    public Map<TaskStatus, List<TaskCardView>> groupByStatus(List<TaskCardView> tasks) {
+        Map<TaskStatus, List<TaskCardView>> map = new LinkedHashMap<>();
         for (TaskStatus status : TaskStatus.values()) {
             map.put(status, new ArrayList<>());
         }
-        for (Task task : tasks) {
-            map.get(task.getStatus()).add(task);
+        for (TaskCardView task : tasks) {
+            map.get(task.status()).add(task);
         }
         return map;
     }
@@ -17,6 +17,7 @@ import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.TaskRepository;
 import cc.desuka.demo.security.SecurityUtils;
+import cc.desuka.demo.service.ProjectTaskStatsService.TaskState;
 import cc.desuka.demo.util.EntityTypes;
 import cc.desuka.demo.util.Messages;
 import java.time.LocalDate;
@@ -45,6 +46,7 @@ public class TaskService {
     private final UserQueryService userQueryService;
     private final RecentViewService recentViewService;
     private final PinnedItemService pinnedItemService;
+    private final ProjectTaskStatsService projectTaskStatsService;
     private final ApplicationEventPublisher eventPublisher;
     private final Messages messages;
 
@@ -57,6 +59,7 @@ public class TaskService {
             UserQueryService userQueryService,
             RecentViewService recentViewService,
             PinnedItemService pinnedItemService,
+            ProjectTaskStatsService projectTaskStatsService,
             ApplicationEventPublisher eventPublisher,
             Messages messages) {
         this.taskRepository = taskRepository;
@@ -67,6 +70,7 @@ public class TaskService {
         this.userQueryService = userQueryService;
         this.recentViewService = recentViewService;
         this.pinnedItemService = pinnedItemService;
+        this.projectTaskStatsService = projectTaskStatsService;
         this.eventPublisher = eventPublisher;
         this.messages = messages;
     }
@@ -91,6 +95,7 @@ public class TaskService {
         updateCompletedAt(task, null);
         applyChecklist(task, checklistTexts, checklistChecked);
         Task saved = taskRepository.save(task);
+        projectTaskStatsService.recordCreated(saved);
         eventPublisher.publishEvent(
                 new AuditEvent(
                         AuditEvent.TASK_CREATED,
@@ -116,6 +121,7 @@ public class TaskService {
             throw new StaleDataException(Task.class, id);
         }
         Map<String, AuditField> before = task.toAuditSnapshot();
+        TaskState previousState = TaskState.of(task);
         User previousUser = task.getUser();
 
         TaskStatus previousStatus = task.getStatus();
@@ -144,8 +150,10 @@ public class TaskService {
         taskDependencyService.reconcile(task, params.blockedByIds(), params.blocksIds());
 
         Task saved = taskRepository.save(task);
+        projectTaskStatsService.recordChanged(previousState, saved);
 
-        Map<String, Object> changes = AuditDetails.diff(before, saved.toAuditSnapshot());
+        Map<String, AuditField> after = saved.toAuditSnapshot();
+        Map<String, Object> changes = AuditDetails.diff(before, after);
         if (!changes.isEmpty()) {
             eventPublisher.publishEvent(
                     new AuditEvent(
@@ -167,11 +175,13 @@ public class TaskService {
             eventPublisher.publishEvent(new TaskUpdatedEvent(saved, actor));
         }
         eventPublisher.publishEvent(
-                new TaskPushEvent(
-                        TaskPushEvent.ACTION_UPDATED,
-                        saved.getId(),
-                        saved.getProject().getId(),
-                        actorId(actor)));
+                changes.isEmpty()
+                        ? new TaskPushEvent(
+                                TaskPushEvent.ACTION_UPDATED,
+                                saved.getId(),
+                                saved.getProject().getId(),
+                                actorId(actor))
+                        : pushDelta(saved, after, changes, actor));
         return saved;
     }
 
@@ -195,6 +205,7 @@ public class TaskService {
         recentViewService.deleteByEntity(EntityTypes.TASK, id);
         pinnedItemService.deleteByEntity(EntityTypes.TASK, id);
         taskRepository.delete(task);
+        projectTaskStatsService.recordDeleted(task);
         eventPublisher.publishEvent(
                 new AuditEvent(
                         AuditEvent.TASK_DELETED,
@@ -213,6 +224,7 @@ public class TaskService {
     public Task updateField(UUID id, String field, String value) {
         Task task = taskQueryService.getTaskById(id);
         Map<String, AuditField> before = task.toAuditSnapshot();
+        TaskState previousState = TaskState.of(task);
 
         switch (field) {
             case Task.FIELD_TITLE -> task.setTitle(value);
@@ -242,7 +254,7 @@ public class TaskService {
                             messages.get("task.field.notEditable", field));
         }
 
-        return saveAndPublish(task, before);
+        return saveAndPublish(task, before, previousState);
     }
 
     public Task setStatus(UUID id, TaskStatus newStatus) {
@@ -252,10 +264,11 @@ public class TaskService {
         }
         requireNotBlocked(id, newStatus);
         Map<String, AuditField> before = task.toAuditSnapshot();
+        TaskState previousState = TaskState.of(task);
         TaskStatus previousStatus = task.getStatus();
         task.setStatus(newStatus);
         updateCompletedAt(task, previousStatus);
-        return saveAndPublish(task, before);
+        return saveAndPublish(task, before, previousState);
     }
 
     // Advance status: BACKLOG → OPEN → IN_PROGRESS → IN_REVIEW → COMPLETED → OPEN
@@ -263,6 +276,7 @@ public class TaskService {
     public Task advanceStatus(UUID id) {
         Task task = taskQueryService.getTaskById(id);
         Map<String, AuditField> before = task.toAuditSnapshot();
+        TaskState previousState = TaskState.of(task);
         TaskStatus previousStatus = task.getStatus();
         TaskStatus next =
                 switch (previousStatus) {
@@ -276,12 +290,15 @@ public class TaskService {
         requireNotBlocked(id, next);
         task.setStatus(next);
         updateCompletedAt(task, previousStatus);
-        return saveAndPublish(task, before);
+        return saveAndPublish(task, before, previousState);
     }
 
-    private Task saveAndPublish(Task task, Map<String, AuditField> before) {
+    private Task saveAndPublish(
+            Task task, Map<String, AuditField> before, TaskState previousState) {
         Task saved = taskRepository.save(task);
-        Map<String, Object> changes = AuditDetails.diff(before, saved.toAuditSnapshot());
+        projectTaskStatsService.recordChanged(previousState, saved);
+        Map<String, AuditField> after = saved.toAuditSnapshot();
+        Map<String, Object> changes = AuditDetails.diff(before, after);
         if (!changes.isEmpty()) {
             eventPublisher.publishEvent(
                     new AuditEvent(
@@ -292,23 +309,29 @@ public class TaskService {
                             AuditDetails.toJson(changes)));
             User actor = SecurityUtils.getCurrentUser();
             eventPublisher.publishEvent(new TaskUpdatedEvent(saved, actor));
-            eventPublisher.publishEvent(
-                    new TaskPushEvent(
-                            TaskPushEvent.ACTION_UPDATED,
-                            saved.getId(),
-                            saved.getProject().getId(),
-                            actorId(actor)));
+            eventPublisher.publishEvent(pushDelta(saved, after, changes, actor));
         }
         return saved;
     }
 
+    // Flushes first so the delta carries the @Version this update commits with — clients
+    // compare it against the version they rendered to decide whether a patch applies.
+    private TaskPushEvent pushDelta(
+            Task saved, Map<String, AuditField> after, Map<String, Object> changes, User actor) {
+        taskRepository.flush();
+        return TaskPushEvent.updated(saved, after, changes.keySet(), actorId(actor));
+    }
+
     private static UUID actorId(User user) {
         return user != null ? user.getId() : null;
     }
 
     private void applyChecklist(Task task, List<String> texts, List<Boolean> checked) {
         task.getChecklistItems().clear();
-        if (texts == null) return;
+        if (texts == null) {
+            task.syncChecklistCounts();
+            return;
+        }
         for (int i = 0; i < texts.size(); i++) {
             String text = texts.get(i);
             if (text == null || text.isBlank()) continue;
@@ -318,6 +341,7 @@ public class TaskService {
             item.setTask(task);
             task.getChecklistItems().add(item);
         }
+        task.syncChecklistCounts();
     }
 
     private void requireNotBlocked(UUID taskId, TaskStatus newStatus) {
@@ -338,8 +362,9 @@ public class TaskService {
     public void assignSprint(UUID taskId, Long sprintId) {
         Task task = taskQueryService.getTaskById(taskId);
         Map<String, AuditField> before = task.toAuditSnapshot();
+        TaskState previousState = TaskState.of(task);
         task.setSprint(sprintId != null ? sprintQueryService.getSprintById(sprintId) : null);
-        saveAndPublish(task, before);
+        saveAndPublish(task, before, previousState);
     }
 
     public void clearSprintAssignments(UUID projectId) {
@@ -383,10 +408,12 @@ public class TaskService {
     public void unassignTasks(User user) {
         List<Task> tasks = taskRepository.findByUser(user);
         for (Task task : tasks) {
+            TaskState previousState = TaskState.of(task);
             task.setUser(null);
             if (!task.getStatus().isTerminal()) {
                 task.setStatus(TaskStatus.OPEN);
             }
+            projectTaskStatsService.recordChanged(previousState, task);
         }
         taskRepository.saveAll(tasks);
     }
@@ -397,8 +424,10 @@ public class TaskService {
                 taskRepository.findByUserAndProjectIdAndStatusNotIn(
                         user, projectId, TaskStatus.terminalStatuses());
         for (Task task : tasks) {
+            TaskState previousState = TaskState.of(task);
             task.setUser(null);
             task.setStatus(TaskStatus.OPEN);
+            projectTaskStatsService.recordChanged(previousState, task);
         }
         taskRepository.saveAll(tasks);
     }
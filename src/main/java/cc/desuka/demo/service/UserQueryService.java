@@ -5,9 +5,11 @@ import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.RecurringTaskTemplateRepository;
 import cc.desuka.demo.repository.UserRepository;
+import cc.desuka.demo.typeahead.TypeaheadService;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,18 +26,21 @@ public class UserQueryService {
     private final TaskQueryService taskQueryService;
     private final CommentQueryService commentQueryService;
     private final ProjectQueryService projectQueryService;
+    private final TypeaheadService typeaheadService;
 
     public UserQueryService(
             UserRepository userRepository,
             RecurringTaskTemplateRepository recurringTaskTemplateRepository,
             TaskQueryService taskQueryService,
             CommentQueryService commentQueryService,
-            ProjectQueryService projectQueryService) {
+            ProjectQueryService projectQueryService,
+            TypeaheadService typeaheadService) {
         this.userRepository = userRepository;
         this.recurringTaskTemplateRepository = recurringTaskTemplateRepository;
         this.taskQueryService = taskQueryService;
         this.commentQueryService = commentQueryService;
         this.projectQueryService = projectQueryService;
+        this.typeaheadService = typeaheadService;
     }
 
     // ── Lookups ──────────────────────────────────────────────────────────
@@ -91,6 +96,16 @@ public class UserQueryService {
                         query, query);
     }
 
+    /**
+     * Top enabled-user matches for autocomplete (name hits before email hits), ranked by the
+     * in-memory typeahead index. Blank queries return all enabled users, as the assignee picker
+     * prefetches the full list.
+     */
+    public List<User> suggestEnabledUsers(String query, int limit) {
+        if (query == null || query.isBlank()) return getEnabledUsers();
+        return findAllInOrder(typeaheadService.searchEnabledUserIds(query, limit));
+    }
+
     // ── Decision queries (guard checks for write operations) ─────────────
 
     /** Aggregated user info for admin panel — counts + deletion/disable eligibility in one pass. */
@@ -126,4 +141,11 @@ public class UserQueryService {
     public boolean canDisable(UUID userId) {
         return getDeletionInfo(userId).canDisable();
     }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private List<User> findAllInOrder(List<UUID> ids) {
+        Map<UUID, User> byId = findAllByIds(ids);
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 }
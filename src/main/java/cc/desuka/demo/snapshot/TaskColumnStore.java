@@ -0,0 +1,351 @@
+package cc.desuka.demo.snapshot;
+
+import cc.desuka.demo.dto.AnalyticsProjection.UserCount;
+import cc.desuka.demo.dto.AnalyticsProjection.UserStatusCount;
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.TaskStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory columnar store of task facts for whole-system analytics. Each task is one
+ * row across parallel primitive arrays — project and assignee as dictionary indexes, status and
+ * priority as ordinals, created/completed/due as epoch days, effort — so the admin group-bys run
+ * as tight loops over a few contiguous arrays instead of scanning the {@code tasks} table.
+ *
+ * <p>Rows stay dense: removing a task moves the last row into its slot. Dictionary entries are
+ * never reclaimed (an index costs a few bytes).
+ */
+public class TaskColumnStore {
+
+    private static final int UNASSIGNED = -1;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final short NO_EFFORT = Short.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final boolean[] TERMINAL = new boolean[STATUSES.length];
+
+    static {
+        for (TaskStatus status : TaskStatus.terminalStatuses()) {
+            TERMINAL[status.ordinal()] = true;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> projectIndex = new HashMap<>();
+    private final Map<UUID, Integer> userIndex = new HashMap<>();
+    private final List<UUID> users = new ArrayList<>();
+    private final Map<UUID, Integer> rowByTask = new HashMap<>();
+
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private int[] project = new int[INITIAL_CAPACITY];
+    private int[] assignee = new int[INITIAL_CAPACITY];
+    private byte[] status = new byte[INITIAL_CAPACITY];
+    private byte[] priority = new byte[INITIAL_CAPACITY];
+    private int[] createdDay = new int[INITIAL_CAPACITY];
+    private int[] completedDay = new int[INITIAL_CAPACITY];
+    private int[] dueDay = new int[INITIAL_CAPACITY];
+    private short[] effort = new short[INITIAL_CAPACITY];
+    private int size;
+
+    // ── Writes ───────────────────────────────────────────────────────────
+
+    /** Adds or replaces the row for {@code fact.id()}. */
+    public void put(TaskFact fact) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowByTask.get(fact.id());
+            int row;
+            if (existing != null) {
+                row = existing;
+            } else {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                rowByTask.put(fact.id(), row);
+                ids[row] = fact.id();
+            }
+            project[row] =
+                    projectIndex.computeIfAbsent(fact.projectId(), id -> projectIndex.size());
+            assignee[row] = fact.userId() == null ? UNASSIGNED : userIndexOf(fact.userId());
+            status[row] = (byte) fact.status().ordinal();
+            priority[row] = (byte) fact.priority().ordinal();
+            createdDay[row] = day(fact.createdAt());
+            completedDay[row] = day(fact.completedAt());
+            dueDay[row] = fact.dueDate() == null ? NO_DAY : (int) fact.dueDate().toEpochDay();
+            effort[row] = fact.effort() == null ? NO_EFFORT : fact.effort();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID taskId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowByTask.get(taskId);
+            if (row != null) {
+                removeRow(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProject(UUID projectId) {
+        lock.writeLock().lock();
+        try {
+            Integer index = projectIndex.get(projectId);
+            if (index == null) return;
+            for (int row = size - 1; row >= 0; row--) {
+                if (project[row] == index) {
+                    removeRow(row);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ── Reads ────────────────────────────────────────────────────────────
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** IDs of the tasks currently assigned to {@code userId}. */
+    public List<UUID> taskIdsAssignedTo(UUID userId) {
+        lock.readLock().lock();
+        try {
+            Integer index = userIndex.get(userId);
+            if (index == null) return List.of();
+            List<UUID> taskIds = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                if (assignee[row] == index) {
+                    taskIds.add(ids[row]);
+                }
+            }
+            return taskIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** IDs of the tasks currently in {@code projectId}. */
+    public List<UUID> taskIdsInProject(UUID projectId) {
+        lock.readLock().lock();
+        try {
+            Integer index = projectIndex.get(projectId);
+            if (index == null) return List.of();
+            List<UUID> taskIds = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                if (project[row] == index) {
+                    taskIds.add(ids[row]);
+                }
+            }
+            return taskIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ── Aggregations ─────────────────────────────────────────────────────
+
+    /** Task count per {@link TaskStatus}, indexed by ordinal. */
+    public long[] countByStatus() {
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[STATUSES.length];
+            for (int row = 0; row < size; row++) {
+                counts[status[row]]++;
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Task count per {@link Priority}, indexed by ordinal. */
+    public long[] countByPriority() {
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[Priority.values().length];
+            for (int row = 0; row < size; row++) {
+                counts[priority[row]]++;
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Task count per (assignee, status); null assignee = unassigned. Zero groups are omitted. */
+    public List<UserStatusCount> countByUserAndStatus() {
+        lock.readLock().lock();
+        try {
+            int statuses = STATUSES.length;
+            long[] counts = new long[(users.size() + 1) * statuses];
+            for (int row = 0; row < size; row++) {
+                counts[(assignee[row] + 1) * statuses + status[row]]++;
+            }
+            List<UserStatusCount> result = new ArrayList<>();
+            for (int slot = 0; slot < counts.length; slot++) {
+                if (counts[slot] > 0) {
+                    result.add(
+                            new UserStatusCount(
+                                    userAt(slot / statuses - 1),
+                                    STATUSES[slot % statuses],
+                                    counts[slot]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Non-terminal tasks due before {@code today}, per assignee. */
+    public List<UserCount> countOverdueByUser(LocalDate today) {
+        int todayDay = (int) today.toEpochDay();
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[users.size() + 1];
+            boolean[] seen = new boolean[users.size() + 1];
+            for (int row = 0; row < size; row++) {
+                if (dueDay[row] != NO_DAY && dueDay[row] < todayDay && !TERMINAL[status[row]]) {
+                    counts[assignee[row] + 1]++;
+                    seen[assignee[row] + 1] = true;
+                }
+            }
+            return perUser(counts, seen);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Summed effort per assignee, over tasks that have an effort. */
+    public List<UserCount> sumEffortByUser() {
+        lock.readLock().lock();
+        try {
+            long[] sums = new long[users.size() + 1];
+            boolean[] seen = new boolean[users.size() + 1];
+            for (int row = 0; row < size; row++) {
+                if (effort[row] != NO_EFFORT) {
+                    sums[assignee[row] + 1] += effort[row];
+                    seen[assignee[row] + 1] = true;
+                }
+            }
+            return perUser(sums, seen);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks open at the end of each day {@code from..to}: created by then, not completed by then,
+     * not cancelled — the definition {@code AnalyticsRepository.countOpenPerDay} uses. One pass
+     * marks each task's open interval in a difference array, then a prefix sum yields the series.
+     */
+    public long[] countOpenPerDay(LocalDate from, LocalDate to) {
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        long[] diff = new long[last - first + 2];
+        int cancelled = TaskStatus.CANCELLED.ordinal();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                int created = createdDay[row];
+                if (status[row] == cancelled || created == NO_DAY || created > last) continue;
+                int openFrom = Math.max(created, first);
+                int openUntil = completedDay[row] == NO_DAY ? last + 1 : completedDay[row];
+                if (openUntil <= openFrom) continue;
+                diff[openFrom - first]++;
+                diff[Math.min(openUntil, last + 1) - first]--;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long[] series = new long[last - first + 1];
+        long open = 0;
+        for (int i = 0; i < series.length; i++) {
+            open += diff[i];
+            series[i] = open;
+        }
+        return series;
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void removeRow(int row) {
+        rowByTask.remove(ids[row]);
+        int lastRow = --size;
+        if (row != lastRow) {
+            ids[row] = ids[lastRow];
+            project[row] = project[lastRow];
+            assignee[row] = assignee[lastRow];
+            status[row] = status[lastRow];
+            priority[row] = priority[lastRow];
+            createdDay[row] = createdDay[lastRow];
+            completedDay[row] = completedDay[lastRow];
+            dueDay[row] = dueDay[lastRow];
+            effort[row] = effort[lastRow];
+            rowByTask.put(ids[row], row);
+        }
+        ids[lastRow] = null;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        project = Arrays.copyOf(project, capacity);
+        assignee = Arrays.copyOf(assignee, capacity);
+        status = Arrays.copyOf(status, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        createdDay = Arrays.copyOf(createdDay, capacity);
+        completedDay = Arrays.copyOf(completedDay, capacity);
+        dueDay = Arrays.copyOf(dueDay, capacity);
+        effort = Arrays.copyOf(effort, capacity);
+    }
+
+    private int userIndexOf(UUID userId) {
+        return userIndex.computeIfAbsent(
+                userId,
+                id -> {
+                    users.add(id);
+                    return users.size() - 1;
+                });
+    }
+
+    private UUID userAt(int index) {
+        return index == UNASSIGNED ? null : users.get(index);
+    }
+
+    private List<UserCount> perUser(long[] values, boolean[] seen) {
+        List<UserCount> result = new ArrayList<>();
+        for (int slot = 0; slot < values.length; slot++) {
+            if (seen[slot]) {
+                result.add(new UserCount(userAt(slot - 1), values[slot]));
+            }
+        }
+        return result;
+    }
+
+    private static int day(LocalDateTime at) {
+        return at == null ? NO_DAY : (int) at.toLocalDate().toEpochDay();
+    }
+}
@@ -0,0 +1,22 @@
+package cc.desuka.demo.snapshot;
+
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.TaskStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Scalar task row loaded into the {@link TaskColumnStore} (JPQL constructor expression — no entity
+ * hydration). {@code userId}, {@code completedAt}, {@code dueDate} and {@code effort} may be null.
+ */
+public record TaskFact(
+        UUID id,
+        UUID projectId,
+        UUID userId,
+        TaskStatus status,
+        Priority priority,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        LocalDate dueDate,
+        Short effort) {}
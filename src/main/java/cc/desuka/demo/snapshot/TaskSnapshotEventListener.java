@@ -0,0 +1,91 @@
+package cc.desuka.demo.snapshot;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.broadcast.DataChange;
+import cc.desuka.demo.event.TaskPushEvent;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.User;
+import java.util.UUID;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@link TaskSnapshotService} in step with the database: full build once the app is ready
+ * (after seed data), then incremental updates after each committed task write. Bulk unassignment
+ * (user disabled or deleted, member removed or demoted) publishes no task events, so the matching
+ * user and project audit events re-read the affected rows. Other nodes' writes arrive as {@link
+ * DataChange}s and are applied the same way.
+ *
+ * <p>Runs first among the listeners of these events ({@link #ORDER}): admin analytics read the
+ * snapshot under an ETag from {@link cc.desuka.demo.search.TaskScopeVersions}, so the snapshot
+ * must hold a write before the version bump announces it.
+ */
+@Component
+public class TaskSnapshotEventListener {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final TaskSnapshotService taskSnapshotService;
+
+    public TaskSnapshotEventListener(TaskSnapshotService taskSnapshotService) {
+        this.taskSnapshotService = taskSnapshotService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskSnapshotService.rebuild();
+    }
+
+    @Order(ORDER)
+    @TransactionalEventListener
+    public void onTaskPush(TaskPushEvent event) {
+        applyTask(event.taskId(), event.action());
+    }
+
+    @Order(ORDER)
+    @TransactionalEventListener
+    public void onAudit(AuditEvent event) {
+        applyAudit(event.getEntityType(), event.getEntityId(), event.getAction());
+    }
+
+    @Order(ORDER)
+    @EventListener
+    public void onDataChange(DataChange change) {
+        if (change.affectsAll()) {
+            taskSnapshotService.rebuild();
+        } else if (change.affectsTask()) {
+            applyTask(UUID.fromString(change.entityId()), change.action());
+        } else {
+            applyAudit(change.entityType(), change.entityId(), change.action());
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void applyTask(UUID taskId, String action) {
+        if (TaskPushEvent.ACTION_DELETED.equals(action)) {
+            taskSnapshotService.removeTask(taskId);
+        } else {
+            taskSnapshotService.refreshTask(taskId);
+        }
+    }
+
+    private void applyAudit(String type, String entityId, String action) {
+        if (entityId == null) return;
+        if (User.class.getSimpleName().equals(type)) {
+            taskSnapshotService.refreshUser(UUID.fromString(entityId));
+        } else if (Project.class.getSimpleName().equals(type)) {
+            UUID projectId = UUID.fromString(entityId);
+            if (AuditEvent.PROJECT_DELETED.equals(action)) {
+                taskSnapshotService.removeProject(projectId);
+            } else if (AuditEvent.PROJECT_MEMBER_REMOVED.equals(action)
+                    || AuditEvent.PROJECT_MEMBER_ROLE_CHANGED.equals(action)) {
+                taskSnapshotService.refreshProject(projectId);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package cc.desuka.demo.snapshot;
+
+import cc.desuka.demo.dto.AnalyticsProjection.UserCount;
+import cc.desuka.demo.dto.AnalyticsProjection.UserStatusCount;
+import cc.desuka.demo.repository.TaskRepository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Whole-system task snapshot for admin analytics (all projects, no sprint). Built once at startup
+ * by {@link TaskSnapshotEventListener}, then kept current from task, user and project write events
+ * — aggregations never touch the database. Until the first build completes {@link #isReady()} is
+ * false and callers query the database instead.
+ *
+ * <p>Updates that arrive while a rebuild streams the table go to the store being replaced, so the
+ * rebuild also journals the tasks and projects they touch and replays them onto the new store
+ * after the swap. The swap and the end of journaling are one step, so every update is either
+ * journaled or written to the new store. Each task's re-read and write happen under that task's
+ * lock stripe, so two refreshes of one task cannot land out of order.
+ */
+@Service
+public class TaskSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSnapshotService.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final TaskRepository taskRepository;
+
+    private volatile TaskColumnStore store = new TaskColumnStore();
+    private volatile boolean ready;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    // Non-null while a rebuild runs; guarded by journalLock
+    private final Object journalLock = new Object();
+    private Set<UUID> touchedTasks;
+    private Set<UUID> removedProjects;
+
+    public TaskSnapshotService(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ── Aggregations ─────────────────────────────────────────────────────
+
+    public long[] countByStatus() {
+        return store.countByStatus();
+    }
+
+    public long[] countByPriority() {
+        return store.countByPriority();
+    }
+
+    public List<UserStatusCount> countByUserAndStatus() {
+        return store.countByUserAndStatus();
+    }
+
+    public List<UserCount> countOverdueByUser(LocalDate today) {
+        return store.countOverdueByUser(today);
+    }
+
+    public List<UserCount> sumEffortByUser() {
+        return store.sumEffortByUser();
+    }
+
+    public long[] countOpenPerDay(LocalDate from, LocalDate to) {
+        return store.countOpenPerDay(from, to);
+    }
+
+    // ── Maintenance (called by TaskSnapshotEventListener) ────────────────
+
+    /**
+     * Full rebuild from the database into a fresh store, swapped in when complete so aggregations
+     * keep answering from the previous one meanwhile. Updates journaled during the build are
+     * replayed onto the fresh store once it is in place.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        synchronized (journalLock) {
+            touchedTasks = new HashSet<>();
+            removedProjects = new HashSet<>();
+        }
+        TaskColumnStore fresh = new TaskColumnStore();
+        try (Stream<TaskFact> facts = taskRepository.streamSnapshotFacts()) {
+            facts.forEach(fresh::put);
+        } catch (RuntimeException | Error e) {
+            closeJournal();
+            throw e;
+        }
+        Set<UUID> replayTasks;
+        Set<UUID> replayProjects;
+        // Swap before closing the journal: an update that finds it closed must see the fresh store
+        synchronized (journalLock) {
+            store = fresh;
+            ready = true;
+            replayTasks = touchedTasks;
+            replayProjects = removedProjects;
+            closeJournal();
+        }
+        // Re-read rather than re-apply: the database already holds each journaled write
+        replayProjects.forEach(fresh::removeProject);
+        refresh(replayTasks);
+        log.info(
+                "Task snapshot built: {} tasks in {} ms ({} replayed)",
+                fresh.size(),
+                (System.nanoTime() - start) / 1_000_000,
+                replayTasks.size());
+    }
+
+    public void refreshTask(UUID taskId) {
+        refresh(List.of(taskId));
+    }
+
+    public void removeTask(UUID taskId) {
+        journal(List.of(taskId), null);
+        ReentrantLock stripe = stripe(taskId);
+        stripe.lock();
+        try {
+            store.remove(taskId);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public void removeProject(UUID projectId) {
+        journal(List.of(), projectId);
+        store.removeProject(projectId);
+    }
+
+    /**
+     * Re-reads the tasks assigned to the user. Disabling or deleting a user unassigns their tasks
+     * in bulk without per-task push events.
+     */
+    public void refreshUser(UUID userId) {
+        refresh(store.taskIdsAssignedTo(userId));
+    }
+
+    /**
+     * Re-reads the project's tasks. Removing or demoting a member unassigns their tasks there in
+     * bulk without per-task push events.
+     */
+    public void refreshProject(UUID projectId) {
+        refresh(store.taskIdsInProject(projectId));
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    /**
+     * Re-reads the given tasks; IDs no longer in the database are dropped. Holds the tasks' lock
+     * stripes (taken in index order) from the read to the last write.
+     */
+    private void refresh(Collection<UUID> taskIds) {
+        if (taskIds.isEmpty()) return;
+        journal(taskIds, null);
+        Set<Integer> held = new TreeSet<>();
+        for (UUID taskId : taskIds) {
+            held.add(stripeIndex(taskId));
+        }
+        held.forEach(i -> stripes[i].lock());
+        try {
+            TaskColumnStore current = store;
+            Set<UUID> missing = new HashSet<>(taskIds);
+            for (TaskFact fact : taskRepository.findSnapshotFacts(taskIds)) {
+                current.put(fact);
+                missing.remove(fact.id());
+            }
+            missing.forEach(current::remove);
+        } finally {
+            held.forEach(i -> stripes[i].unlock());
+        }
+    }
+
+    private void closeJournal() {
+        synchronized (journalLock) {
+            touchedTasks = null;
+            removedProjects = null;
+        }
+    }
+
+    /** Records an update for replay if a rebuild is running. */
+    private void journal(Collection<UUID> taskIds, UUID removedProjectId) {
+        synchronized (journalLock) {
+            if (touchedTasks == null) return;
+            touchedTasks.addAll(taskIds);
+            if (removedProjectId != null) {
+                removedProjects.add(removedProjectId);
+            }
+        }
+    }
+
+    private ReentrantLock stripe(UUID taskId) {
+        return stripes[stripeIndex(taskId)];
+    }
+
+    private static int stripeIndex(UUID taskId) {
+        return Math.floorMod(taskId.hashCode(), LOCK_STRIPES);
+    }
+}
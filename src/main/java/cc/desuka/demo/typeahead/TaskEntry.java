@@ -0,0 +1,15 @@
+package cc.desuka.demo.typeahead;
+
+import cc.desuka.demo.dto.TaskItem;
+import cc.desuka.demo.model.TaskStatus;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Scalar task row held by the typeahead index (loaded by JPQL constructor expression). */
+public record TaskEntry(
+        UUID id, String title, TaskStatus status, LocalDateTime createdAt, UUID projectId) {
+
+    public TaskItem toItem() {
+        return new TaskItem(id, title, status.name());
+    }
+}
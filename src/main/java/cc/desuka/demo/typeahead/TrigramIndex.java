@@ -0,0 +1,189 @@
+package cc.desuka.demo.typeahead;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe in-memory substring index for typeahead. Each entry is posted under every trigram of
+ * its texts, plus the 1–2 character prefixes of each word so short queries avoid a full scan.
+ *
+ * <p>Results are ranked by match quality — exact, then prefix, then word-start, then any substring
+ * — with earlier texts of an entry outranking later ones (e.g. name before email). Ties fall back
+ * to the caller's comparator.
+ *
+ * @param <K> entry key
+ * @param <V> value returned by {@link #search}
+ */
+public class TrigramIndex<K, V> {
+
+    private static final int GRAM = 3;
+    private static final String PREFIX_MARK = "^";
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private record Entry<V>(V value, List<String> texts) {}
+
+    private record Hit<V>(V value, int score) {}
+
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private final Map<String, Set<K>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ── Writes ───────────────────────────────────────────────────────────
+
+    /** Adds or replaces the entry for {@code key}. Null texts are ignored. */
+    public void put(K key, V value, String... texts) {
+        List<String> normalized = new ArrayList<>(texts.length);
+        for (String text : texts) {
+            if (text != null) normalized.add(normalize(text));
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            entries.put(key, new Entry<>(value, normalized));
+            for (String gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ── Search ───────────────────────────────────────────────────────────
+
+    /**
+     * Returns up to {@code limit} values matching {@code query}, best first. A blank query returns
+     * the first {@code limit} values in {@code tieBreak} order.
+     */
+    public List<V> search(
+            String query, int limit, Predicate<? super V> filter, Comparator<? super V> tieBreak) {
+        if (limit <= 0) return List.of();
+        String q = query == null ? "" : normalize(query).strip();
+        Comparator<Hit<V>> best =
+                Comparator.<Hit<V>>comparingInt(Hit::score)
+                        .thenComparing(Hit::value, tieBreak);
+        // Max-heap on "best" so the worst kept hit is evicted first
+        PriorityQueue<Hit<V>> top = new PriorityQueue<>(best.reversed());
+
+        lock.readLock().lock();
+        try {
+            for (K key : candidates(q)) {
+                Entry<V> entry = entries.get(key);
+                if (entry == null || !filter.test(entry.value())) continue;
+                int score = q.isEmpty() ? 0 : score(entry.texts(), q);
+                if (score == NO_MATCH) continue;
+                top.add(new Hit<>(entry.value(), score));
+                if (top.size() > limit) top.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit<V>> hits = new ArrayList<>(top);
+        hits.sort(best);
+        return hits.stream().map(Hit::value).toList();
+    }
+
+    // ── Internals (callers hold the lock) ────────────────────────────────
+
+    private void removeLocked(K key) {
+        Entry<V> old = entries.remove(key);
+        if (old == null) return;
+        for (String gram : grams(old.texts())) {
+            Set<K> keys = postings.get(gram);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /** Keys that may match {@code q}; verified against the texts by {@link #score}. */
+    private Set<K> candidates(String q) {
+        if (q.isEmpty()) return entries.keySet();
+        if (q.length() < GRAM) {
+            return postings.getOrDefault(PREFIX_MARK + q, Set.of());
+        }
+        // Intersect posting lists, smallest first
+        List<Set<K>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Set<K> keys = postings.get(q.substring(i, i + GRAM));
+            if (keys == null) return Set.of();
+            lists.add(keys);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<K> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static int score(List<String> texts, String q) {
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            int at = text.indexOf(q);
+            if (at < 0) continue;
+            int quality;
+            if (text.length() == q.length()) quality = 0;
+            else if (at == 0) quality = 1;
+            else if (startsWord(text, q)) quality = 2;
+            else quality = 3;
+            // First matching text wins: an email hit never outranks a name hit
+            return i * 4 + quality;
+        }
+        return NO_MATCH;
+    }
+
+    private static boolean startsWord(String text, String q) {
+        for (int at = text.indexOf(q); at >= 0; at = text.indexOf(q, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) return true;
+        }
+        return false;
+    }
+
+    private static Set<String> grams(List<String> texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                grams.add(text.substring(i, i + GRAM));
+            }
+            for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+                for (int len = 1; len < GRAM && len <= word.length(); len++) {
+                    grams.add(PREFIX_MARK + word.substring(0, len));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,77 @@
+package cc.desuka.demo.typeahead;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.broadcast.DataChange;
+import cc.desuka.demo.event.TaskPushEvent;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.Tag;
+import cc.desuka.demo.model.User;
+import java.util.UUID;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@link TypeaheadService} in step with the database: full build once the app is ready (after
+ * seed data), then incremental updates after each committed task, user, tag or project write.
+ * Users and tags have no push events of their own, so their audit events drive the refresh. Other
+ * nodes' writes arrive as {@link DataChange}s and are applied the same way.
+ */
+@Component
+public class TypeaheadEventListener {
+
+    private final TypeaheadService typeaheadService;
+
+    public TypeaheadEventListener(TypeaheadService typeaheadService) {
+        this.typeaheadService = typeaheadService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        typeaheadService.rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onTaskPush(TaskPushEvent event) {
+        applyTask(event.taskId(), event.action());
+    }
+
+    @TransactionalEventListener
+    public void onAudit(AuditEvent event) {
+        applyAudit(event.getEntityType(), event.getEntityId(), event.getAction());
+    }
+
+    @EventListener
+    public void onDataChange(DataChange change) {
+        if (change.affectsAll()) {
+            typeaheadService.rebuild();
+        } else if (change.affectsTask()) {
+            applyTask(UUID.fromString(change.entityId()), change.action());
+        } else {
+            applyAudit(change.entityType(), change.entityId(), change.action());
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    private void applyTask(UUID taskId, String action) {
+        if (TaskPushEvent.ACTION_DELETED.equals(action)) {
+            typeaheadService.removeTask(taskId);
+        } else {
+            typeaheadService.refreshTask(taskId);
+        }
+    }
+
+    private void applyAudit(String type, String entityId, String action) {
+        if (entityId == null) return;
+        if (User.class.getSimpleName().equals(type)) {
+            typeaheadService.refreshUser(UUID.fromString(entityId));
+        } else if (Tag.class.getSimpleName().equals(type)) {
+            typeaheadService.refreshTag(Long.valueOf(entityId));
+        } else if (AuditEvent.PROJECT_DELETED.equals(action)
+                && Project.class.getSimpleName().equals(type)) {
+            typeaheadService.removeProject(UUID.fromString(entityId));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package cc.desuka.demo.typeahead;
+
+import cc.desuka.demo.dto.TaskItem;
+import cc.desuka.demo.model.Tag;
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.repository.TagRepository;
+import cc.desuka.demo.repository.TaskRepository;
+import cc.desuka.demo.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process typeahead over task titles (per project), enabled users (name, email) and tag names.
+ * Built once at startup by {@link TypeaheadEventListener}, then kept current from the task, user
+ * and tag write events — lookups never touch the database.
+ *
+ * <p>A rebuild (startup, or a resync after missed cross-node changes) fills a fresh {@link Index}
+ * and swaps it in whole, so lookups keep answering from the previous one meanwhile. Updates that
+ * arrive during the build go to the previous index, so they are journaled and re-run against the
+ * fresh one after the swap; swapping and closing the journal are one step.
+ */
+@Service
+public class TypeaheadService {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadService.class);
+
+    private record UserEntry(UUID id, String name) {}
+
+    private record TagEntry(Long id, String name) {}
+
+    private static final Comparator<TaskEntry> NEWEST_FIRST =
+            Comparator.comparing(
+                            TaskEntry::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(TaskEntry::id);
+    private static final Comparator<UserEntry> BY_NAME =
+            Comparator.comparing(UserEntry::name, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(UserEntry::id);
+    private static final Comparator<TagEntry> BY_TAG_NAME =
+            Comparator.comparing(TagEntry::name, String.CASE_INSENSITIVE_ORDER);
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TagRepository tagRepository;
+
+    private volatile Index index = new Index();
+
+    // Non-null while a rebuild runs; guarded by journalLock
+    private final Object journalLock = new Object();
+    private List<Runnable> journal;
+
+    public TypeaheadService(
+            TaskRepository taskRepository,
+            UserRepository userRepository,
+            TagRepository tagRepository) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    // ── Lookups ──────────────────────────────────────────────────────────
+
+    /** Best title matches in a project, newest first among equal matches. */
+    public List<TaskItem> searchTasks(
+            UUID projectId, String query, Collection<UUID> excludeIds, int limit) {
+        TrigramIndex<UUID, TaskEntry> tasks = index.tasksByProject.get(projectId);
+        if (tasks == null) return List.of();
+        return tasks
+                .search(
+                        query,
+                        limit,
+                        t -> excludeIds == null || !excludeIds.contains(t.id()),
+                        NEWEST_FIRST)
+                .stream()
+                .map(TaskEntry::toItem)
+                .toList();
+    }
+
+    /** IDs of the best-matching enabled users (name hits before email hits). */
+    public List<UUID> searchEnabledUserIds(String query, int limit) {
+        TrigramIndex<UUID, UserEntry> users = index.users;
+        return users.search(query, limit, u -> true, BY_NAME).stream()
+                .map(UserEntry::id)
+                .toList();
+    }
+
+    /** IDs of the best-matching tags. */
+    public List<Long> searchTagIds(String query, int limit) {
+        TrigramIndex<Long, TagEntry> tags = index.tags;
+        return tags.search(query, limit, t -> true, BY_TAG_NAME).stream()
+                .map(TagEntry::id)
+                .toList();
+    }
+
+    // ── Maintenance (called by TypeaheadEventListener) ───────────────────
+
+    /**
+     * Full rebuild from the database into a fresh index — tasks, users and tags alike, so entries
+     * deleted meanwhile do not survive — swapped in when complete.
+     */
+    public synchronized void rebuild() {
+        synchronized (journalLock) {
+            journal = new ArrayList<>();
+        }
+        Index fresh = new Index();
+        List<Runnable> replay;
+        try {
+            taskRepository.findTypeaheadEntries().forEach(fresh::putTask);
+            userRepository.findByEnabledTrueOrderByNameAsc().forEach(fresh::putUser);
+            tagRepository.findAll().forEach(fresh::putTag);
+        } catch (RuntimeException | Error e) {
+            synchronized (journalLock) {
+                journal = null;
+            }
+            throw e;
+        }
+        // Swap before closing the journal: an update that finds it closed must see the fresh index
+        synchronized (journalLock) {
+            index = fresh;
+            replay = journal;
+            journal = null;
+        }
+        replay.forEach(Runnable::run);
+        log.info(
+                "Typeahead index built: {} tasks in {} projects, {} users, {} tags ({} replayed)",
+                fresh.projectByTask.size(),
+                fresh.tasksByProject.size(),
+                fresh.users.size(),
+                fresh.tags.size(),
+                replay.size());
+    }
+
+    public void refreshTask(UUID taskId) {
+        journal(() -> refreshTask(taskId));
+        Index current = index;
+        taskRepository
+                .findTypeaheadEntry(taskId)
+                .ifPresentOrElse(current::putTask, () -> current.removeTask(taskId));
+    }
+
+    public void removeTask(UUID taskId) {
+        journal(() -> removeTask(taskId));
+        index.removeTask(taskId);
+    }
+
+    public void removeProject(UUID projectId) {
+        journal(() -> removeProject(projectId));
+        Index current = index;
+        current.tasksByProject.remove(projectId);
+        current.projectByTask.values().removeIf(projectId::equals);
+    }
+
+    /** Re-reads the user; disabled or deleted users drop out of the index. */
+    public void refreshUser(UUID userId) {
+        journal(() -> refreshUser(userId));
+        Index current = index;
+        userRepository
+                .findById(userId)
+                .filter(User::isEnabled)
+                .ifPresentOrElse(current::putUser, () -> current.users.remove(userId));
+    }
+
+    public void refreshTag(Long tagId) {
+        journal(() -> refreshTag(tagId));
+        Index current = index;
+        tagRepository
+                .findById(tagId)
+                .ifPresentOrElse(current::putTag, () -> current.tags.remove(tagId));
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────
+
+    /** Records an update to re-run on the fresh index if a rebuild is running. */
+    private void journal(Runnable update) {
+        synchronized (journalLock) {
+            if (journal != null) journal.add(update);
+        }
+    }
+
+    /** Everything a lookup reads; replaced whole by {@link #rebuild()}. */
+    private static final class Index {
+
+        private final Map<UUID, TrigramIndex<UUID, TaskEntry>> tasksByProject =
+                new ConcurrentHashMap<>();
+        private final Map<UUID, UUID> projectByTask = new ConcurrentHashMap<>();
+        private final TrigramIndex<UUID, UserEntry> users = new TrigramIndex<>();
+        private final TrigramIndex<Long, TagEntry> tags = new TrigramIndex<>();
+
+        void putTask(TaskEntry entry) {
+            UUID previous = projectByTask.put(entry.id(), entry.projectId());
+            if (previous != null && !previous.equals(entry.projectId())) {
+                TrigramIndex<UUID, TaskEntry> old = tasksByProject.get(previous);
+                if (old != null) old.remove(entry.id());
+            }
+            tasksByProject
+                    .computeIfAbsent(entry.projectId(), id -> new TrigramIndex<>())
+                    .put(entry.id(), entry, entry.title());
+        }
+
+        void removeTask(UUID taskId) {
+            UUID projectId = projectByTask.remove(taskId);
+            if (projectId != null) {
+                TrigramIndex<UUID, TaskEntry> tasks = tasksByProject.get(projectId);
+                if (tasks != null) tasks.remove(taskId);
+            }
+        }
+
+        void putUser(User user) {
+            users.put(
+                    user.getId(),
+                    new UserEntry(user.getId(), user.getName()),
+                    user.getName(),
+                    user.getEmail());
+        }
+
+        void putTag(Tag tag) {
+            tags.put(tag.getId(), new TagEntry(tag.getId(), tag.getName()), tag.getName());
+        }
+    }
+}
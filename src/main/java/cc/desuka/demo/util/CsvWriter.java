@@ -1,43 +1,76 @@
 package cc.desuka.demo.util;
 
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-public class CsvWriter {
-
-    public static <T> void write(
-            HttpServletResponse response,
-            String filename,
-            String[] headers,
-            List<T> rows,
-            Function<T, String[]> rowMapper)
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class CsvWriter implements Closeable {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer writer;
+    // Reused for every row — escaping never allocates per field
+    private final StringBuilder row = new StringBuilder(256);
+
+    private CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Opens a streaming writer on the response body and writes the header row. Rows are escaped
+     * into one reusable buffer and written straight to the output stream — nothing is held per
+     * row. Close it (try-with-resources) to flush.
+     */
+    public static CsvWriter open(HttpServletResponse response, String filename, String... headers)
             throws IOException {
-        response.setContentType("text/csv");
-        response.setCharacterEncoding("UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        prepare(response, filename);
+        CsvWriter csv =
+                new CsvWriter(
+                        new BufferedWriter(
+                                new OutputStreamWriter(
+                                        response.getOutputStream(), StandardCharsets.UTF_8)));
+        csv.writeRow(headers);
+        return csv;
+    }
 
-        try (PrintWriter writer = response.getWriter()) {
-            writer.println(formatRow(headers));
-            for (T row : rows) {
-                writer.println(formatRow(rowMapper.apply(row)));
-            }
+    public void writeRow(String... fields) throws IOException {
+        row.setLength(0);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) row.append(',');
+            escapeInto(row, fields[i]);
         }
+        row.append(LINE_SEPARATOR);
+        writer.append(row);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
     }
 
-    private static String formatRow(String[] fields) {
-        return Stream.of(fields).map(CsvWriter::escape).collect(Collectors.joining(","));
+    private static void prepare(HttpServletResponse response, String filename) {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
     }
 
-    private static String escape(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    /** Quotes fields containing a comma, quote or newline; embedded quotes are doubled. */
+    private static void escapeInto(StringBuilder out, String value) {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
         }
-        return value;
+        out.append('"');
     }
 }
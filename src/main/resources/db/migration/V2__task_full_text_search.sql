@@ -0,0 +1,9 @@
+-- V2: Full-text search for the task keyword filter
+-- Expression GIN index over title (weight A) and description (weight B). The expression must
+-- stay byte-for-byte identical to the one rendered by FullTextFunctionContributor, otherwise
+-- the planner cannot match it and falls back to a sequential scan.
+
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (
+    (setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B'))
+);
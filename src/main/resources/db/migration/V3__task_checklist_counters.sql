@@ -0,0 +1,18 @@
+-- V3: Denormalized checklist progress on tasks
+-- Replaces the two per-row COUNT(*) subqueries that used to back Task.checklistTotal and
+-- Task.checklistChecked (@Formula), so list queries only touch the tasks table. The columns are
+-- kept in sync by Task.syncChecklistCounts() and repaired nightly by ScheduledTaskService.
+
+ALTER TABLE tasks ADD COLUMN checklist_total INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN checklist_checked INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill from existing checklist items
+UPDATE tasks t
+SET checklist_total   = c.total,
+    checklist_checked = c.checked
+FROM (
+    SELECT task_id, COUNT(*) AS total, COUNT(*) FILTER (WHERE checked) AS checked
+    FROM checklist_items
+    GROUP BY task_id
+) c
+WHERE c.task_id = t.id;
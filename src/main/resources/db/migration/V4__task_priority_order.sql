@@ -0,0 +1,14 @@
+-- V4: Persisted priority sort key on tasks
+-- Replaces the CASE-expression @Formula behind Task.priorityOrder, which no index could serve.
+-- Prod only (Flyway is disabled in dev/test); Hibernate-generated dev/test schemas get the same
+-- indexes from @Table(indexes = ...) on Task.
+
+ALTER TABLE tasks ADD COLUMN priority_order SMALLINT NOT NULL DEFAULT 1;
+
+UPDATE tasks
+SET priority_order = CASE priority WHEN 'LOW' THEN 0 WHEN 'MEDIUM' THEN 1 WHEN 'HIGH' THEN 2 END;
+
+-- Trailing id matches the keyset tie-breaker (TaskCursor.keysetSort), so priority-sorted pages
+-- of a project — with or without a status filter — are read in index order without a sort step.
+CREATE INDEX idx_tasks_project_priority ON tasks (project_id, priority_order, id);
+CREATE INDEX idx_tasks_project_status_priority ON tasks (project_id, status, priority_order, id);
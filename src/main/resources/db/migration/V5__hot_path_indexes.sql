@@ -0,0 +1,23 @@
+-- V5: Secondary indexes for the hot read predicates
+-- Postgres does not index foreign keys on its own, so every lookup below was a sequential scan.
+-- Prod only (Flyway is disabled in dev/test); Hibernate-generated dev/test schemas get the same
+-- indexes from @Table(indexes = ...) on the entities, and QueryPlanTest guards them there.
+--
+-- tasks(project_id, status) is not repeated here: it is the leading prefix of V4's
+-- idx_tasks_project_status_priority, which already serves project board/list filters.
+
+-- Per-user task counts by status (dashboard, user profile) and the "assigned to me" filter.
+CREATE INDEX idx_tasks_user_status ON tasks (user_id, status);
+
+-- Due-today reminders and overdue counts (range scans on due_date).
+CREATE INDEX idx_tasks_due_date ON tasks (due_date);
+
+-- Unread badge count, and the per-user notification list in recency order.
+CREATE INDEX idx_notifications_user_read ON notifications (user_id, is_read);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+
+-- Entity history on task/project/user pages, newest first.
+CREATE INDEX idx_audit_logs_entity ON audit_logs (entity_type, entity_id, timestamp);
+
+-- Comment thread of a task in posting order; also serves deleteByTaskId.
+CREATE INDEX idx_comments_task_created ON comments (task_id, created_at);
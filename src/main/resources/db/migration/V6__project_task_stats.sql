@@ -0,0 +1,26 @@
+-- V6: Per-project task counters by status (dashboard read model)
+-- Maintained incrementally by ProjectTaskStatsService on every task write; overdue counts are
+-- recomputed nightly after the date rolls over, and a verify-and-repair job diffs the whole
+-- table against live GROUP BY counts.
+
+CREATE TABLE project_task_stats (
+    id            BIGSERIAL PRIMARY KEY,
+    project_id    UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    status        VARCHAR(255) NOT NULL,
+    task_count    BIGINT NOT NULL DEFAULT 0,
+    overdue_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_project_task_stats_project_status UNIQUE (project_id, status)
+);
+
+-- One row per project and status, zero or not, so task writes only ever UPDATE
+INSERT INTO project_task_stats (project_id, status, task_count, overdue_count)
+SELECT p.id,
+       s.status,
+       (SELECT COUNT(*) FROM tasks t WHERE t.project_id = p.id AND t.status = s.status),
+       (SELECT COUNT(*) FROM tasks t
+         WHERE t.project_id = p.id AND t.status = s.status
+           AND t.due_date < CURRENT_DATE
+           AND t.status NOT IN ('COMPLETED', 'CANCELLED'))
+FROM projects p
+CROSS JOIN (VALUES ('BACKLOG'), ('OPEN'), ('IN_PROGRESS'), ('IN_REVIEW'),
+                   ('COMPLETED'), ('CANCELLED')) AS s (status);
@@ -0,0 +1,18 @@
+-- V7: Daily analytics rollups (burndown / velocity history)
+-- One row per project, sprint and finished day with tasks created, completed, open at end of day
+-- and effort completed. Written by TaskDailyRollupService from a nightly job that tops up every
+-- day after the latest rolled-up one, so the first run backfills from the earliest task.
+
+CREATE TABLE task_daily_rollups (
+    id               BIGSERIAL PRIMARY KEY,
+    project_id       UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    sprint_id        BIGINT REFERENCES sprints(id) ON DELETE SET NULL,
+    rollup_date      DATE NOT NULL,
+    created_count    BIGINT NOT NULL DEFAULT 0,
+    completed_count  BIGINT NOT NULL DEFAULT 0,
+    open_count       BIGINT NOT NULL DEFAULT 0,
+    effort_completed BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_task_daily_rollups_project_date ON task_daily_rollups (project_id, rollup_date);
+CREATE INDEX idx_task_daily_rollups_date ON task_daily_rollups (rollup_date);
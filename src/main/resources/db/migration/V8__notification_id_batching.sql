@@ -0,0 +1,7 @@
+-- V8: Batched notification inserts
+-- Notification IDs now come from a pooled Hibernate sequence generator (allocationSize 50) so
+-- NotificationDispatcher's saveAll can use JDBC batching; IDENTITY would force one INSERT per row.
+-- The BIGSERIAL sequence is reused: stepping it by 50 hands Hibernate a block of 50 IDs per call,
+-- and the column default keeps working for inserts made outside the application.
+
+ALTER SEQUENCE notifications_id_seq INCREMENT BY 50;
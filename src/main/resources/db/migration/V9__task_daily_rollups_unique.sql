@@ -0,0 +1,16 @@
+-- V9: One analytics rollup row per project, sprint and day
+-- Overlapping rollup runs (several nodes, or the startup run next to the nightly one) could each
+-- delete a day's rows before the other's inserts committed, doubling the day. Rollup writers now
+-- serialize on an advisory lock; this index makes a doubled day impossible. COALESCE folds
+-- sprint-less rows (sprint_id NULL) onto one key — BIGSERIAL sprint IDs start at 1.
+
+-- Drop existing duplicates, keeping the most recently written row of each day
+DELETE FROM task_daily_rollups r
+USING task_daily_rollups newer
+WHERE newer.project_id = r.project_id
+  AND COALESCE(newer.sprint_id, 0) = COALESCE(r.sprint_id, 0)
+  AND newer.rollup_date = r.rollup_date
+  AND newer.id > r.id;
+
+CREATE UNIQUE INDEX uk_task_daily_rollups_group_date
+    ON task_daily_rollups (project_id, COALESCE(sprint_id, 0), rollup_date);
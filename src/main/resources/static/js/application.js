@@ -28,6 +28,7 @@ import TasksLiveUpdateController from "controllers/tasks/live-update";
 import DashboardController from "controllers/dashboard";
 import ProjectLiveUpdateController from "controllers/projects/live-update";
 import PinsController from "controllers/pins";
+import ViewersController from "controllers/viewers";
 
 const app = Application.start();
 
@@ -49,6 +50,7 @@ app.register("tasks--live-update", TasksLiveUpdateController);
 app.register("dashboard", DashboardController);
 app.register("projects--live-update", ProjectLiveUpdateController);
 app.register("pins", PinsController);
+app.register("viewers", ViewersController);
 
 // Expose for debugging: window.Stimulus.controllers shows all active instances
 window.Stimulus = app;
@@ -20,7 +20,10 @@ export default class extends Controller {
                 });
             }
 
-            client.subscribe(APP_CONFIG.routes.topicPresence.toString(), () => this.refreshStats());
+            // Periodic presence snapshots repeat what deltas already reported — only deltas refresh
+            client.subscribe(APP_CONFIG.routes.topicPresence.toString(), (message) => {
+                if (JSON.parse(message.body).type === "DELTA") this.refreshStats();
+            });
         });
     }
 
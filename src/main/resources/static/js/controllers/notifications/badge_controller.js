@@ -1,5 +1,6 @@
 import { Controller } from "@hotwired/stimulus";
 import { requireOk } from "lib/api";
+import { t } from "lib/i18n";
 import { showToast } from "lib/toast";
 import { onConnect } from "lib/websocket";
 import { getNotificationIcon, formatRelativeTime, escapeHtml, fire } from "lib/notifications";
@@ -35,10 +36,15 @@ export default class extends Controller {
         document.addEventListener("notification:cleared", this.onCleared);
 
         onConnect((client) => {
+            // Each frame is a batch: every notification saved for this user since the last flush
             client.subscribe("/user/queue/notifications", (message) => {
                 const data = JSON.parse(message.body);
-                fire("notification:received", data);
-                showToast(data.message, "info", { href: data.link });
+                const batch = Array.isArray(data) ? data : [data];
+                if (batch.length === 0) return;
+                batch.forEach((n) => fire("notification:received", n));
+                const latest = batch[batch.length - 1];
+                const text = batch.length === 1 ? latest.message : t("notification.toast.many", batch.length);
+                showToast(text, "info", { href: latest.link });
             });
 
             this.refreshBadge();
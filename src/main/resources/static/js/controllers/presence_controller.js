@@ -3,28 +3,61 @@ import { requireOk } from "lib/api";
 import { onConnect } from "lib/websocket";
 import { escapeHtml } from "lib/html";
 
+// Online users — applies join/leave deltas from the presence topic on top of the last snapshot.
+// Deltas are numbered; a gap (missed message, reconnect) re-fetches the full list.
+
 export default class extends Controller {
     static targets = ["count", "list"];
 
     connect() {
+        this.users = new Map();
+        this.version = null;
+
         onConnect((client) => {
             client.subscribe(APP_CONFIG.routes.topicPresence.toString(), (message) => {
-                const data = JSON.parse(message.body);
-                this.updateUI(data.count, data.users);
+                this.apply(JSON.parse(message.body));
             });
-
-            fetch(APP_CONFIG.routes.apiPresence.build())
-                .then(requireOk)
-                .then((res) => res.json())
-                .then((data) => this.updateUI(data.count, data.users));
+            this.resync();
         });
     }
 
-    updateUI(count, users) {
-        this.countTarget.textContent = count;
+    apply(update) {
+        if (update.type === "SNAPSHOT") {
+            if (this.version === null || update.version >= this.version) {
+                this.replace(update.users, update.version);
+            }
+            return;
+        }
+        if (this.version === null || update.version <= this.version) return;
+        if (update.version !== this.version + 1) {
+            this.resync();
+            return;
+        }
+        update.users.forEach((user) => this.users.set(user.id, user.name));
+        update.left.forEach((id) => this.users.delete(id));
+        this.version = update.version;
+        this.render();
+    }
+
+    resync() {
+        fetch(APP_CONFIG.routes.apiPresence.build())
+            .then(requireOk)
+            .then((res) => res.json())
+            .then((data) => this.replace(data.online, data.version));
+    }
+
+    replace(users, version) {
+        this.users = new Map(users.map((user) => [user.id, user.name]));
+        this.version = version;
+        this.render();
+    }
+
+    render() {
+        const names = [...this.users.values()].sort((a, b) => a.localeCompare(b));
+        this.countTarget.textContent = names.length;
 
         this.listTarget.innerHTML = "";
-        users.forEach((name) => {
+        names.forEach((name) => {
             const li = document.createElement("li");
             const span = document.createElement("span");
             span.className = "dropdown-item-text";
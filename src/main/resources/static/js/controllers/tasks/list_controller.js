@@ -32,6 +32,60 @@ function buildSortLabels() {
 const OVERDUE_CONFIG = { btnCss: "btn-danger", icon: "bi-exclamation-circle-fill" };
 
 const priorityEnum = APP_CONFIG.enums.priority;
+const statusEnum = APP_CONFIG.enums.taskStatus;
+
+// Pushed task deltas the table row can re-render without a round trip, keyed by field.
+// Each patcher only rewrites text/attributes of existing elements, so inline-edit mode
+// (which disables the row's links) survives a patch.
+const ROW_PATCHERS = {
+    title(cell, value, row) {
+        cell.dataset.value = value;
+        cell.querySelector("a.fw-semibold").textContent = value;
+        row.querySelectorAll("[data-task-title]").forEach((el) => (el.dataset.taskTitle = value));
+    },
+    description(cell, value) {
+        cell.dataset.value = value ?? "";
+        cell.querySelector("span").textContent = value ?? t("task.noDescription");
+    },
+    priority(cell, value) {
+        const cfg = priorityEnum[value];
+        const badge = cell.querySelector("a.badge");
+        cell.dataset.value = value;
+        badge.className = `badge text-decoration-none ${cfg.css}`;
+        badge.dataset.priority = value;
+        badge.querySelector("i").className = `bi ${cfg.icon}`;
+        badge.querySelector("span").textContent = resolveLabel("task.priority", value);
+    },
+    effort(cell, value) {
+        cell.dataset.value = value ?? "";
+        cell.replaceChildren();
+        if (value == null) return;
+        const span = document.createElement("span");
+        span.className = "text-muted small";
+        span.textContent = value;
+        cell.appendChild(span);
+    },
+    dueDate(cell, value, row) {
+        cell.dataset.value = value ?? "";
+        cell.replaceChildren();
+        if (!value) return;
+        const [y, m, d] = value.split("-").map(Number);
+        const small = document.createElement("small");
+        small.className = isRowOverdue(row, value) ? "text-danger fw-semibold" : "text-muted";
+        small.textContent = new Date(y, m - 1, d).toLocaleDateString("en-US", {
+            month: "short",
+            day: "2-digit",
+            year: "numeric",
+        });
+        cell.appendChild(small);
+    },
+};
+
+function isRowOverdue(row, dueDate) {
+    const status = row.querySelector('td[data-field="status"]').dataset.value;
+    const today = new Date().toLocaleDateString("en-CA"); // yyyy-MM-dd, local time
+    return !statusEnum[status]?.terminal && !!dueDate && dueDate < today;
+}
 
 export default class extends Controller {
     static values = {
@@ -42,6 +96,7 @@ export default class extends Controller {
     connect() {
         this.activeSorts = [{ field: "createdAt", direction: "desc" }];
         this.currentPage = 0;
+        this.cursor = null; // null = offset paging; "" = first keyset window; else opaque cursor
         this.pageSize = parseInt(getCookie("pageSize") || "25");
         this.currentView = "cards";
         this.currentMonth = null;
@@ -89,6 +144,7 @@ export default class extends Controller {
 
         // Pagination custom events (safe: tasksView is inside this.element, destroyed with it)
         tasksView.addEventListener("pagination:navigate", (e) => this.navigateToPage(e.detail.page));
+        tasksView.addEventListener("pagination:cursor", (e) => this.navigateToCursor(e.detail.cursor));
         tasksView.addEventListener("pagination:resize", (e) => this.onPageSizeChange(e.detail.size));
 
         // Debounced live search (safe: searchInput is inside this.element)
@@ -171,10 +227,14 @@ export default class extends Controller {
         onConnect((client) => {
             wsProjectIds.split(",").forEach((id) => {
                 const topic = APP_CONFIG.routes.topicProjectTasks.params({ projectId: id.trim() }).build();
+                // One frame per batch of changes; another user's change is patched into its
+                // table row when the delta allows it, otherwise the list is flagged stale
                 client.subscribe(topic, (message) => {
-                    const data = JSON.parse(message.body);
-                    if (currentUserId && String(data.userId) === currentUserId) return;
-                    staleBanner.classList.remove("d-none");
+                    const { events } = JSON.parse(message.body);
+                    const stale = events.some(
+                        (e) => !(currentUserId && String(e.userId) === currentUserId) && !this.patchRow(e),
+                    );
+                    if (stale) staleBanner.classList.remove("d-none");
                 });
             });
         });
@@ -186,6 +246,46 @@ export default class extends Controller {
         });
     }
 
+    // Applies a pushed task delta to its table row in place. Returns false when the change can't
+    // be shown without refetching — not an update, no delta, task not rendered as a row, a version
+    // gap (missed change), a field the row can't re-render or that the current search/filter/sort
+    // depends on, an open inline editor on the row, or a due date change that flips the overdue badge.
+    patchRow(event) {
+        if (event.action !== "updated" || !event.changes) return false;
+        const row = document.getElementById(`task-row-${event.taskId}`);
+        if (!row || row.dataset.version === undefined) return false;
+        const version = Number(row.dataset.version);
+        if (event.version <= version) return true; // already rendered
+        // Coalesced deltas span several versions and still apply to any between their base and
+        // their version; a lone delta applies to the previous version only
+        if (version < (event.baseVersion ?? event.version - 1)) return false;
+
+        const fields = Object.keys(event.changes);
+        if (!fields.every((field) => ROW_PATCHERS[field])) return false;
+        if (this.shapesList(fields)) return false;
+        if (row.querySelector(".inline-edit-input")) return false;
+        if ("dueDate" in event.changes) {
+            const shownOverdue = !!row.querySelector('td[data-field="status"] [data-status="OVERDUE"]');
+            if (isRowOverdue(row, event.changes.dueDate) !== shownOverdue) return false;
+        }
+
+        fields.forEach((field) => {
+            ROW_PATCHERS[field](row.querySelector(`td[data-field="${field}"]`), event.changes[field], row);
+        });
+        row.dataset.version = event.version;
+        return true;
+    }
+
+    // True when a change to any of these fields could move the row out of the current
+    // search, priority filter or sort order
+    shapesList(fields) {
+        const sorted = this.activeSorts.map((s) => (s.field === "priorityOrder" ? "priority" : s.field));
+        const filtered = [];
+        if (document.getElementById("search-input").value) filtered.push("title", "description");
+        if (document.getElementById("current-priority-filter").value) filtered.push("priority");
+        return fields.some((field) => sorted.includes(field) || filtered.includes(field));
+    }
+
     // ── URL / Search / Pagination ────────────────────────────────────────
 
     buildUrl(page) {
@@ -205,7 +305,8 @@ export default class extends Controller {
             // Board view: unpaged
         } else {
             params.set("size", this.pageSize);
-            if (page > 0) params.set("page", page);
+            if (this.cursor !== null) params.set("cursor", this.cursor);
+            else if (page > 0) params.set("page", page);
         }
         params.set("selectedUserId", this.selectedUserId || "");
         if (this.selectedTagIds.length > 0) params.set("tags", this.selectedTagIds.join(","));
@@ -218,6 +319,7 @@ export default class extends Controller {
     doSearch(resetPage) {
         if (resetPage) {
             this.currentPage = 0;
+            if (this.cursor !== null) this.cursor = "";
             this.element.dispatchEvent(new CustomEvent("tasks:bulk-clear", { bubbles: true }));
         }
         if (this._keepActiveView) {
@@ -233,15 +335,24 @@ export default class extends Controller {
     navigateToPage(page) {
         if (page < 0) return;
         this.currentPage = page;
+        this.cursor = null; // server fell back to offset paging (sort not keyset-capable)
         const url = this.buildUrl(page);
         htmx.ajax("GET", url, { target: "#tasks-view", swap: "innerHTML" });
         window.history.pushState({}, "", url);
     }
 
+    navigateToCursor(cursor) {
+        this.cursor = cursor || "";
+        const url = this.buildUrl(0);
+        htmx.ajax("GET", url, { target: "#tasks-view", swap: "innerHTML" });
+        window.history.pushState({}, "", url);
+    }
+
     onPageSizeChange(newSize) {
         this.pageSize = parseInt(newSize);
         setCookie("pageSize", this.pageSize);
         this.currentPage = 0;
+        if (this.cursor !== null) this.cursor = "";
         this.doSearch(false);
     }
 
@@ -812,6 +923,7 @@ export default class extends Controller {
         }
 
         this.currentPage = parseInt(params.get("page") || "0");
+        this.cursor = params.has("cursor") ? params.get("cursor") : null;
 
         if (params.has("size")) {
             this.pageSize = parseInt(params.get("size"));
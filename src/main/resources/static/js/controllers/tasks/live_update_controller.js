@@ -3,13 +3,19 @@ import { onConnect } from "lib/websocket";
 
 // Live task/comment updates via WebSocket — used on task detail page and task modal.
 // Subscribes to project task changes and comment changes for a specific task.
-// Shows stale-data banner when another user modifies the task or adds a comment.
+// Read-only views patch another user's field edits into the form from the pushed delta;
+// anything else (edit mode, version gaps, unpatchable fields) shows the stale-data banner.
 //
 // Values:
 //   taskId     — the task being viewed
 //   projectId  — the task's project (for project-level change subscription)
 //   refreshUrl — URL to reload content (modal uses HTMX, full page uses location.reload)
 //   modal      — "true" if this is a modal (uses htmx refresh instead of page reload)
+//   form       — id of the read-only form to patch; absent in edit mode, where patching would
+//                overwrite the user's input and the version their save is checked against
+
+// Delta fields written straight into same-named form inputs
+const PATCHABLE_FIELDS = ["title", "description", "priority", "startDate", "dueDate", "effort"];
 
 export default class extends Controller {
     static values = {
@@ -17,6 +23,7 @@ export default class extends Controller {
         projectId: String,
         refreshUrl: String,
         modal: { type: Boolean, default: false },
+        form: String,
     };
 
     static targets = ["banner", "refresh"];
@@ -31,10 +38,16 @@ export default class extends Controller {
                 client.subscribe(
                     APP_CONFIG.routes.topicProjectTasks.params({ projectId: this.projectIdValue }).build(),
                     (message) => {
-                        const data = JSON.parse(message.body);
-                        if (currentUserId && String(data.userId) === currentUserId) return;
-                        if (data.taskId !== this.taskIdValue) return;
-                        this.bannerTarget.classList.remove("d-none");
+                        // Batched per project — another user's change to this task is patched
+                        // in when possible, otherwise flags the view stale
+                        const { events } = JSON.parse(message.body);
+                        const stale = events.some(
+                            (e) =>
+                                e.taskId === this.taskIdValue &&
+                                !(currentUserId && String(e.userId) === currentUserId) &&
+                                !this.patchForm(e),
+                        );
+                        if (stale) this.bannerTarget.classList.remove("d-none");
                     },
                 ),
             );
@@ -68,6 +81,31 @@ export default class extends Controller {
         this.unsubscribe();
     }
 
+    // Writes a pushed delta into the read-only form. Returns false when it can't — no form to
+    // patch, not an update, no delta, a version gap (missed change) or an unpatchable field.
+    patchForm(event) {
+        const form = this.hasFormValue ? document.getElementById(this.formValue) : null;
+        const versionInput = form?.querySelector('input[name="version"]');
+        if (!versionInput || event.action !== "updated" || !event.changes) return false;
+        const version = Number(versionInput.value);
+        if (event.version <= version) return true; // already rendered
+        // Coalesced deltas span several versions and still apply to any between their base and
+        // their version; a lone delta applies to the previous version only
+        if (version < (event.baseVersion ?? event.version - 1)) return false;
+
+        const fields = Object.keys(event.changes);
+        if (!fields.every((field) => PATCHABLE_FIELDS.includes(field))) return false;
+        fields.forEach((field) => {
+            const value = event.changes[field] ?? "";
+            form.querySelectorAll(`[name="${field}"]`).forEach((input) => {
+                if (input.type === "radio") input.checked = input.value === value;
+                else input.value = value;
+            });
+        });
+        versionInput.value = event.version;
+        return true;
+    }
+
     refresh(event) {
         event.preventDefault();
         if (this.modalValue) {
@@ -0,0 +1,56 @@
+import { Controller } from "@hotwired/stimulus";
+import { onConnect } from "lib/websocket";
+import { escapeHtml } from "lib/html";
+
+// "Also viewing" indicator for a project page or task view. Subscribing to the scope's presence
+// topic is what registers this tab as a viewer; the server pushes the viewer list to that topic
+// whenever it changes. The current user is left out, and the element stays hidden when alone.
+//
+// Values:
+//   topic — scoped presence topic (topicProjectPresence / topicTaskPresence)
+//   modal — "true" inside the task modal (unsubscribe when the modal closes)
+
+export default class extends Controller {
+    static values = {
+        topic: String,
+        modal: { type: Boolean, default: false },
+    };
+
+    static targets = ["list"];
+
+    connect() {
+        this.sub = null;
+        const currentUserId = document.querySelector('meta[name="_userId"]')?.content;
+
+        this.deregisterWs = onConnect((client) => {
+            this.sub = client.subscribe(this.topicValue, (message) => {
+                const { viewers } = JSON.parse(message.body);
+                this.render(viewers.filter((viewer) => viewer.id !== currentUserId));
+            });
+        });
+
+        if (this.modalValue) {
+            const modal = document.getElementById("task-modal");
+            if (modal) {
+                modal.addEventListener("hidden.bs.modal", () => this.unsubscribe(), { once: true });
+            }
+        }
+    }
+
+    disconnect() {
+        this.unsubscribe();
+        if (this.deregisterWs) this.deregisterWs();
+    }
+
+    render(viewers) {
+        this.element.classList.toggle("d-none", viewers.length === 0);
+        this.listTarget.innerHTML = viewers
+            .map((viewer) => `<span class="badge rounded-pill text-bg-light border">${escapeHtml(viewer.name)}</span>`)
+            .join(" ");
+    }
+
+    unsubscribe() {
+        if (this.sub) this.sub.unsubscribe();
+        this.sub = null;
+    }
+}
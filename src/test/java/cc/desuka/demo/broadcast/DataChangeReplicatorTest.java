@@ -0,0 +1,76 @@
+package cc.desuka.demo.broadcast;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.event.TaskPushEvent;
+import cc.desuka.demo.model.Comment;
+import cc.desuka.demo.model.Tag;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DataChangeReplicatorTest {
+
+    private static final UUID TASK = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID PROJECT = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @Mock private BroadcastBus broadcastBus;
+
+    private DataChangeReplicator replicator;
+
+    @BeforeEach
+    void setUp() {
+        replicator = new DataChangeReplicator(broadcastBus);
+    }
+
+    @Test
+    void onTaskPush_clustered_sharesTaskChangeWithProject() {
+        when(broadcastBus.isClustered()).thenReturn(true);
+
+        replicator.onTaskPush(new TaskPushEvent(TaskPushEvent.ACTION_DELETED, TASK, PROJECT, null));
+
+        verify(broadcastBus)
+                .shareDataChange(
+                        new DataChange(
+                                DataChange.TASK,
+                                TASK.toString(),
+                                TaskPushEvent.ACTION_DELETED,
+                                PROJECT));
+    }
+
+    @Test
+    void onAudit_relayedEntityType_sharesIt() {
+        when(broadcastBus.isClustered()).thenReturn(true);
+
+        replicator.onAudit(new AuditEvent(AuditEvent.TAG_DELETED, Tag.class, 7L, "admin", null));
+
+        verify(broadcastBus)
+                .shareDataChange(new DataChange("Tag", "7", AuditEvent.TAG_DELETED, null));
+    }
+
+    @Test
+    void onAudit_otherEntityType_notShared() {
+        when(broadcastBus.isClustered()).thenReturn(true);
+
+        replicator.onAudit(
+                new AuditEvent(AuditEvent.COMMENT_CREATED, Comment.class, 3L, "alice", null));
+
+        verify(broadcastBus, never()).shareDataChange(any());
+    }
+
+    @Test
+    void singleNode_sharesNothing() {
+        when(broadcastBus.isClustered()).thenReturn(false);
+
+        replicator.onTaskPush(new TaskPushEvent(TaskPushEvent.ACTION_UPDATED, TASK, PROJECT, null));
+        replicator.onAudit(new AuditEvent(AuditEvent.TAG_DELETED, Tag.class, 7L, "admin", null));
+
+        verify(broadcastBus, never()).shareDataChange(any());
+    }
+}
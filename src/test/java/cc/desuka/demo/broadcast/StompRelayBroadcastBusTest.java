@@ -0,0 +1,218 @@
+package cc.desuka.demo.broadcast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.config.BroadcastProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import tools.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class StompRelayBroadcastBusTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final String USER = "alice@example.com";
+    private static final String TOPIC = "/topic/projects/00000000-0000-0000-0000-00000000000a";
+
+    @Mock private SimpMessagingTemplate templateA;
+    @Mock private SimpMessagingTemplate templateB;
+    @Mock private ApplicationEventPublisher publisherA;
+    @Mock private ApplicationEventPublisher publisherB;
+
+    private final EmbeddedBroker broker = new EmbeddedBroker();
+    private StompRelayBroadcastBus nodeA;
+    private StompRelayBroadcastBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node("node-a", templateA, publisherA);
+        nodeB = node("node-b", templateB, publisherB);
+        nodeA.start();
+        nodeB.start();
+    }
+
+    private StompRelayBroadcastBus node(
+            String nodeId, SimpMessagingTemplate template, ApplicationEventPublisher publisher) {
+        return node(nodeId, template, publisher, Duration.ofHours(1));
+    }
+
+    private StompRelayBroadcastBus node(
+            String nodeId,
+            SimpMessagingTemplate template,
+            ApplicationEventPublisher publisher,
+            Duration reconnectDelay) {
+        BroadcastProperties properties = new BroadcastProperties();
+        properties.setNodeId(nodeId);
+        properties.setReconnectDelay(reconnectDelay);
+        return new StompRelayBroadcastBus(
+                properties, template, publisher, MAPPER, broker.connector());
+    }
+
+    // ── Fan-out ──────────────────────────────────────────────────────────
+
+    @Test
+    void convertAndSend_deliversLocallyAndOnOtherNodesOnce() {
+        Map<String, Object> payload = Map.of("action", "updated", "count", 2);
+
+        nodeA.convertAndSend(TOPIC, payload);
+
+        verify(templateA, times(1)).convertAndSend(anyString(), any(Object.class));
+        verify(templateA).convertAndSend(TOPIC, payload);
+        ArgumentCaptor<Object> relayed = ArgumentCaptor.forClass(Object.class);
+        verify(templateB).convertAndSend(eq(TOPIC), relayed.capture());
+        assertThat(relayed.getValue()).isEqualTo(MAPPER.valueToTree(payload));
+    }
+
+    @Test
+    void convertAndSendToUser_reachesUserOnOtherNodes() {
+        Map<String, Object> payload = Map.of("message", "Bob assigned you a task");
+
+        nodeA.convertAndSendToUser(USER, "/queue/notifications", payload);
+
+        verify(templateA).convertAndSendToUser(USER, "/queue/notifications", payload);
+        verify(templateB)
+                .convertAndSendToUser(USER, "/queue/notifications", MAPPER.valueToTree(payload));
+    }
+
+    @Test
+    void sharePresence_isPublishedAsEventOnOtherNodesOnly() {
+        Map<String, Set<UUID>> viewers = Map.of(TOPIC + "/presence", Set.of(ALICE));
+        NodePresence presence = new NodePresence("node-a", Map.of(ALICE, "Alice"), viewers);
+
+        nodeA.sharePresence(presence);
+
+        verify(publisherB).publishEvent(presence);
+        verifyNoInteractions(publisherA, templateA, templateB);
+    }
+
+    @Test
+    void shareDataChange_isAppliedOffTheRelayThreadOnOtherNodesOnly() {
+        DataChange change =
+                new DataChange(DataChange.TASK, ALICE.toString(), "updated", UUID.randomUUID());
+        AtomicReference<String> appliedOn = new AtomicReference<>();
+        doAnswer(invocation -> appliedOn.compareAndSet(null, Thread.currentThread().getName()))
+                .when(publisherB)
+                .publishEvent(change);
+
+        nodeA.shareDataChange(change);
+
+        // Applied on the applier thread, not the relay's inbound thread
+        verify(publisherB, timeout(5000)).publishEvent(change);
+        assertThat(appliedOn.get()).isEqualTo("broadcast-apply");
+        verifyNoInteractions(publisherA, templateA, templateB);
+    }
+
+    // ── Relay unavailable ────────────────────────────────────────────────
+
+    @Test
+    void relayDown_stillDeliversLocally() {
+        broker.down = true;
+        SimpMessagingTemplate templateC = mock(SimpMessagingTemplate.class);
+        ApplicationEventPublisher publisherC = mock(ApplicationEventPublisher.class);
+        StompRelayBroadcastBus nodeC = node("node-c", templateC, publisherC);
+        nodeC.start();
+
+        nodeC.convertAndSend(TOPIC, "refresh");
+
+        assertThat(nodeC.isConnected()).isFalse();
+        verify(templateC).convertAndSend(TOPIC, "refresh");
+        verifyNoInteractions(templateA, templateB);
+    }
+
+    @Test
+    void reconnectAfterOutage_resyncsThisNodeAndTheOthers() {
+        broker.down = true;
+        ApplicationEventPublisher publisherC = mock(ApplicationEventPublisher.class);
+        StompRelayBroadcastBus nodeC =
+                node(
+                        "node-c",
+                        mock(SimpMessagingTemplate.class),
+                        publisherC,
+                        Duration.ofMillis(10));
+        nodeC.start();
+
+        broker.down = false;
+
+        verify(publisherC, timeout(5000)).publishEvent(DataChange.everything());
+        verify(publisherA, timeout(5000)).publishEvent(DataChange.everything());
+        verify(publisherB, timeout(5000)).publishEvent(DataChange.everything());
+        nodeC.stop();
+    }
+
+    @Test
+    void stop_tellsOtherNodesThisOneLeft() {
+        nodeA.stop();
+
+        verify(publisherB).publishEvent(NodePresence.leaving("node-a"));
+        assertThat(nodeA.isRunning()).isFalse();
+    }
+
+    /**
+     * Stand-in for the external broker: every session it hands out is a mock whose {@code send}
+     * fans the frame out to every handler subscribed to that destination, on any session.
+     */
+    private static final class EmbeddedBroker {
+
+        private final Map<String, List<StompFrameHandler>> subscribers = new ConcurrentHashMap<>();
+        private volatile boolean down;
+
+        StompRelayBroadcastBus.Connector connector() {
+            return handler -> {
+                if (down) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("down"));
+                }
+                StompSession session = mock(StompSession.class);
+                lenient().when(session.isConnected()).thenReturn(true);
+                lenient()
+                        .when(session.subscribe(anyString(), any(StompFrameHandler.class)))
+                        .thenAnswer(
+                                invocation -> {
+                                    subscribers
+                                            .computeIfAbsent(
+                                                    invocation.getArgument(0),
+                                                    destination -> new CopyOnWriteArrayList<>())
+                                            .add(invocation.getArgument(1));
+                                    return null;
+                                });
+                lenient()
+                        .when(session.send(anyString(), any()))
+                        .thenAnswer(
+                                invocation -> {
+                                    deliver(invocation.getArgument(0), invocation.getArgument(1));
+                                    return null;
+                                });
+                handler.afterConnected(session, new StompHeaders());
+                return CompletableFuture.completedFuture(session);
+            };
+        }
+
+        private void deliver(String destination, Object payload) {
+            for (StompFrameHandler handler : subscribers.getOrDefault(destination, List.of())) {
+                handler.handleFrame(new StompHeaders(), payload);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cc.desuka.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+class StompChannelMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StompChannelMetrics metrics = new StompChannelMetrics(registry);
+
+    private double pending(String channel) {
+        return registry.get("stomp.channel.pending").tag("channel", channel).gauge().value();
+    }
+
+    private long handled(String channel) {
+        return registry.get("stomp.channel.latency").tag("channel", channel).timer().count();
+    }
+
+    @Test
+    void instrument_countsPendingUntilTaskStartsThenRecordsLatency() {
+        List<Runnable> queued = new ArrayList<>();
+        Executor executor = metrics.instrument(StompChannelMetrics.OUTBOUND, queued::add);
+
+        executor.execute(() -> {});
+        executor.execute(() -> {});
+
+        assertThat(pending(StompChannelMetrics.OUTBOUND)).isEqualTo(2);
+        assertThat(handled(StompChannelMetrics.OUTBOUND)).isZero();
+
+        queued.forEach(Runnable::run);
+
+        assertThat(pending(StompChannelMetrics.OUTBOUND)).isZero();
+        assertThat(handled(StompChannelMetrics.OUTBOUND)).isEqualTo(2);
+    }
+
+    @Test
+    void instrument_rejectedHandOff_releasesPending() {
+        Executor executor =
+                metrics.instrument(
+                        StompChannelMetrics.INBOUND,
+                        task -> {
+                            throw new RejectedExecutionException("full");
+                        });
+
+        assertThatThrownBy(() -> executor.execute(() -> {}))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(pending(StompChannelMetrics.INBOUND)).isZero();
+    }
+
+    @Test
+    void evictionCounter_countsOnlySessionsClosedAsUnreliable() throws Exception {
+        WebSocketHandler delegate = mock(WebSocketHandler.class);
+        WebSocketSession session = mock(WebSocketSession.class);
+        WebSocketHandler handler = metrics.evictionCounter().decorate(delegate);
+
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        assertThat(registry.get("stomp.sessions.evicted").counter().count()).isEqualTo(1);
+        verify(delegate).afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        verify(delegate).afterConnectionClosed(session, CloseStatus.NORMAL);
+    }
+}
@@ -0,0 +1,104 @@
+package cc.desuka.demo.controller.api;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import cc.desuka.demo.dto.AnalyticsResponse;
+import cc.desuka.demo.dto.AnalyticsResponse.EffortDistribution;
+import cc.desuka.demo.dto.AnalyticsResponse.OverdueAnalysis;
+import cc.desuka.demo.dto.AnalyticsResponse.PriorityBreakdown;
+import cc.desuka.demo.dto.AnalyticsResponse.StatusBreakdown;
+import cc.desuka.demo.dto.AnalyticsResponse.WorkloadDistribution;
+import cc.desuka.demo.model.Role;
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.search.TaskScopeVersions;
+import cc.desuka.demo.security.CustomUserDetails;
+import cc.desuka.demo.service.AnalyticsService;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AnalyticsApiControllerTest {
+
+    private static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private TaskScopeVersions taskScopeVersions;
+
+    @MockitoBean private AnalyticsService analyticsService;
+
+    private CustomUserDetails adminDetails;
+
+    @BeforeEach
+    void setUp() {
+        User admin = new User("Alice", "alice@example.com", "password", Role.ADMIN);
+        admin.setId(ID_1);
+        adminDetails = new CustomUserDetails(admin);
+
+        when(analyticsService.getCrossProjectAnalytics(isNull()))
+                .thenReturn(
+                        new AnalyticsResponse(
+                                new StatusBreakdown(Map.of()),
+                                new PriorityBreakdown(Map.of()),
+                                new WorkloadDistribution(List.of(), Map.of()),
+                                List.of(),
+                                List.of(),
+                                new OverdueAnalysis(List.of(), List.of()),
+                                new EffortDistribution(List.of(), List.of()),
+                                false));
+    }
+
+    private String fetchETag() throws Exception {
+        return mockMvc.perform(get("/api/analytics").with(user(adminDetails)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void getCrossProjectAnalytics_matchingETag_returns304WithoutComputing() throws Exception {
+        String etag = fetchETag();
+
+        mockMvc.perform(
+                        get("/api/analytics")
+                                .with(user(adminDetails))
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(analyticsService, times(1)).getCrossProjectAnalytics(isNull());
+    }
+
+    @Test
+    void getCrossProjectAnalytics_taskWriteInScope_recomputes() throws Exception {
+        String etag = fetchETag();
+        taskScopeVersions.bumpProject(UUID.randomUUID());
+
+        mockMvc.perform(
+                        get("/api/analytics")
+                                .with(user(adminDetails))
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.burndown").isEmpty());
+
+        verify(analyticsService, times(2)).getCrossProjectAnalytics(isNull());
+    }
+}
@@ -5,6 +5,8 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import cc.desuka.demo.dto.PresenceResponse;
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
 import cc.desuka.demo.model.Role;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.presence.PresenceService;
@@ -25,6 +27,7 @@ import org.springframework.test.web.servlet.MockMvc;
 @ActiveProfiles("test")
 class PresenceApiControllerTest {
 
+    private static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
     private static final UUID ID_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
 
     @Autowired private MockMvc mockMvc;
@@ -42,20 +45,26 @@ class PresenceApiControllerTest {
 
     @Test
     void getPresence_returnsUsersAndCount() throws Exception {
-        when(presenceService.getOnlineUsers()).thenReturn(List.of("Alice", "Bob"));
-        when(presenceService.getOnlineCount()).thenReturn(2);
+        OnlineUser alice = new OnlineUser(ID_1, "Alice");
+        OnlineUser bob = new OnlineUser(ID_2, "Bob");
+        when(presenceService.getPresence())
+                .thenReturn(
+                        new PresenceResponse(List.of("Alice", "Bob"), 2, List.of(alice, bob), 7));
 
         mockMvc.perform(get("/api/presence").with(user(regularDetails)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.users[0]").value("Alice"))
                 .andExpect(jsonPath("$.users[1]").value("Bob"))
-                .andExpect(jsonPath("$.count").value(2));
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.online[0].id").value(ID_1.toString()))
+                .andExpect(jsonPath("$.online[1].name").value("Bob"))
+                .andExpect(jsonPath("$.version").value(7));
     }
 
     @Test
     void getPresence_emptyList() throws Exception {
-        when(presenceService.getOnlineUsers()).thenReturn(List.of());
-        when(presenceService.getOnlineCount()).thenReturn(0);
+        when(presenceService.getPresence())
+                .thenReturn(new PresenceResponse(List.of(), 0, List.of(), 0));
 
         mockMvc.perform(get("/api/presence").with(user(regularDetails)))
                 .andExpect(status().isOk())
@@ -62,7 +62,7 @@ class TagApiControllerTest {
     void getAllTags_returnsJsonList() throws Exception {
         Tag tag = new Tag("Work");
         tag.setId(1L);
-        when(tagQueryService.getAllTags()).thenReturn(List.of(tag));
+        when(tagQueryService.suggestTags(null, 10)).thenReturn(List.of(tag));
         when(tagMapper.toResponseList(anyCollection()))
                 .thenReturn(List.of(new TagResponse(1L, "Work")));
 
@@ -67,7 +67,7 @@ class UserApiControllerTest {
 
     @Test
     void getAllUsers_returnsJsonList() throws Exception {
-        when(userQueryService.searchEnabledUsers(null)).thenReturn(List.of());
+        when(userQueryService.suggestEnabledUsers(null, 10)).thenReturn(List.of());
         when(userMapper.toResponseList(anyList())).thenReturn(List.of(userResponse));
 
         mockMvc.perform(get("/api/users").with(user(regularDetails)))
@@ -77,13 +77,13 @@ class UserApiControllerTest {
 
     @Test
     void getAllUsers_withQuery_passesQueryToService() throws Exception {
-        when(userQueryService.searchEnabledUsers("ali")).thenReturn(List.of());
+        when(userQueryService.suggestEnabledUsers("ali", 10)).thenReturn(List.of());
         when(userMapper.toResponseList(anyList())).thenReturn(List.of(userResponse));
 
         mockMvc.perform(get("/api/users").param("q", "ali").with(user(regularDetails)))
                 .andExpect(status().isOk());
 
-        verify(userQueryService).searchEnabledUsers("ali");
+        verify(userQueryService).suggestEnabledUsers("ali", 10);
     }
 
     // ── GET /api/users/{id} ──────────────────────────────────────────────
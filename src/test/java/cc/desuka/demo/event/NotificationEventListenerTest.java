@@ -6,7 +6,7 @@ import static org.mockito.Mockito.*;
 import cc.desuka.demo.config.AppRoutesProperties;
 import cc.desuka.demo.model.*;
 import cc.desuka.demo.service.CommentQueryService;
-import cc.desuka.demo.service.NotificationService;
+import cc.desuka.demo.service.NotificationDispatcher;
 import cc.desuka.demo.service.UserQueryService;
 import cc.desuka.demo.util.Messages;
 import java.util.HashSet;
@@ -29,7 +29,7 @@ class NotificationEventListenerTest {
     private static final UUID ID_3 = UUID.fromString("00000000-0000-0000-0000-000000000003");
     private static final UUID TASK_ID = UUID.fromString("00000000-0000-0000-0000-000000000010");
 
-    @Mock private NotificationService notificationService;
+    @Mock private NotificationDispatcher notificationDispatcher;
     @Mock private CommentQueryService commentQueryService;
     @Mock private UserQueryService userQueryService;
     @Mock private Messages messages;
@@ -65,8 +65,8 @@ class NotificationEventListenerTest {
 
         listener.onTaskAssigned(new TaskAssignedEvent(task, bob));
 
-        verify(notificationService)
-                .create(
+        verify(notificationDispatcher)
+                .submit(
                         eq(alice),
                         eq(bob),
                         eq(NotificationType.TASK_ASSIGNED),
@@ -80,7 +80,7 @@ class NotificationEventListenerTest {
 
         listener.onTaskAssigned(new TaskAssignedEvent(task, alice));
 
-        verifyNoInteractions(notificationService);
+        verifyNoInteractions(notificationDispatcher);
     }
 
     @Test
@@ -89,7 +89,7 @@ class NotificationEventListenerTest {
 
         listener.onTaskAssigned(new TaskAssignedEvent(task, bob));
 
-        verifyNoInteractions(notificationService);
+        verifyNoInteractions(notificationDispatcher);
     }
 
     // ── onTaskUpdated ────────────────────────────────────────────────────
@@ -104,21 +104,21 @@ class NotificationEventListenerTest {
         listener.onTaskUpdated(new TaskUpdatedEvent(task, bob));
 
         // Notifies owner (alice) and subscriber (charlie), not actor (bob)
-        verify(notificationService)
-                .create(
+        verify(notificationDispatcher)
+                .submit(
                         eq(alice),
                         eq(bob),
                         eq(NotificationType.TASK_UPDATED),
                         anyString(),
                         anyString());
-        verify(notificationService)
-                .create(
+        verify(notificationDispatcher)
+                .submit(
                         eq(charlie),
                         eq(bob),
                         eq(NotificationType.TASK_UPDATED),
                         anyString(),
                         anyString());
-        verify(notificationService, times(2)).create(any(), any(), any(), any(), any());
+        verify(notificationDispatcher, times(2)).submit(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -131,14 +131,14 @@ class NotificationEventListenerTest {
         listener.onTaskUpdated(new TaskUpdatedEvent(task, alice));
 
         // Alice is both actor and owner — should not be notified
-        verifyNoInteractions(notificationService);
+        verifyNoInteractions(notificationDispatcher);
     }
 
     @Test
     void onTaskUpdated_nullActor_doesNothing() {
         listener.onTaskUpdated(new TaskUpdatedEvent(task, null));
 
-        verifyNoInteractions(notificationService);
+        verifyNoInteractions(notificationDispatcher);
     }
 
     @Test
@@ -151,7 +151,7 @@ class NotificationEventListenerTest {
         listener.onTaskUpdated(new TaskUpdatedEvent(task, bob));
 
         // Alice notified once (as owner), not again as subscriber
-        verify(notificationService, times(1)).create(any(), any(), any(), any(), any());
+        verify(notificationDispatcher, times(1)).submit(any(), any(), any(), any(), any());
     }
 
     // ── onCommentAdded ───────────────────────────────────────────────────
@@ -174,21 +174,21 @@ class NotificationEventListenerTest {
         listener.onCommentAdded(new CommentAddedEvent(comment, task, bob));
 
         // Owner (alice) gets COMMENT_ADDED, mentioned (charlie) gets COMMENT_MENTIONED
-        verify(notificationService)
-                .create(
+        verify(notificationDispatcher)
+                .submit(
                         eq(alice),
                         eq(bob),
                         eq(NotificationType.COMMENT_ADDED),
                         anyString(),
                         anyString());
-        verify(notificationService)
-                .create(
+        verify(notificationDispatcher)
+                .submit(
                         eq(charlie),
                         eq(bob),
                         eq(NotificationType.COMMENT_MENTIONED),
                         anyString(),
                         anyString());
-        verify(notificationService, times(2)).create(any(), any(), any(), any(), any());
+        verify(notificationDispatcher, times(2)).submit(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -207,7 +207,7 @@ class NotificationEventListenerTest {
         listener.onCommentAdded(new CommentAddedEvent(comment, task, alice));
 
         // Alice is actor and owner — no notification
-        verifyNoInteractions(notificationService);
+        verifyNoInteractions(notificationDispatcher);
     }
 
     @Test
@@ -228,6 +228,6 @@ class NotificationEventListenerTest {
         listener.onCommentAdded(new CommentAddedEvent(comment, task, bob));
 
         // Charlie notified once as owner, deduped from subscriber + mentioned
-        verify(notificationService, times(1)).create(any(), any(), any(), any(), any());
+        verify(notificationDispatcher, times(1)).submit(any(), any(), any(), any(), any());
     }
 }
@@ -0,0 +1,160 @@
+package cc.desuka.demo.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.config.AppRoutesProperties;
+import cc.desuka.demo.config.WebSocketProperties;
+import cc.desuka.demo.model.Task;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TaskPushCoalescerTest {
+
+    private static final UUID TASK_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID TASK_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-000000000005");
+    private static final UUID PROJECT_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID PROJECT_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @Mock private BroadcastBus broadcastBus;
+
+    private final WebSocketProperties properties = new WebSocketProperties();
+    private TaskPushCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new TaskPushCoalescer(broadcastBus, new AppRoutesProperties(), properties);
+    }
+
+    private static TaskPushEvent event(String action, UUID taskId, UUID projectId) {
+        return new TaskPushEvent(action, taskId, projectId, USER);
+    }
+
+    private static TaskPushEvent delta(long version, Map<String, Object> changes) {
+        return new TaskPushEvent(
+                TaskPushEvent.ACTION_UPDATED, TASK_1, PROJECT_A, USER, version, changes);
+    }
+
+    private static String topic(UUID projectId) {
+        return "/topic/projects/" + projectId + "/tasks";
+    }
+
+    @Test
+    void add_buffersUntilFlush() {
+        coalescer.add(event(TaskPushEvent.ACTION_UPDATED, TASK_1, PROJECT_A));
+
+        verifyNoInteractions(broadcastBus);
+
+        coalescer.flushAll();
+        coalescer.flushAll();
+
+        verify(broadcastBus, times(1)).convertAndSend(eq(topic(PROJECT_A)), any(Object.class));
+    }
+
+    @Test
+    void flushAll_sendsOneFramePerProjectInCommitOrder() {
+        TaskPushEvent created = event(TaskPushEvent.ACTION_CREATED, TASK_1, PROJECT_A);
+        TaskPushEvent other = event(TaskPushEvent.ACTION_UPDATED, TASK_2, PROJECT_B);
+        TaskPushEvent deleted = event(TaskPushEvent.ACTION_DELETED, TASK_1, PROJECT_A);
+        coalescer.add(created);
+        coalescer.add(other);
+        coalescer.add(deleted);
+
+        coalescer.flushAll();
+
+        verify(broadcastBus)
+                .convertAndSend(
+                        topic(PROJECT_A), new TaskPushBatch(PROJECT_A, List.of(created, deleted)));
+        verify(broadcastBus)
+                .convertAndSend(topic(PROJECT_B), new TaskPushBatch(PROJECT_B, List.of(other)));
+    }
+
+    @Test
+    void add_foldsRepeatOfTasksPreviousEvent() {
+        TaskPushEvent first = event(TaskPushEvent.ACTION_UPDATED, TASK_1, PROJECT_A);
+        coalescer.add(first);
+        coalescer.add(event(TaskPushEvent.ACTION_UPDATED, TASK_1, PROJECT_A));
+
+        coalescer.flushAll();
+
+        verify(broadcastBus)
+                .convertAndSend(topic(PROJECT_A), new TaskPushBatch(PROJECT_A, List.of(first)));
+    }
+
+    @Test
+    void add_foldsRepeatDeltasAtLatestVersion() {
+        coalescer.add(delta(3L, Map.of(Task.FIELD_TITLE, "Renamed")));
+        coalescer.add(delta(4L, Map.of(Task.FIELD_PRIORITY, "HIGH")));
+
+        coalescer.flushAll();
+
+        TaskPushEvent merged =
+                new TaskPushEvent(
+                        TaskPushEvent.ACTION_UPDATED,
+                        TASK_1,
+                        PROJECT_A,
+                        USER,
+                        2L,
+                        4L,
+                        Map.of(Task.FIELD_TITLE, "Renamed", Task.FIELD_PRIORITY, "HIGH"));
+        verify(broadcastBus)
+                .convertAndSend(topic(PROJECT_A), new TaskPushBatch(PROJECT_A, List.of(merged)));
+    }
+
+    @Test
+    void add_foldedDeltasKeepFirstBaseVersion() {
+        coalescer.add(delta(3L, Map.of(Task.FIELD_TITLE, "Renamed")));
+        coalescer.add(delta(4L, Map.of(Task.FIELD_PRIORITY, "HIGH")));
+        coalescer.add(delta(5L, Map.of(Task.FIELD_TITLE, "Renamed again")));
+
+        coalescer.flushAll();
+
+        ArgumentCaptor<TaskPushBatch> batch = ArgumentCaptor.forClass(TaskPushBatch.class);
+        verify(broadcastBus).convertAndSend(eq(topic(PROJECT_A)), batch.capture());
+        TaskPushEvent merged = batch.getValue().events().getFirst();
+        assertThat(merged.baseVersion()).isEqualTo(2L);
+        assertThat(merged.version()).isEqualTo(5L);
+        assertThat(merged.changes()).containsEntry(Task.FIELD_TITLE, "Renamed again");
+    }
+
+    @Test
+    void add_repeatWithoutDelta_dropsMergedDelta() {
+        coalescer.add(delta(3L, Map.of(Task.FIELD_TITLE, "Renamed")));
+        coalescer.add(event(TaskPushEvent.ACTION_UPDATED, TASK_1, PROJECT_A));
+
+        coalescer.flushAll();
+
+        ArgumentCaptor<TaskPushBatch> batch = ArgumentCaptor.forClass(TaskPushBatch.class);
+        verify(broadcastBus).convertAndSend(eq(topic(PROJECT_A)), batch.capture());
+        assertThat(batch.getValue().events()).singleElement().matches(e -> !e.hasDelta());
+    }
+
+    @Test
+    void add_reachingMaxBatch_flushesImmediately() {
+        properties.setTaskPushMaxBatch(100);
+        for (int i = 0; i < 250; i++) {
+            coalescer.add(event(TaskPushEvent.ACTION_UPDATED, UUID.randomUUID(), PROJECT_A));
+        }
+
+        ArgumentCaptor<TaskPushBatch> batches = ArgumentCaptor.forClass(TaskPushBatch.class);
+        verify(broadcastBus, times(2)).convertAndSend(eq(topic(PROJECT_A)), batches.capture());
+        assertThat(batches.getAllValues()).allMatch(batch -> batch.events().size() == 100);
+
+        coalescer.flushAll();
+
+        verify(broadcastBus, times(3)).convertAndSend(eq(topic(PROJECT_A)), batches.capture());
+        assertThat(batches.getValue().events()).hasSize(50);
+    }
+}
@@ -1,7 +1,9 @@
 package cc.desuka.demo.event;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import cc.desuka.demo.broadcast.BroadcastBus;
 import cc.desuka.demo.config.AppRoutesProperties;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -10,7 +12,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class WebSocketEventListenerTest {
@@ -20,19 +21,21 @@ class WebSocketEventListenerTest {
     private static final UUID ID_5 = UUID.fromString("00000000-0000-0000-0000-000000000005");
     private static final UUID ID_10 = UUID.fromString("00000000-0000-0000-0000-000000000010");
 
-    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private BroadcastBus broadcastBus;
+    @Mock private TaskPushCoalescer taskPushCoalescer;
 
     @Spy private AppRoutesProperties appRoutes = new AppRoutesProperties();
 
     @InjectMocks private WebSocketEventListener listener;
 
     @Test
-    void onTaskPush_broadcastsToProjectTopic() {
+    void onTaskPush_handsEventToCoalescer() {
         TaskPushEvent event = new TaskPushEvent("created", ID_1, ID_10, ID_2);
 
         listener.onTaskPush(event);
 
-        verify(messagingTemplate).convertAndSend("/topic/projects/" + ID_10 + "/tasks", event);
+        verify(taskPushCoalescer).add(event);
+        verifyNoInteractions(broadcastBus);
     }
 
     @Test
@@ -41,7 +44,7 @@ class WebSocketEventListenerTest {
 
         listener.onProjectPush(event);
 
-        verify(messagingTemplate).convertAndSend("/topic/projects/" + ID_10, event);
+        verify(broadcastBus).convertAndSend("/topic/projects/" + ID_10, event);
     }
 
     @Test
@@ -50,6 +53,6 @@ class WebSocketEventListenerTest {
 
         listener.onCommentChange(event);
 
-        verify(messagingTemplate).convertAndSend("/topic/tasks/" + ID_5 + "/comments", event);
+        verify(broadcastBus).convertAndSend("/topic/tasks/" + ID_5 + "/comments", event);
     }
 }
@@ -0,0 +1,103 @@
+package cc.desuka.demo.presence;
+
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.broadcast.NodePresence;
+import cc.desuka.demo.config.BroadcastProperties;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceReplicatorTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final String TASK_TOPIC =
+            "/topic/tasks/00000000-0000-0000-0000-00000000000b/presence";
+
+    @Mock private BroadcastBus broadcastBus;
+    @Mock private PresenceService presenceService;
+    @Mock private ScopedPresenceService scopedPresenceService;
+
+    private final BroadcastProperties properties = new BroadcastProperties();
+    private PresenceReplicator replicator;
+
+    @BeforeEach
+    void setUp() {
+        properties.setNodeId("node-a");
+        replicator =
+                new PresenceReplicator(
+                        broadcastBus, presenceService, scopedPresenceService, properties);
+    }
+
+    // ── Outgoing ─────────────────────────────────────────────────────────
+
+    @Test
+    void shareChanges_sharesOnlyWhenLocalPresenceChanged() {
+        when(broadcastBus.isClustered()).thenReturn(true);
+        when(presenceService.getLocalUsers()).thenReturn(Map.of(ALICE, "Alice"));
+        when(scopedPresenceService.getLocalViewers()).thenReturn(Map.of(TASK_TOPIC, Set.of(ALICE)));
+        NodePresence local =
+                new NodePresence(
+                        "node-a", Map.of(ALICE, "Alice"), Map.of(TASK_TOPIC, Set.of(ALICE)));
+
+        replicator.shareChanges();
+        replicator.shareChanges();
+
+        verify(broadcastBus, times(1)).sharePresence(local);
+
+        replicator.shareSnapshot();
+
+        verify(broadcastBus, times(2)).sharePresence(local);
+    }
+
+    @Test
+    void shareChanges_singleNodeBus_doesNothing() {
+        when(broadcastBus.isClustered()).thenReturn(false);
+
+        replicator.shareChanges();
+        replicator.shareSnapshot();
+
+        verify(broadcastBus, never()).sharePresence(any());
+        verifyNoInteractions(presenceService, scopedPresenceService);
+    }
+
+    // ── Incoming ─────────────────────────────────────────────────────────
+
+    @Test
+    void onNodePresence_appliesOtherNodesAndIgnoresOwn() {
+        replicator.onNodePresence(new NodePresence("node-a", Map.of(ALICE, "Alice"), Map.of()));
+
+        verifyNoInteractions(presenceService, scopedPresenceService);
+
+        Map<String, Set<UUID>> viewers = Map.of(TASK_TOPIC, Set.of(BOB));
+        replicator.onNodePresence(new NodePresence("node-b", Map.of(BOB, "Bob"), viewers));
+
+        verify(presenceService).applyRemote("node-b", Map.of(BOB, "Bob"));
+        verify(scopedPresenceService).applyRemote("node-b", viewers);
+    }
+
+    @Test
+    void expireSilentNodes_dropsNodesPastTimeoutOnce() {
+        replicator.onNodePresence(
+                new NodePresence("node-b", Map.of(BOB, "Bob"), Map.of(TASK_TOPIC, Set.of(BOB))));
+
+        replicator.expireSilentNodes();
+        verify(presenceService, never()).applyRemote("node-b", Map.of());
+
+        properties.setNodeTimeout(Duration.ZERO);
+        replicator.expireSilentNodes();
+        replicator.expireSilentNodes();
+
+        verify(presenceService, times(1)).applyRemote("node-b", Map.of());
+        verify(scopedPresenceService, times(1)).applyRemote("node-b", Map.of());
+    }
+}
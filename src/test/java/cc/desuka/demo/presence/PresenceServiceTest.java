@@ -0,0 +1,189 @@
+package cc.desuka.demo.presence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.config.AppRoutesProperties;
+import cc.desuka.demo.dto.PresenceResponse;
+import cc.desuka.demo.dto.PresenceUpdate;
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
+import cc.desuka.demo.service.UserQueryService;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    private static final String TOPIC = "/topic/presence";
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Mock private UserQueryService userQueryService;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        presenceService =
+                new PresenceService(userQueryService, messagingTemplate, new AppRoutesProperties());
+    }
+
+    private List<PresenceUpdate> sent(int times) {
+        ArgumentCaptor<PresenceUpdate> captor = ArgumentCaptor.forClass(PresenceUpdate.class);
+        verify(messagingTemplate, times(times)).convertAndSend(eq(TOPIC), captor.capture());
+        return captor.getAllValues();
+    }
+
+    // ── Sessions ─────────────────────────────────────────────────────────
+
+    @Test
+    void multipleTabs_countOnceAndLeaveOnLastDisconnect() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.userConnected("s2", ALICE, "Alice");
+        presenceService.userDisconnected("s1");
+
+        assertThat(presenceService.getOnlineCount()).isEqualTo(1);
+        assertThat(presenceService.getOnlineUsers()).containsExactly("Alice");
+
+        presenceService.userDisconnected("s2");
+
+        assertThat(presenceService.getOnlineCount()).isZero();
+        verifyNoInteractions(userQueryService);
+    }
+
+    // ── Deltas ───────────────────────────────────────────────────────────
+
+    @Test
+    void broadcastChanges_coalescesWindowIntoOneDelta() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.userConnected("s2", BOB, "Bob");
+
+        presenceService.broadcastChanges();
+
+        PresenceUpdate delta = sent(1).getFirst();
+        assertThat(delta.type()).isEqualTo(PresenceUpdate.Type.DELTA);
+        assertThat(delta.version()).isEqualTo(1);
+        assertThat(delta.count()).isEqualTo(2);
+        assertThat(delta.users())
+                .containsExactly(new OnlineUser(ALICE, "Alice"), new OnlineUser(BOB, "Bob"));
+        assertThat(delta.left()).isEmpty();
+    }
+
+    @Test
+    void broadcastChanges_sendsOnlyWhatChangedSinceLastBroadcast() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.broadcastChanges();
+        presenceService.userConnected("s2", BOB, "Bob");
+        presenceService.userDisconnected("s1");
+
+        presenceService.broadcastChanges();
+
+        PresenceUpdate delta = sent(2).get(1);
+        assertThat(delta.version()).isEqualTo(2);
+        assertThat(delta.users()).containsExactly(new OnlineUser(BOB, "Bob"));
+        assertThat(delta.left()).containsExactly(ALICE);
+    }
+
+    @Test
+    void broadcastChanges_joinAndLeaveWithinWindow_sendsNothing() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.userDisconnected("s1");
+
+        presenceService.broadcastChanges();
+        presenceService.broadcastChanges();
+
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+    }
+
+    @Test
+    void refreshUser_renameGoesOutAsUpsert() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.broadcastChanges();
+        when(userQueryService.getNamesByIds(List.of(ALICE))).thenReturn(Map.of(ALICE, "Alicia"));
+
+        presenceService.refreshUser(ALICE);
+        presenceService.broadcastChanges();
+
+        assertThat(sent(2).get(1).users()).containsExactly(new OnlineUser(ALICE, "Alicia"));
+    }
+
+    // ── Other nodes ──────────────────────────────────────────────────────
+
+    @Test
+    void applyRemote_mergesOtherNodesUsersUntilNodeLeaves() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.applyRemote("node-b", Map.of(BOB, "Bob"));
+        presenceService.broadcastChanges();
+
+        assertThat(presenceService.getOnlineUsers()).containsExactly("Alice", "Bob");
+        assertThat(presenceService.getName(BOB)).isEqualTo("Bob");
+        assertThat(presenceService.getLocalUsers()).containsOnlyKeys(ALICE);
+
+        presenceService.applyRemote("node-b", Map.of());
+        presenceService.broadcastChanges();
+
+        List<PresenceUpdate> updates = sent(2);
+        assertThat(updates.get(0).users())
+                .containsExactly(new OnlineUser(ALICE, "Alice"), new OnlineUser(BOB, "Bob"));
+        assertThat(updates.get(1).left()).containsExactly(BOB);
+        assertThat(presenceService.getName(BOB)).isNull();
+    }
+
+    @Test
+    void applyRemote_sameStateAgain_sendsNothing() {
+        presenceService.applyRemote("node-b", Map.of(BOB, "Bob"));
+        presenceService.broadcastChanges();
+
+        presenceService.applyRemote("node-b", Map.of(BOB, "Bob"));
+        presenceService.broadcastChanges();
+
+        assertThat(sent(1).getFirst().users()).containsExactly(new OnlineUser(BOB, "Bob"));
+    }
+
+    // ── Snapshots ────────────────────────────────────────────────────────
+
+    @Test
+    void broadcastSnapshot_carriesLastBroadcastStateAndVersion() {
+        presenceService.broadcastSnapshot();
+        verifyNoInteractions(messagingTemplate);
+
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.broadcastChanges();
+        presenceService.broadcastSnapshot();
+
+        PresenceUpdate snapshot = sent(2).get(1);
+        assertThat(snapshot.type()).isEqualTo(PresenceUpdate.Type.SNAPSHOT);
+        assertThat(snapshot.version()).isEqualTo(1);
+        assertThat(snapshot.users()).containsExactly(new OnlineUser(ALICE, "Alice"));
+        assertThat(presenceService.getPresence().version()).isEqualTo(1);
+    }
+
+    @Test
+    void getPresence_pairsLastBroadcastListWithItsVersion() {
+        presenceService.userConnected("s1", ALICE, "Alice");
+        presenceService.broadcastChanges();
+        // Joins and leaves between broadcasts: the next delta will not mention Bob
+        presenceService.userConnected("s2", BOB, "Bob");
+
+        PresenceResponse presence = presenceService.getPresence();
+
+        assertThat(presence.version()).isEqualTo(1);
+        assertThat(presence.online()).containsExactly(new OnlineUser(ALICE, "Alice"));
+
+        presenceService.userDisconnected("s2");
+        presenceService.broadcastChanges();
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq(TOPIC), any(PresenceUpdate.class));
+    }
+}
@@ -0,0 +1,161 @@
+package cc.desuka.demo.presence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.config.AppRoutesProperties;
+import cc.desuka.demo.config.PresenceProperties;
+import cc.desuka.demo.dto.PresenceUpdate.OnlineUser;
+import cc.desuka.demo.dto.ScopedPresenceUpdate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ScopedPresenceServiceTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final String PROJECT_TOPIC =
+            "/topic/projects/00000000-0000-0000-0000-00000000000a/presence";
+    private static final String TASK_TOPIC =
+            "/topic/tasks/00000000-0000-0000-0000-00000000000b/presence";
+
+    @Mock private PresenceService presenceService;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private final PresenceProperties properties = new PresenceProperties();
+    private ScopedPresenceService service;
+
+    @BeforeEach
+    void setUp() {
+        service =
+                new ScopedPresenceService(
+                        presenceService, messagingTemplate, properties, new AppRoutesProperties());
+        lenient().when(presenceService.getName(ALICE)).thenReturn("Alice");
+        lenient().when(presenceService.getName(BOB)).thenReturn("Bob");
+    }
+
+    // ── Subscriptions ────────────────────────────────────────────────────
+
+    @Test
+    void subscribed_countsUserOncePerScopeAcrossTabs() {
+        service.subscribed("s1", "sub-1", ALICE, PROJECT_TOPIC);
+        service.subscribed("s2", "sub-1", ALICE, PROJECT_TOPIC);
+        service.subscribed("s3", "sub-1", BOB, PROJECT_TOPIC);
+
+        assertThat(service.getViewers(PROJECT_TOPIC))
+                .containsExactly(new OnlineUser(ALICE, "Alice"), new OnlineUser(BOB, "Bob"));
+
+        service.unsubscribed("s1", "sub-1");
+
+        assertThat(service.getViewers(PROJECT_TOPIC)).hasSize(2);
+    }
+
+    @Test
+    void subscribed_ignoresNonPresenceTopics() {
+        service.subscribed("s1", "sub-1", ALICE, "/topic/projects/x/tasks");
+        service.subscribed("s1", "sub-2", ALICE, "/topic/presence");
+
+        assertThat(service.getScopeCount()).isZero();
+    }
+
+    @Test
+    void disconnected_dropsEverySessionScopeAndEmptyScopes() {
+        service.subscribed("s1", "sub-1", ALICE, PROJECT_TOPIC);
+        service.subscribed("s1", "sub-2", ALICE, TASK_TOPIC);
+
+        service.disconnected("s1");
+
+        assertThat(service.getScopeCount()).isZero();
+        assertThat(service.getViewers(TASK_TOPIC)).isEmpty();
+    }
+
+    @Test
+    void subscribed_beyondSessionLimit_isNotCounted() {
+        properties.setMaxScopesPerSession(1);
+
+        service.subscribed("s1", "sub-1", ALICE, PROJECT_TOPIC);
+        service.subscribed("s1", "sub-2", ALICE, TASK_TOPIC);
+
+        assertThat(service.getScopeCount()).isEqualTo(1);
+        assertThat(service.getViewers(TASK_TOPIC)).isEmpty();
+    }
+
+    // ── Broadcasts ───────────────────────────────────────────────────────
+
+    @Test
+    void broadcastChanges_sendsOnlyToChangedScopesOnce() {
+        service.subscribed("s1", "sub-1", ALICE, PROJECT_TOPIC);
+        service.subscribed("s2", "sub-1", BOB, PROJECT_TOPIC);
+
+        service.broadcastChanges();
+        service.broadcastChanges();
+
+        List<OnlineUser> viewers =
+                List.of(new OnlineUser(ALICE, "Alice"), new OnlineUser(BOB, "Bob"));
+        verify(messagingTemplate).convertAndSend(PROJECT_TOPIC, new ScopedPresenceUpdate(viewers));
+        verify(messagingTemplate, never()).convertAndSend(eq(TASK_TOPIC), any(Object.class));
+    }
+
+    @Test
+    void broadcastChanges_lastViewerLeaving_sendsEmptyList() {
+        service.subscribed("s1", "sub-1", ALICE, TASK_TOPIC);
+        service.broadcastChanges();
+
+        service.unsubscribed("s1", "sub-1");
+        service.broadcastChanges();
+
+        verify(messagingTemplate).convertAndSend(TASK_TOPIC, new ScopedPresenceUpdate(List.of()));
+    }
+
+    @Test
+    void broadcastChanges_resendsListForSecondTabAndSubscriptionPastCap() {
+        properties.setMaxScopesPerSession(1);
+        service.subscribed("s1", "sub-1", ALICE, PROJECT_TOPIC);
+        service.broadcastChanges();
+
+        service.subscribed("s2", "sub-1", ALICE, PROJECT_TOPIC);
+        service.broadcastChanges();
+        service.subscribed("s2", "sub-2", ALICE, TASK_TOPIC);
+        service.broadcastChanges();
+
+        List<OnlineUser> alice = List.of(new OnlineUser(ALICE, "Alice"));
+        verify(messagingTemplate, times(2))
+                .convertAndSend(PROJECT_TOPIC, new ScopedPresenceUpdate(alice));
+        verify(messagingTemplate).convertAndSend(TASK_TOPIC, new ScopedPresenceUpdate(List.of()));
+    }
+
+    // ── Other nodes ──────────────────────────────────────────────────────
+
+    @Test
+    void applyRemote_mergesViewersAndMarksOnlyChangedScopes() {
+        service.subscribed("s1", "sub-1", ALICE, PROJECT_TOPIC);
+        service.broadcastChanges();
+
+        service.applyRemote("node-b", Map.of(PROJECT_TOPIC, Set.of(BOB)));
+        service.broadcastChanges();
+
+        List<OnlineUser> viewers =
+                List.of(new OnlineUser(ALICE, "Alice"), new OnlineUser(BOB, "Bob"));
+        verify(messagingTemplate).convertAndSend(PROJECT_TOPIC, new ScopedPresenceUpdate(viewers));
+        assertThat(service.getLocalViewers()).isEqualTo(Map.of(PROJECT_TOPIC, Set.of(ALICE)));
+        assertThat(service.getScopeCount()).isEqualTo(1);
+
+        service.applyRemote("node-b", Map.of());
+        service.broadcastChanges();
+
+        assertThat(service.getViewers(PROJECT_TOPIC))
+                .containsExactly(new OnlineUser(ALICE, "Alice"));
+        verify(messagingTemplate, never()).convertAndSend(eq(TASK_TOPIC), any(Object.class));
+    }
+}
@@ -0,0 +1,218 @@
+package cc.desuka.demo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cc.desuka.demo.config.AnalyticsProperties;
+import cc.desuka.demo.config.AnalyticsProperties.BurndownQuery;
+import cc.desuka.demo.dto.AnalyticsProjection.DailyCount;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.Sprint;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.model.User;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The two {@link AnalyticsRepository#countOpenPerDay} strategies — one windowed native query vs.
+ * three JPQL scans merged in Java — must produce the same series. The 100k-task benchmark only
+ * runs on request:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=AnalyticsBurndownQueryTest -Dbenchmark=true
+ * </pre>
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class AnalyticsBurndownQueryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsBurndownQueryTest.class);
+
+    private static final int PROJECTS = 10;
+    private static final int HISTORY_DAYS = 90;
+    private static final int BATCH = 1_000;
+
+    @Autowired private TestEntityManager em;
+
+    private final List<UUID> projectIds = new ArrayList<>();
+    private Long sprintId;
+
+    @Test
+    void countOpenPerDay_windowAndThreeScans_agreeForEveryScope() {
+        seed(3_000);
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(30);
+        AnalyticsRepository window = repository(BurndownQuery.WINDOW);
+        AnalyticsRepository scans = repository(BurndownQuery.THREE_SCANS);
+
+        List<DailyCount> all = window.countOpenPerDay(null, null, null, from, to);
+        assertThat(all).hasSize(31);
+        assertThat(all.getFirst().date()).isEqualTo(from);
+        assertThat(all).isEqualTo(scans.countOpenPerDay(null, null, null, from, to));
+
+        UUID project = projectIds.getFirst();
+        assertThat(window.countOpenPerDay(project, null, null, from, to))
+                .isEqualTo(scans.countOpenPerDay(project, null, null, from, to));
+
+        List<UUID> some = projectIds.subList(0, 3);
+        assertThat(window.countOpenPerDay(null, some, null, from, to))
+                .isEqualTo(scans.countOpenPerDay(null, some, null, from, to));
+    }
+
+    @Test
+    void countOpenPerDay_sprintScope_windowAndThreeScansAgree() {
+        seed(3_000);
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(30);
+        AnalyticsRepository window = repository(BurndownQuery.WINDOW);
+        AnalyticsRepository scans = repository(BurndownQuery.THREE_SCANS);
+        UUID project = projectIds.getFirst();
+
+        List<DailyCount> sprint = window.countOpenPerDay(null, null, sprintId, from, to);
+        assertThat(sprint).hasSize(31).anyMatch(day -> day.value() > 0);
+        assertThat(sprint).isEqualTo(scans.countOpenPerDay(null, null, sprintId, from, to));
+        assertThat(sprint).isNotEqualTo(window.countOpenPerDay(project, null, null, from, to));
+
+        assertThat(window.countOpenPerDay(project, null, sprintId, from, to))
+                .isEqualTo(sprint)
+                .isEqualTo(scans.countOpenPerDay(project, null, sprintId, from, to));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_100kTasks() {
+        seed(100_000);
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(30);
+        UUID project = projectIds.getFirst();
+
+        for (BurndownQuery strategy : BurndownQuery.values()) {
+            AnalyticsRepository repository = repository(strategy);
+            report(
+                    strategy + " all projects",
+                    () -> repository.countOpenPerDay(null, null, null, from, to));
+            report(
+                    strategy + " one project",
+                    () -> repository.countOpenPerDay(project, null, null, from, to));
+        }
+        assertThat(repository(BurndownQuery.WINDOW).countOpenPerDay(null, null, null, from, to))
+                .isEqualTo(
+                        repository(BurndownQuery.THREE_SCANS)
+                                .countOpenPerDay(null, null, null, from, to));
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────
+
+    private AnalyticsRepository repository(BurndownQuery strategy) {
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.setBurndownQuery(strategy);
+        return new AnalyticsRepository(em.getEntityManager(), properties);
+    }
+
+    /** Median of 10 timed runs after 3 warm-up runs. */
+    private static void report(String label, Supplier<List<DailyCount>> query) {
+        for (int i = 0; i < 3; i++) {
+            query.get();
+        }
+        long[] nanos = new long[10];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        log.info("burndown {} median {} ms", label, String.format("%.2f", nanos[5] / 1e6));
+    }
+
+    /**
+     * Inserts {@code tasks} tasks spread evenly over the last {@link #HISTORY_DAYS} days with JDBC
+     * batches: 5% cancelled, 60% completed up to a month after creation (if that is already in the
+     * past), the rest open or in progress. Every third task of the first project is in its sprint.
+     */
+    private void seed(int tasks) {
+        User owner = em.persist(new User("Owner", "owner@example.com", "password"));
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project("Project " + i, "Seeded");
+            project.setCreatedBy(owner);
+            projectIds.add(em.persist(project).getId());
+        }
+        Sprint sprint = new Sprint();
+        sprint.setName("Sprint 1");
+        sprint.setStartDate(LocalDate.now().minusDays(HISTORY_DAYS));
+        sprint.setEndDate(LocalDate.now());
+        sprint.setProject(em.find(Project.class, projectIds.getFirst()));
+        sprintId = em.persist(sprint).getId();
+        em.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime base = now.minusDays(HISTORY_DAYS);
+        long spreadMinutes = HISTORY_DAYS * 24L * 60;
+        String sql =
+                "INSERT INTO tasks (id, version, title, status, priority, priority_order,"
+                        + " checklist_total, checklist_checked, created_at, updated_at,"
+                        + " completed_at, project_id, sprint_id)"
+                        + " VALUES (?, 0, ?, ?, 'MEDIUM', 1, 0, 0, ?, ?, ?, ?, ?)";
+        em.getEntityManager()
+                .unwrap(Session.class)
+                .doWork(
+                        connection -> {
+                            try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                                for (int i = 0; i < tasks; i++) {
+                                    LocalDateTime createdAt =
+                                            base.plusMinutes(i * spreadMinutes / tasks);
+                                    LocalDateTime completedAt = createdAt.plusDays(i % 30);
+                                    TaskStatus status;
+                                    if (i % 20 == 0) {
+                                        status = TaskStatus.CANCELLED;
+                                        completedAt = null;
+                                    } else if (i % 5 < 3 && completedAt.isBefore(now)) {
+                                        status = TaskStatus.COMPLETED;
+                                    } else {
+                                        status =
+                                                i % 2 == 0
+                                                        ? TaskStatus.OPEN
+                                                        : TaskStatus.IN_PROGRESS;
+                                        completedAt = null;
+                                    }
+                                    insert.setObject(1, UUID.randomUUID());
+                                    insert.setString(2, "Task " + i);
+                                    insert.setString(3, status.name());
+                                    insert.setTimestamp(4, Timestamp.valueOf(createdAt));
+                                    insert.setTimestamp(5, Timestamp.valueOf(createdAt));
+                                    insert.setTimestamp(
+                                            6,
+                                            completedAt != null
+                                                    ? Timestamp.valueOf(completedAt)
+                                                    : null);
+                                    insert.setObject(7, projectIds.get(i % PROJECTS));
+                                    if (i % PROJECTS == 0 && i % 3 == 0) {
+                                        insert.setLong(8, sprintId);
+                                    } else {
+                                        insert.setNull(8, Types.BIGINT);
+                                    }
+                                    insert.addBatch();
+                                    if (i % BATCH == BATCH - 1) {
+                                        insert.executeBatch();
+                                    }
+                                }
+                                insert.executeBatch();
+                            }
+                        });
+    }
+}
@@ -0,0 +1,282 @@
+package cc.desuka.demo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cc.desuka.demo.dto.TaskSearchCriteria;
+import cc.desuka.demo.model.AuditLog;
+import cc.desuka.demo.model.Comment;
+import cc.desuka.demo.model.Notification;
+import cc.desuka.demo.model.NotificationType;
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.Task;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.model.TaskStatusFilter;
+import cc.desuka.demo.model.User;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Query-plan regression suite for the hot read predicates indexed by {@code
+ * V5__hot_path_indexes.sql}. Each test runs a real repository method against a seeded dataset,
+ * captures the SQL Hibernate emitted and EXPLAINs it — failing if the plan falls back to a table
+ * scan. Plans come from the H2 test schema, which carries the same indexes via
+ * {@code @Table(indexes = ...)}.
+ *
+ * <p>The dataset is seeded and committed once for the class, outside the per-test transactions,
+ * and deleted again after the last test.
+ */
+@DataJpaTest(
+        properties =
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "cc.desuka.demo.repository.CapturingStatementInspector")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 50;
+    private static final int PROJECTS = 10;
+    private static final int TASKS = 5000;
+    private static final int ROWS_PER_TABLE = 5000;
+    private static final int BATCH = 500;
+
+    @Autowired private TaskRepository taskRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private AuditLogRepository auditLogRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private TestEntityManager em;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+    private Project project;
+
+    @BeforeAll
+    void seedOnce() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed());
+    }
+
+    @AfterAll
+    void deleteSeed() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            for (String entity :
+                                    List.of(
+                                            "Comment",
+                                            "AuditLog",
+                                            "Notification",
+                                            "Task",
+                                            "Project",
+                                            "User")) {
+                                em.getEntityManager()
+                                        .createQuery("DELETE FROM " + entity)
+                                        .executeUpdate();
+                            }
+                        });
+    }
+
+    @BeforeEach
+    void clearCapturedStatements() {
+        CapturingStatementInspector.clear();
+    }
+
+    private void seed() {
+        for (int i = 0; i < USERS; i++) {
+            users.add(em.persist(new User("User " + i, "user" + i + "@example.com", "password")));
+        }
+        for (int i = 0; i < PROJECTS; i++) {
+            Project p = new Project("Project " + i, "Seeded");
+            p.setCreatedBy(users.get(0));
+            projects.add(em.persist(p));
+        }
+        project = projects.get(0);
+
+        TaskStatus[] statuses = TaskStatus.values();
+        Priority[] priorities = Priority.values();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task("Task " + i, "Seeded task " + i);
+            task.setProject(projects.get(i % PROJECTS));
+            task.setStatus(statuses[i % statuses.length]);
+            task.setPriority(priorities[i % priorities.length]);
+            task.setUser(users.get(i % USERS));
+            task.setDueDate(today.plusDays(i % 365));
+            tasks.add(em.persist(task));
+            if (i % BATCH == 0) {
+                em.flush();
+            }
+        }
+        em.flush();
+
+        for (int i = 0; i < ROWS_PER_TABLE; i++) {
+            User user = users.get(i % USERS);
+            Task task = tasks.get(i % TASKS);
+
+            Notification notification =
+                    new Notification(
+                            user, null, NotificationType.TASK_ASSIGNED, "Seeded " + i, "/tasks");
+            notification.setRead(i % 4 != 0);
+            em.persist(notification);
+
+            AuditLog log = new AuditLog();
+            log.setAction("TASK_UPDATED");
+            log.setEntityType("Task");
+            log.setEntityId(task.getId().toString());
+            log.setPrincipal(user.getEmail());
+            log.setTimestamp(Instant.now().minusSeconds(i));
+            em.persist(log);
+
+            Comment comment = new Comment();
+            comment.setText("Seeded comment " + i);
+            comment.setTask(task);
+            comment.setUser(user);
+            em.persist(comment);
+
+            if (i % BATCH == 0) {
+                em.flush();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        session().doWork(
+                        connection -> {
+                            try (Statement statement = connection.createStatement()) {
+                                statement.execute("ANALYZE");
+                            }
+                        });
+    }
+
+    // ── Tasks ───────────────────────────────────────────────────────────
+
+    @Test
+    void projectBoard_filteredByStatus_usesProjectStatusIndex() {
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setProjectId(project.getId());
+        criteria.setStatusFilter(TaskStatusFilter.OPEN);
+
+        taskRepository.findIds(
+                TaskSpecifications.build(criteria),
+                Sort.by(Task.FIELD_PRIORITY_ORDER, Task.FIELD_ID),
+                0,
+                25);
+
+        assertIndexedPlan("IDX_TASKS_PROJECT_STATUS_PRIORITY");
+    }
+
+    @Test
+    void userStatusCount_usesIndex() {
+        taskRepository.countByUserIdAndStatus(users.get(3).getId(), TaskStatus.OPEN);
+
+        assertIndexedPlan(null);
+    }
+
+    @Test
+    void userDashboardCounters_usesIndex() {
+        taskRepository.countDashboardCountersForUser(
+                users.get(3).getId(), LocalDate.now(), TaskStatus.terminalStatuses());
+
+        assertIndexedPlan(null);
+    }
+
+    @Test
+    void tasksDueOn_usesDueDateIndex() {
+        taskRepository.findByDueDateAndStatusNotIn(
+                LocalDate.now().plusDays(7), List.of(TaskStatus.COMPLETED));
+
+        assertIndexedPlan("IDX_TASKS_DUE_DATE");
+    }
+
+    // ── Notifications, audit, comments ──────────────────────────────────
+
+    @Test
+    void unreadNotificationCount_usesIndex() {
+        notificationRepository.countByUserIdAndReadFalse(users.get(5).getId());
+
+        assertIndexedPlan(null);
+    }
+
+    @Test
+    void entityHistory_usesAuditEntityIndex() {
+        auditLogRepository.findByEntityTypeAndEntityIdOrderByTimestampDesc(
+                "Task", tasks.get(42).getId().toString());
+
+        assertIndexedPlan("IDX_AUDIT_LOGS_ENTITY");
+    }
+
+    @Test
+    void commentThread_usesIndex() {
+        commentRepository.findByTaskIdOrderByCreatedAtAsc(tasks.get(7).getId());
+
+        assertIndexedPlan(null);
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────
+
+    /**
+     * EXPLAINs the last SELECT Hibernate emitted and asserts no table is scanned. Pass an index
+     * name where no foreign-key index (which H2, unlike Postgres, creates on its own) could serve
+     * the predicate in its place.
+     */
+    private void assertIndexedPlan(String expectedIndex) {
+        String sql =
+                CapturingStatementInspector.statements().stream()
+                        .filter(s -> s.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                        .reduce((first, second) -> second)
+                        .orElseThrow(() -> new AssertionError("No SELECT was captured"));
+
+        String plan = explain(sql);
+
+        assertThat(plan).as("plan for %s", sql).doesNotContain(".TABLESCAN");
+        if (expectedIndex != null) {
+            assertThat(plan).as("plan for %s", sql).contains(expectedIndex);
+        }
+    }
+
+    private String explain(String sql) {
+        return session().doReturningWork(
+                        connection -> {
+                            try (PreparedStatement statement =
+                                    connection.prepareStatement("EXPLAIN " + sql)) {
+                                // H2 plans at prepare time, so the bound values do not matter.
+                                int count = statement.getParameterMetaData().getParameterCount();
+                                for (int i = 1; i <= count; i++) {
+                                    statement.setNull(i, Types.NULL);
+                                }
+                                StringBuilder plan = new StringBuilder();
+                                try (ResultSet rows = statement.executeQuery()) {
+                                    while (rows.next()) {
+                                        plan.append(rows.getString(1)).append('\n');
+                                    }
+                                }
+                                return plan.toString().replace("\"", "").toUpperCase(Locale.ROOT);
+                            }
+                        });
+    }
+
+    private Session session() {
+        return em.getEntityManager().unwrap(Session.class);
+    }
+}
@@ -2,7 +2,10 @@ package cc.desuka.demo.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.dto.TaskCursor;
 import cc.desuka.demo.dto.TaskSearchCriteria;
+import cc.desuka.demo.model.ChecklistItem;
 import cc.desuka.demo.model.Priority;
 import cc.desuka.demo.model.Project;
 import cc.desuka.demo.model.Tag;
@@ -11,8 +14,10 @@ import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.TaskStatusFilter;
 import cc.desuka.demo.model.User;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +25,7 @@ import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -128,6 +134,25 @@ class TaskSpecificationsTest {
         assertThat(result.getContent()).hasSize(1);
     }
 
+    @Test
+    void keywordSearch_relevanceRanksTitleMatchesFirst() {
+        Task descriptionOnly = createTask("Cleanup", TaskStatus.OPEN, Priority.LOW, alice, null);
+        descriptionOnly.setDescription("Remove the old login page");
+        createTask("Login redesign", TaskStatus.OPEN, Priority.LOW, alice, null);
+        createTask("Unrelated", TaskStatus.OPEN, Priority.LOW, alice, null);
+        em.flush();
+
+        TaskSearchCriteria c = criteria();
+        c.setKeyword("login");
+
+        List<UUID> ids =
+                taskRepository.findIdsByRelevance(TaskSpecifications.build(c), "login", 0, 10);
+
+        assertThat(ids)
+                .extracting(id -> em.find(Task.class, id).getTitle())
+                .containsExactly("Login redesign", "Cleanup");
+    }
+
     // ── User filter ─────────────────────────────────────────────────────
 
     @Test
@@ -313,4 +338,196 @@ class TaskSpecificationsTest {
 
         assertThat(result.getContent()).hasSize(2);
     }
+
+    // ── Keyset (cursor) paging ──────────────────────────────────────────
+
+    private List<String> keysetWindow(TaskSearchCriteria c, Sort.Order order, TaskCursor cursor) {
+        List<UUID> ids =
+                taskRepository.findIds(
+                        TaskSpecifications.build(c).and(TaskSpecifications.withCursor(cursor)),
+                        TaskCursor.keysetSort(order),
+                        0,
+                        2);
+        return ids.stream().map(id -> em.find(Task.class, id).getTitle()).toList();
+    }
+
+    @Test
+    void keyset_walksAllRowsWithoutGapsOrDuplicates() {
+        createTask("A", TaskStatus.OPEN, Priority.MEDIUM, alice, null);
+        createTask("B", TaskStatus.OPEN, Priority.MEDIUM, alice, null);
+        createTask("C", TaskStatus.OPEN, Priority.MEDIUM, alice, null);
+        createTask("D", TaskStatus.OPEN, Priority.MEDIUM, alice, null);
+        createTask("E", TaskStatus.OPEN, Priority.MEDIUM, alice, null);
+        em.flush();
+
+        Sort.Order order = Sort.Order.asc(Task.FIELD_TITLE);
+        List<String> seen = new ArrayList<>();
+        TaskCursor cursor = null;
+        List<String> window;
+        do {
+            window = keysetWindow(criteria(), order, cursor);
+            seen.addAll(window);
+            if (!window.isEmpty()) {
+                String lastTitle = window.getLast();
+                Task last =
+                        taskRepository.findAll().stream()
+                                .filter(t -> t.getTitle().equals(lastTitle))
+                                .findFirst()
+                                .orElseThrow();
+                cursor = TaskCursor.after(last, order);
+            }
+        } while (window.size() == 2);
+
+        assertThat(seen).containsExactly("A", "B", "C", "D", "E");
+    }
+
+    @Test
+    void keyset_tiesOnSortColumnAreBrokenById() {
+        createTask("Same", TaskStatus.OPEN, Priority.HIGH, alice, null);
+        createTask("Same", TaskStatus.OPEN, Priority.HIGH, alice, null);
+        createTask("Same", TaskStatus.OPEN, Priority.HIGH, alice, null);
+        em.flush();
+
+        Sort.Order order = Sort.Order.desc(Task.FIELD_PRIORITY_ORDER);
+        List<UUID> all =
+                taskRepository.findIds(
+                        TaskSpecifications.build(criteria()), TaskCursor.keysetSort(order), 0, 10);
+        Task pivot = em.find(Task.class, all.get(0));
+
+        List<UUID> rest =
+                taskRepository.findIds(
+                        TaskSpecifications.build(criteria())
+                                .and(TaskSpecifications.withCursor(TaskCursor.after(pivot, order))),
+                        TaskCursor.keysetSort(order),
+                        0,
+                        10);
+
+        assertThat(rest).containsExactlyElementsOf(all.subList(1, 3));
+    }
+
+    @Test
+    void keyset_priorityOrderColumnSortsByUrgencyAcrossWindows() {
+        createTask("Low", TaskStatus.OPEN, Priority.LOW, alice, null);
+        createTask("High", TaskStatus.OPEN, Priority.HIGH, alice, null);
+        createTask("Medium", TaskStatus.OPEN, Priority.MEDIUM, alice, null);
+        em.flush();
+
+        Sort.Order order = Sort.Order.desc(Task.FIELD_PRIORITY_ORDER);
+        List<String> first = keysetWindow(criteria(), order, null);
+        Task last =
+                taskRepository.findAll().stream()
+                        .filter(t -> t.getTitle().equals(first.getLast()))
+                        .findFirst()
+                        .orElseThrow();
+        // Round-trip through the opaque form so the persisted SMALLINT value is re-parsed
+        TaskCursor cursor = TaskCursor.decode(TaskCursor.after(last, order).encode(), order);
+
+        assertThat(first).containsExactly("High", "Medium");
+        assertThat(keysetWindow(criteria(), order, cursor)).containsExactly("Low");
+    }
+
+    @Test
+    void keyset_cursorRoundTripsThroughOpaqueString() {
+        Task task = createTask("Round | trip", TaskStatus.OPEN, Priority.LOW, alice, null);
+        em.flush();
+        Sort.Order order = Sort.Order.asc(Task.FIELD_TITLE);
+
+        TaskCursor decoded = TaskCursor.decode(TaskCursor.after(task, order).encode(), order);
+
+        assertThat(decoded.value()).isEqualTo("Round | trip");
+        assertThat(decoded.id()).isEqualTo(task.getId());
+    }
+
+    // ── List-view projection ────────────────────────────────────────────
+
+    @Test
+    void findCardViews_projectsColumnsAssigneeAndSortedTags() {
+        createTask(
+                "Tagged", TaskStatus.IN_PROGRESS, Priority.HIGH, alice, null, workTag, personalTag);
+        createTask("Bare", TaskStatus.OPEN, Priority.LOW, null, null);
+        em.flush();
+        em.clear();
+
+        List<TaskCardView> views =
+                taskRepository.findCardViews(
+                        TaskSpecifications.build(criteria()), Sort.by(Task.FIELD_TITLE));
+
+        assertThat(views).extracting(TaskCardView::title).containsExactly("Bare", "Tagged");
+        TaskCardView bare = views.get(0);
+        assertThat(bare.user()).isNull();
+        assertThat(bare.tags()).isEmpty();
+        TaskCardView tagged = views.get(1);
+        assertThat(tagged.status()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(tagged.priority()).isEqualTo(Priority.HIGH);
+        assertThat(tagged.user().name()).isEqualTo("Alice");
+        assertThat(tagged.project().id()).isEqualTo(project.getId());
+        assertThat(tagged.tags())
+                .extracting(TaskCardView.TagRef::name)
+                .containsExactly("Personal", "Work");
+    }
+
+    @Test
+    void findCardViews_withTagFilterIsDistinct() {
+        createTask("Both", TaskStatus.OPEN, Priority.LOW, alice, null, workTag, personalTag);
+        em.flush();
+
+        TaskSearchCriteria c = criteria();
+        c.setTagIds(List.of(workTag.getId(), personalTag.getId()));
+
+        List<TaskCardView> views =
+                taskRepository.findCardViews(
+                        TaskSpecifications.build(c), Sort.by(Task.FIELD_CREATED_AT));
+
+        assertThat(views).hasSize(1);
+    }
+
+    // ── Checklist counters ──────────────────────────────────────────────
+
+    @Test
+    void repairChecklistCounts_fixesOnlyDriftedTasks() {
+        Task drifted = createTask("Drifted", TaskStatus.OPEN, Priority.LOW, alice, null);
+        // Item added after persist without syncChecklistCounts() — stored counters stay at 0
+        ChecklistItem item = new ChecklistItem("Step", 0);
+        item.setChecked(true);
+        item.setTask(drifted);
+        drifted.getChecklistItems().add(item);
+        createTask("Empty", TaskStatus.OPEN, Priority.LOW, alice, null);
+        em.flush();
+
+        int repaired = taskRepository.repairChecklistCounts();
+        em.clear();
+
+        assertThat(repaired).isEqualTo(1);
+        Task reloaded = em.find(Task.class, drifted.getId());
+        assertThat(reloaded.getChecklistTotal()).isEqualTo(1);
+        assertThat(reloaded.getChecklistChecked()).isEqualTo(1);
+    }
+
+    // ── Chunked export stream ───────────────────────────────────────────
+
+    @Test
+    void forEachChunk_deliversAllRowsInChunksWithTagNames() {
+        createTask("A", TaskStatus.OPEN, Priority.LOW, alice, null, workTag, personalTag);
+        createTask("B", TaskStatus.OPEN, Priority.LOW, bob, null);
+        createTask("C", TaskStatus.OPEN, Priority.LOW, null, null, workTag);
+        em.flush();
+        em.clear();
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        taskRepository.forEachChunk(
+                TaskSpecifications.build(criteria()),
+                Sort.by(Task.FIELD_TITLE),
+                2,
+                (tasks, tagNames) -> {
+                    chunkSizes.add(tasks.size());
+                    for (Task t : tasks) {
+                        String user = t.getUser() != null ? t.getUser().getName() : "-";
+                        rows.add(t.getTitle() + ":" + user + ":" + tagNames.get(t.getId()));
+                    }
+                });
+
+        assertThat(chunkSizes).containsExactly(2, 1);
+        assertThat(rows).containsExactly("A:Alice:[Personal, Work]", "B:Bob:null", "C:-:[Work]");
+    }
 }
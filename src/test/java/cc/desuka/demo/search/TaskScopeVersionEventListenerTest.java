@@ -0,0 +1,69 @@
+package cc.desuka.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.broadcast.DataChange;
+import cc.desuka.demo.event.TaskPushEvent;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TaskScopeVersionEventListenerTest {
+
+    private static final UUID PROJECT_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID PROJECT_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    private final TaskScopeVersions versions = new TaskScopeVersions();
+    private final TaskScopeVersionEventListener listener =
+            new TaskScopeVersionEventListener(versions);
+
+    @Test
+    void onDataChange_task_bumpsOnlyItsProject() {
+        List<Long> a = versions.stamp(PROJECT_A, null);
+        List<Long> b = versions.stamp(PROJECT_B, null);
+
+        listener.onDataChange(
+                new DataChange(
+                        DataChange.TASK,
+                        UUID.randomUUID().toString(),
+                        TaskPushEvent.ACTION_UPDATED,
+                        PROJECT_A));
+
+        assertThat(versions.stamp(PROJECT_A, null)).isNotEqualTo(a);
+        assertThat(versions.stamp(PROJECT_B, null)).isEqualTo(b);
+    }
+
+    @Test
+    void onDataChange_userChange_bumpsEveryScope() {
+        List<Long> b = versions.stamp(PROJECT_B, null);
+
+        listener.onDataChange(
+                new DataChange(
+                        "User", UUID.randomUUID().toString(), AuditEvent.USER_DISABLED, null));
+
+        assertThat(versions.stamp(PROJECT_B, null)).isNotEqualTo(b);
+    }
+
+    @Test
+    void onDataChange_everything_bumpsEveryScope() {
+        List<Long> b = versions.stamp(PROJECT_B, null);
+        List<Long> all = versions.stamp(null, null);
+
+        listener.onDataChange(DataChange.everything());
+
+        assertThat(versions.stamp(PROJECT_B, null)).isNotEqualTo(b);
+        assertThat(versions.stamp(null, null)).isNotEqualTo(all);
+    }
+
+    @Test
+    void onDataChange_unrelatedEntity_changesNothing() {
+        List<Long> all = versions.stamp(null, null);
+        List<Long> a = versions.stamp(PROJECT_A, null);
+
+        listener.onDataChange(new DataChange("Comment", "3", AuditEvent.COMMENT_CREATED, null));
+
+        assertThat(versions.stamp(null, null)).isEqualTo(all);
+        assertThat(versions.stamp(PROJECT_A, null)).isEqualTo(a);
+    }
+}
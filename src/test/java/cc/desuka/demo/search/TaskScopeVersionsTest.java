@@ -0,0 +1,67 @@
+package cc.desuka.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskScopeVersionsTest {
+
+    private static final UUID PROJECT_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID PROJECT_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    private TaskScopeVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new TaskScopeVersions();
+    }
+
+    // ── Stamps ───────────────────────────────────────────────────────────
+
+    @Test
+    void stamp_bumpProject_changesOnlyScopesCoveringIt() {
+        List<Long> projectA = versions.stamp(PROJECT_A, null);
+        List<Long> projectB = versions.stamp(PROJECT_B, null);
+        List<Long> all = versions.stamp(null, null);
+
+        versions.bumpProject(PROJECT_A);
+
+        assertThat(versions.stamp(PROJECT_A, null)).isNotEqualTo(projectA);
+        assertThat(versions.stamp(PROJECT_B, null)).isEqualTo(projectB);
+        assertThat(versions.stamp(null, null)).isNotEqualTo(all);
+    }
+
+    @Test
+    void stamp_bumpAll_changesEveryScope() {
+        List<Long> projects = versions.stamp(null, List.of(PROJECT_A, PROJECT_B));
+
+        versions.bumpAll();
+
+        assertThat(versions.stamp(null, List.of(PROJECT_A, PROJECT_B))).isNotEqualTo(projects);
+    }
+
+    // ── ETags ────────────────────────────────────────────────────────────
+
+    @Test
+    void etag_isQuotedAndStableForEqualParts() {
+        String etag = versions.etag("analytics", PROJECT_A, versions.stamp(PROJECT_A, null));
+
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(versions.etag("analytics", PROJECT_A, versions.stamp(PROJECT_A, null)))
+                .isEqualTo(etag);
+        // Same stamp values, different scope
+        assertThat(versions.etag("analytics", PROJECT_B, versions.stamp(PROJECT_B, null)))
+                .isNotEqualTo(etag);
+    }
+
+    @Test
+    void etag_differsAcrossBoots() {
+        List<Long> stamp = versions.stamp(PROJECT_A, null);
+
+        assertThat(new TaskScopeVersions().etag("analytics", PROJECT_A, stamp))
+                .isNotEqualTo(versions.etag("analytics", PROJECT_A, stamp));
+    }
+}
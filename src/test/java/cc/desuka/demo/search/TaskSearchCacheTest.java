@@ -0,0 +1,177 @@
+package cc.desuka.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cc.desuka.demo.dto.TaskSearchCriteria;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskSearchCacheTest {
+
+    private static final UUID PROJECT_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID PROJECT_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    private TaskScopeVersions versions;
+    private TaskSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        versions = new TaskScopeVersions();
+        cache = new TaskSearchCache(versions);
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<Integer> counting() {
+        return loads::incrementAndGet;
+    }
+
+    // ── Hits and keys ────────────────────────────────────────────────────
+
+    @Test
+    void get_sameCriteriaAndPage_loadsOnce() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.forProject(PROJECT_A);
+
+        assertThat(cache.get(criteria, 0, counting())).isEqualTo(1);
+        assertThat(cache.get(criteria, 0, counting())).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_normalizesListOrderAndBlankKeyword() {
+        TaskSearchCriteria first = TaskSearchCriteria.forProjects(List.of(PROJECT_A, PROJECT_B));
+        first.setKeyword("  ");
+        TaskSearchCriteria second = TaskSearchCriteria.forProjects(List.of(PROJECT_B, PROJECT_A));
+
+        cache.get(first, 0, counting());
+        cache.get(second, 0, counting());
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_differentPage_loadsSeparately() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.forProject(PROJECT_A);
+
+        cache.get(criteria, 0, counting());
+        cache.get(criteria, 1, counting());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    // ── Invalidation ─────────────────────────────────────────────────────
+
+    @Test
+    void invalidateProject_stalesOnlySearchesCoveringIt() {
+        TaskSearchCriteria a = TaskSearchCriteria.forProject(PROJECT_A);
+        TaskSearchCriteria b = TaskSearchCriteria.forProject(PROJECT_B);
+        TaskSearchCriteria both = TaskSearchCriteria.forProjects(List.of(PROJECT_A, PROJECT_B));
+        cache.get(a, 0, counting());
+        cache.get(b, 0, counting());
+        cache.get(both, 0, counting());
+
+        versions.bumpProject(PROJECT_A);
+        cache.get(a, 0, counting());
+        cache.get(b, 0, counting());
+        cache.get(both, 0, counting());
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void invalidateProject_stalesUnscopedSearches() {
+        TaskSearchCriteria all = new TaskSearchCriteria();
+        cache.get(all, 0, counting());
+
+        versions.bumpProject(PROJECT_B);
+        cache.get(all, 0, counting());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateAll_stalesEverything() {
+        TaskSearchCriteria a = TaskSearchCriteria.forProject(PROJECT_A);
+        cache.get(a, 0, counting());
+
+        versions.bumpAll();
+        cache.get(a, 0, counting());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    // ── Loading ──────────────────────────────────────────────────────────
+
+    @Test
+    void get_failedLoadIsNotCached() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.forProject(PROJECT_A);
+
+        assertThatThrownBy(
+                        () ->
+                                cache.get(
+                                        criteria,
+                                        0,
+                                        () -> {
+                                            throw new IllegalStateException("boom");
+                                        }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(criteria, 0, counting())).isEqualTo(1);
+    }
+
+    @Test
+    void get_failedLoadKeepsNewerEntryForSameKey() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.forProject(PROJECT_A);
+        Supplier<Integer> failing =
+                () -> {
+                    // A write lands mid-load and a newer caller caches its own result
+                    versions.bumpProject(PROJECT_A);
+                    cache.get(criteria, 0, counting());
+                    throw new IllegalStateException("boom");
+                };
+
+        assertThatThrownBy(() -> cache.get(criteria, 0, failing))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(criteria, 0, counting())).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_concurrentMisses_shareOneLoad() throws Exception {
+        TaskSearchCriteria criteria = TaskSearchCriteria.forProject(PROJECT_A);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Integer> slow =
+                () -> {
+                    loading.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return loads.incrementAndGet();
+                };
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Integer> owner = executor.submit(() -> cache.get(criteria, 0, slow));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> waiter = executor.submit(() -> cache.get(criteria, 0, slow));
+            release.countDown();
+
+            assertThat(owner.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(loads).hasValue(1);
+    }
+}
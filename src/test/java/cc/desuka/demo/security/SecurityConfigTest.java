@@ -107,6 +107,18 @@ class SecurityConfigTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void actuatorMetrics_regularUser_returns403() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user(regularUser())))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void actuatorMetrics_adminUser_showsBrokerMeters() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/stomp.sessions.evicted").with(user(adminUser())))
+                .andExpect(status().isOk());
+    }
+
     // ── API admin mutations ─────────────────────────────────────────────
 
     @Test
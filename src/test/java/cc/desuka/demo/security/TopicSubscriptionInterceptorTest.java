@@ -0,0 +1,138 @@
+package cc.desuka.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.model.Role;
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.service.ProjectQueryService;
+import cc.desuka.demo.service.TaskQueryService;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+@ExtendWith(MockitoExtension.class)
+class TopicSubscriptionInterceptorTest {
+
+    private static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ID_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID PROJECT_ID = UUID.fromString("00000000-0000-0000-0000-000000000010");
+    private static final UUID TASK_ID = UUID.fromString("00000000-0000-0000-0000-000000000020");
+
+    @Mock private ProjectQueryService projectQueryService;
+    @Mock private TaskQueryService taskQueryService;
+    @Mock private MessageChannel channel;
+
+    private TopicSubscriptionInterceptor interceptor;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new TopicSubscriptionInterceptor(projectQueryService, taskQueryService);
+        alice = new User("Alice", "alice@example.com", "password", Role.ADMIN);
+        alice.setId(ID_1);
+        bob = new User("Bob", "bob@example.com", "password", Role.USER);
+        bob.setId(ID_2);
+    }
+
+    private static Message<byte[]> message(StompCommand command, String destination, User user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setSessionId("s1");
+        if (user != null) {
+            CustomUserDetails details = new CustomUserDetails(user);
+            accessor.setUser(
+                    new UsernamePasswordAuthenticationToken(
+                            details, null, details.getAuthorities()));
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private Message<?> subscribe(String destination, User user) {
+        return interceptor.preSend(message(StompCommand.SUBSCRIBE, destination, user), channel);
+    }
+
+    // ── Project topics ───────────────────────────────────────────────────
+
+    @Test
+    void projectTopic_member_passes() {
+        when(projectQueryService.isMember(PROJECT_ID, ID_2)).thenReturn(true);
+
+        assertThat(subscribe("/topic/projects/" + PROJECT_ID + "/tasks", bob)).isNotNull();
+        assertThat(subscribe("/topic/projects/" + PROJECT_ID, bob)).isNotNull();
+    }
+
+    @Test
+    void projectTopic_nonMember_dropped() {
+        when(projectQueryService.isMember(PROJECT_ID, ID_2)).thenReturn(false);
+
+        assertThat(subscribe("/topic/projects/" + PROJECT_ID + "/presence", bob)).isNull();
+    }
+
+    @Test
+    void projectTopic_admin_passesWithoutMembership() {
+        assertThat(subscribe("/topic/projects/" + PROJECT_ID + "/tasks", alice)).isNotNull();
+
+        verifyNoInteractions(projectQueryService);
+    }
+
+    @Test
+    void projectTopic_anonymousOrMalformedId_dropped() {
+        assertThat(subscribe("/topic/projects/" + PROJECT_ID + "/tasks", null)).isNull();
+        assertThat(subscribe("/topic/projects/not-a-uuid/tasks", bob)).isNull();
+
+        verifyNoInteractions(projectQueryService);
+    }
+
+    // ── Task topics ──────────────────────────────────────────────────────
+
+    @Test
+    void taskTopic_checksTheTasksProject() {
+        when(taskQueryService.findProjectId(TASK_ID)).thenReturn(Optional.of(PROJECT_ID));
+        when(projectQueryService.isMember(PROJECT_ID, ID_2)).thenReturn(true, false);
+
+        assertThat(subscribe("/topic/tasks/" + TASK_ID + "/comments", bob)).isNotNull();
+        assertThat(subscribe("/topic/tasks/" + TASK_ID + "/presence", bob)).isNull();
+    }
+
+    @Test
+    void taskTopic_unknownTask_dropped() {
+        when(taskQueryService.findProjectId(TASK_ID)).thenReturn(Optional.empty());
+
+        assertThat(subscribe("/topic/tasks/" + TASK_ID + "/comments", alice)).isNull();
+    }
+
+    // ── Other destinations ───────────────────────────────────────────────
+
+    @Test
+    void patternDestination_dropped() {
+        assertThat(subscribe("/topic/projects/*/tasks", alice)).isNull();
+        assertThat(subscribe("/topic/**", alice)).isNull();
+    }
+
+    @Test
+    void unscopedTopicAndOtherCommands_pass() {
+        assertThat(subscribe("/topic/presence", bob)).isNotNull();
+        assertThat(
+                        interceptor.preSend(
+                                message(
+                                        StompCommand.SEND,
+                                        "/topic/projects/" + PROJECT_ID + "/tasks",
+                                        null),
+                                channel))
+                .isNotNull();
+
+        verifyNoInteractions(projectQueryService, taskQueryService);
+    }
+}
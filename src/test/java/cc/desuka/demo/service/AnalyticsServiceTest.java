@@ -0,0 +1,350 @@
+package cc.desuka.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.config.AnalyticsProperties;
+import cc.desuka.demo.config.ParallelReadProperties;
+import cc.desuka.demo.dto.AnalyticsProjection.DailyCount;
+import cc.desuka.demo.dto.AnalyticsProjection.DailyRollup;
+import cc.desuka.demo.dto.AnalyticsProjection.UserStatusCount;
+import cc.desuka.demo.dto.AnalyticsResponse;
+import cc.desuka.demo.dto.AnalyticsResponse.BurndownPoint;
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.Sprint;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.repository.AnalyticsRepository;
+import cc.desuka.demo.repository.TaskDailyRollupRepository;
+import cc.desuka.demo.repository.TaskRepository;
+import cc.desuka.demo.search.TaskScopeVersions;
+import cc.desuka.demo.snapshot.TaskSnapshotService;
+import cc.desuka.demo.util.Messages;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID PROJECT_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final Long SPRINT_ID = 7L;
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private AnalyticsRepository analyticsRepository;
+    @Mock private TaskDailyRollupRepository taskDailyRollupRepository;
+    @Mock private SprintQueryService sprintQueryService;
+    @Mock private UserQueryService userQueryService;
+    @Mock private Messages messages;
+    @Mock private TaskSnapshotService taskSnapshotService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final AnalyticsProperties properties = new AnalyticsProperties();
+    private final ParallelReadProperties readProperties = new ParallelReadProperties();
+    private final TaskScopeVersions taskScopeVersions = new TaskScopeVersions();
+
+    private AnalyticsService analyticsService() {
+        return new AnalyticsService(
+                taskRepository,
+                analyticsRepository,
+                taskDailyRollupRepository,
+                sprintQueryService,
+                userQueryService,
+                messages,
+                taskSnapshotService,
+                properties,
+                new ParallelReads(readProperties, transactionManager),
+                taskScopeVersions);
+    }
+
+    // ── Section execution ────────────────────────────────────────────────
+
+    @Test
+    void getProjectAnalytics_parallel_forksEachSectionIntoReadOnlyTransaction() {
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean();
+        when(analyticsRepository.countByUserAndStatus(PROJECT_ID, null, null))
+                .thenAnswer(
+                        invocation -> {
+                            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+                            return List.of();
+                        });
+
+        AnalyticsResponse response = analyticsService().getProjectAnalytics(PROJECT_ID);
+
+        assertThat(ranOnVirtualThread).isTrue();
+        assertThat(response.burndown()).hasSize(31);
+        // status, priority, workload, burndown, velocity, overdue, effort
+        ArgumentCaptor<TransactionDefinition> definitions =
+                ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(7)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).allMatch(TransactionDefinition::isReadOnly);
+    }
+
+    @Test
+    void getProjectAnalytics_sectionMissesDeadline_returnsPartialResponse() {
+        properties.setSectionTimeout(Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsRepository.countByUserAndStatus(PROJECT_ID, null, null))
+                .thenAnswer(
+                        invocation -> {
+                            release.await(5, TimeUnit.SECONDS);
+                            return List.of();
+                        });
+
+        AnalyticsResponse response = analyticsService().getProjectAnalytics(PROJECT_ID);
+        release.countDown();
+
+        assertThat(response.partial()).isTrue();
+        assertThat(response.workloadDistribution().assignees()).isEmpty();
+        assertThat(response.burndown()).hasSize(31);
+    }
+
+    @Test
+    void getProjectAnalytics_sequential_runsAllSectionsInlineInOneTransaction() {
+        readProperties.setEnabled(false);
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean(true);
+        when(analyticsRepository.countByUserAndStatus(PROJECT_ID, null, null))
+                .thenAnswer(
+                        invocation -> {
+                            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+                            return List.of();
+                        });
+
+        analyticsService().getProjectAnalytics(PROJECT_ID);
+
+        assertThat(ranOnVirtualThread).isFalse();
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    // ── Single-flight ────────────────────────────────────────────────────
+
+    @Test
+    void getProjectAnalytics_identicalConcurrentRequests_shareOneComputation() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsRepository.countByUserAndStatus(PROJECT_ID, null, null))
+                .thenAnswer(
+                        invocation -> {
+                            entered.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return List.of();
+                        })
+                .thenReturn(List.of());
+        AnalyticsService service = analyticsService();
+
+        CompletableFuture<AnalyticsResponse> leader =
+                CompletableFuture.supplyAsync(() -> service.getProjectAnalytics(PROJECT_ID));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        AtomicReference<AnalyticsResponse> followerResponse = new AtomicReference<>();
+        Thread follower =
+                Thread.ofPlatform()
+                        .start(() -> followerResponse.set(service.getProjectAnalytics(PROJECT_ID)));
+        while (follower.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        follower.join(5000);
+
+        assertThat(followerResponse.get()).isSameAs(leader.get(5, TimeUnit.SECONDS));
+        verify(analyticsRepository, times(1)).countByUserAndStatus(PROJECT_ID, null, null);
+
+        // Nothing is cached once the computation finishes
+        service.getProjectAnalytics(PROJECT_ID);
+        verify(analyticsRepository, times(2)).countByUserAndStatus(PROJECT_ID, null, null);
+    }
+
+    @Test
+    void getProjectAnalytics_writeAfterLeaderStarted_followerComputesItsOwn() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsRepository.countByUserAndStatus(PROJECT_ID, null, null))
+                .thenAnswer(
+                        invocation -> {
+                            entered.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return List.of();
+                        })
+                .thenReturn(List.of());
+        AnalyticsService service = analyticsService();
+
+        CompletableFuture<AnalyticsResponse> leader =
+                CompletableFuture.supplyAsync(() -> service.getProjectAnalytics(PROJECT_ID));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        taskScopeVersions.bumpProject(PROJECT_ID);
+
+        // Returns while the leader is still blocked: it did not join the pre-write computation
+        AnalyticsResponse follower = service.getProjectAnalytics(PROJECT_ID);
+        release.countDown();
+
+        assertThat(follower).isNotSameAs(leader.get(5, TimeUnit.SECONDS));
+        verify(analyticsRepository, times(2)).countByUserAndStatus(PROJECT_ID, null, null);
+    }
+
+    @Test
+    void getCrossProjectAnalytics_projectOrder_normalizedForSingleFlightKey() {
+        readProperties.setEnabled(false);
+
+        analyticsService().getCrossProjectAnalytics(List.of(PROJECT_2, PROJECT_ID, PROJECT_2));
+
+        verify(analyticsRepository)
+                .countByUserAndStatus(null, List.of(PROJECT_ID, PROJECT_2), null);
+    }
+
+    // ── Rollup stitching ─────────────────────────────────────────────────
+
+    @Test
+    void getProjectAnalytics_rollupThroughToday_cappedAtYesterdayAndTodayCountedLive() {
+        readProperties.setEnabled(false);
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(30);
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(today);
+        // Lenient: velocity reads the rollups over its own range
+        lenient()
+                .when(
+                        analyticsRepository.sumRollupsPerDay(
+                                PROJECT_ID, null, null, start, today.minusDays(1)))
+                .thenReturn(List.of(rollup(start, 5), rollup(today.minusDays(1), 7)));
+        when(analyticsRepository.countOpenPerDay(PROJECT_ID, null, null, today, today))
+                .thenReturn(List.of(new DailyCount(today, 9)));
+
+        List<BurndownPoint> burndown =
+                analyticsService().getProjectAnalytics(PROJECT_ID).burndown();
+
+        assertThat(burndown).hasSize(31);
+        assertThat(burndown.getFirst().remaining()).isEqualTo(5);
+        assertThat(burndown.get(29).remaining()).isEqualTo(7);
+        assertThat(burndown.getLast().remaining()).isEqualTo(9);
+    }
+
+    @Test
+    void getProjectAnalytics_rollupBehind_liveTailCoversDaysSince() {
+        readProperties.setEnabled(false);
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(30);
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(today.minusDays(3));
+        lenient()
+                .when(
+                        analyticsRepository.sumRollupsPerDay(
+                                PROJECT_ID, null, null, start, today.minusDays(3)))
+                .thenReturn(List.of(rollup(today.minusDays(3), 4)));
+        when(analyticsRepository.countOpenPerDay(PROJECT_ID, null, null, today.minusDays(2), today))
+                .thenReturn(
+                        List.of(
+                                new DailyCount(today.minusDays(2), 6),
+                                new DailyCount(today.minusDays(1), 6),
+                                new DailyCount(today, 8)));
+
+        List<BurndownPoint> burndown =
+                analyticsService().getProjectAnalytics(PROJECT_ID).burndown();
+
+        assertThat(burndown).extracting(BurndownPoint::remaining).endsWith(4L, 6L, 6L, 8L);
+    }
+
+    @Test
+    void getProjectAnalytics_futureSprint_daysAfterTodayRepeatTodaysCount() {
+        readProperties.setEnabled(false);
+        LocalDate today = LocalDate.now();
+        Sprint sprint = new Sprint();
+        sprint.setStartDate(today.plusDays(1));
+        sprint.setEndDate(today.plusDays(3));
+        when(sprintQueryService.getSprintById(SPRINT_ID)).thenReturn(sprint);
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(today.minusDays(1));
+        when(analyticsRepository.countOpenPerDay(PROJECT_ID, null, SPRINT_ID, today, today))
+                .thenReturn(List.of(new DailyCount(today, 4)));
+
+        List<BurndownPoint> burndown =
+                analyticsService().getProjectAnalytics(PROJECT_ID, SPRINT_ID).burndown();
+
+        assertThat(burndown)
+                .extracting(BurndownPoint::date)
+                .containsExactly(today.plusDays(1), today.plusDays(2), today.plusDays(3));
+        assertThat(burndown).extracting(BurndownPoint::remaining).containsOnly(4L);
+    }
+
+    @Test
+    void getProjectAnalytics_finishedSprintFullyRolledUp_countsNothingLive() {
+        readProperties.setEnabled(false);
+        LocalDate today = LocalDate.now();
+        Sprint sprint = new Sprint();
+        sprint.setStartDate(today.minusDays(10));
+        sprint.setEndDate(today.minusDays(5));
+        when(sprintQueryService.getSprintById(SPRINT_ID)).thenReturn(sprint);
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(today.minusDays(1));
+        lenient()
+                .when(
+                        analyticsRepository.sumRollupsPerDay(
+                                PROJECT_ID,
+                                null,
+                                SPRINT_ID,
+                                today.minusDays(10),
+                                today.minusDays(5)))
+                .thenReturn(List.of(rollup(today.minusDays(5), 2)));
+
+        List<BurndownPoint> burndown =
+                analyticsService().getProjectAnalytics(PROJECT_ID, SPRINT_ID).burndown();
+
+        assertThat(burndown).hasSize(6);
+        assertThat(burndown.getLast().remaining()).isEqualTo(2);
+        verify(analyticsRepository, never()).countOpenPerDay(any(), any(), any(), any(), any());
+    }
+
+    // ── Snapshot ─────────────────────────────────────────────────────────
+
+    @Test
+    void getCrossProjectAnalytics_admin_readsSnapshotInsteadOfTasksTable() {
+        readProperties.setEnabled(false);
+        UUID alice = UUID.randomUUID();
+        long[] statusCounts = new long[TaskStatus.values().length];
+        statusCounts[TaskStatus.OPEN.ordinal()] = 3;
+        when(taskSnapshotService.isReady()).thenReturn(true);
+        when(taskSnapshotService.countByStatus()).thenReturn(statusCounts);
+        when(taskSnapshotService.countByPriority())
+                .thenReturn(new long[Priority.values().length]);
+        when(taskSnapshotService.countByUserAndStatus())
+                .thenReturn(List.of(new UserStatusCount(alice, TaskStatus.OPEN, 3)));
+        when(taskSnapshotService.countOpenPerDay(any(), any())).thenReturn(new long[31]);
+        when(userQueryService.getNamesByIds(any())).thenReturn(Map.of(alice, "Alice"));
+
+        AnalyticsResponse response = analyticsService().getCrossProjectAnalytics(null);
+
+        assertThat(response.statusBreakdown().counts()).containsEntry("OPEN", 3L);
+        assertThat(response.workloadDistribution().assignees()).containsExactly("Alice");
+        assertThat(response.burndown()).hasSize(31);
+        verify(taskRepository, never()).count(any(Specification.class));
+        verify(analyticsRepository, never()).countByUserAndStatus(any(), any(), any());
+        verify(analyticsRepository, never()).countOpenPerDay(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getCrossProjectAnalytics_scoped_queriesDatabase() {
+        readProperties.setEnabled(false);
+        List<UUID> projectIds = List.of(PROJECT_ID);
+
+        analyticsService().getCrossProjectAnalytics(projectIds);
+
+        verify(analyticsRepository).countByUserAndStatus(null, projectIds, null);
+        verifyNoInteractions(taskSnapshotService);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────
+
+    private static DailyRollup rollup(LocalDate date, long open) {
+        return new DailyRollup(date, 0, 0, open, 0);
+    }
+}
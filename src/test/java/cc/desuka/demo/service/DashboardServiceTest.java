@@ -0,0 +1,206 @@
+package cc.desuka.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.audit.AuditLogService;
+import cc.desuka.demo.config.DashboardProperties;
+import cc.desuka.demo.config.ParallelReadProperties;
+import cc.desuka.demo.dto.DashboardStats;
+import cc.desuka.demo.dto.TaskCounterSnapshot;
+import cc.desuka.demo.dto.UserTaskCounts;
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.ProjectTaskStat;
+import cc.desuka.demo.model.Role;
+import cc.desuka.demo.model.Task;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.presence.PresenceService;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000010");
+    private static final UUID ADMIN_ID = UUID.fromString("00000000-0000-0000-0000-000000000011");
+
+    @Mock private TaskQueryService taskQueryService;
+    @Mock private ProjectQueryService projectQueryService;
+    @Mock private ProjectTaskStatsQueryService projectTaskStatsQueryService;
+    @Mock private AuditLogService auditLogService;
+    @Mock private PresenceService presenceService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final DashboardProperties properties = new DashboardProperties();
+    private final ParallelReadProperties readProperties = new ParallelReadProperties();
+
+    private User admin;
+    private User member;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        admin = new User("Alice", "alice@example.com", "password", Role.ADMIN);
+        admin.setId(ADMIN_ID);
+        member = new User("Bob", "bob@example.com", "password", Role.USER);
+        member.setId(USER_ID);
+
+        project = new Project("Test Project", "Description");
+        project.setId(PROJECT_ID);
+    }
+
+    private DashboardService dashboardService() {
+        return new DashboardService(
+                taskQueryService,
+                projectQueryService,
+                projectTaskStatsQueryService,
+                auditLogService,
+                presenceService,
+                properties,
+                new ParallelReads(readProperties, transactionManager));
+    }
+
+    private void stubCommonBranches(User user) {
+        when(projectTaskStatsQueryService.getStatsByProject(List.of(PROJECT_ID)))
+                .thenReturn(
+                        Map.of(
+                                PROJECT_ID,
+                                List.of(new ProjectTaskStat(PROJECT_ID, TaskStatus.OPEN, 4, 1))));
+        when(auditLogService.getRecentByActions(anyList())).thenReturn(List.of());
+        when(taskQueryService.getTitlesByIds(List.of())).thenReturn(Map.of());
+        when(taskQueryService.getRecentTasksByUser(user)).thenReturn(List.of());
+        when(taskQueryService.getDueSoon(user)).thenReturn(List.of());
+        when(presenceService.getOnlineCount()).thenReturn(5);
+    }
+
+    private void stubAdminCounts() {
+        when(projectQueryService.getActiveProjects()).thenReturn(List.of(project));
+        when(taskQueryService.getCounterSnapshot()).thenReturn(counterSnapshot());
+    }
+
+    private TaskCounterSnapshot counterSnapshot() {
+        return new TaskCounterSnapshot(
+                LocalDate.now(),
+                40,
+                12,
+                20,
+                3,
+                Map.of(ADMIN_ID, new UserTaskCounts(2, 1, 0, 3, 1)));
+    }
+
+    // ── Parallel mode ────────────────────────────────────────────────────
+
+    @Test
+    void buildStats_parallel_forksEachBranchOntoVirtualThreadInReadOnlyTransaction() {
+        stubCommonBranches(admin);
+        stubAdminCounts();
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean();
+        when(taskQueryService.getCounterSnapshot())
+                .thenAnswer(
+                        invocation -> {
+                            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+                            return counterSnapshot();
+                        });
+
+        DashboardStats stats = dashboardService().buildStats(admin, null);
+
+        assertThat(ranOnVirtualThread).isTrue();
+        assertThat(stats.myOpen()).isEqualTo(2);
+        assertThat(stats.myTotal()).isEqualTo(6);
+        assertThat(stats.totalTasks()).isEqualTo(40);
+        assertThat(stats.totalCompleted()).isEqualTo(20);
+        assertThat(stats.onlineCount()).isEqualTo(5);
+        assertThat(stats.projectSummaries())
+                .singleElement()
+                .satisfies(
+                        summary -> {
+                            assertThat(summary.openTasks()).isEqualTo(4);
+                            assertThat(summary.overdueTasks()).isEqualTo(1);
+                        });
+        assertThat(stats.editableProjects()).containsExactly(project);
+
+        // taskCounters (carries the admin's own counts), projects, activity, recentTasks, dueSoon
+        ArgumentCaptor<TransactionDefinition> definitions =
+                ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(5)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).allMatch(TransactionDefinition::isReadOnly);
+    }
+
+    @Test
+    void buildStats_parallel_nonAdmin_loadsEditableProjectsAndSkipsSystemCounts() {
+        stubCommonBranches(member);
+        when(taskQueryService.countsByUser(member)).thenReturn(new UserTaskCounts(2, 1, 0, 3, 1));
+        when(projectQueryService.getProjectsForUser(USER_ID)).thenReturn(List.of(project));
+        when(projectQueryService.getEditableProjectsForUser(USER_ID)).thenReturn(List.of());
+
+        DashboardStats stats = dashboardService().buildStats(member, List.of(PROJECT_ID));
+
+        assertThat(stats.myTotal()).isEqualTo(6);
+        assertThat(stats.totalTasks()).isZero();
+        assertThat(stats.editableProjects()).isEmpty();
+        verify(taskQueryService, never()).getCounterSnapshot();
+    }
+
+    @Test
+    void buildStats_parallel_branchMissesDeadline_rendersPartialWithoutWaiting() {
+        properties.setBranchTimeout(Duration.ofMillis(200));
+        stubCommonBranches(admin);
+        stubAdminCounts();
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskQueryService.getDueSoon(admin))
+                .thenAnswer(
+                        invocation -> {
+                            release.await(5, TimeUnit.SECONDS);
+                            return List.of(new Task("Late", null));
+                        });
+
+        DashboardStats stats = dashboardService().buildStats(admin, null);
+        release.countDown();
+
+        assertThat(stats.partial()).isTrue();
+        assertThat(stats.dueSoon()).isEmpty();
+        assertThat(stats.totalTasks()).isEqualTo(40);
+        assertThat(stats.projectSummaries()).hasSize(1);
+    }
+
+    // ── Sequential mode ──────────────────────────────────────────────────
+
+    @Test
+    void buildStats_sequential_runsAllBranchesInlineInOneTransaction() {
+        readProperties.setEnabled(false);
+        stubCommonBranches(admin);
+        stubAdminCounts();
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean(true);
+        when(taskQueryService.getCounterSnapshot())
+                .thenAnswer(
+                        invocation -> {
+                            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+                            return counterSnapshot();
+                        });
+
+        DashboardStats stats = dashboardService().buildStats(admin, null);
+
+        assertThat(ranOnVirtualThread).isFalse();
+        assertThat(stats.totalOpen()).isEqualTo(12);
+        assertThat(stats.totalOverdue()).isEqualTo(3);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+}
@@ -0,0 +1,261 @@
+package cc.desuka.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.broadcast.BroadcastBus;
+import cc.desuka.demo.config.NotificationProperties;
+import cc.desuka.demo.dto.NotificationResponse;
+import cc.desuka.demo.model.Notification;
+import cc.desuka.demo.model.NotificationType;
+import cc.desuka.demo.model.Role;
+import cc.desuka.demo.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ID_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID ID_3 = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Mock private NotificationService notificationService;
+    @Mock private BroadcastBus broadcastBus;
+
+    private final NotificationProperties properties = new NotificationProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = new User("Alice", "alice@example.com", "password", Role.ADMIN);
+        alice.setId(ID_1);
+        bob = new User("Bob", "bob@example.com", "password", Role.USER);
+        bob.setId(ID_2);
+        carol = new User("Carol", "carol@example.com", "password", Role.USER);
+        carol.setId(ID_3);
+        properties.setRetryBackoff(Duration.ZERO);
+    }
+
+    private NotificationDispatcher dispatcher() {
+        return new NotificationDispatcher(notificationService, broadcastBus, properties, registry);
+    }
+
+    private void submit(NotificationDispatcher dispatcher, User recipient, String message) {
+        dispatcher.submit(recipient, carol, NotificationType.COMMENT_ADDED, message, "/tasks/1");
+    }
+
+    /** Echoes each saved notification back as a response carrying its message. */
+    private void echoSaves() {
+        when(notificationService.createAll(anyList())).thenAnswer(NotificationDispatcherTest::echo);
+    }
+
+    private static List<NotificationResponse> echo(InvocationOnMock invocation) {
+        List<Notification> notifications = invocation.getArgument(0);
+        return notifications.stream().map(NotificationDispatcherTest::response).toList();
+    }
+
+    private static NotificationResponse response(Notification notification) {
+        NotificationResponse response = new NotificationResponse();
+        response.setMessage(notification.getMessage());
+        return response;
+    }
+
+    private double processed(String outcome) {
+        return registry.get("notifications.processed").tag("outcome", outcome).counter().count();
+    }
+
+    // ── submit ───────────────────────────────────────────────────────────
+
+    @Test
+    void submit_onlyQueues() {
+        NotificationDispatcher dispatcher = dispatcher();
+
+        submit(dispatcher, alice, "one");
+        submit(dispatcher, bob, "two");
+
+        assertThat(registry.get("notifications.queue.size").gauge().value()).isEqualTo(2);
+        verifyNoInteractions(notificationService, broadcastBus);
+    }
+
+    @Test
+    void submit_queueFull_createsOnCallerThread() {
+        properties.setQueueCapacity(1);
+        NotificationDispatcher dispatcher = dispatcher();
+
+        submit(dispatcher, alice, "queued");
+        submit(dispatcher, bob, "overflow");
+
+        verify(notificationService)
+                .create(bob, carol, NotificationType.COMMENT_ADDED, "overflow", "/tasks/1");
+        assertThat(processed("inline")).isEqualTo(1);
+    }
+
+    // ── flush ────────────────────────────────────────────────────────────
+
+    @Test
+    void flush_savesOnceAndPushesOneFramePerRecipient() {
+        echoSaves();
+        NotificationDispatcher dispatcher = dispatcher();
+        submit(dispatcher, alice, "a1");
+        submit(dispatcher, bob, "b1");
+        submit(dispatcher, alice, "a2");
+
+        dispatcher.flush();
+
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.captor();
+        verify(notificationService, times(1)).createAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(Notification::getMessage)
+                .containsExactly("a1", "b1", "a2");
+        ArgumentCaptor<List<NotificationResponse>> frame = ArgumentCaptor.captor();
+        verify(broadcastBus)
+                .convertAndSendToUser(
+                        eq("alice@example.com"), eq("/queue/notifications"), frame.capture());
+        assertThat(frame.getValue())
+                .extracting(NotificationResponse::getMessage)
+                .containsExactly("a1", "a2");
+        verify(broadcastBus)
+                .convertAndSendToUser(eq("bob@example.com"), eq("/queue/notifications"), any());
+        assertThat(processed("saved")).isEqualTo(3);
+        assertThat(registry.get("notifications.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void flush_splitsQueueIntoBatches() {
+        echoSaves();
+        properties.setBatchSize(2);
+        NotificationDispatcher dispatcher = dispatcher();
+        for (int i = 0; i < 5; i++) {
+            submit(dispatcher, alice, "n" + i);
+        }
+
+        dispatcher.flush();
+
+        verify(notificationService, times(3)).createAll(anyList());
+        verify(broadcastBus, times(3))
+                .convertAndSendToUser(eq("alice@example.com"), eq("/queue/notifications"), any());
+    }
+
+    @Test
+    void flush_nothingQueued_doesNothing() {
+        dispatcher().flush();
+
+        verifyNoInteractions(notificationService, broadcastBus);
+    }
+
+    // ── Failures ─────────────────────────────────────────────────────────
+
+    @Test
+    void flush_failedBatch_retriesOneByOneSoGoodRowsStillSave() {
+        when(notificationService.createAll(anyList()))
+                .thenAnswer(
+                        inv -> {
+                            List<Notification> notifications = inv.getArgument(0);
+                            if (notifications.stream().anyMatch(n -> n.getUser() == bob)) {
+                                throw new DataIntegrityViolationException("constraint violation");
+                            }
+                            return notifications.stream()
+                                    .map(NotificationDispatcherTest::response)
+                                    .toList();
+                        });
+        properties.setRetryBackoff(Duration.ofHours(1));
+        NotificationDispatcher dispatcher = dispatcher();
+        submit(dispatcher, alice, "good");
+        submit(dispatcher, bob, "bad");
+
+        dispatcher.flush();
+
+        verify(broadcastBus)
+                .convertAndSendToUser(eq("alice@example.com"), eq("/queue/notifications"), any());
+        verify(broadcastBus, never()).convertAndSendToUser(eq("bob@example.com"), any(), any());
+        assertThat(processed("saved")).isEqualTo(1);
+        assertThat(processed("retried")).isEqualTo(1);
+    }
+
+    @Test
+    void flush_failingNotification_droppedAfterMaxAttempts() {
+        properties.setMaxAttempts(2);
+        when(notificationService.createAll(anyList()))
+                .thenThrow(new IllegalStateException("database down"));
+        NotificationDispatcher dispatcher = dispatcher();
+        submit(dispatcher, alice, "doomed");
+
+        dispatcher.flush();
+        dispatcher.flush();
+        dispatcher.flush();
+
+        verify(notificationService, times(2)).createAll(anyList());
+        assertThat(processed("retried")).isEqualTo(1);
+        assertThat(processed("failed")).isEqualTo(1);
+        verifyNoInteractions(broadcastBus);
+    }
+
+    @Test
+    void flush_databaseUnreachable_requeuesWholeBatchAndStops() {
+        when(notificationService.createAll(anyList()))
+                .thenThrow(new CannotCreateTransactionException("pool exhausted"))
+                .thenAnswer(NotificationDispatcherTest::echo);
+        properties.setBatchSize(2);
+        NotificationDispatcher dispatcher = dispatcher();
+        for (int i = 0; i < 4; i++) {
+            submit(dispatcher, alice, "n" + i);
+        }
+
+        dispatcher.flush();
+
+        verify(notificationService, times(1)).createAll(anyList());
+        assertThat(processed("retried")).isEqualTo(2);
+        assertThat(registry.get("notifications.queue.size").gauge().value()).isEqualTo(2);
+
+        dispatcher.flush();
+
+        assertThat(processed("saved")).isEqualTo(4);
+        assertThat(processed("failed")).isZero();
+    }
+
+    @Test
+    void flush_retryQueueFull_dropsFurtherFailures() {
+        properties.setRetryCapacity(1);
+        properties.setRetryBackoff(Duration.ofHours(1));
+        when(notificationService.createAll(anyList()))
+                .thenThrow(new IllegalStateException("database down"));
+        NotificationDispatcher dispatcher = dispatcher();
+        submit(dispatcher, alice, "kept");
+        submit(dispatcher, bob, "dropped");
+
+        dispatcher.flush();
+
+        assertThat(processed("retried")).isEqualTo(1);
+        assertThat(processed("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void destroy_flushesWhatIsQueued() {
+        echoSaves();
+        NotificationDispatcher dispatcher = dispatcher();
+        submit(dispatcher, alice, "last");
+
+        dispatcher.destroy();
+
+        verify(notificationService).createAll(anyList());
+    }
+}
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import cc.desuka.demo.broadcast.BroadcastBus;
 import cc.desuka.demo.dto.NotificationResponse;
 import cc.desuka.demo.mapper.NotificationMapper;
 import cc.desuka.demo.model.Notification;
@@ -12,6 +13,7 @@ import cc.desuka.demo.model.NotificationType;
 import cc.desuka.demo.model.Role;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.NotificationRepository;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,7 +23,6 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationServiceTest {
@@ -31,7 +32,7 @@ class NotificationServiceTest {
 
     @Mock private NotificationRepository notificationRepository;
     @Mock private NotificationMapper notificationMapper;
-    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private BroadcastBus broadcastBus;
 
     @InjectMocks private NotificationService notificationService;
 
@@ -79,9 +80,28 @@ class NotificationServiceTest {
         assertThat(saved.getLink()).isEqualTo("/tasks/1/edit");
 
         // Verify pushed via WebSocket to recipient's email
-        verify(messagingTemplate)
+        verify(broadcastBus)
                 .convertAndSendToUser(
-                        eq("alice@example.com"), eq("/queue/notifications"), eq(response));
+                        eq("alice@example.com"), eq("/queue/notifications"), eq(List.of(response)));
+    }
+
+    // ── createAll ────────────────────────────────────────────────────────
+
+    @Test
+    void createAll_savesInOneCallWithoutPushing() {
+        List<Notification> notifications =
+                List.of(
+                        new Notification(alice, bob, NotificationType.TASK_UPDATED, "a", "/a"),
+                        new Notification(bob, alice, NotificationType.TASK_UPDATED, "b", "/b"));
+        List<NotificationResponse> responses =
+                List.of(new NotificationResponse(), new NotificationResponse());
+        when(notificationRepository.saveAll(notifications)).thenReturn(notifications);
+        when(notificationMapper.toResponseList(notifications)).thenReturn(responses);
+
+        assertThat(notificationService.createAll(notifications)).isEqualTo(responses);
+
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(broadcastBus);
     }
 
     // ── markAsRead ───────────────────────────────────────────────────────
@@ -0,0 +1,147 @@
+package cc.desuka.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.config.ParallelReadProperties;
+import cc.desuka.demo.service.ParallelReads.Pending;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelReadsTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ParallelReadProperties properties = new ParallelReadProperties();
+
+    private ParallelReads parallelReads() {
+        return new ParallelReads(properties, transactionManager);
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // ── Bounding ─────────────────────────────────────────────────────────
+
+    @Test
+    void fork_noPermitFree_runsOnCallingThread() {
+        properties.setMaxConnections(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        boolean[] virtual =
+                parallelReads()
+                        .run(
+                                TIMEOUT,
+                                scope -> {
+                                    Pending<Boolean> first =
+                                            scope.fork(
+                                                    "first",
+                                                    () -> {
+                                                        awaitQuietly(release);
+                                                        return Thread.currentThread().isVirtual();
+                                                    },
+                                                    false);
+                                    Pending<Boolean> second =
+                                            scope.fork(
+                                                    "second",
+                                                    () -> Thread.currentThread().isVirtual(),
+                                                    false);
+                                    release.countDown();
+                                    return new boolean[] {first.join(), second.join()};
+                                });
+
+        assertThat(virtual).containsExactly(true, false);
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void join_pastDeadline_returnsFallbackAndStragglerKeepsItsPermit() {
+        properties.setMaxConnections(1);
+        ParallelReads parallelReads = parallelReads();
+        CountDownLatch release = new CountDownLatch(1);
+
+        boolean partial =
+                parallelReads.run(
+                        Duration.ofMillis(100),
+                        scope -> {
+                            Pending<String> slow =
+                                    scope.fork(
+                                            "slow",
+                                            () -> {
+                                                awaitQuietly(release);
+                                                return "late";
+                                            },
+                                            "fallback");
+                            assertThat(slow.join()).isEqualTo("fallback");
+                            return scope.isPartial();
+                        });
+        // The straggler still holds the only permit, so the next read runs inline
+        boolean virtual =
+                parallelReads.run(
+                        TIMEOUT,
+                        scope ->
+                                scope.fork("next", () -> Thread.currentThread().isVirtual(), true)
+                                        .join());
+        release.countDown();
+
+        assertThat(partial).isTrue();
+        assertThat(virtual).isFalse();
+    }
+
+    @Test
+    void join_failedRead_rethrowsItsException() {
+        ParallelReads parallelReads = parallelReads();
+        Supplier<String> broken =
+                () -> {
+                    throw new IllegalStateException("boom");
+                };
+
+        assertThatThrownBy(
+                        () ->
+                                parallelReads.run(
+                                        TIMEOUT, scope -> scope.fork("broken", broken, "").join()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    // ── Sequential ───────────────────────────────────────────────────────
+
+    @Test
+    void run_disabled_runsReadsInlineInOneTransaction() {
+        properties.setEnabled(false);
+
+        boolean virtual =
+                parallelReads()
+                        .run(
+                                TIMEOUT,
+                                scope -> {
+                                    scope.fork("first", () -> "a", "");
+                                    return scope.fork(
+                                                    "second",
+                                                    () -> Thread.currentThread().isVirtual(),
+                                                    true)
+                                            .join();
+                                });
+
+        assertThat(virtual).isFalse();
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+}
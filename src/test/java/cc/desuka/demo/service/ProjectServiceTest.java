@@ -40,6 +40,8 @@ class ProjectServiceTest {
     @Mock private RecurringTaskTemplateService recurringTaskTemplateService;
     @Mock private RecentViewService recentViewService;
     @Mock private PinnedItemService pinnedItemService;
+    @Mock private ProjectTaskStatsService projectTaskStatsService;
+    @Mock private TaskDailyRollupService taskDailyRollupService;
     @Mock private ApplicationEventPublisher eventPublisher;
     @Mock private Messages messages;
 
@@ -89,6 +91,9 @@ class ProjectServiceTest {
             assertThat(owner.getRole()).isEqualTo(ProjectRole.OWNER);
             assertThat(owner.getUser()).isEqualTo(alice);
 
+            // Zeroed task counters for the new project
+            verify(projectTaskStatsService).initProject(ID_1);
+
             // Audit event published
             verify(eventPublisher).publishEvent(any(AuditEvent.class));
         }
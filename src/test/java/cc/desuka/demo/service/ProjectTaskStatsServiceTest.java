@@ -0,0 +1,163 @@
+package cc.desuka.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.model.Project;
+import cc.desuka.demo.model.ProjectTaskStat;
+import cc.desuka.demo.model.Task;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.repository.ProjectRepository;
+import cc.desuka.demo.repository.ProjectTaskStatRepository;
+import cc.desuka.demo.service.ProjectTaskStatsService.TaskState;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectTaskStatsServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID GONE_ID = UUID.fromString("00000000-0000-0000-0000-000000000099");
+
+    @Mock private ProjectTaskStatRepository projectTaskStatRepository;
+    @Mock private ProjectRepository projectRepository;
+
+    @InjectMocks private ProjectTaskStatsService projectTaskStatsService;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        Project project = new Project("Test Project", "Description");
+        project.setId(PROJECT_ID);
+
+        task = new Task("Test Task", "Description");
+        task.setProject(project);
+        task.setStatus(TaskStatus.OPEN);
+    }
+
+    // ── Task writes ──────────────────────────────────────────────────────
+
+    @Test
+    void recordCreated_overdueTask_incrementsBothCounters() {
+        task.setDueDate(LocalDate.now().minusDays(1));
+        when(projectTaskStatRepository.addCounts(PROJECT_ID, TaskStatus.OPEN, 1, 1)).thenReturn(1);
+
+        projectTaskStatsService.recordCreated(task);
+
+        verify(projectTaskStatRepository).addCounts(PROJECT_ID, TaskStatus.OPEN, 1, 1);
+        verify(projectTaskStatRepository, never()).save(any());
+    }
+
+    @Test
+    void recordChanged_statusChange_movesTaskBetweenBuckets() {
+        TaskState before = TaskState.of(task);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        when(projectTaskStatRepository.addCounts(any(), any(), anyLong(), anyLong()))
+                .thenReturn(1);
+
+        projectTaskStatsService.recordChanged(before, task);
+
+        verify(projectTaskStatRepository).addCounts(PROJECT_ID, TaskStatus.OPEN, -1, 0);
+        verify(projectTaskStatRepository).addCounts(PROJECT_ID, TaskStatus.IN_PROGRESS, 1, 0);
+    }
+
+    @Test
+    void recordChanged_completingOverdueTask_dropsOverdueCount() {
+        task.setDueDate(LocalDate.now().minusDays(3));
+        TaskState before = TaskState.of(task);
+        task.setStatus(TaskStatus.COMPLETED);
+        when(projectTaskStatRepository.addCounts(any(), any(), anyLong(), anyLong()))
+                .thenReturn(1);
+
+        projectTaskStatsService.recordChanged(before, task);
+
+        verify(projectTaskStatRepository).addCounts(PROJECT_ID, TaskStatus.OPEN, -1, -1);
+        verify(projectTaskStatRepository).addCounts(PROJECT_ID, TaskStatus.COMPLETED, 1, 0);
+    }
+
+    @Test
+    void recordChanged_unrelatedFieldChange_writesNothing() {
+        TaskState before = TaskState.of(task);
+        task.setTitle("Renamed");
+        task.setDueDate(LocalDate.now().plusDays(5));
+
+        projectTaskStatsService.recordChanged(before, task);
+
+        verifyNoInteractions(projectTaskStatRepository);
+    }
+
+    @Test
+    void recordCreated_missingRow_insertsIt() {
+        when(projectTaskStatRepository.addCounts(PROJECT_ID, TaskStatus.OPEN, 1, 0)).thenReturn(0);
+
+        projectTaskStatsService.recordCreated(task);
+
+        ArgumentCaptor<ProjectTaskStat> captor = ArgumentCaptor.forClass(ProjectTaskStat.class);
+        verify(projectTaskStatRepository).save(captor.capture());
+        assertThat(captor.getValue().getTaskCount()).isEqualTo(1);
+        assertThat(captor.getValue().getOverdueCount()).isZero();
+    }
+
+    // ── Maintenance ──────────────────────────────────────────────────────
+
+    @Test
+    void verifyAndRepair_fixesDriftInsertsMissingAndDropsOrphans() {
+        List<Object[]> live = new ArrayList<>();
+        live.add(new Object[] {PROJECT_ID, TaskStatus.OPEN, 3L});
+        List<Object[]> overdue = new ArrayList<>();
+        overdue.add(new Object[] {PROJECT_ID, TaskStatus.OPEN, 1L});
+        when(projectTaskStatRepository.countLiveByProjectAndStatus()).thenReturn(live);
+        when(projectTaskStatRepository.countLiveOverdueByProjectAndStatus(any(), anyCollection()))
+                .thenReturn(overdue);
+
+        ProjectTaskStat drifted = new ProjectTaskStat(PROJECT_ID, TaskStatus.OPEN, 2, 1);
+        List<ProjectTaskStat> stored = new ArrayList<>();
+        stored.add(drifted);
+        for (TaskStatus status : TaskStatus.values()) {
+            if (status != TaskStatus.OPEN && status != TaskStatus.CANCELLED) {
+                stored.add(new ProjectTaskStat(PROJECT_ID, status, 0, 0));
+            }
+        }
+        ProjectTaskStat orphan = new ProjectTaskStat(GONE_ID, TaskStatus.OPEN, 5, 0);
+        stored.add(orphan);
+        when(projectTaskStatRepository.findAll()).thenReturn(stored);
+        when(projectRepository.findAllIds()).thenReturn(List.of(PROJECT_ID));
+
+        int repaired = projectTaskStatsService.verifyAndRepair();
+
+        // OPEN corrected, CANCELLED row inserted, orphan removed
+        assertThat(repaired).isEqualTo(3);
+        assertThat(drifted.getTaskCount()).isEqualTo(3);
+        verify(projectTaskStatRepository).save(any(ProjectTaskStat.class));
+        verify(projectTaskStatRepository).deleteAll(List.of(orphan));
+    }
+
+    @Test
+    void verifyAndRepair_consistent_returnsZero() {
+        when(projectTaskStatRepository.countLiveByProjectAndStatus()).thenReturn(List.of());
+        when(projectTaskStatRepository.countLiveOverdueByProjectAndStatus(any(), anyCollection()))
+                .thenReturn(List.of());
+        List<ProjectTaskStat> stored = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            stored.add(new ProjectTaskStat(PROJECT_ID, status, 0, 0));
+        }
+        when(projectTaskStatRepository.findAll()).thenReturn(stored);
+        when(projectRepository.findAllIds()).thenReturn(List.of(PROJECT_ID));
+
+        assertThat(projectTaskStatsService.verifyAndRepair()).isZero();
+        verify(projectTaskStatRepository, never()).save(any());
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 import cc.desuka.demo.exception.EntityNotFoundException;
 import cc.desuka.demo.model.Tag;
 import cc.desuka.demo.repository.TagRepository;
+import cc.desuka.demo.typeahead.TypeaheadService;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -19,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class TagQueryServiceTest {
 
     @Mock private TagRepository tagRepository;
+    @Mock private TypeaheadService typeaheadService;
 
     @InjectMocks private TagQueryService tagQueryService;
 
@@ -30,6 +32,18 @@ class TagQueryServiceTest {
         assertThat(tagQueryService.getAllTags()).isEqualTo(tags);
     }
 
+    @Test
+    void suggestTags_returnsIndexOrder() {
+        Tag alpha = new Tag("Alpha");
+        alpha.setId(1L);
+        Tag alpine = new Tag("Alpine");
+        alpine.setId(2L);
+        when(typeaheadService.searchTagIds("alp", 10)).thenReturn(List.of(2L, 1L));
+        when(tagRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(alpha, alpine));
+
+        assertThat(tagQueryService.suggestTags("alp", 10)).containsExactly(alpine, alpha);
+    }
+
     @Test
     void getTagById_notFound_throws() {
         when(tagRepository.findById(99L)).thenReturn(Optional.empty());
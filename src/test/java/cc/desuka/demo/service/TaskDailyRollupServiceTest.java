@@ -0,0 +1,114 @@
+package cc.desuka.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.model.TaskDailyRollup;
+import cc.desuka.demo.repository.TaskDailyRollupRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDailyRollupServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 3, 2);
+    private static final LocalDate DAY_2 = DAY_1.plusDays(1);
+    private static final LocalDate DAY_3 = DAY_1.plusDays(2);
+
+    @Mock private TaskDailyRollupRepository taskDailyRollupRepository;
+
+    @InjectMocks private TaskDailyRollupService taskDailyRollupService;
+
+    // ── firstUnrolledDay ─────────────────────────────────────────────────
+
+    @Test
+    void firstUnrolledDay_continuesAfterLatestRollup() {
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(DAY_1);
+
+        assertThat(taskDailyRollupService.firstUnrolledDay()).isEqualTo(DAY_2);
+        verify(taskDailyRollupRepository, never()).findEarliestTaskCreatedAt();
+    }
+
+    @Test
+    void firstUnrolledDay_emptyTable_backfillsFromEarliestTask() {
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(null);
+        when(taskDailyRollupRepository.findEarliestTaskCreatedAt())
+                .thenReturn(DAY_1.atTime(14, 30));
+
+        assertThat(taskDailyRollupService.firstUnrolledDay()).isEqualTo(DAY_1);
+    }
+
+    @Test
+    void firstUnrolledDay_noTasks_returnsNull() {
+        when(taskDailyRollupRepository.findLatestRollupDate()).thenReturn(null);
+        when(taskDailyRollupRepository.findEarliestTaskCreatedAt()).thenReturn(null);
+
+        assertThat(taskDailyRollupService.firstUnrolledDay()).isNull();
+    }
+
+    // ── rollUp ───────────────────────────────────────────────────────────
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollUp_carriesOpenCountForwardAndSkipsIdleEmptyGroups() {
+        LocalDateTime from = DAY_1.atStartOfDay();
+        LocalDateTime until = DAY_3.plusDays(1).atStartOfDay();
+        // Sprint 7 starts with 2 open tasks; the sprint-less group starts empty
+        when(taskDailyRollupRepository.countOpenByProjectAndSprintAt(from))
+                .thenReturn(List.<Object[]>of(new Object[] {PROJECT_ID, 7L, 2L}));
+        // Day 1: sprint 7 gets 3 new tasks (one since cancelled); day 2: 1 sprint-less task
+        when(taskDailyRollupRepository.countCreatedByProjectSprintAndDay(from, until))
+                .thenReturn(
+                        List.of(
+                                new Object[] {PROJECT_ID, 7L, DAY_1, 3L, 2L},
+                                new Object[] {PROJECT_ID, null, DAY_2, 1L, 1L}));
+        // Day 2: sprint 7 completes 4 tasks (effort 9), so it ends the day empty;
+        // day 3: the sprint-less task completes (no effort)
+        when(taskDailyRollupRepository.countCompletedByProjectSprintAndDay(from, until))
+                .thenReturn(
+                        List.of(
+                                new Object[] {PROJECT_ID, 7L, DAY_2, 4L, 9L},
+                                new Object[] {PROJECT_ID, null, DAY_3, 1L, 0L}));
+
+        int written = taskDailyRollupService.rollUp(DAY_1, DAY_3);
+
+        ArgumentCaptor<List<TaskDailyRollup>> saved = ArgumentCaptor.forClass(List.class);
+        // The rows are replaced under the rollup lock, so an overlapping run cannot double them
+        InOrder writes = inOrder(taskDailyRollupRepository);
+        writes.verify(taskDailyRollupRepository).lockForRollup();
+        writes.verify(taskDailyRollupRepository).deleteByRollupDateBetween(DAY_1, DAY_3);
+        writes.verify(taskDailyRollupRepository).saveAll(saved.capture());
+        List<TaskDailyRollup> rows =
+                saved.getValue().stream()
+                        .sorted(
+                                Comparator.comparing(TaskDailyRollup::getRollupDate)
+                                        .thenComparing(r -> r.getSprintId() == null))
+                        .toList();
+        assertThat(written).isEqualTo(4);
+        assertThat(rows)
+                .extracting(
+                        TaskDailyRollup::getRollupDate,
+                        TaskDailyRollup::getSprintId,
+                        TaskDailyRollup::getCreatedCount,
+                        TaskDailyRollup::getCompletedCount,
+                        TaskDailyRollup::getOpenCount,
+                        TaskDailyRollup::getEffortCompleted)
+                .containsExactly(
+                        tuple(DAY_1, 7L, 3L, 0L, 4L, 0L),
+                        tuple(DAY_2, 7L, 0L, 4L, 0L, 9L),
+                        tuple(DAY_2, null, 1L, 0L, 1L, 0L),
+                        tuple(DAY_3, null, 0L, 1L, 0L, 0L));
+    }
+}
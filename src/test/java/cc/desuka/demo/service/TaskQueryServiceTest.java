@@ -4,6 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
+import cc.desuka.demo.dto.CursorPage;
+import cc.desuka.demo.dto.TaskCardView;
+import cc.desuka.demo.dto.TaskCounterSnapshot;
+import cc.desuka.demo.dto.TaskCursor;
+import cc.desuka.demo.dto.TaskItem;
+import cc.desuka.demo.dto.TaskSearchCriteria;
+import cc.desuka.demo.dto.UserTaskCounts;
 import cc.desuka.demo.exception.EntityNotFoundException;
 import cc.desuka.demo.model.Priority;
 import cc.desuka.demo.model.Project;
@@ -12,6 +19,9 @@ import cc.desuka.demo.model.Task;
 import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.TaskRepository;
+import cc.desuka.demo.search.TaskScopeVersions;
+import cc.desuka.demo.search.TaskSearchCache;
+import cc.desuka.demo.typeahead.TypeaheadService;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -23,7 +33,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 class TaskQueryServiceTest {
@@ -34,6 +51,10 @@ class TaskQueryServiceTest {
     private static final UUID ID_99 = UUID.fromString("00000000-0000-0000-0000-000000000099");
 
     @Mock private TaskRepository taskRepository;
+    @Mock private TypeaheadService typeaheadService;
+    private final TaskScopeVersions taskScopeVersions = new TaskScopeVersions();
+
+    @Spy private TaskSearchCache taskSearchCache = new TaskSearchCache(taskScopeVersions);
 
     @InjectMocks private TaskQueryService taskQueryService;
 
@@ -120,6 +141,214 @@ class TaskQueryServiceTest {
         assertThat(result).containsExactly(task);
     }
 
+    @Test
+    void searchTasks_paged_selectsIdPageThenFetchesInIdOrder() {
+        Task second = new Task("Second", "");
+        second.setId(ID_2);
+        when(taskRepository.findIds(any(), any(Sort.class), eq(2L), eq(2)))
+                .thenReturn(List.of(ID_2, ID_1));
+        when(taskRepository.findByIdIn(List.of(ID_2, ID_1))).thenReturn(List.of(task, second));
+        when(taskRepository.count(any(Specification.class))).thenReturn(5L);
+
+        Page<Task> result =
+                taskQueryService.searchTasks(new TaskSearchCriteria(), PageRequest.of(1, 2));
+
+        assertThat(result.getContent()).containsExactly(second, task);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(taskRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchTasks_unpaged_loadsEverythingInOneQuery() {
+        when(taskRepository.findAll(any(Specification.class), eq(Pageable.unpaged())))
+                .thenReturn(new PageImpl<>(List.of(task)));
+
+        Page<Task> result =
+                taskQueryService.searchTasks(new TaskSearchCriteria(), Pageable.unpaged());
+
+        assertThat(result.getContent()).containsExactly(task);
+        verify(taskRepository, never()).findIds(any(), any(), anyLong(), anyInt());
+    }
+
+    // ── searchTaskCards ──────────────────────────────────────────────────
+
+    private static TaskCardView card(UUID id, String title) {
+        return new TaskCardView(
+                id,
+                0L,
+                title,
+                null,
+                TaskStatus.OPEN,
+                Priority.MEDIUM,
+                null,
+                null,
+                null,
+                null,
+                false,
+                0,
+                0,
+                new TaskCardView.ProjectRef(ID_99, "Project"),
+                null,
+                List.of());
+    }
+
+    @Test
+    void searchTaskCards_paged_projectsIdPageInIdOrder() {
+        TaskCardView first = card(ID_1, "First");
+        TaskCardView second = card(ID_2, "Second");
+        when(taskRepository.findIds(any(), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(ID_2, ID_1));
+        when(taskRepository.findCardViews(any(), eq(Sort.unsorted())))
+                .thenReturn(List.of(first, second));
+        when(taskRepository.count(any(Specification.class))).thenReturn(3L);
+
+        Page<TaskCardView> result =
+                taskQueryService.searchTaskCards(new TaskSearchCriteria(), PageRequest.of(0, 2));
+
+        assertThat(result.getContent()).containsExactly(second, first);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        verify(taskRepository, never()).findByIdIn(any());
+    }
+
+    @Test
+    void searchTaskCards_repeatedSearch_reusesCachedIdsAndCountUntilProjectChanges() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.forProject(ID_99);
+        when(taskRepository.findIds(any(), any(Sort.class), eq(0L), eq(1)))
+                .thenReturn(List.of(ID_1));
+        when(taskRepository.findCardViews(any(), eq(Sort.unsorted())))
+                .thenReturn(List.of(card(ID_1, "First")));
+        when(taskRepository.count(any(Specification.class))).thenReturn(4L);
+
+        taskQueryService.searchTaskCards(criteria, PageRequest.of(0, 1));
+        Page<TaskCardView> cached =
+                taskQueryService.searchTaskCards(criteria, PageRequest.of(0, 1));
+
+        assertThat(cached.getTotalElements()).isEqualTo(4);
+        verify(taskRepository, times(1)).findIds(any(), any(Sort.class), eq(0L), eq(1));
+        verify(taskRepository, times(1)).count(any(Specification.class));
+        // Rows are always projected fresh; only the ID page is reused
+        verify(taskRepository, times(2)).findCardViews(any(), eq(Sort.unsorted()));
+
+        taskScopeVersions.bumpProject(ID_99);
+        taskQueryService.searchTaskCards(criteria, PageRequest.of(0, 1));
+
+        verify(taskRepository, times(2)).findIds(any(), any(Sort.class), eq(0L), eq(1));
+    }
+
+    @Test
+    void searchTaskCards_unpaged_projectsEverythingInOneQuery() {
+        TaskCardView view = card(ID_1, "Only");
+        when(taskRepository.findCardViews(any(), any(Sort.class))).thenReturn(List.of(view));
+
+        Page<TaskCardView> result =
+                taskQueryService.searchTaskCards(new TaskSearchCriteria(), Pageable.unpaged());
+
+        assertThat(result.getContent()).containsExactly(view);
+        verify(taskRepository, never()).findIds(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchTaskCards_cursor_issuesNextCursorFromLastView() {
+        TaskCardView first = card(ID_1, "First");
+        when(taskRepository.findIds(any(), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(ID_1, ID_2));
+        when(taskRepository.findCardViews(any(), eq(Sort.unsorted()))).thenReturn(List.of(first));
+
+        CursorPage<TaskCardView> result =
+                taskQueryService.searchTaskCards(
+                        new TaskSearchCriteria(), null, 1, Sort.by(Task.FIELD_TITLE));
+
+        assertThat(result.content()).containsExactly(first);
+        Sort.Order order = Sort.Order.asc(Task.FIELD_TITLE);
+        assertThat(TaskCursor.decode(result.nextCursor(), order).id()).isEqualTo(ID_1);
+    }
+
+    @Test
+    void searchTaskCards_malformedCursor_startsAtFirstWindow() {
+        TaskCardView first = card(ID_1, "First");
+        when(taskRepository.findIds(any(), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(ID_1));
+        when(taskRepository.findCardViews(any(), eq(Sort.unsorted()))).thenReturn(List.of(first));
+
+        CursorPage<TaskCardView> result =
+                taskQueryService.searchTaskCards(
+                        new TaskSearchCriteria(), "not-a-cursor!", 1, Sort.by(Task.FIELD_TITLE));
+
+        assertThat(result.content()).containsExactly(first);
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchTasks_malformedCursor_isRejected() {
+        assertThatThrownBy(
+                        () ->
+                                taskQueryService.searchTasks(
+                                        new TaskSearchCriteria(),
+                                        "not-a-cursor!",
+                                        1,
+                                        Sort.by(Task.FIELD_TITLE)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(taskRepository);
+    }
+
+    // ── Dashboard counters ───────────────────────────────────────────────
+
+    @Test
+    void countsByUser_mapsSinglePassRow() {
+        when(taskRepository.countDashboardCountersForUser(eq(ID_1), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {ID_1, 7L, 2L, 1L, 1L, 3L, 1L}));
+
+        UserTaskCounts counts = taskQueryService.countsByUser(task.getUser());
+
+        assertThat(counts).isEqualTo(new UserTaskCounts(2, 1, 1, 3, 1));
+        assertThat(counts.total()).isEqualTo(7);
+    }
+
+    @Test
+    void countsByUser_noTasks_returnsZeros() {
+        when(taskRepository.countDashboardCountersForUser(eq(ID_1), any(), any()))
+                .thenReturn(List.of());
+
+        assertThat(taskQueryService.countsByUser(task.getUser())).isEqualTo(UserTaskCounts.NONE);
+    }
+
+    @Test
+    void getCounterSnapshot_foldsAssigneeRowsIntoTotals_andIsSharedUntilExpiry() {
+        when(taskRepository.countDashboardCounters(any(), any()))
+                .thenReturn(
+                        List.of(
+                                new Object[] {ID_1, 6L, 2L, 1L, 0L, 2L, 1L},
+                                new Object[] {null, 4L, 3L, 0L, 0L, 0L, 2L}));
+
+        TaskCounterSnapshot snapshot = taskQueryService.getCounterSnapshot();
+        TaskCounterSnapshot again = taskQueryService.getCounterSnapshot();
+
+        assertThat(snapshot.total()).isEqualTo(10);
+        assertThat(snapshot.open()).isEqualTo(5);
+        assertThat(snapshot.completed()).isEqualTo(2);
+        assertThat(snapshot.overdue()).isEqualTo(3);
+        assertThat(snapshot.forUser(ID_1)).isEqualTo(new UserTaskCounts(2, 1, 0, 2, 1));
+        assertThat(snapshot.forUser(ID_2)).isEqualTo(UserTaskCounts.NONE);
+        assertThat(again).isSameAs(snapshot);
+        verify(taskRepository, times(1)).countDashboardCounters(any(), any());
+    }
+
+    // ── searchByTitleForDependency ───────────────────────────────────────
+
+    @Test
+    void searchByTitleForDependency_usesTypeaheadIndex() {
+        TaskItem item = new TaskItem(ID_2, "Deploy", "OPEN");
+        when(typeaheadService.searchTasks(
+                        ID_1, "dep", Set.of(ID_3), TaskQueryService.DEPENDENCY_SEARCH_LIMIT))
+                .thenReturn(List.of(item));
+
+        List<TaskItem> result =
+                taskQueryService.searchByTitleForDependency(ID_1, "dep", List.of(ID_3));
+
+        assertThat(result).containsExactly(item);
+        verifyNoInteractions(taskRepository);
+    }
+
     // ── getActiveBlockers / hasActiveBlockers ────────────────────────────
 
     @Test
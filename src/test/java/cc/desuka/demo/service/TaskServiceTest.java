@@ -2,6 +2,7 @@ package cc.desuka.demo.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
@@ -47,6 +48,7 @@ class TaskServiceTest {
     @Mock private UserQueryService userQueryService;
     @Mock private RecentViewService recentViewService;
     @Mock private PinnedItemService pinnedItemService;
+    @Mock private ProjectTaskStatsService projectTaskStatsService;
     @Mock private ApplicationEventPublisher eventPublisher;
     @Mock private Messages messages;
 
@@ -138,6 +140,31 @@ class TaskServiceTest {
         }
     }
 
+    @Test
+    void createTask_withChecklist_syncsChecklistCounters() {
+        when(tagQueryService.findAllByIds(any())).thenReturn(Set.of());
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        try (var mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentPrincipal).thenReturn("alice@example.com");
+            mocked.when(SecurityUtils::getCurrentUser).thenReturn(alice);
+
+            Task newTask = new Task("Checklist", null);
+            newTask.setProject(project);
+            Task result =
+                    taskService.createTask(
+                            newTask,
+                            null,
+                            null,
+                            List.of("one", " ", "two", "three"),
+                            List.of(true, false, false, true));
+
+            assertThat(result.getChecklistItems()).hasSize(3);
+            assertThat(result.getChecklistTotal()).isEqualTo(3);
+            assertThat(result.getChecklistChecked()).isEqualTo(2);
+        }
+    }
+
     // ── updateTask ──────────────────────────────────────────────────────
 
     @Test
@@ -178,6 +205,35 @@ class TaskServiceTest {
         }
     }
 
+    // ── updateField ─────────────────────────────────────────────────────
+
+    @Test
+    void updateField_publishesPushDeltaWithChangedFieldAndVersion() {
+        when(taskQueryService.getTaskById(ID_1)).thenReturn(task);
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        try (var mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentPrincipal).thenReturn("alice@example.com");
+            mocked.when(SecurityUtils::getCurrentUser).thenReturn(alice);
+
+            taskService.updateField(ID_1, Task.FIELD_TITLE, "Renamed");
+
+            // Flushed before publishing so the delta carries the committed version
+            verify(taskRepository).flush();
+            ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+            verify(eventPublisher, atLeastOnce()).publishEvent(captor.capture());
+            TaskPushEvent push =
+                    captor.getAllValues().stream()
+                            .filter(TaskPushEvent.class::isInstance)
+                            .map(TaskPushEvent.class::cast)
+                            .findFirst()
+                            .orElseThrow();
+            assertThat(push.action()).isEqualTo(TaskPushEvent.ACTION_UPDATED);
+            assertThat(push.version()).isEqualTo(0L);
+            assertThat(push.changes()).containsExactly(entry(Task.FIELD_TITLE, "Renamed"));
+        }
+    }
+
     // ── deleteTask ──────────────────────────────────────────────────────
 
     @Test
@@ -210,6 +266,11 @@ class TaskServiceTest {
             Task result = taskService.advanceStatus(ID_1);
 
             assertThat(result.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+            // Counters move out of the previous status bucket
+            verify(projectTaskStatsService)
+                    .recordChanged(
+                            new ProjectTaskStatsService.TaskState(ID_1, TaskStatus.OPEN, null),
+                            result);
         }
     }
 
@@ -10,6 +10,7 @@ import cc.desuka.demo.model.TaskStatus;
 import cc.desuka.demo.model.User;
 import cc.desuka.demo.repository.RecurringTaskTemplateRepository;
 import cc.desuka.demo.repository.UserRepository;
+import cc.desuka.demo.typeahead.TypeaheadService;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +33,7 @@ class UserQueryServiceTest {
     @Mock private TaskQueryService taskQueryService;
     @Mock private CommentQueryService commentQueryService;
     @Mock private ProjectQueryService projectQueryService;
+    @Mock private TypeaheadService typeaheadService;
 
     @InjectMocks private UserQueryService userQueryService;
 
@@ -119,6 +121,23 @@ class UserQueryServiceTest {
         assertThat(result).containsExactly(alice);
     }
 
+    // ── suggestEnabledUsers ──────────────────────────────────────────────
+
+    @Test
+    void suggestEnabledUsers_returnsUsersInIndexOrder() {
+        when(typeaheadService.searchEnabledUserIds("b", 5)).thenReturn(List.of(ID_2, ID_1));
+        when(userRepository.findAllById(List.of(ID_2, ID_1))).thenReturn(List.of(alice, bob));
+
+        assertThat(userQueryService.suggestEnabledUsers("b", 5)).containsExactly(bob, alice);
+    }
+
+    @Test
+    void suggestEnabledUsers_blankQuery_returnsAllEnabled() {
+        when(userRepository.findByEnabledTrueOrderByNameAsc()).thenReturn(List.of(alice, bob));
+
+        assertThat(userQueryService.suggestEnabledUsers(" ", 5)).containsExactly(alice, bob);
+    }
+
     // ── canDelete ────────────────────────────────────────────────────────
 
     @Test
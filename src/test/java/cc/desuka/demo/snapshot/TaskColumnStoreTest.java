@@ -0,0 +1,178 @@
+package cc.desuka.demo.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cc.desuka.demo.dto.AnalyticsProjection.UserCount;
+import cc.desuka.demo.dto.AnalyticsProjection.UserStatusCount;
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.TaskStatus;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskColumnStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+    private static final UUID PROJECT_A = UUID.randomUUID();
+    private static final UUID PROJECT_B = UUID.randomUUID();
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+
+    private TaskColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TaskColumnStore();
+    }
+
+    private static TaskFact fact(
+            UUID id,
+            UUID projectId,
+            UUID userId,
+            TaskStatus status,
+            LocalDate created,
+            LocalDate completed,
+            LocalDate due,
+            Integer effort) {
+        return new TaskFact(
+                id,
+                projectId,
+                userId,
+                status,
+                Priority.MEDIUM,
+                created.atTime(9, 0),
+                completed != null ? completed.atTime(17, 0) : null,
+                due,
+                effort != null ? effort.shortValue() : null);
+    }
+
+    private static TaskFact open(UUID projectId, UUID userId) {
+        return fact(
+                UUID.randomUUID(),
+                projectId,
+                userId,
+                TaskStatus.OPEN,
+                TODAY.minusDays(5),
+                null,
+                null,
+                null);
+    }
+
+    // ── Writes ───────────────────────────────────────────────────────────
+
+    @Test
+    void put_sameIdReplacesRow() {
+        UUID id = UUID.randomUUID();
+        store.put(fact(id, PROJECT_A, ALICE, TaskStatus.OPEN, TODAY, null, null, null));
+        store.put(fact(id, PROJECT_A, BOB, TaskStatus.COMPLETED, TODAY, TODAY, null, null));
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.countByUserAndStatus())
+                .containsExactly(new UserStatusCount(BOB, TaskStatus.COMPLETED, 1));
+    }
+
+    @Test
+    void remove_movesLastRowIntoGap() {
+        TaskFact first = open(PROJECT_A, ALICE);
+        TaskFact last = open(PROJECT_A, BOB);
+        store.put(first);
+        store.put(open(PROJECT_A, ALICE));
+        store.put(last);
+
+        store.remove(first.id());
+        store.remove(last.id());
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.taskIdsAssignedTo(BOB)).isEmpty();
+        assertThat(store.taskIdsAssignedTo(ALICE)).hasSize(1);
+    }
+
+    @Test
+    void removeProject_dropsOnlyThatProjectsRows() {
+        store.put(open(PROJECT_A, ALICE));
+        store.put(open(PROJECT_B, ALICE));
+        store.put(open(PROJECT_A, BOB));
+
+        store.removeProject(PROJECT_A);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.taskIdsInProject(PROJECT_A)).isEmpty();
+        assertThat(store.taskIdsInProject(PROJECT_B)).hasSize(1);
+    }
+
+    @Test
+    void put_growsPastInitialCapacity() {
+        for (int i = 0; i < 5_000; i++) {
+            store.put(open(PROJECT_A, i % 2 == 0 ? ALICE : null));
+        }
+
+        assertThat(store.size()).isEqualTo(5_000);
+        assertThat(store.countByStatus()[TaskStatus.OPEN.ordinal()]).isEqualTo(5_000);
+    }
+
+    // ── Aggregations ─────────────────────────────────────────────────────
+
+    @Test
+    void countByUserAndStatus_groupsUnassignedUnderNull() {
+        store.put(open(PROJECT_A, ALICE));
+        store.put(open(PROJECT_B, ALICE));
+        store.put(open(PROJECT_A, null));
+
+        assertThat(store.countByUserAndStatus())
+                .containsExactlyInAnyOrder(
+                        new UserStatusCount(ALICE, TaskStatus.OPEN, 2),
+                        new UserStatusCount(null, TaskStatus.OPEN, 1));
+    }
+
+    @Test
+    void countOverdueByUser_skipsTerminalAndNotYetDue() {
+        LocalDate created = TODAY.minusDays(10);
+        LocalDate yesterday = TODAY.minusDays(1);
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        UUID id3 = UUID.randomUUID();
+        UUID id4 = UUID.randomUUID();
+        store.put(fact(id1, PROJECT_A, ALICE, TaskStatus.OPEN, created, null, yesterday, null));
+        store.put(fact(id2, PROJECT_A, ALICE, TaskStatus.OPEN, created, null, TODAY, null));
+        store.put(
+                fact(id3, PROJECT_A, BOB, TaskStatus.CANCELLED, created, null, yesterday, null));
+        store.put(fact(id4, PROJECT_A, null, TaskStatus.OPEN, created, null, yesterday, null));
+
+        assertThat(store.countOverdueByUser(TODAY))
+                .containsExactlyInAnyOrder(new UserCount(ALICE, 1), new UserCount(null, 1));
+    }
+
+    @Test
+    void sumEffortByUser_ignoresTasksWithoutEffort() {
+        store.put(withEffort(ALICE, 3));
+        store.put(withEffort(ALICE, 5));
+        store.put(withEffort(BOB, null));
+
+        assertThat(store.sumEffortByUser()).containsExactly(new UserCount(ALICE, 8));
+    }
+
+    @Test
+    void countOpenPerDay_countsTasksOpenAtEndOfEachDay() {
+        LocalDate from = TODAY.minusDays(3);
+        // Created before the window, completed on day 1 → open on day 0 only
+        store.put(lifespan(TaskStatus.COMPLETED, TODAY.minusDays(7), from.plusDays(1)));
+        // Created on day 2, still open
+        store.put(lifespan(TaskStatus.OPEN, from.plusDays(2), null));
+        // Cancelled tasks never count
+        store.put(lifespan(TaskStatus.CANCELLED, TODAY.minusDays(7), null));
+        // Created after the window
+        store.put(lifespan(TaskStatus.OPEN, TODAY.plusDays(1), null));
+
+        assertThat(store.countOpenPerDay(from, TODAY)).containsExactly(1, 0, 1, 1);
+    }
+
+    private static TaskFact withEffort(UUID userId, Integer effort) {
+        return fact(
+                UUID.randomUUID(), PROJECT_A, userId, TaskStatus.OPEN, TODAY, null, null, effort);
+    }
+
+    private static TaskFact lifespan(TaskStatus status, LocalDate created, LocalDate completed) {
+        return fact(UUID.randomUUID(), PROJECT_A, ALICE, status, created, completed, null, null);
+    }
+}
@@ -0,0 +1,81 @@
+package cc.desuka.demo.snapshot;
+
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.broadcast.DataChange;
+import cc.desuka.demo.event.TaskPushEvent;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSnapshotEventListenerTest {
+
+    private static final UUID TASK = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID PROJECT = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @Mock private TaskSnapshotService taskSnapshotService;
+
+    private TaskSnapshotEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new TaskSnapshotEventListener(taskSnapshotService);
+    }
+
+    private static DataChange task(String action) {
+        return new DataChange(DataChange.TASK, TASK.toString(), action, PROJECT);
+    }
+
+    @Test
+    void onDataChange_taskUpdate_refreshesTask() {
+        listener.onDataChange(task(TaskPushEvent.ACTION_UPDATED));
+
+        verify(taskSnapshotService).refreshTask(TASK);
+        verifyNoMoreInteractions(taskSnapshotService);
+    }
+
+    @Test
+    void onDataChange_taskDelete_removesTask() {
+        listener.onDataChange(task(TaskPushEvent.ACTION_DELETED));
+
+        verify(taskSnapshotService).removeTask(TASK);
+        verifyNoMoreInteractions(taskSnapshotService);
+    }
+
+    @Test
+    void onDataChange_userChange_refreshesUsersTasks() {
+        listener.onDataChange(
+                new DataChange("User", USER.toString(), AuditEvent.USER_DELETED, null));
+
+        verify(taskSnapshotService).refreshUser(USER);
+    }
+
+    @Test
+    void onDataChange_projectChanges_removeOrRefreshProject() {
+        listener.onDataChange(
+                new DataChange(
+                        "Project", PROJECT.toString(), AuditEvent.PROJECT_MEMBER_REMOVED, null));
+        listener.onDataChange(
+                new DataChange("Project", PROJECT.toString(), AuditEvent.PROJECT_DELETED, null));
+        listener.onDataChange(
+                new DataChange("Project", PROJECT.toString(), AuditEvent.PROJECT_UPDATED, null));
+
+        verify(taskSnapshotService).refreshProject(PROJECT);
+        verify(taskSnapshotService).removeProject(PROJECT);
+        verifyNoMoreInteractions(taskSnapshotService);
+    }
+
+    @Test
+    void onDataChange_everything_rebuilds() {
+        listener.onDataChange(DataChange.everything());
+
+        verify(taskSnapshotService).rebuild();
+        verifyNoMoreInteractions(taskSnapshotService);
+    }
+}
@@ -0,0 +1,142 @@
+package cc.desuka.demo.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.model.Priority;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.repository.TaskRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSnapshotServiceTest {
+
+    private static final UUID TASK_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID TASK_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID PROJECT = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @Mock private TaskRepository taskRepository;
+
+    private static TaskFact fact(UUID id, TaskStatus status) {
+        return new TaskFact(
+                id,
+                PROJECT,
+                null,
+                status,
+                Priority.MEDIUM,
+                LocalDateTime.of(2026, 3, 1, 9, 0),
+                null,
+                null,
+                null);
+    }
+
+    private static long count(TaskSnapshotService service, TaskStatus status) {
+        return service.countByStatus()[status.ordinal()];
+    }
+
+    @Test
+    void rebuild_refreshDuringBuild_replayedOntoNewStore() {
+        TaskSnapshotService service = new TaskSnapshotService(taskRepository);
+        // TASK_1 is streamed as OPEN, then completed by a write that commits mid-build
+        when(taskRepository.streamSnapshotFacts())
+                .thenReturn(
+                        Stream.of(fact(TASK_1, TaskStatus.OPEN), fact(TASK_2, TaskStatus.OPEN))
+                                .peek(
+                                        fact -> {
+                                            if (fact.id().equals(TASK_2)) {
+                                                service.refreshTask(TASK_1);
+                                            }
+                                        }));
+        when(taskRepository.findSnapshotFacts(List.of(TASK_1)))
+                .thenReturn(List.of(fact(TASK_1, TaskStatus.COMPLETED)));
+        when(taskRepository.findSnapshotFacts(Set.of(TASK_1)))
+                .thenReturn(List.of(fact(TASK_1, TaskStatus.COMPLETED)));
+
+        service.rebuild();
+
+        assertThat(service.isReady()).isTrue();
+        assertThat(count(service, TaskStatus.COMPLETED)).isEqualTo(1);
+        assertThat(count(service, TaskStatus.OPEN)).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_removalDuringBuild_replayedOntoNewStore() {
+        TaskSnapshotService service = new TaskSnapshotService(taskRepository);
+        when(taskRepository.streamSnapshotFacts())
+                .thenReturn(
+                        Stream.of(fact(TASK_1, TaskStatus.OPEN), fact(TASK_2, TaskStatus.OPEN))
+                                .peek(
+                                        fact -> {
+                                            if (fact.id().equals(TASK_2)) {
+                                                service.removeTask(TASK_1);
+                                            }
+                                        }));
+        when(taskRepository.findSnapshotFacts(Set.of(TASK_1))).thenReturn(List.of());
+
+        service.rebuild();
+
+        assertThat(count(service, TaskStatus.OPEN)).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_refreshRacingTheSwap_alwaysReachesNewStore() throws Exception {
+        // The refresh starts as the stream closes, racing the swap and the end of journaling;
+        // whichever side of it the refresh lands on, the new store must end up with the write
+        lenient()
+                .when(taskRepository.findSnapshotFacts(List.of(TASK_1)))
+                .thenReturn(List.of(fact(TASK_1, TaskStatus.COMPLETED)));
+        lenient()
+                .when(taskRepository.findSnapshotFacts(Set.of(TASK_1)))
+                .thenReturn(List.of(fact(TASK_1, TaskStatus.COMPLETED)));
+        for (int run = 0; run < 200; run++) {
+            TaskSnapshotService service = new TaskSnapshotService(taskRepository);
+            CountDownLatch streamed = new CountDownLatch(1);
+            when(taskRepository.streamSnapshotFacts())
+                    .thenReturn(
+                            Stream.of(fact(TASK_1, TaskStatus.OPEN)).onClose(streamed::countDown));
+            Thread writer =
+                    Thread.ofPlatform()
+                            .start(
+                                    () -> {
+                                        try {
+                                            streamed.await(5, TimeUnit.SECONDS);
+                                        } catch (InterruptedException e) {
+                                            Thread.currentThread().interrupt();
+                                        }
+                                        service.refreshTask(TASK_1);
+                                    });
+
+            service.rebuild();
+            writer.join(5000);
+
+            assertThat(count(service, TaskStatus.COMPLETED)).as("run %d", run).isEqualTo(1);
+            assertThat(count(service, TaskStatus.OPEN)).as("run %d", run).isZero();
+        }
+    }
+
+    @Test
+    void refreshTask_afterRebuild_updatesLiveStore() {
+        TaskSnapshotService service = new TaskSnapshotService(taskRepository);
+        when(taskRepository.streamSnapshotFacts())
+                .thenReturn(Stream.of(fact(TASK_1, TaskStatus.OPEN)));
+        service.rebuild();
+        when(taskRepository.findSnapshotFacts(List.of(TASK_1)))
+                .thenReturn(List.of(fact(TASK_1, TaskStatus.IN_PROGRESS)));
+
+        service.refreshTask(TASK_1);
+
+        assertThat(count(service, TaskStatus.IN_PROGRESS)).isEqualTo(1);
+        verify(taskRepository, times(1)).findSnapshotFacts(any());
+    }
+}
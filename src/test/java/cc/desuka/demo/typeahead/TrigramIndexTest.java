@@ -0,0 +1,118 @@
+package cc.desuka.demo.typeahead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<Integer, String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+    }
+
+    private List<String> search(String query, int limit) {
+        return index.search(query, limit, v -> true, Comparator.naturalOrder());
+    }
+
+    // ── Matching ─────────────────────────────────────────────────────────
+
+    @Test
+    void search_substringMatchIsCaseInsensitive() {
+        index.put(1, "Fix login bug", "Fix login bug");
+        index.put(2, "Add dashboard", "Add dashboard");
+
+        assertThat(search("LOGIN", 10)).containsExactly("Fix login bug");
+    }
+
+    @Test
+    void search_shortQueryMatchesWordPrefixes() {
+        index.put(1, "Deploy API", "Deploy API");
+        index.put(2, "Update docs", "Update docs");
+
+        assertThat(search("ap", 10)).containsExactly("Deploy API");
+        assertThat(search("d", 10)).containsExactly("Deploy API", "Update docs");
+    }
+
+    @Test
+    void search_trigramsMustBeContiguous() {
+        index.put(1, "abc xyz bcd", "abc xyz bcd");
+
+        assertThat(search("abcd", 10)).isEmpty();
+    }
+
+    @Test
+    void search_blankQueryReturnsTieBreakOrder() {
+        index.put(1, "b", "b");
+        index.put(2, "a", "a");
+
+        assertThat(search("  ", 10)).containsExactly("a", "b");
+    }
+
+    // ── Ranking ──────────────────────────────────────────────────────────
+
+    @Test
+    void search_ranksExactThenPrefixThenWordStartThenSubstring() {
+        index.put(1, "unscheduled", "unscheduled");
+        index.put(2, "the schedule", "the schedule");
+        index.put(3, "schedule review", "schedule review");
+        index.put(4, "schedule", "schedule");
+
+        assertThat(search("schedule", 10))
+                .containsExactly("schedule", "schedule review", "the schedule", "unscheduled");
+    }
+
+    @Test
+    void search_earlierTextOutranksLaterText() {
+        index.put(1, "Bob (ali@example.com)", "Bob", "ali@example.com");
+        index.put(2, "Zed Alistair", "Zed Alistair", "zed@example.com");
+
+        assertThat(search("ali", 10)).containsExactly("Zed Alistair", "Bob (ali@example.com)");
+    }
+
+    @Test
+    void search_limitKeepsBestMatches() {
+        index.put(1, "report draft", "report draft");
+        index.put(2, "report", "report");
+        index.put(3, "old report", "old report");
+
+        assertThat(search("report", 2)).containsExactly("report", "report draft");
+    }
+
+    @Test
+    void search_filterExcludesValues() {
+        index.put(1, "alpha one", "alpha one");
+        index.put(2, "alpha two", "alpha two");
+
+        assertThat(
+                        index.search(
+                                "alpha", 10, v -> !v.endsWith("one"), Comparator.naturalOrder()))
+                .containsExactly("alpha two");
+    }
+
+    // ── Maintenance ──────────────────────────────────────────────────────
+
+    @Test
+    void put_replacesPreviousTexts() {
+        index.put(1, "old title", "old title");
+        index.put(1, "new title", "new title");
+
+        assertThat(search("old", 10)).isEmpty();
+        assertThat(search("new", 10)).containsExactly("new title");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_dropsEntry() {
+        index.put(1, "gone", "gone");
+        index.remove(1);
+
+        assertThat(search("gon", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,66 @@
+package cc.desuka.demo.typeahead;
+
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.audit.AuditEvent;
+import cc.desuka.demo.broadcast.DataChange;
+import cc.desuka.demo.event.TaskPushEvent;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TypeaheadEventListenerTest {
+
+    private static final UUID TASK = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID PROJECT = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @Mock private TypeaheadService typeaheadService;
+
+    private TypeaheadEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new TypeaheadEventListener(typeaheadService);
+    }
+
+    @Test
+    void onDataChange_taskChanges_refreshOrRemoveTask() {
+        listener.onDataChange(
+                new DataChange(
+                        DataChange.TASK, TASK.toString(), TaskPushEvent.ACTION_UPDATED, PROJECT));
+        listener.onDataChange(
+                new DataChange(
+                        DataChange.TASK, TASK.toString(), TaskPushEvent.ACTION_DELETED, PROJECT));
+
+        verify(typeaheadService).refreshTask(TASK);
+        verify(typeaheadService).removeTask(TASK);
+        verifyNoMoreInteractions(typeaheadService);
+    }
+
+    @Test
+    void onDataChange_userTagAndProjectChanges_applied() {
+        listener.onDataChange(
+                new DataChange("User", USER.toString(), AuditEvent.USER_DISABLED, null));
+        listener.onDataChange(new DataChange("Tag", "7", AuditEvent.TAG_DELETED, null));
+        listener.onDataChange(
+                new DataChange("Project", PROJECT.toString(), AuditEvent.PROJECT_DELETED, null));
+
+        verify(typeaheadService).refreshUser(USER);
+        verify(typeaheadService).refreshTag(7L);
+        verify(typeaheadService).removeProject(PROJECT);
+        verifyNoMoreInteractions(typeaheadService);
+    }
+
+    @Test
+    void onDataChange_everything_rebuilds() {
+        listener.onDataChange(DataChange.everything());
+
+        verify(typeaheadService).rebuild();
+        verifyNoMoreInteractions(typeaheadService);
+    }
+}
@@ -0,0 +1,95 @@
+package cc.desuka.demo.typeahead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import cc.desuka.demo.dto.TaskItem;
+import cc.desuka.demo.model.Role;
+import cc.desuka.demo.model.Tag;
+import cc.desuka.demo.model.TaskStatus;
+import cc.desuka.demo.model.User;
+import cc.desuka.demo.repository.TagRepository;
+import cc.desuka.demo.repository.TaskRepository;
+import cc.desuka.demo.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TypeaheadServiceTest {
+
+    private static final UUID TASK = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID PROJECT = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private TagRepository tagRepository;
+
+    private TypeaheadService service() {
+        return new TypeaheadService(taskRepository, userRepository, tagRepository);
+    }
+
+    private static TaskEntry task(String title) {
+        return new TaskEntry(
+                TASK, title, TaskStatus.OPEN, LocalDateTime.of(2026, 3, 1, 9, 0), PROJECT);
+    }
+
+    private static User alice() {
+        User alice = new User("Alice", "alice@example.com", "password", Role.USER);
+        alice.setId(ALICE);
+        return alice;
+    }
+
+    private static Tag tag() {
+        Tag tag = new Tag("backend");
+        tag.setId(7L);
+        return tag;
+    }
+
+    @Test
+    void rebuild_dropsUsersAndTagsGoneSinceLastBuild() {
+        TypeaheadService service = service();
+        when(taskRepository.findTypeaheadEntries()).thenReturn(List.of());
+        when(userRepository.findByEnabledTrueOrderByNameAsc())
+                .thenReturn(List.of(alice()))
+                .thenReturn(List.of());
+        when(tagRepository.findAll()).thenReturn(List.of(tag())).thenReturn(List.of());
+        service.rebuild();
+        assertThat(service.searchEnabledUserIds("alice", 5)).containsExactly(ALICE);
+        assertThat(service.searchTagIds("backend", 5)).containsExactly(7L);
+
+        service.rebuild();
+
+        assertThat(service.searchEnabledUserIds("alice", 5)).isEmpty();
+        assertThat(service.searchTagIds("backend", 5)).isEmpty();
+    }
+
+    @Test
+    void rebuild_updateDuringBuild_replayedOntoNewIndex() {
+        TypeaheadService service = service();
+        // Streamed with the old title, then renamed by a write that commits mid-build
+        when(taskRepository.findTypeaheadEntries()).thenReturn(List.of(task("Draft report")));
+        when(taskRepository.findTypeaheadEntry(TASK))
+                .thenReturn(Optional.of(task("Quarterly report")));
+        when(userRepository.findByEnabledTrueOrderByNameAsc())
+                .thenAnswer(
+                        invocation -> {
+                            service.refreshTask(TASK);
+                            return List.of();
+                        });
+        when(tagRepository.findAll()).thenReturn(List.of());
+
+        service.rebuild();
+
+        assertThat(service.searchTasks(PROJECT, "quarterly", null, 5))
+                .extracting(TaskItem::title)
+                .containsExactly("Quarterly report");
+        assertThat(service.searchTasks(PROJECT, "draft", null, 5)).isEmpty();
+    }
+}